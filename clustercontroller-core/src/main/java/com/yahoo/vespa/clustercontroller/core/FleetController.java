@@ -857,8 +857,17 @@ public class FleetController implements NodeListener, SlobrokListener, SystemSta
     private boolean recomputeClusterStateIfRequired() {
         boolean stateWasChanged = false;
         if (mustRecomputeCandidateClusterState()) {
+            final boolean baselineMayHaveChanged = stateChangeHandler.stateMayHaveChanged() || atFirstClusterStateSendTimeEdge();
             stateChangeHandler.unsetStateChangedFlag();
-            final AnnotatedClusterState candidate = computeCurrentAnnotatedState();
+            final long startNanos = System.nanoTime();
+            // Only the derived bucket space states depend on merge completion, so when only that has
+            // changed, the baseline state of the latest candidate is used instead of generating it again.
+            // This is the only reuse: any node state change regenerates the baseline state for all nodes,
+            // as there is no incremental computation of the state for a few changed nodes.
+            final AnnotatedClusterState candidate = baselineMayHaveChanged || ! stateVersionTracker.hasLatestCandidateState()
+                    ? computeCurrentAnnotatedState()
+                    : stateVersionTracker.getLatestCandidateState().clone();
+            final long generatedNanos = System.nanoTime();
             // TODO test multiple bucket spaces configured
             // TODO what interaction do we want between generated and derived states wrt. auto group take-downs?
             final ClusterStateBundle candidateBundle = ClusterStateBundle.builder(candidate)
@@ -869,6 +878,8 @@ public class FleetController implements NodeListener, SlobrokListener, SystemSta
                     .feedBlock(createResourceExhaustionCalculator()
                             .inferContentClusterFeedBlockOrNull(cluster))
                     .deriveAndBuild();
+            metricUpdater.updateClusterStateComputationTime(Duration.ofNanos(generatedNanos - startNanos),
+                                                            Duration.ofNanos(System.nanoTime() - generatedNanos));
             stateVersionTracker.updateLatestCandidateStateBundle(candidateBundle);
             invokeCandidateStateListeners(candidateBundle);
 
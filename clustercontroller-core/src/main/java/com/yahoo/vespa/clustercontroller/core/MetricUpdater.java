@@ -128,6 +128,15 @@ public class MetricUpdater {
         }
     }
 
+    /**
+     * Sets the time spent generating the baseline cluster state, and deriving the bucket space states from it.
+     * Both are done sequentially on the tick thread, so these tell whether that is a problem for large clusters.
+     */
+    public void updateClusterStateComputationTime(Duration generation, Duration derivation) {
+        metricReporter.set("state-generation-ms", generation.toNanos() / 1_000_000.);
+        metricReporter.set("state-derivation-ms", derivation.toNanos() / 1_000_000.);
+    }
+
     public void recordNewNodeEvent() {
         // TODO(hakonhall): Replace add() with a persistent aggregate metric.
         metricReporter.add("node-event", 1);
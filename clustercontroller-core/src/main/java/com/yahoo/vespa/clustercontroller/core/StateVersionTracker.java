@@ -28,6 +28,7 @@ public class StateVersionTracker {
     private ClusterStateBundle currentUnversionedState = ClusterStateBundle.ofBaselineOnly(AnnotatedClusterState.emptyState());
     private ClusterStateBundle latestCandidateState = ClusterStateBundle.ofBaselineOnly(AnnotatedClusterState.emptyState());
     private ClusterStateBundle currentClusterState = latestCandidateState;
+    private boolean hasLatestCandidateState = false;
 
     private ClusterStateView clusterStateView;
     private final ClusterStatsChangeTracker clusterStatsChangeTracker;
@@ -60,6 +61,7 @@ public class StateVersionTracker {
         currentClusterState = bundle;
         currentUnversionedState = ClusterStateBundle.empty();
         latestCandidateState = ClusterStateBundle.empty();
+        hasLatestCandidateState = false;
     }
 
     /**
@@ -108,6 +110,7 @@ public class StateVersionTracker {
     public void updateLatestCandidateStateBundle(final ClusterStateBundle candidateBundle) {
         assert(latestCandidateState.getBaselineClusterState().getVersion() == 0);
         latestCandidateState = candidateBundle;
+        hasLatestCandidateState = true;
         clusterStatsChangeTracker.syncAggregatedStats();
     }
 
@@ -125,6 +128,11 @@ public class StateVersionTracker {
         return latestCandidateState;
     }
 
+    /** Returns whether a candidate state has been provided since this was created or had its state restored */
+    boolean hasLatestCandidateState() {
+        return hasLatestCandidateState;
+    }
+
     public List<ClusterStateHistoryEntry> getClusterStateHistory() {
         return clusterStateHistory.getHistory();
     }
@@ -94,6 +94,16 @@ public class StateVersionTrackerTest {
         assertTrue(versionTracker.candidateChangedEnoughFromCurrentToWarrantPublish());
     }
 
+    @Test
+    void candidate_state_is_tracked_until_state_is_restored_from_zookeeper() {
+        final StateVersionTracker versionTracker = createWithMockedMetrics();
+        assertFalse(versionTracker.hasLatestCandidateState());
+        versionTracker.updateLatestCandidateStateBundle(stateBundleWithoutAnnotations("distributor:2 storage:2"));
+        assertTrue(versionTracker.hasLatestCandidateState());
+        versionTracker.setClusterStateBundleRetrievedFromZooKeeper(stateBundleWithoutAnnotations("distributor:2 storage:2"));
+        assertFalse(versionTracker.hasLatestCandidateState());
+    }
+
     private static boolean stateChangedBetween(String fromState, String toState) {
         final StateVersionTracker versionTracker = createWithMockedMetrics();
         updateAndPromote(versionTracker, stateWithoutAnnotations(fromState), 123);
@@ -55,7 +55,10 @@ import java.io.StringReader;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
 import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -67,7 +70,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -98,6 +103,8 @@ public class FilesApplicationPackage extends AbstractApplicationPackage {
     private static final Logger log = Logger.getLogger(FilesApplicationPackage.class.getName());
     private static final String META_FILE_NAME = ".applicationMetaData";
     private static final Map<Path, Set<String>> validFileExtensions;
+    /** Directories modified more recently than this may be modified again without changing their modification time */
+    private static final Duration listingCacheDelay = Duration.ofSeconds(1);
 
     private final File appDir;
     private final File preprocessedDir;
@@ -108,6 +115,7 @@ public class FilesApplicationPackage extends AbstractApplicationPackage {
     private final ApplicationMetaData metaData;
     private final boolean includeSourceFiles;
     private final TransformerFactory transformerFactory;
+    private final Map<File, Listing> listings = new ConcurrentHashMap<>();
 
     private DeploymentSpec deploymentSpec = null;
 
@@ -198,16 +206,13 @@ public class FilesApplicationPackage extends AbstractApplicationPackage {
             File dir = applicationFile(appDir, relativePath);
             if ( ! dir.isDirectory()) return readers;
 
-            File[] files = dir.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    if (file.isDirectory()) {
-                        if (recurse)
-                            readers.addAll(getFiles(relativePath.append(file.getName()), namePrefix + "/" + file.getName(), suffix, recurse));
-                    } else {
-                        if (suffix == null || file.getName().endsWith(suffix))
-                            readers.add(new NamedReader(file.getName(), new FileReader(file)));
-                    }
+            for (File file : listFiles(dir)) {
+                if (file.isDirectory()) {
+                    if (recurse)
+                        readers.addAll(getFiles(relativePath.append(file.getName()), namePrefix + "/" + file.getName(), suffix, recurse));
+                } else {
+                    if (suffix == null || file.getName().endsWith(suffix))
+                        readers.add(new NamedReader(file.getName(), new FileReader(file)));
                 }
             }
             return readers;
@@ -377,7 +382,7 @@ public class FilesApplicationPackage extends AbstractApplicationPackage {
         if (! configDefsDir.isDirectory()) return;
 
         log.log(Level.FINE, () -> "Getting all config definitions from '" + configDefsDir + "'");
-        for (File def : configDefsDir.listFiles((File dir, String name) -> name.matches(".*\\.def"))) {
+        for (File def : listFiles(configDefsDir, file -> file.getName().matches(".*\\.def"))) {
             String[] nv = def.getName().split("\\.def");
             ConfigDefinitionKey key;
             try {
@@ -432,22 +437,38 @@ public class FilesApplicationPackage extends AbstractApplicationPackage {
         }
     }
 
-    static List<File> getSearchDefinitionFiles(File appDir) {
+    public List<File> getSearchDefinitionFiles() {
         List<File> schemaFiles = new ArrayList<>();
+        for (Path schemasDir : List.of(SEARCH_DEFINITIONS_DIR, SCHEMAS_DIR))
+            schemaFiles.addAll(listFiles(applicationFile(appDir, schemasDir.getRelative()), file -> validSchemaFilename(file.getName())));
+        return schemaFiles;
+    }
 
-        File sdDir = applicationFile(appDir, SEARCH_DEFINITIONS_DIR.getRelative());
-        if (sdDir.isDirectory())
-            schemaFiles.addAll(List.of(sdDir.listFiles((dir, name) -> validSchemaFilename(name))));
-
-        sdDir = applicationFile(appDir, SCHEMAS_DIR.getRelative());
-        if (sdDir.isDirectory())
-            schemaFiles.addAll(List.of(sdDir.listFiles((dir, name) -> validSchemaFilename(name))));
+    /**
+     * Returns the files in the given directory of this, or an empty list if it is not a directory.
+     * Listings are cached, and reused as long as the modification time of the directory is unchanged,
+     * unless the directory was modified so recently that this cannot be trusted.
+     */
+    private List<File> listFiles(File dir) {
+        FileTime modified;
+        try {
+            modified = Files.getLastModifiedTime(dir.toPath());
+        } catch (IOException e) {
+            return List.of(); // Does not exist
+        }
+        Listing listing = listings.get(dir);
+        if (listing != null && listing.modified().equals(modified)) return listing.files();
 
-        return schemaFiles;
+        File[] files = dir.listFiles();
+        if (files == null) return List.of(); // Not a directory
+        listing = new Listing(modified, List.of(files));
+        if (modified.toInstant().isBefore(Instant.now().minus(listingCacheDelay)))
+            listings.put(dir, listing);
+        return listing.files();
     }
 
-    public List<File> getSearchDefinitionFiles() {
-        return getSearchDefinitionFiles(appDir);
+    private List<File> listFiles(File dir, Predicate<File> filter) {
+        return listFiles(dir).stream().filter(filter).toList();
     }
 
     // Only for use by deploy processor
@@ -788,18 +809,11 @@ public class FilesApplicationPackage extends AbstractApplicationPackage {
 
     private void validateInDir(java.nio.file.Path subDir) {
         java.nio.file.Path path = appDir.toPath().resolve(subDir);
-        File subDirectory = path.toFile();
-        if ( ! subDirectory.exists() || ! subDirectory.isDirectory()) return;
-
-        try (var filesInPath = Files.list(path)) {
-            filesInPath.forEach(filePath -> {
-                if (filePath.toFile().isDirectory())
-                    validateInDir(appDir.toPath().relativize(filePath));
-                else
-                    validateFileExtensions(filePath);
-            });
-        } catch (IOException e) {
-            log.log(Level.WARNING, "Unable to list files in " + subDirectory, e);
+        for (File file : listFiles(path.toFile())) {
+            if (file.isDirectory())
+                validateInDir(appDir.toPath().relativize(file.toPath()));
+            else
+                validateFileExtensions(file.toPath());
         }
     }
 
@@ -855,6 +869,8 @@ public class FilesApplicationPackage extends AbstractApplicationPackage {
         return validExtensions;
     }
 
+    private record Listing(FileTime modified, List<File> files) { }
+
     private boolean isSchemasSubDir(java.nio.file.Path relativeDirectory) {
         java.nio.file.Path schemasPath = SCHEMAS_DIR.toFile().toPath().getName(0);
         java.nio.file.Path searchDefinitionsPath = SEARCH_DEFINITIONS_DIR.toFile().toPath().getName(0);
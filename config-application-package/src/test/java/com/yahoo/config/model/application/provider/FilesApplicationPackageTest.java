@@ -14,6 +14,8 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 
 import static com.yahoo.config.model.application.provider.FilesApplicationPackage.applicationFile;
 import static org.junit.Assert.assertEquals;
@@ -182,4 +184,22 @@ public class FilesApplicationPackageTest {
         }
     }
 
+    @Test
+    public void testListingsAreUpdatedWhenDirectoriesChange() throws IOException {
+        File appDir = temporaryFolder.newFolder();
+        IOUtils.copyDirectory(new File("src/test/resources/app-with-deployment"), appDir);
+        File schemasDir = applicationFile(appDir, ApplicationPackage.SCHEMAS_DIR);
+        FileTime old = FileTime.from(Instant.now().minusSeconds(60));
+        Files.setLastModifiedTime(schemasDir.toPath(), old);
+        FilesApplicationPackage app = FilesApplicationPackage.fromFile(appDir);
+        int schemas = app.getSchemas().size();
+        assertEquals(schemas, app.getSearchDefinitionFiles().size());
+
+        IOUtils.writeFile(new File(schemasDir, "added.sd"), "schema added { document added { } }", false);
+        assertEquals(schemas + 1, app.getSchemas().size());
+
+        new File(schemasDir, "added.sd").delete();
+        assertEquals(schemas, app.getSchemas().size());
+    }
+
 }
@@ -0,0 +1,19 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.config;
+
+/**
+ * A config builder which can set its fields from a config payload directly, instead of through reflection.
+ * This is implemented by all generated config builders.
+ *
+ * @author agent
+ */
+public interface PayloadApplicable extends ConfigBuilder {
+
+    /**
+     * Sets the field with the given name in this to the given value.
+     *
+     * @return whether this has a field with the given name
+     */
+    boolean applyField(String name, PayloadValue value);
+
+}
@@ -0,0 +1,40 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.config;
+
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A value in a config payload, as seen by a {@link PayloadApplicable} builder.
+ * References to files, urls and models are resolved by the implementation of this.
+ *
+ * @author agent
+ */
+public interface PayloadValue {
+
+    /** Returns this leaf value as a string, or null if it is empty */
+    String asString();
+
+    /** Returns this leaf value as a resolved path */
+    FileReference asPath();
+
+    /** Returns this leaf value as a resolved path, or empty if the value is an empty string */
+    Optional<FileReference> asOptionalPath();
+
+    /** Returns this leaf value as a resolved url */
+    UrlReference asUrl();
+
+    /** Returns this leaf value as a resolved model reference, or null if the value is an empty string */
+    ModelReference asModel();
+
+    /** Sets each field of this struct in the given builder */
+    void applyTo(PayloadApplicable builder);
+
+    /** Calls the given consumer with each element of this array, or with this if it is not an array */
+    void forEachElement(Consumer<PayloadValue> consumer);
+
+    /** Calls the given consumer with the key and value of each entry of this map */
+    void forEachEntry(BiConsumer<String, PayloadValue> consumer);
+
+}
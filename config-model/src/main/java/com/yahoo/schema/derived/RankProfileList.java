@@ -27,7 +27,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 /**
  * The derived rank profiles of a schema
@@ -113,14 +113,19 @@ public class RankProfileList extends Derived {
                                                             AttributeFields attributeFields,
                                                             ModelContext.Properties deployProperties,
                                                             ExecutorService executor) {
-        Map<String, Future<RawRankProfile>> futureRawRankProfiles = new LinkedHashMap<>();
+        Map<String, FutureTask<RawRankProfile>> futureRawRankProfiles = new LinkedHashMap<>();
         for (RankProfile profile : profiles) {
-            futureRawRankProfiles.put(profile.name(), executor.submit(() -> new RawRankProfile(profile, largeRankingExpressions, queryProfiles, importedModels,
-                                                                                               attributeFields, deployProperties)));
+            var futureRawRankProfile = new FutureTask<>(() -> new RawRankProfile(profile, largeRankingExpressions, queryProfiles, importedModels,
+                                                                                 attributeFields, deployProperties));
+            executor.execute(futureRawRankProfile);
+            futureRawRankProfiles.put(profile.name(), futureRawRankProfile);
         }
         try {
             Map<String,  RawRankProfile> rawRankProfiles = new LinkedHashMap<>();
-            for (Future<RawRankProfile> rawFuture : futureRawRankProfiles.values()) {
+            for (FutureTask<RawRankProfile> rawFuture : futureRawRankProfiles.values()) {
+                // Derive in this thread if no executor thread has started yet, as this may itself run
+                // in the executor (when schemas are derived in parallel), which could otherwise deadlock
+                rawFuture.run();
                 RawRankProfile rawRank = rawFuture.get();
                 rawRankProfiles.put(rawRank.getName(), rawRank);
             }
@@ -20,7 +20,8 @@ public class FederationOptionsBuilder {
                         setUseByDefault(readUseByDefault(spec)).
                         setOptional(readOptional(spec)).
                         setTimeoutInMilliseconds(readTimeout(spec)).
-                        setRequestTimeoutInMilliseconds(readRequestTimeout(spec));
+                        setRequestTimeoutInMilliseconds(readRequestTimeout(spec)).
+                        setHedgeAfterInMilliseconds(readHedgeAfter(spec));
     }
 
 
@@ -40,6 +41,14 @@ public class FederationOptionsBuilder {
                 TimeParser.asMilliSeconds(requestTimeout);
     }
 
+    private Integer readHedgeAfter(Element spec) {
+        String hedgeAfter = spec.getAttribute("hedgeAfter");
+
+        return (hedgeAfter.isEmpty())?
+                null :
+                TimeParser.asMilliSeconds(hedgeAfter);
+    }
+
     private Boolean readOptional(Element spec) {
         String optional = spec.getAttribute("optional");
         return (optional.isEmpty()) ?
@@ -32,6 +32,8 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 /**
  * Represents a search cluster.
@@ -126,10 +128,18 @@ public abstract class SearchCluster extends TreeConfigProducer<AnyConfigProducer
      * Also stores the document names contained in the schemas.
      */
     public void deriveFromSchemas(DeployState deployState) {
+        // Schemas are derived in parallel on the deploy state executor, and then added in order
+        Map<SchemaInfo, FutureTask<DerivedConfiguration>> derivations = new LinkedHashMap<>();
         for (SchemaInfo spec : schemas().values()) {
             if (spec.fullSchema() instanceof DocumentOnlySchema) continue; // TODO verify if this special handling is necessary
+            var derivation = new FutureTask<>(() -> new DerivedConfiguration(deployState, spec.fullSchema(), spec.getIndexMode()));
+            deployState.getExecutor().execute(derivation);
+            derivations.put(spec, derivation);
+        }
+        for (var entry : derivations.entrySet()) {
+            SchemaInfo spec = entry.getKey();
             String schemaName = spec.fullSchema().getName();
-            var derived = new DerivedConfiguration(deployState, spec.fullSchema(), spec.getIndexMode());
+            var derived = await(entry.getValue());
             documentDbs.put(schemaName, new DocumentDatabase(this, schemaName, derived));
             if (spec.getIndexMode() == SchemaInfo.IndexMode.STREAMING) {
                 var parent = (TreeConfigProducer<AnyConfigProducer>)getParent();
@@ -139,6 +149,20 @@ public abstract class SearchCluster extends TreeConfigProducer<AnyConfigProducer
         }
     }
 
+    private static DerivedConfiguration await(FutureTask<DerivedConfiguration> derivation) {
+        derivation.run(); // Derive in this thread if no executor thread has started yet
+        try {
+            return derivation.get();
+        }
+        catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException(e);
+        }
+    }
+
     /** Returns the document databases contained in this cluster */
     public List<DocumentDatabase> getDocumentDbs() {
         return documentDbs.values().stream().toList();
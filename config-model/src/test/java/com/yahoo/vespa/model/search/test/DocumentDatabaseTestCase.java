@@ -20,6 +20,8 @@ import org.junit.jupiter.api.Test;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -232,6 +234,22 @@ public class DocumentDatabaseTestCase {
         }
     }
 
+    @Test
+    void testSchemasDerivedInParallel() {
+        List<String> sds = List.of("type1", "type2", "type3", "type4", "type5");
+        // Fewer threads than schemas, so that rank profiles of some schemas are derived while all threads are busy
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            var model = new SchemaTester().createModelWithMode("index", sds, new DeployState.Builder().executor(executor));
+            assertEquals(5, model.getSearchClusters().get(0).getDocumentDbs().size());
+            for (int i = 0; i < sds.size(); i++)
+                assertDocTypeConfig(model, "test/search/cluster.test/" + sds.get(i), "f" + (2 * i + 1), "f" + (2 * i + 2));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void testRankingConstants() {
         List<String> schemas = List.of("type1");
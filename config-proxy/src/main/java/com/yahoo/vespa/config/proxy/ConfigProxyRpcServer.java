@@ -17,6 +17,7 @@ import com.yahoo.security.tls.CapabilitySet;
 import com.yahoo.vespa.config.JRTMethods;
 import com.yahoo.vespa.config.RawConfig;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequest;
+import com.yahoo.vespa.config.protocol.JRTServerConfigRequestBatchV3;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequestV3;
 
 import java.util.Arrays;
@@ -82,6 +83,8 @@ public class ConfigProxyRpcServer implements Runnable, TargetWatcher {
     private void declareConfigMethods() {
         supervisor.addMethod(JRTMethods.createConfigV3GetConfigMethod(this::getConfigV3)
                                      .requireCapabilities(Capability.CONFIGPROXY__CONFIG_API));
+        supervisor.addMethod(JRTMethods.createConfigV3GetConfigsMethod(this::getConfigsV3)
+                                     .requireCapabilities(Capability.CONFIGPROXY__CONFIG_API));
         supervisor.addMethod(new Method("ping", "", "i",
                 this::ping)
                 .requireCapabilities(CapabilitySet.none())
@@ -145,6 +148,19 @@ public class ConfigProxyRpcServer implements Runnable, TargetWatcher {
         });
     }
 
+    /**
+     * Handles RPC method "config.v3.getConfigs" requests.
+     *
+     * @param req a Request
+     */
+    private void getConfigsV3(Request req) {
+        dispatchRpcRequest(req, () -> {
+            JRTServerConfigRequestBatchV3 batch = JRTServerConfigRequestBatchV3.createFromRequest(req);
+            req.target().addWatcher(this);
+            getConfigsImpl(batch);
+        });
+    }
+
     /**
      * Returns 0 if server is alive.
      *
@@ -286,6 +302,33 @@ public class ConfigProxyRpcServer implements Runnable, TargetWatcher {
         }
     }
 
+    /**
+     * Handles a batch of "getConfig" requests, which is answered as a whole when any of the configs has changed.
+     *
+     * @param batch a batch of requests
+     */
+    private void getConfigsImpl(JRTServerConfigRequestBatchV3 batch) {
+        ResponseHandler responseHandler = new ResponseHandler();
+        log.log(Level.FINE, () -> "getConfigs: " + batch);
+        for (JRTServerConfigRequest request : batch.requests()) {
+            request.getRequestTrace().trace(TRACELEVEL, "Config proxy getConfigs()");
+            // Error response is added to the request in validateParameters if parameters are not OK
+            if ( ! request.validateParameters())
+                log.log(Level.WARNING, "Invalid parameters for request " + request + ": " + request.errorCode() + " : " + request.errorMessage());
+        }
+
+        try {
+            if (batch.pendingRequests().isEmpty() || proxyServer.resolveConfigs(batch))
+                responseHandler.returnBatchResponse(batch, proxyServer.memoryCache()::get);
+            else
+                log.log(Level.FINEST, () -> "No new config for " + batch + ", not sending response");
+        } catch (Exception e) {
+            log.log(Level.WARNING, "Resolving configs for " + batch + " failed", e);
+            batch.getRequest().setError(INTERNAL_ERROR, e.getMessage());
+            batch.getRequest().returnRequest();
+        }
+    }
+
     private String printSourceConnections() {
         StringBuilder sb = new StringBuilder();
         for (String s : proxyServer.getSourceConnections()) {
@@ -338,6 +381,13 @@ public class ConfigProxyRpcServer implements Runnable, TargetWatcher {
                 it.remove();
             }
         }
+        for (Iterator<DelayedBatchResponse> it = proxyServer.delayedResponses().batchResponses().iterator(); it.hasNext(); ) {
+            DelayedBatchResponse delayed = it.next();
+            if (delayed.getBatch().getRequest().target().equals(target)) {
+                log.log(Level.FINE, () -> "Removing " + delayed.getBatch());
+                it.remove();
+            }
+        }
         // TODO: Could we also cancel active getConfig requests upstream if the client was the only one
         // requesting this config?
     }
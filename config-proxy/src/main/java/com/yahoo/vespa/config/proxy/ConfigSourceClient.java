@@ -3,6 +3,7 @@ package com.yahoo.vespa.config.proxy;
 
 import com.yahoo.vespa.config.RawConfig;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequest;
+import com.yahoo.vespa.config.protocol.JRTServerConfigRequestBatchV3;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,6 +18,12 @@ interface ConfigSourceClient {
 
     Optional<RawConfig> getConfig(RawConfig input, JRTServerConfigRequest request);
 
+    /**
+     * Returns whether any of the configs requested by the pending requests of the given batch has changed,
+     * in which case the batch should be answered now. Otherwise, the batch is answered later.
+     */
+    boolean getConfigs(JRTServerConfigRequestBatchV3 batch);
+
     void shutdown();
 
     void shutdownSourceConnections();
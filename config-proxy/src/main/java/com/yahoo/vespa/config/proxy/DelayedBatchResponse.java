@@ -0,0 +1,55 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.proxy;
+
+import com.yahoo.vespa.config.RawConfig;
+import com.yahoo.vespa.config.protocol.JRTServerConfigRequestBatchV3;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A batch of config requests from one client which is put on the delayedResponses queue, and answered as a whole
+ * when any of the configs it requests changes, or when it times out.
+ *
+ * @see DelayedResponse
+ * @author agent
+ */
+class DelayedBatchResponse implements Delayed {
+
+    private final JRTServerConfigRequestBatchV3 batch;
+    private final long returnTime;
+
+    DelayedBatchResponse(JRTServerConfigRequestBatchV3 batch) {
+        this.batch = batch;
+        this.returnTime = System.currentTimeMillis() + batch.getTimeout();
+    }
+
+    JRTServerConfigRequestBatchV3 getBatch() {
+        return batch;
+    }
+
+    /** Returns whether the given config is one this is waiting for */
+    boolean isWaitingFor(RawConfig config) {
+        long generation = config.getGeneration();
+        return batch.pendingRequests().stream()
+                    .anyMatch(request -> request.getConfigKey().equals(config.getKey())
+                                         // Generation 0 is special, used when returning empty sentinel config
+                                         && (generation >= request.getRequestGeneration() || generation == 0));
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(returnTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed delayed) {
+        return Long.compare(getDelay(TimeUnit.MILLISECONDS), delayed.getDelay(TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public String toString() {
+        return batch + ", delayLeft=" + getDelay(TimeUnit.MILLISECONDS) + " ms";
+    }
+
+}
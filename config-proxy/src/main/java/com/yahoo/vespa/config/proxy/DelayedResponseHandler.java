@@ -57,6 +57,11 @@ public class DelayedResponseHandler implements Runnable {
                             request.getConfigKey() + ", will retry");
                 }
             }
+            DelayedBatchResponse batchResponse;
+            while ((batchResponse = delayedResponses.batchResponses().poll()) != null) {
+                responseHandler.returnBatchResponse(batchResponse.getBatch(), memoryCache::get);
+                sentResponses.incrementAndGet();
+            }
             log.log(Level.FINEST, () -> "Finished running DelayedResponseHandler. " + sentResponses.get() +
                     " delayed responses sent in " + (System.currentTimeMillis() - start) + " ms");
         } catch (Exception e) {  // To avoid thread throwing exception and executor never running this again
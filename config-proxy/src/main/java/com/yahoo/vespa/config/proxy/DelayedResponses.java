@@ -4,28 +4,43 @@ package com.yahoo.vespa.config.proxy;
 import java.util.concurrent.DelayQueue;
 
 /**
- * Queue for requests that have no corresponding config in cache and which we are awaiting response from server for
+ * Queues for requests, and batches of requests, that have no corresponding config in cache and which we are
+ * awaiting response from server for
  *
  * @author hmusum
  */
 class DelayedResponses {
 
     private final DelayQueue<DelayedResponse> delayedResponses = new DelayQueue<>();
+    private final DelayQueue<DelayedBatchResponse> delayedBatchResponses = new DelayQueue<>();
 
     void add(DelayedResponse response) {
         delayedResponses.add(response);
     }
 
+    void add(DelayedBatchResponse response) {
+        delayedBatchResponses.add(response);
+    }
+
     boolean remove(DelayedResponse response) {
         return delayedResponses.remove(response);
     }
 
+    boolean remove(DelayedBatchResponse response) {
+        return delayedBatchResponses.remove(response);
+    }
+
     DelayQueue<DelayedResponse> responses() {
         return delayedResponses;
     }
 
+    DelayQueue<DelayedBatchResponse> batchResponses() {
+        return delayedBatchResponses;
+    }
+
+    /** Returns the number of delayed responses, where a batch counts as one */
     int size() {
-        return responses().size();
+        return responses().size() + batchResponses().size();
     }
 
 }
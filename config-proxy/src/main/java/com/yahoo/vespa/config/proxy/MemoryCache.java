@@ -4,8 +4,10 @@ package com.yahoo.vespa.config.proxy;
 import com.yahoo.io.IOUtils;
 import com.yahoo.vespa.config.ConfigCacheKey;
 import com.yahoo.vespa.config.ConfigKey;
+import com.yahoo.vespa.config.PayloadChecksum;
 import com.yahoo.vespa.config.RawConfig;
 import com.yahoo.vespa.config.protocol.CompressionType;
+import com.yahoo.vespa.config.protocol.JRTServerConfigRequest;
 import com.yahoo.vespa.config.protocol.Payload;
 import com.yahoo.vespa.defaults.Defaults;
 
@@ -19,6 +21,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import static com.yahoo.vespa.config.PayloadChecksum.Type.XXHASH64;
+
 /**
  * @author hmusum
  */
@@ -30,10 +34,18 @@ public class MemoryCache {
     private final static String separator = ":";
     private static final String DEFAULT_DUMP_DIR = Defaults.getDefaults().underVespaHome("var/vespa/cache/config");
 
-    private final ConcurrentHashMap<ConfigCacheKey, RawConfig> cache = new ConcurrentHashMap<>(500, 0.75f);
+    private final ConcurrentHashMap<ConfigCacheKey, Entry> cache = new ConcurrentHashMap<>(500, 0.75f);
+    // Payloads are kept compressed and off-heap, and shared by all configs with equal payloads.
+    // Updates synchronize on this, while lookups only read the immutable entries of the cache map.
+    private final PayloadStore payloads = new PayloadStore();
 
     public Optional<RawConfig> get(ConfigCacheKey key) {
-        return Optional.ofNullable(cache.get(key));
+        return Optional.ofNullable(cache.get(key)).map(this::toRawConfig);
+    }
+
+    /** Returns the cached config requested by the given request, if any */
+    Optional<RawConfig> get(JRTServerConfigRequest request) {
+        return get(new ConfigCacheKey(request.getConfigKey(), request.getRequestDefMd5()));
     }
 
     /**
@@ -41,18 +53,23 @@ public class MemoryCache {
      *
      * @param config config to update in cache
      */
-    public void update(RawConfig config) {
+    public synchronized void update(RawConfig config) {
         // Do not cache errors
         if (config.isError()) return;
 
         // Do not cache empty configs (which have generation 0), remove everything in cache
         if (config.getGeneration() == 0) {
-            cache.clear();
+            clear();
             return;
         }
 
         log.log(Level.FINE, () -> "Putting '" + config + "' into memory cache");
-        cache.put(new ConfigCacheKey(config.getKey(), config.getDefMd5()), config);
+        PayloadChecksum payloadKey = config.getPayload() == null ? null : payloadKey(config);
+        PayloadStore.StoredPayload payload = payloadKey == null ? null : payloads.add(payloadKey, config.getPayload());
+        Entry previous = cache.put(new ConfigCacheKey(config.getKey(), config.getDefMd5()),
+                                   new Entry(withPayload(config, null), payloadKey, payload));
+        if (previous != null && previous.payloadKey != null)
+            payloads.remove(previous.payloadKey);
     }
 
     boolean containsKey(ConfigCacheKey key) {
@@ -60,15 +77,31 @@ public class MemoryCache {
     }
 
     Collection<RawConfig> values() {
-        return cache.values();
+        return cache.values().stream().map(this::toRawConfig).toList();
     }
 
     public int size() {
         return cache.size();
     }
 
-    public void clear() {
+    public synchronized void clear() {
         cache.clear();
+        payloads.clear();
+    }
+
+    /** Returns the number of distinct payloads in this cache */
+    public synchronized int payloadCount() {
+        return payloads.size();
+    }
+
+    /** Returns the number of bytes used by the compressed payloads in this cache */
+    public synchronized long sizeInBytes() {
+        return payloads.bytes();
+    }
+
+    /** Returns the number of bytes the distinct payloads in this cache would use if they were not compressed */
+    public synchronized long uncompressedSizeInBytes() {
+        return payloads.uncompressedBytes();
     }
 
     @Override
@@ -76,6 +109,26 @@ public class MemoryCache {
         return cache.toString();
     }
 
+    private RawConfig toRawConfig(Entry entry) {
+        return entry.payload == null ? entry.config : withPayload(entry.config, entry.payload.payload());
+    }
+
+    private static RawConfig withPayload(RawConfig config, Payload payload) {
+        return new RawConfig(config.getKey(), config.getDefMd5(), payload, config.getPayloadChecksums(), config.getGeneration(),
+                             config.applyOnRestart(), config.errorCode(), config.getDefContent(), config.getVespaVersion());
+    }
+
+    // Configs from older servers may lack the xxhash64 checksum, compute it in that case
+    private static PayloadChecksum payloadKey(RawConfig config) {
+        PayloadChecksum checksum = config.getPayloadChecksums().getForType(XXHASH64);
+        if (checksum != null && ! checksum.isEmpty()) return checksum;
+
+        return PayloadChecksum.fromPayload(config.getPayload().withCompression(CompressionType.UNCOMPRESSED), XXHASH64);
+    }
+
+    /** A config without its payload, and the key of its payload in the payload store and the stored payload, or nulls if it has none */
+    private record Entry(RawConfig config, PayloadChecksum payloadKey, PayloadStore.StoredPayload payload) { }
+
     String dumpCacheToDisk(String path, MemoryCache cache) {
         if (path == null || path.isEmpty()) {
             path = DEFAULT_DUMP_DIR;
@@ -5,6 +5,7 @@ import com.yahoo.vespa.config.ConfigCacheKey;
 import com.yahoo.vespa.config.ConfigKey;
 import com.yahoo.vespa.config.RawConfig;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequest;
+import com.yahoo.vespa.config.protocol.JRTServerConfigRequestBatchV3;
 
 import java.util.List;
 import java.util.Optional;
@@ -42,6 +43,12 @@ class MemoryCacheConfigClient implements ConfigSourceClient {
         return cached;
     }
 
+    @Override
+    public boolean getConfigs(JRTServerConfigRequestBatchV3 batch) {
+        return batch.pendingRequests().stream()
+                    .anyMatch(request -> cache.get(request).map(config -> ProxyServer.configOrGenerationHasChanged(config, request)).orElse(false));
+    }
+
     @Override
     public void shutdown() {}
 
@@ -0,0 +1,105 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.proxy;
+
+import com.yahoo.text.Utf8Array;
+import com.yahoo.vespa.config.PayloadChecksum;
+import com.yahoo.vespa.config.protocol.CompressionInfo;
+import com.yahoo.vespa.config.protocol.CompressionType;
+import com.yahoo.vespa.config.protocol.Payload;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * LZ4 compressed config payloads, kept outside the Java heap. Each distinct payload is stored once,
+ * keyed by its checksum, and shared by all the configs which have it. A payload is released when the
+ * last config referring to it is removed.
+ *
+ * Adding and removing references is not thread safe; the owner must synchronize these. The stored payloads
+ * returned from {@link #add} are immutable, and may be read concurrently without synchronization.
+ *
+ * @author agent
+ */
+class PayloadStore {
+
+    private final Map<PayloadChecksum, Entry> payloads = new HashMap<>();
+    private long bytes = 0;
+    private long uncompressedBytes = 0;
+
+    /**
+     * Adds a reference to the given payload, which has the given checksum, storing it if it is not already present,
+     * and returns the stored payload
+     */
+    StoredPayload add(PayloadChecksum checksum, Payload payload) {
+        Entry entry = payloads.get(checksum);
+        if (entry == null) {
+            Payload compressed = payload.withCompression(CompressionType.LZ4);
+            ByteBuffer data = ByteBuffer.allocateDirect(compressed.getData().getByteLength());
+            data.put(compressed.getData().wrap()).flip();
+            entry = new Entry(new StoredPayload(data, compressed.getCompressionInfo()));
+            payloads.put(checksum, entry);
+            bytes += data.capacity();
+            uncompressedBytes += entry.payload.compressionInfo.getUncompressedSize();
+        }
+        entry.references++;
+        return entry.payload;
+    }
+
+    /** Removes a reference to the payload with the given checksum, releasing it if this was the last reference */
+    void remove(PayloadChecksum checksum) {
+        Entry entry = payloads.get(checksum);
+        if (entry == null || --entry.references > 0) return;
+
+        payloads.remove(checksum);
+        bytes -= entry.payload.data.capacity();
+        uncompressedBytes -= entry.payload.compressionInfo.getUncompressedSize();
+    }
+
+    void clear() {
+        payloads.clear();
+        bytes = 0;
+        uncompressedBytes = 0;
+    }
+
+    /** Returns the number of distinct payloads in this */
+    int size() { return payloads.size(); }
+
+    /** Returns the number of bytes used by the compressed payloads in this */
+    long bytes() { return bytes; }
+
+    /** Returns the number of bytes the distinct payloads in this would use if they were not compressed */
+    long uncompressedBytes() { return uncompressedBytes; }
+
+    /** A compressed payload kept outside the Java heap, which is never modified */
+    static final class StoredPayload {
+
+        private final ByteBuffer data;
+        private final CompressionInfo compressionInfo;
+
+        private StoredPayload(ByteBuffer data, CompressionInfo compressionInfo) {
+            this.data = data;
+            this.compressionInfo = compressionInfo;
+        }
+
+        /** Returns a compressed on-heap copy of this payload */
+        Payload payload() {
+            byte[] copy = new byte[data.capacity()];
+            data.get(0, copy); // absolute reads do not change the buffer, so this is safe to do concurrently
+            return Payload.from(new Utf8Array(copy), compressionInfo);
+        }
+
+    }
+
+    private static class Entry {
+
+        private final StoredPayload payload;
+        private int references = 0;
+
+        Entry(StoredPayload payload) {
+            this.payload = payload;
+        }
+
+    }
+
+}
@@ -10,9 +10,11 @@ import com.yahoo.log.LogSetup;
 import com.yahoo.log.event.Event;
 import com.yahoo.vespa.config.RawConfig;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequest;
+import com.yahoo.vespa.config.protocol.JRTServerConfigRequestBatchV3;
 import com.yahoo.vespa.config.proxy.filedistribution.FileDistributionAndUrlDownload;
 import com.yahoo.yolean.system.CatchSignals;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -20,6 +22,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
@@ -37,6 +40,7 @@ import static com.yahoo.vespa.config.proxy.Mode.ModeName.DEFAULT;
 public class ProxyServer implements Runnable {
 
     private static final DaemonThreadFactory threadFactory = new DaemonThreadFactory("ProxyServer");
+    private static final Duration cacheStatisticsInterval = Duration.ofMinutes(1);
     private static final int DEFAULT_RPC_PORT = 19090;
     private static final int JRT_TRANSPORT_THREADS = 4;
     static final String DEFAULT_PROXY_CONFIG_SOURCES = "tcp/localhost:19070";
@@ -48,6 +52,8 @@ public class ProxyServer implements Runnable {
 
     private final ConfigProxyRpcServer rpcServer;
     private final FileDistributionAndUrlDownload fileDistributionAndUrlDownload;
+    private final ScheduledExecutorService cacheStatisticsReporter =
+            Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("cache statistics"));
 
     private ConfigSourceSet configSource;
     private volatile ConfigSourceClient configClient;
@@ -69,6 +75,19 @@ public class ProxyServer implements Runnable {
             t.setName("RpcServer");
             t.start();
         }
+        cacheStatisticsReporter.scheduleAtFixedRate(this::reportCacheStatistics,
+                                                    cacheStatisticsInterval.toMillis(),
+                                                    cacheStatisticsInterval.toMillis(),
+                                                    TimeUnit.MILLISECONDS);
+    }
+
+    /** Reports the size of the memory cache as value events, which are collected as metrics from the log */
+    void reportCacheStatistics() {
+        MemoryCache memoryCache = memoryCache();
+        Event.value("cache_configs", memoryCache.size());
+        Event.value("cache_payloads", memoryCache.payloadCount());
+        Event.value("cache_bytes", memoryCache.sizeInBytes());
+        Event.value("cache_uncompressed_bytes", memoryCache.uncompressedSizeInBytes());
     }
 
     Optional<RawConfig> resolveConfig(JRTServerConfigRequest req) {
@@ -79,6 +98,11 @@ public class ProxyServer implements Runnable {
         return configClient.getConfig(RawConfig.createFromServerRequest(req), req);
     }
 
+    /** Returns whether the given batch should be answered now, see {@link ConfigSourceClient#getConfigs} */
+    boolean resolveConfigs(JRTServerConfigRequestBatchV3 batch) {
+        return configClient.getConfigs(batch);
+    }
+
     static boolean configOrGenerationHasChanged(RawConfig config, JRTServerConfigRequest request) {
         return (config != null && ( ! config.hasEqualConfig(request) || config.hasNewerGeneration(request)));
     }
@@ -188,6 +212,7 @@ public class ProxyServer implements Runnable {
     }
 
     void stop() {
+        cacheStatisticsReporter.shutdownNow();
         Event.stopping("configproxy", "shutdown rpcServer");
         if (rpcServer != null) rpcServer.shutdown();
         Event.stopping("configproxy", "cancel configClient");
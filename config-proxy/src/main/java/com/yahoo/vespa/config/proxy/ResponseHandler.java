@@ -1,11 +1,14 @@
 // Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.vespa.config.proxy;
 
+import com.yahoo.jrt.ErrorCode;
 import com.yahoo.vespa.config.RawConfig;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequest;
+import com.yahoo.vespa.config.protocol.JRTServerConfigRequestBatchV3;
 
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -32,15 +35,7 @@ public class ResponseHandler  {
     private final static Logger log = Logger.getLogger(ResponseHandler.class.getName());
 
     public void returnOkResponse(JRTServerConfigRequest request, RawConfig config) {
-        request.getRequestTrace().trace(TRACELEVEL, "Config proxy returnOkResponse()");
-        request.addOkResponse(config.getPayload(),
-                              config.getGeneration(),
-                              config.applyOnRestart(),
-                              config.getPayloadChecksums());
-        log.log(Level.FINE, () -> "Return response: " + request.getShortDescription() + ",config checksums=" + config.getPayloadChecksums() +
-                ",generation=" + config.getGeneration() + ",applyOnRestart=" + config.applyOnRestart());
-        log.log(Level.FINEST, () -> "Config payload in response for " + request.getShortDescription() + ":" + config.getPayload());
-
+        addOkResponse(request, config);
 
         // TODO Catch exception for now, since the request might have been returned in CheckDelayedResponse
         // TODO Move logic so that all requests are returned in CheckDelayedResponse
@@ -52,6 +47,38 @@ public class ResponseHandler  {
         sentResponses.ifPresent(AtomicLong::getAndIncrement);
     }
 
+    /**
+     * Returns a response to each request in the given batch which does not already have one,
+     * with the config the given function returns for it, or a timeout error if there is none.
+     */
+    public void returnBatchResponse(JRTServerConfigRequestBatchV3 batch, Function<JRTServerConfigRequest, Optional<RawConfig>> configs) {
+        for (JRTServerConfigRequest request : batch.pendingRequests()) {
+            Optional<RawConfig> config = configs.apply(request);
+            if (config.isPresent())
+                addOkResponse(request, config.get());
+            else // Not yet available, which clients request again without counting it as a failure
+                request.addErrorResponse(ErrorCode.TIMEOUT, "Timed out getting config " + request.getConfigKey());
+        }
+        batch.addResponses();
+        try {
+            batch.getRequest().returnRequest();
+        } catch (IllegalStateException e) {
+            log.log(Level.FINE, () -> "Something bad happened when sending response for '" + batch + "':" + e.getMessage());
+        }
+        sentResponses.ifPresent(AtomicLong::getAndIncrement);
+    }
+
+    private void addOkResponse(JRTServerConfigRequest request, RawConfig config) {
+        request.getRequestTrace().trace(TRACELEVEL, "Config proxy returnOkResponse()");
+        request.addOkResponse(config.getPayload(),
+                              config.getGeneration(),
+                              config.applyOnRestart(),
+                              config.getPayloadChecksums());
+        log.log(Level.FINE, () -> "Return response: " + request.getShortDescription() + ",config checksums=" + config.getPayloadChecksums() +
+                ",generation=" + config.getGeneration() + ",applyOnRestart=" + config.applyOnRestart());
+        log.log(Level.FINEST, () -> "Config payload in response for " + request.getShortDescription() + ":" + config.getPayload());
+    }
+
     public void returnErrorResponse(JRTServerConfigRequest request, int errorCode, String message) {
         request.getRequestTrace().trace(TRACELEVEL, "Config proxy returnErrorResponse()");
         request.addErrorResponse(errorCode, message);
@@ -16,6 +16,7 @@ import com.yahoo.vespa.config.ConfigKey;
 import com.yahoo.vespa.config.RawConfig;
 import com.yahoo.vespa.config.TimingValues;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequest;
+import com.yahoo.vespa.config.protocol.JRTServerConfigRequestBatchV3;
 
 import java.time.Duration;
 import java.util.ArrayList;
@@ -142,6 +143,31 @@ class RpcConfigSourceClient implements ConfigSourceClient, Runnable {
         return Optional.empty();
     }
 
+    /**
+     * Retrieves the configs requested in the given batch from the cache, and subscribes to those not found there.
+     * If none of them has changed, one delayed response is registered for the whole batch, which is returned
+     * when any of the configs changes, or the batch times out.
+     */
+    @Override
+    public boolean getConfigs(JRTServerConfigRequestBatchV3 batch) {
+        // Always add to delayed responses first, for the same reason as in getConfig
+        DelayedBatchResponse delayedResponse = new DelayedBatchResponse(batch);
+        delayedResponses.add(delayedResponse);
+
+        boolean changed = false;
+        for (JRTServerConfigRequest request : batch.pendingRequests()) {
+            RawConfig input = RawConfig.createFromServerRequest(request);
+            ConfigCacheKey configCacheKey = new ConfigCacheKey(input.getKey(), input.getDefMd5());
+            Optional<RawConfig> cachedConfig = memoryCache.get(configCacheKey);
+            if (cachedConfig.isPresent() && ProxyServer.configOrGenerationHasChanged(cachedConfig.get(), request))
+                changed = true;
+            if (cachedConfig.isEmpty() || cachedConfig.get().isError() || cachedConfig.get().getGeneration() <= 0)
+                subscribeToConfig(input, configCacheKey);
+        }
+        // Unless another thread already returned it
+        return changed && delayedResponses.remove(delayedResponse);
+    }
+
     private void subscribeToConfig(RawConfig input, ConfigCacheKey configCacheKey) {
         synchronized (subscribersLock) {
             if (subscribers.containsKey(configCacheKey)) return;
@@ -227,8 +253,9 @@ class RpcConfigSourceClient implements ConfigSourceClient, Runnable {
         ConfigKey<?> key = config.getKey();
         long generation = config.getGeneration();
         log.log(Level.FINE, () -> "Config updated for " + key + "," + generation);
+        if (delayedResponses.size() == 0) return;
+
         DelayQueue<DelayedResponse> responseDelayQueue = delayedResponses.responses();
-        if (responseDelayQueue.size() == 0) return;
 
         log.log(Level.FINE, () -> "Delayed response queue has " + responseDelayQueue.size() + " elements");
         log.log(Level.FINEST, () -> "Delayed response queue: " + responseDelayQueue);
@@ -249,6 +276,13 @@ class RpcConfigSourceClient implements ConfigSourceClient, Runnable {
                 }
             }
         }
+        for (DelayedBatchResponse response : delayedResponses.batchResponses().toArray(new DelayedBatchResponse[0])) {
+            if (response.isWaitingFor(config) && delayedResponses.remove(response)) {
+                found = true;
+                log.log(Level.FINE, () -> "Call returnBatchResponse for " + key + "," + generation);
+                responseHandler.returnBatchResponse(response.getBatch(), memoryCache::get);
+            }
+        }
         if (!found) {
             log.log(Level.FINE, () -> "Found no recipient for " + key + " in delayed response queue");
         }
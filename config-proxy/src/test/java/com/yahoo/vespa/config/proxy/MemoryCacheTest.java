@@ -12,8 +12,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+import static com.yahoo.vespa.config.protocol.CompressionType.LZ4;
+import static com.yahoo.vespa.config.protocol.CompressionType.UNCOMPRESSED;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -107,15 +110,61 @@ public class MemoryCacheTest {
 
         RawConfig response = cache.get(cacheKey).orElseThrow();
         assertEquals(defName, response.getName());
-        assertEquals(payload.getData(), response.getPayload().getData());
+        assertEquals(payload.getData(), response.getPayload().withCompression(UNCOMPRESSED).getData());
         assertEquals(generation, response.getGeneration());
 
         response = cache.get(cacheKeyDifferentMd5).orElseThrow();
         assertEquals(defName, response.getName());
-        assertEquals(payloadDifferentMd5.getData(), response.getPayload().getData());
+        assertEquals(payloadDifferentMd5.getData(), response.getPayload().withCompression(UNCOMPRESSED).getData());
         assertEquals(generation, response.getGeneration());
 
         cache.clear();
         assertEquals(0, cache.size());
     }
+
+    @Test
+    void equalPayloadsAreStoredOnce() {
+        MemoryCache cache = new MemoryCache();
+        RawConfig sameAsConfig = new RawConfig(configKey2, defMd52, payload, checksums, generation, false, List.of("bar string"), Optional.empty());
+
+        cache.update(config);
+        cache.update(sameAsConfig);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.payloadCount());
+        assertEquals(payload.getData(), cache.get(cacheKey2).orElseThrow().getPayload().withCompression(UNCOMPRESSED).getData());
+
+        // Payload is kept as long as some config refers to it
+        cache.update(config2);
+        assertEquals(2, cache.payloadCount());
+        assertEquals(payload2.getData(), cache.get(cacheKey2).orElseThrow().getPayload().withCompression(UNCOMPRESSED).getData());
+        cache.update(configDifferentMd5);
+        assertEquals(3, cache.payloadCount());
+
+        RawConfig replacement = new RawConfig(configKey, defMd5, payloadDifferentMd5, checksums, generation + 1, false, List.of("bar string"), Optional.empty());
+        cache.update(replacement);
+        assertEquals(2, cache.payloadCount());
+        assertEquals(generation + 1, cache.get(cacheKey).orElseThrow().getGeneration());
+    }
+
+    @Test
+    void sizeIsAccountedInBytes() {
+        MemoryCache cache = new MemoryCache();
+        assertEquals(0, cache.sizeInBytes());
+
+        cache.update(config);
+        cache.update(config2);
+        Payload compressed = cache.get(cacheKey).orElseThrow().getPayload();
+        assertEquals(LZ4, compressed.getCompressionInfo().getCompressionType());
+        assertEquals(compressed.getData().getByteLength() + cache.get(cacheKey2).orElseThrow().getPayload().getData().getByteLength(),
+                     cache.sizeInBytes());
+        assertEquals(payload.getData().getByteLength() + payload2.getData().getByteLength(), cache.uncompressedSizeInBytes());
+
+        // Generation 0 empties the cache
+        cache.update(new RawConfig(configKey, defMd5, payload, checksums, 0, false, List.of("bar string"), Optional.empty()));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.payloadCount());
+        assertEquals(0, cache.sizeInBytes());
+        assertEquals(0, cache.uncompressedSizeInBytes());
+    }
+
 }
@@ -4,6 +4,7 @@ package com.yahoo.vespa.config.proxy;
 import com.yahoo.vespa.config.ConfigKey;
 import com.yahoo.vespa.config.RawConfig;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequest;
+import com.yahoo.vespa.config.protocol.JRTServerConfigRequestBatchV3;
 
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +31,12 @@ public class MockConfigSourceClient implements ConfigSourceClient{
         return Optional.of(config);
     }
 
+    @Override
+    public boolean getConfigs(JRTServerConfigRequestBatchV3 batch) {
+        batch.pendingRequests().forEach(request -> memoryCache.update(getConfig(request.getConfigKey())));
+        return true;
+    }
+
     private RawConfig getConfig(ConfigKey<?> configKey) {
         return configSource.getConfig(configKey);
     }
@@ -2,6 +2,7 @@
 package com.yahoo.vespa.config.proxy;
 
 import com.yahoo.config.subscription.ConfigSourceSet;
+import com.yahoo.log.event.Event;
 import com.yahoo.vespa.config.ConfigCacheKey;
 import com.yahoo.vespa.config.ConfigKey;
 import com.yahoo.vespa.config.ErrorCode;
@@ -14,7 +15,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -209,6 +215,33 @@ public class ProxyServerTest {
         assertTrue(ProxyServer.configOrGenerationHasChanged(res2, newRequestBasedOnResponse));
     }
 
+    @Test
+    void testCacheStatisticsAreReportedAsValueEvents() {
+        proxy.memoryCache().update(fooConfig);
+        Map<String, String> values = new HashMap<>();
+        Handler handler = new Handler() {
+            @Override public void publish(LogRecord record) {
+                Event event = (Event) record.getParameters()[0];
+                values.put(event.getValue("name"), event.getValue("value"));
+            }
+            @Override public void flush() { }
+            @Override public void close() { }
+        };
+        Logger logger = Logger.getLogger(ProxyServer.class.getName());
+        logger.addHandler(handler);
+        try {
+            proxy.reportCacheStatistics();
+        }
+        finally {
+            logger.removeHandler(handler);
+        }
+        assertEquals(Map.of("cache_configs", "1.0",
+                            "cache_payloads", "1.0",
+                            "cache_bytes", Double.toString(proxy.memoryCache().sizeInBytes()),
+                            "cache_uncompressed_bytes", Double.toString(fooConfig.getPayload().getData().getByteLength())),
+                     values);
+    }
+
     @Test
     void testReadingSystemProperties() {
         ProxyServer.Properties properties = ProxyServer.getSystemProperties();
@@ -3,15 +3,22 @@ package com.yahoo.vespa.config.proxy;
 
 import com.yahoo.vespa.config.ConfigKey;
 import com.yahoo.vespa.config.RawConfig;
+import com.yahoo.jrt.ErrorCode;
+import com.yahoo.vespa.config.protocol.JRTClientConfigRequest;
+import com.yahoo.vespa.config.protocol.JRTClientConfigRequestBatchV3;
 import com.yahoo.vespa.config.protocol.JRTConfigRequestFactory;
+import com.yahoo.vespa.config.protocol.JRTServerConfigRequestBatchV3;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequestV3;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author hmusum
@@ -90,6 +97,31 @@ public class RpcConfigSourceClientTest {
         assertSentResponses(2);
     }
 
+    @Test
+    void batch_is_answered_as_a_whole_when_one_of_its_configs_changes() {
+        RawConfig fooConfig = ProxyServerTest.fooConfig;
+        RawConfig barConfig = new RawConfig(new ConfigKey<>("bar", "id", "namespace"), fooConfig.getDefMd5());
+        JRTClientConfigRequest fooRequest = JRTConfigRequestFactory.createFromRaw(fooConfig, -10L);
+        JRTClientConfigRequest barRequest = JRTConfigRequestFactory.createFromRaw(barConfig, -10L);
+        JRTClientConfigRequestBatchV3 clientBatch = new JRTClientConfigRequestBatchV3(List.of(fooRequest, barRequest));
+        JRTServerConfigRequestBatchV3 batch = JRTServerConfigRequestBatchV3.createFromRequest(clientBatch.getRequest());
+        rpcConfigSourceClient.delayedResponses().add(new DelayedBatchResponse(batch));
+        assertEquals(1, rpcConfigSourceClient.delayedResponses().size());
+
+        RawConfig newFooConfig = createConfigWithNextConfigGeneration(fooConfig);
+        rpcConfigSourceClient.memoryCache().update(newFooConfig);
+        configUpdatedSendResponse(newFooConfig);
+        assertSentResponses(1);
+        assertEquals(0, rpcConfigSourceClient.delayedResponses().size());
+
+        // Each request in the batch gets its own response
+        clientBatch.setResponses();
+        assertTrue(fooRequest.validateResponse());
+        assertEquals(newFooConfig.getGeneration(), fooRequest.getNewGeneration());
+        assertFalse(barRequest.validateResponse());
+        assertEquals(ErrorCode.TIMEOUT, barRequest.errorCode());
+    }
+
     private void assertSentResponses(int expected) {
         assertEquals(expected, responseHandler.sentResponses());
     }
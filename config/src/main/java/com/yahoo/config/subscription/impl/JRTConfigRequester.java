@@ -12,11 +12,14 @@ import com.yahoo.vespa.config.ConnectionPool;
 import com.yahoo.vespa.config.ErrorCode;
 import com.yahoo.vespa.config.TimingValues;
 import com.yahoo.vespa.config.protocol.JRTClientConfigRequest;
+import com.yahoo.vespa.config.protocol.JRTClientConfigRequestBatchV3;
 import com.yahoo.vespa.config.protocol.JRTConfigRequestFactory;
 import com.yahoo.vespa.config.protocol.Trace;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -24,6 +27,8 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static com.yahoo.jrt.ErrorCode.CONNECTION;
+import static com.yahoo.jrt.ErrorCode.NO_SUCH_METHOD;
+import static com.yahoo.jrt.ErrorCode.TIMEOUT;
 import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.FINEST;
 import static java.util.logging.Level.INFO;
@@ -35,6 +40,10 @@ import static java.util.logging.Level.WARNING;
  * as context, and puts the request objects on a queue on the subscription,
  * for handling by the user thread.
  *
+ * After the first request for each subscription, the requests for all subscriptions of this which are due
+ * are sent together, as one {@link JRTClientConfigRequestBatchV3}, which the config source answers when
+ * any of the configs changes. Config sources which do not support this get one request per subscription.
+ *
  * @author Vegard Havdal
  */
 public class JRTConfigRequester implements RequestWaiter {
@@ -58,6 +67,10 @@ public class JRTConfigRequester implements RequestWaiter {
     private int failures = 0;
     private volatile boolean closed = false;
 
+    /** Requests which are scheduled to be sent, together with the other requests due at about the same time */
+    private final List<GetConfigTask> pendingRequests = new ArrayList<>();
+    private volatile boolean batchingSupported = true;
+
     /**
      * Returns a new requester
      *
@@ -110,20 +123,85 @@ public class JRTConfigRequester implements RequestWaiter {
         connection.invokeAsync(request, jrtClientTimeout, this);
     }
 
-    @SuppressWarnings("unchecked")
+    private void doRequest(List<GetConfigTask> tasks) {
+        Connection connection = connectionPool.getCurrent();
+        JRTClientConfigRequestBatchV3 batch = new JRTClientConfigRequestBatchV3(tasks.stream().map(task -> task.jrtReq).toList());
+        batch.getRequest().setContext(new BatchContext(batch, tasks, connection));
+        Duration jrtClientTimeout = Duration.ofMillis(batch.getTimeout()).plus(additionalTimeForClientTimeout);
+        log.log(FINE, () -> "Requesting " + batch + " on connection " + connection + " with client timeout " + jrtClientTimeout);
+        connection.invokeAsync(batch.getRequest(), jrtClientTimeout, this);
+    }
+
     @Override
     public void handleRequestDone(Request req) {
+        if (req.getContext() instanceof BatchContext context) {
+            handleBatch(context);
+            return;
+        }
         RequestContext context = (RequestContext) req.getContext();
-        JRTConfigSubscription<ConfigInstance> sub = context.sub;
+        handle(context.sub, context.jrtReq, context.connection);
+    }
+
+    private void handle(JRTConfigSubscription<?> sub, JRTClientConfigRequest jrtReq, Connection connection) {
         try {
-            doHandle(sub, context.jrtReq, context.connection);
+            doHandle(sub, jrtReq, connection);
         } catch (RuntimeException e) {
             // Sets this field, it will get thrown from the user thread
             sub.setException(e);
         }
     }
 
-    private void doHandle(JRTConfigSubscription<ConfigInstance> sub, JRTClientConfigRequest jrtReq, Connection connection) {
+    private void handleBatch(BatchContext context) {
+        Request request = context.batch.getRequest();
+        if (request.errorCode() == NO_SUCH_METHOD) {
+            log.log(FINE, () -> "Config source " + context.connection.getAddress() +
+                                " does not support getting several configs in one request, will send one request per config");
+            batchingSupported = false;
+            context.tasks.forEach(GetConfigTask::run);
+            return;
+        }
+
+        context.batch.setResponses();
+        if (request.isError()) {
+            // The request failed as a whole, which counts as a single failure
+            long delay = registerFailure(context.tasks.get(0).jrtReq, context.connection);
+            for (GetConfigTask task : context.tasks)
+                if ( ! task.sub.isClosed())
+                    scheduleNextRequest(task.jrtReq, task.sub, delay, calculateErrorTimeout());
+            return;
+        }
+
+        // The config source answers the whole batch as soon as one config changes. The other configs of a new
+        // generation are likely to follow shortly, so those not changed are then requested again right away.
+        boolean anyUpdated = context.tasks.stream().anyMatch(task -> isUpdated(task.jrtReq));
+        long failureDelay = -1;
+        for (GetConfigTask task : context.tasks) {
+            if (task.sub.isClosed()) continue;
+            JRTClientConfigRequest jrtReq = task.jrtReq;
+            try {
+                if (jrtReq.validateResponse()) {
+                    handleOKRequest(jrtReq, task.sub, anyUpdated && ! isUpdated(jrtReq) ? 0 : calculateSuccessDelay());
+                }
+                else if (jrtReq.errorCode() == TIMEOUT) {
+                    // Not yet available at the config source, which is not a failure of the source
+                    scheduleNextRequest(jrtReq, task.sub, anyUpdated ? 0 : calculateSuccessDelay(), calculateErrorTimeout());
+                }
+                else {
+                    if (failureDelay < 0) // Register one failure, and switch connection at most once, per batch
+                        failureDelay = registerFailure(jrtReq, context.connection);
+                    scheduleNextRequest(jrtReq, task.sub, failureDelay, calculateErrorTimeout());
+                }
+            } catch (RuntimeException e) {
+                task.sub.setException(e);
+            }
+        }
+    }
+
+    private static boolean isUpdated(JRTClientConfigRequest jrtReq) {
+        return jrtReq.validateResponse() && (jrtReq.hasUpdatedGeneration() || jrtReq.hasUpdatedConfig());
+    }
+
+    private void doHandle(JRTConfigSubscription<?> sub, JRTClientConfigRequest jrtReq, Connection connection) {
         if (sub.isClosed()) return; // Avoid error messages etc. after closing
 
         boolean validResponse = jrtReq.validateResponse();
@@ -132,7 +210,7 @@ public class JRTConfigRequester implements RequestWaiter {
         trace.trace(TRACELEVEL, "JRTConfigRequester.doHandle()");
         log.log(FINEST, trace::toString);
         if (validResponse)
-            handleOKRequest(jrtReq, sub);
+            handleOKRequest(jrtReq, sub, calculateSuccessDelay());
         else
             handleFailedRequest(jrtReq, sub, connection);
     }
@@ -162,7 +240,13 @@ public class JRTConfigRequester implements RequestWaiter {
         }
     }
 
-    private void handleFailedRequest(JRTClientConfigRequest jrtReq, JRTConfigSubscription<ConfigInstance> sub, Connection connection) {
+    private void handleFailedRequest(JRTClientConfigRequest jrtReq, JRTConfigSubscription<?> sub, Connection connection) {
+        long delay = registerFailure(jrtReq, connection);
+        scheduleNextRequest(jrtReq, sub, delay, calculateErrorTimeout());
+    }
+
+    /** Registers a failed request, and returns the delay before the next request should be sent */
+    private long registerFailure(JRTClientConfigRequest jrtReq, Connection connection) {
         logFailingRequest(jrtReq, connection);
 
         connectionPool.switchConnection(connection);
@@ -172,7 +256,7 @@ public class JRTConfigRequester implements RequestWaiter {
         log.log(FINE, () -> "Request for config " + jrtReq.getShortDescription() + "' failed with error code " +
                 jrtReq.errorCode() + " (" + jrtReq.errorMessage() + "), scheduling new request " +
                 " in " + delay + " ms");
-        scheduleNextRequest(jrtReq, sub, delay, calculateErrorTimeout());
+        return delay;
     }
 
     static long calculateFailedRequestDelay(int failures, TimingValues timingValues) {
@@ -187,7 +271,7 @@ public class JRTConfigRequester implements RequestWaiter {
         return timingValues.getPlusMinusFractionRandom(timingValues.getErrorTimeout(), randomFraction);
     }
 
-    private void handleOKRequest(JRTClientConfigRequest jrtReq, JRTConfigSubscription<ConfigInstance> sub) {
+    private void handleOKRequest(JRTClientConfigRequest jrtReq, JRTConfigSubscription<?> sub, long delay) {
         failures = 0;
         sub.setLastCallBackOKTS(Instant.now());
         log.log(FINE, () -> "OK response received in handleOkRequest: " + jrtReq);
@@ -203,7 +287,7 @@ public class JRTConfigRequester implements RequestWaiter {
                     " (changes to code generating config that are different between versions) or non-deterministic config generation" +
                     " (e.g. when using collections with non-deterministic iteration order)");
         }
-        scheduleNextRequest(jrtReq, sub, calculateSuccessDelay(), calculateSuccessTimeout());
+        scheduleNextRequest(jrtReq, sub, delay, calculateSuccessTimeout());
     }
 
     private long calculateSuccessTimeout() {
@@ -219,7 +303,34 @@ public class JRTConfigRequester implements RequestWaiter {
         JRTClientConfigRequest jrtReqNew = jrtReq.nextRequest(timeout);
         log.log(FINEST, timingValues::toString);
         log.log(FINE, () -> "Scheduling new request " + delayBeforeSendingRequest + " millis from now for " + jrtReqNew.getConfigKey());
-        scheduler.schedule(new GetConfigTask(jrtReqNew, sub), delayBeforeSendingRequest, TimeUnit.MILLISECONDS);
+        GetConfigTask task = new GetConfigTask(jrtReqNew, sub, System.currentTimeMillis() + delayBeforeSendingRequest);
+        if ( ! batchingSupported) {
+            scheduler.schedule(task, delayBeforeSendingRequest, TimeUnit.MILLISECONDS);
+            return;
+        }
+        synchronized (pendingRequests) {
+            pendingRequests.add(task);
+        }
+        scheduler.schedule(this::sendPendingRequests, delayBeforeSendingRequest, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends the pending requests which are due, together with those due within the spread of the random
+     * delays added to them, such that requests rescheduled at the same time are sent together.
+     * A request is never sent later than it is due.
+     */
+    private void sendPendingRequests() {
+        long sendUntil = System.currentTimeMillis() + (long) (2 * randomFraction * timingValues.getFixedDelay());
+        List<GetConfigTask> tasks;
+        synchronized (pendingRequests) {
+            tasks = pendingRequests.stream().filter(task -> task.dueAt <= sendUntil).toList();
+            pendingRequests.removeAll(tasks);
+        }
+        tasks = tasks.stream().filter(task -> ! task.sub.isClosed()).toList();
+        if (tasks.size() > 1 && batchingSupported)
+            doRequest(tasks);
+        else
+            tasks.forEach(GetConfigTask::run);
     }
 
     /**
@@ -228,10 +339,13 @@ public class JRTConfigRequester implements RequestWaiter {
     private class GetConfigTask implements Runnable {
         private final JRTClientConfigRequest jrtReq;
         private final JRTConfigSubscription<?> sub;
+        /** The time in epoch millis when this should be sent */
+        private final long dueAt;
 
-        GetConfigTask(JRTClientConfigRequest jrtReq, JRTConfigSubscription<?> sub) {
+        GetConfigTask(JRTClientConfigRequest jrtReq, JRTConfigSubscription<?> sub, long dueAt) {
             this.jrtReq = jrtReq;
             this.sub = Objects.requireNonNull(sub, "sub cannot be null");
+            this.dueAt = dueAt;
         }
 
         public void run() {
@@ -246,6 +360,8 @@ public class JRTConfigRequester implements RequestWaiter {
         }
     }
 
+    private record BatchContext(JRTClientConfigRequestBatchV3 batch, List<GetConfigTask> tasks, Connection connection) { }
+
     @SuppressWarnings("rawtypes")
     private static class RequestContext {
         final JRTConfigSubscription sub;
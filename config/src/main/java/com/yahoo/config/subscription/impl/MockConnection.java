@@ -6,7 +6,9 @@ import com.yahoo.jrt.RequestWaiter;
 import com.yahoo.vespa.config.ConfigPayload;
 import com.yahoo.vespa.config.Connection;
 import com.yahoo.vespa.config.ConnectionPool;
+import com.yahoo.vespa.config.JRTMethods;
 import com.yahoo.vespa.config.PayloadChecksums;
+import com.yahoo.vespa.config.protocol.JRTServerConfigRequestBatchV3;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequestV3;
 import com.yahoo.vespa.config.protocol.Payload;
 
@@ -103,7 +105,13 @@ public class MockConnection implements ConnectionPool, Connection {
 
         @Override
         public void handle(Request request, RequestWaiter requestWaiter) {
-            createResponse(request);
+            if (request.methodName().equals(JRTMethods.configV3getConfigsMethodName)) {
+                JRTServerConfigRequestBatchV3 batch = JRTServerConfigRequestBatchV3.createFromRequest(request);
+                batch.requests().forEach(single -> createResponse(single.getRequest()));
+                batch.addResponses();
+            } else {
+                createResponse(request);
+            }
             requestWaiter.handleRequestDone(request);
         }
 
@@ -5,6 +5,8 @@ import com.yahoo.config.ConfigBuilder;
 import com.yahoo.config.ConfigInstance;
 import com.yahoo.config.FileReference;
 import com.yahoo.config.ModelReference;
+import com.yahoo.config.PayloadApplicable;
+import com.yahoo.config.PayloadValue;
 import com.yahoo.config.UrlReference;
 import com.yahoo.slime.ArrayTraverser;
 import com.yahoo.slime.Inspector;
@@ -24,14 +26,18 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 import static java.util.logging.Level.INFO;
 
 /**
  * A utility class that can be used to apply a payload to a config builder.
+ * Builders generated with {@link PayloadApplicable} have their fields set directly. Reflection is only used for
+ * builders generated by older versions of the config class generator.
  *
- * TODO: This can be refactored a lot, since many of the reflection methods are duplicated
+ * TODO: The reflective path can be refactored a lot, since many of the reflection methods are duplicated
  *
  * @author Ulf Lilleengen
  * @author hmusum
@@ -44,6 +50,7 @@ public class ConfigPayloadApplier<T extends ConfigInstance.Builder> {
     private final ConfigInstance.Builder rootBuilder;
     private final ConfigTransformer.PathAcquirer pathAcquirer;
     private final UrlDownloader urlDownloader;
+    private final boolean reflective;
     private final Deque<NamedBuilder> stack = new ArrayDeque<>();
 
     public ConfigPayloadApplier(T builder) {
@@ -51,15 +58,24 @@ public class ConfigPayloadApplier<T extends ConfigInstance.Builder> {
     }
 
     public ConfigPayloadApplier(T builder, ConfigTransformer.PathAcquirer pathAcquirer, UrlDownloader urlDownloader) {
+        this(builder, pathAcquirer, urlDownloader, false);
+    }
+
+    /** Creates an applier which uses reflection also for generated builders if reflective is true; for testing */
+    ConfigPayloadApplier(T builder, ConfigTransformer.PathAcquirer pathAcquirer, UrlDownloader urlDownloader, boolean reflective) {
         this.rootBuilder = builder;
         this.pathAcquirer = pathAcquirer;
         this.urlDownloader = urlDownloader;
+        this.reflective = reflective;
     }
 
     public void applyPayload(ConfigPayload payload) {
         stack.push(new NamedBuilder(rootBuilder));
         try {
-            handleValue(payload.getSlime().get());
+            if ( ! reflective && rootBuilder instanceof PayloadApplicable applicable)
+                new Value(payload.getSlime().get()).applyTo(applicable);
+            else
+                handleValue(payload.getSlime().get());
         } catch (FileReferenceDoesNotExistException e) {
             throw e;
         } catch (Exception e) {
@@ -446,6 +462,64 @@ public class ConfigPayloadApplier<T extends ConfigInstance.Builder> {
         }
     }
 
+    /** A payload value which resolves references the same way as the reflective path */
+    private class Value implements PayloadValue {
+
+        private final Inspector inspector;
+
+        Value(Inspector inspector) {
+            this.inspector = inspector;
+        }
+
+        @Override
+        public String asString() {
+            return (String)getValueFromInspector(inspector);
+        }
+
+        @Override
+        public FileReference asPath() {
+            return resolvePath(inspector.asString());
+        }
+
+        @Override
+        public Optional<FileReference> asOptionalPath() {
+            String value = inspector.asString();
+            return resolvePath(value.isEmpty() ? Optional.empty() : Optional.of(value));
+        }
+
+        @Override
+        public UrlReference asUrl() {
+            return inspector.asString().isEmpty() ? UrlReference.valueOf("") : resolveUrl(inspector.asString());
+        }
+
+        @Override
+        public ModelReference asModel() {
+            return inspector.asString().isEmpty() ? null : resolveModel(inspector.asString());
+        }
+
+        @Override
+        public void applyTo(PayloadApplicable builder) {
+            inspector.traverse((String name, Inspector value) -> {
+                if ( ! builder.applyField(name, new Value(value)))
+                    log.log(INFO, "Skipping unknown field " + name + " in " + builder.getClass());
+            });
+        }
+
+        @Override
+        public void forEachElement(Consumer<PayloadValue> consumer) {
+            if (inspector.type() == Type.ARRAY)
+                inspector.traverse((ArrayTraverser) (__, value) -> consumer.accept(new Value(value)));
+            else
+                consumer.accept(this);
+        }
+
+        @Override
+        public void forEachEntry(BiConsumer<String, PayloadValue> consumer) {
+            inspector.traverse((String key, Inspector value) -> consumer.accept(key, new Value(value)));
+        }
+
+    }
+
     /**
      * A class that holds a builder and a stack of names
      */
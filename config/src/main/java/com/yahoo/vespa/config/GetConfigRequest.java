@@ -51,4 +51,12 @@ public interface GetConfigRequest {
      */
     PayloadChecksums configPayloadChecksums();
 
+    /**
+     * Returns whether the client accepts a delta against the config given by the payload checksums in the request,
+     * instead of the full config payload.
+     *
+     * @return true if a delta may be returned, false if not.
+     */
+    default boolean acceptsDelta() { return false; }
+
 }
@@ -14,11 +14,29 @@ public class JRTMethods {
     private static final String configV3GetConfigRequestTypes = "s";
     private static final String configV3GetConfigResponseTypes = "sx";
 
+    public static final String configV3getConfigsMethodName = "config.v3.getConfigs";
+    private static final String configV3GetConfigsRequestTypes = "S";
+    private static final String configV3GetConfigsResponseTypes = "SXIS";
+
     public static Method createConfigV3GetConfigMethod(MethodHandler methodHandler) {
         return addDescriptions(
                 new Method(configV3getConfigMethodName, configV3GetConfigRequestTypes, configV3GetConfigResponseTypes, methodHandler));
     }
 
+    /**
+     * Creates the method for getting several configs in one request. It returns when any of the configs has changed,
+     * or when the shortest timeout of the requests has elapsed, with a response for each of the requests.
+     */
+    public static Method createConfigV3GetConfigsMethod(MethodHandler methodHandler) {
+        return new Method(configV3getConfigsMethodName, configV3GetConfigsRequestTypes, configV3GetConfigsResponseTypes, methodHandler)
+                .methodDesc("get configs v3")
+                .paramDesc(0, "requests", "config requests")
+                .returnDesc(0, "responses", "config responses, in the same order as the requests")
+                .returnDesc(1, "payloads", "config response payloads")
+                .returnDesc(2, "errorCodes", "error code of each response, 0 if OK")
+                .returnDesc(3, "errorMessages", "error message of each response");
+    }
+
     private static Method addDescriptions(Method method) {
         return method.methodDesc("get config v3")
                 .paramDesc(0, "request", "config request")
@@ -29,4 +47,8 @@ public class JRTMethods {
     public static boolean checkV3ReturnTypes(Request request) {
         return request.checkReturnTypes(JRTMethods.configV3GetConfigResponseTypes);
     }
+
+    public static boolean checkV3BatchReturnTypes(Request request) {
+        return request.checkReturnTypes(JRTMethods.configV3GetConfigsResponseTypes);
+    }
 }
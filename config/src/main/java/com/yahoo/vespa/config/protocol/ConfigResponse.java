@@ -7,6 +7,7 @@ import com.yahoo.text.AbstractUtf8Array;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Optional;
 
 /**
  * A config response encapsulates the payload and some meta information. This makes it possible to
@@ -34,4 +35,10 @@ public interface ConfigResponse {
 
     PayloadChecksums getPayloadChecksums();
 
+    /**
+     * Returns the xxhash64 checksum of the config the payload of this is a {@link PayloadDelta} against,
+     * or empty if the payload is the full config.
+     */
+    default Optional<PayloadChecksum> getDeltaBase() { return Optional.empty(); }
+
 }
@@ -0,0 +1,76 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.protocol;
+
+import com.yahoo.jrt.DataValue;
+import com.yahoo.jrt.Request;
+import com.yahoo.jrt.StringArray;
+import com.yahoo.jrt.StringValue;
+import com.yahoo.vespa.config.JRTMethods;
+
+import java.util.List;
+
+/**
+ * Several V3 config requests sent in one "config.v3.getConfigs" request. The server answers when any of the
+ * configs has changed, or when the shortest timeout of the requests has elapsed, and {@link #setResponses()}
+ * then makes the response to each request available through the request itself, so it can be handled
+ * as if it had been sent alone.
+ *
+ * See {@link JRTServerConfigRequestBatchV3} for the server side.
+ *
+ * @author agent
+ */
+public class JRTClientConfigRequestBatchV3 {
+
+    private final Request request;
+    private final List<JRTClientConfigRequest> requests;
+
+    public JRTClientConfigRequestBatchV3(List<JRTClientConfigRequest> requests) {
+        this.requests = List.copyOf(requests);
+        this.request = new Request(JRTMethods.configV3getConfigsMethodName);
+        request.parameters().add(new StringArray(this.requests.stream()
+                                                              .map(single -> single.getRequest().parameters().get(0).asString())
+                                                              .toArray(String[]::new)));
+    }
+
+    public List<JRTClientConfigRequest> requests() { return requests; }
+
+    public Request getRequest() { return request; }
+
+    /** Returns the shortest timeout of the requests in this */
+    public long getTimeout() {
+        return requests.stream().mapToLong(JRTClientConfigRequest::getTimeout).min().orElse(0);
+    }
+
+    /**
+     * Sets the response to each of the requests in this from the response to this. If this failed as a whole,
+     * each of the requests fails with the same error.
+     */
+    public void setResponses() {
+        if (request.isError() || ! JRTMethods.checkV3BatchReturnTypes(request)) {
+            requests.forEach(single -> single.getRequest().setError(request.errorCode(), request.errorMessage()));
+            return;
+        }
+        String[] responses = request.returnValues().get(0).asStringArray();
+        byte[][] payloads = request.returnValues().get(1).asDataArray();
+        int[] errorCodes = request.returnValues().get(2).asInt32Array();
+        String[] errorMessages = request.returnValues().get(3).asStringArray();
+        if (responses.length != requests.size()) {
+            requests.forEach(single -> single.getRequest().setError(com.yahoo.jrt.ErrorCode.WRONG_RETURN,
+                                                                    "Got " + responses.length + " responses to " + requests.size() + " requests"));
+            return;
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            Request single = requests.get(i).getRequest();
+            single.returnValues().add(new StringValue(responses[i]));
+            single.returnValues().add(new DataValue(payloads[i]));
+            if (errorCodes[i] != 0)
+                single.setError(errorCodes[i], errorMessages[i]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "batch of " + requests.size() + " config requests";
+    }
+
+}
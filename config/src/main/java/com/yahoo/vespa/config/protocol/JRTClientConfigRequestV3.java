@@ -41,6 +41,18 @@ public class JRTClientConfigRequestV3 implements JRTClientConfigRequest {
     protected final Request request;
     private final SlimeResponseData responseData;
 
+    /** Whether to keep the config payload the request checksums refer to, and ask for deltas against it */
+    private final boolean deltaEnabled;
+
+    /** The config payload the request checksums refer to, if known */
+    private final Optional<Payload> basePayload;
+
+    /** The full config payload of the response, resolved when first accessed */
+    private Payload newPayload = null;
+
+    /** Whether the response is a delta which could not be applied to the base payload */
+    private boolean invalidDelta = false;
+
     protected JRTClientConfigRequestV3(ConfigKey<?> key,
                                        String hostname,
                                        DefContent defSchema,
@@ -50,6 +62,20 @@ public class JRTClientConfigRequestV3 implements JRTClientConfigRequest {
                                        Trace trace,
                                        CompressionType compressionType,
                                        Optional<VespaVersion> vespaVersion) {
+        this(key, hostname, defSchema, payloadChecksums, generation, timeout, trace, compressionType, vespaVersion, false, Optional.empty());
+    }
+
+    protected JRTClientConfigRequestV3(ConfigKey<?> key,
+                                       String hostname,
+                                       DefContent defSchema,
+                                       PayloadChecksums payloadChecksums,
+                                       long generation,
+                                       long timeout,
+                                       Trace trace,
+                                       CompressionType compressionType,
+                                       Optional<VespaVersion> vespaVersion,
+                                       boolean deltaEnabled,
+                                       Optional<Payload> basePayload) {
         Slime data = SlimeRequestData.encodeRequest(key,
                                                     hostname,
                                                     defSchema,
@@ -59,13 +85,16 @@ public class JRTClientConfigRequestV3 implements JRTClientConfigRequest {
                                                     trace,
                                                     getProtocolVersion(),
                                                     compressionType,
-                                                    vespaVersion);
+                                                    vespaVersion,
+                                                    deltaEnabled && basePayload.isPresent());
         Request jrtReq = new Request(getJRTMethodName());
         jrtReq.parameters().add(new StringValue(encodeAsUtf8String(data)));
 
         this.requestData = new SlimeRequestData(jrtReq, data);
         this.responseData = new SlimeResponseData(jrtReq);
         this.request = jrtReq;
+        this.deltaEnabled = deltaEnabled;
+        this.basePayload = deltaEnabled ? basePayload : Optional.empty();
     }
 
     protected static String encodeAsUtf8String(Slime data) {
@@ -86,11 +115,35 @@ public class JRTClientConfigRequestV3 implements JRTClientConfigRequest {
         return JRTMethods.checkV3ReturnTypes(request);
     }
 
+    /**
+     * Returns the full config payload of the response. If the response is a delta, this is the
+     * uncompressed result of applying it to the config payload this request was made with.
+     *
+     * @throws IllegalArgumentException if the response is a delta which cannot be applied
+     */
     @Override
-    public Payload getNewPayload() {
+    public synchronized Payload getNewPayload() {
+        if (newPayload == null)
+            newPayload = resolveNewPayload();
+        return newPayload;
+    }
+
+    private Payload resolveNewPayload() {
         CompressionInfo compressionInfo = getResponseData().getCompressionInfo();
-        Utf8Array payload = new Utf8Array(request.returnValues().get(1).asData());
-        return Payload.from(payload, compressionInfo);
+        Utf8Array data = new Utf8Array(request.returnValues().get(1).asData());
+        Payload payload = Payload.from(data, compressionInfo);
+        Optional<PayloadChecksum> deltaBase = getResponseData().getResponseDeltaBase();
+        if (deltaBase.isEmpty()) return payload;
+
+        if (basePayload.isEmpty() || ! deltaBase.get().equals(getRequestConfigChecksums().getForType(XXHASH64)))
+            throw new IllegalArgumentException("Got a delta against config with checksum " + deltaBase.get() +
+                                               ", but requested with " + getRequestConfigChecksums());
+        Payload resolved = PayloadDelta.apply(basePayload.get(), payload);
+        PayloadChecksum expected = getNewChecksums().getForType(XXHASH64);
+        PayloadChecksum actual = new PayloadChecksum(ConfigUtils.getXxhash64(resolved.getData()), XXHASH64);
+        if ( ! actual.equals(expected))
+            throw new IllegalArgumentException("Config resolved from delta has checksum " + actual + ", expected " + expected);
+        return resolved;
     }
 
     @Override
@@ -100,31 +153,54 @@ public class JRTClientConfigRequestV3 implements JRTClientConfigRequest {
 
     @Override
     public JRTClientConfigRequest nextRequest(long timeout) {
+        // After failing to apply a delta, keep the old checksums, but drop the old payload, to get the full config
+        boolean failed = isError() || invalidDelta;
         return new JRTClientConfigRequestV3(getConfigKey(),
                 getClientHostName(),
                 getDefContent(),
-                isError() ? getRequestConfigChecksums() : newConfigChecksums(),
-                isError() ? getRequestGeneration() : newGen(),
+                failed ? getRequestConfigChecksums() : newConfigChecksums(),
+                failed ? getRequestGeneration() : newGen(),
                 timeout,
                 Trace.createNew(),
                 requestData.getCompressionType(),
-                requestData.getVespaVersion());
+                requestData.getVespaVersion(),
+                deltaEnabled,
+                invalidDelta ? Optional.empty() : nextBasePayload());
+    }
+
+    private Optional<Payload> nextBasePayload() {
+        if ( ! deltaEnabled || isError() || ! hasUpdatedConfig()) return basePayload;
+        return Optional.of(getNewPayload().withCompression(requestData.getCompressionType()));
     }
 
     public static <T extends ConfigInstance> JRTClientConfigRequest createFromSub(JRTConfigSubscription<T> sub,
                                                                                   Trace trace,
                                                                                   CompressionType compressionType,
                                                                                   Optional<VespaVersion> vespaVersion) {
+        return createFromSub(sub, trace, compressionType, vespaVersion, false);
+    }
+
+    /**
+     * Creates a request for the config of the given subscription. If delta is enabled, the payload of each
+     * config received is kept, and subsequent requests ask for a {@link PayloadDelta} against it.
+     */
+    public static <T extends ConfigInstance> JRTClientConfigRequest createFromSub(JRTConfigSubscription<T> sub,
+                                                                                  Trace trace,
+                                                                                  CompressionType compressionType,
+                                                                                  Optional<VespaVersion> vespaVersion,
+                                                                                  boolean deltaEnabled) {
         ConfigSubscription.ConfigState<T> configState = sub.getConfigState();
-        return createWithParams(sub.getKey(),
-                                sub.getDefContent(),
-                                ConfigUtils.getCanonicalHostName(),
-                                configState.getChecksums(),
-                                configState.getGeneration(),
-                                sub.timingValues().getSubscribeTimeout(),
-                                trace,
-                                compressionType,
-                                vespaVersion);
+        return new JRTClientConfigRequestV3(sub.getKey(),
+                                            ConfigUtils.getCanonicalHostName(),
+                                            sub.getDefContent(),
+                                            configState.getChecksums(),
+                                            configState.getGeneration(),
+                                            sub.timingValues().getSubscribeTimeout(),
+                                            trace,
+                                            compressionType,
+                                            vespaVersion,
+                                            deltaEnabled,
+                                            Optional.empty());
     }
 
     public static JRTClientConfigRequest createFromRaw(RawConfig config,
@@ -164,6 +240,33 @@ public class JRTClientConfigRequestV3 implements JRTClientConfigRequest {
                                             vespaVersion);
     }
 
+    /**
+     * Creates a request which accepts a {@link PayloadDelta} against the given payload,
+     * which must be the config payload with the given checksums.
+     */
+    public static JRTClientConfigRequest createWithParams(ConfigKey<?> reqKey,
+                                                          DefContent defContent,
+                                                          String hostname,
+                                                          PayloadChecksums payloadChecksums,
+                                                          long generation,
+                                                          long serverTimeout,
+                                                          Trace trace,
+                                                          CompressionType compressionType,
+                                                          Optional<VespaVersion> vespaVersion,
+                                                          Payload basePayload) {
+        return new JRTClientConfigRequestV3(reqKey,
+                                            hostname,
+                                            defContent,
+                                            payloadChecksums,
+                                            generation,
+                                            serverTimeout,
+                                            trace,
+                                            compressionType,
+                                            vespaVersion,
+                                            true,
+                                            Optional.of(basePayload));
+    }
+
     @Override
     public Optional<VespaVersion> getVespaVersion() {
         return requestData.getVespaVersion();
@@ -291,6 +394,13 @@ public class JRTClientConfigRequestV3 implements JRTClientConfigRequest {
             log.warning("Invalid return types for config response: " + errorMessage());
             return false;
         }
+        try {
+            getNewPayload();
+        } catch (IllegalArgumentException e) {
+            log.warning("Invalid delta in config response for " + getConfigKey() + ", requesting full config: " + e.getMessage());
+            invalidDelta = true;
+            return false;
+        }
         return true;
     }
 
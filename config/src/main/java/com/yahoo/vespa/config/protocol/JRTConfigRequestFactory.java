@@ -17,10 +17,12 @@ public class JRTConfigRequestFactory {
 
     private static final CompressionType compressionType = getCompressionType();
     private static final String VESPA_CONFIG_PROTOCOL_COMPRESSION = "VESPA_CONFIG_PROTOCOL_COMPRESSION";
+    private static final boolean deltaEnabled = getDeltaEnabled();
+    private static final String VESPA_CONFIG_PROTOCOL_DELTA = "VESPA_CONFIG_PROTOCOL_DELTA";
 
     public static <T extends ConfigInstance> JRTClientConfigRequest createFromSub(JRTConfigSubscription<T> sub) {
         // TODO: Get trace from caller
-        return JRTClientConfigRequestV3.createFromSub(sub, Trace.createNew(), compressionType, getVespaVersion());
+        return JRTClientConfigRequestV3.createFromSub(sub, Trace.createNew(), compressionType, getVespaVersion(), deltaEnabled);
     }
 
     public static JRTClientConfigRequest createFromRaw(RawConfig config, long serverTimeout) {
@@ -37,6 +39,16 @@ public class JRTConfigRequestFactory {
         return CompressionType.valueOf(ConfigUtils.getEnvValue("LZ4", env, property));
     }
 
+    /** Returns whether config clients should keep the config payloads they receive, and ask for deltas against them */
+    public static boolean getDeltaEnabled() {
+        return getDeltaEnabled(System.getenv(VESPA_CONFIG_PROTOCOL_DELTA),
+                               System.getProperty(VESPA_CONFIG_PROTOCOL_DELTA));
+    }
+
+    static boolean getDeltaEnabled(String env, String property) {
+        return Boolean.parseBoolean(ConfigUtils.getEnvValue("false", env, property));
+    }
+
     static Optional<VespaVersion> getVespaVersion() {
         return Optional.of(getCompiledVespaVersion());
     }
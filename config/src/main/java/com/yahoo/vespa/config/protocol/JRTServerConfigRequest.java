@@ -1,9 +1,12 @@
 // Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.vespa.config.protocol;
 
+import com.yahoo.vespa.config.PayloadChecksum;
 import com.yahoo.vespa.config.PayloadChecksums;
 import com.yahoo.vespa.config.GetConfigRequest;
 
+import java.util.Optional;
+
 /**
  * Interface for config requests at the server end point.
  *
@@ -39,6 +42,20 @@ public interface JRTServerConfigRequest extends JRTConfigRequest, GetConfigReque
      */
     void addOkResponse(Payload payload, long generation, boolean applyOnRestart, PayloadChecksums payloadChecksums);
 
+    /**
+     * Signal that the request was handled, with a payload which is a {@link PayloadDelta} against the config
+     * the client has, if the given delta base is present, and the full config payload otherwise.
+     *
+     * @param payload The config payload or delta that the client should receive.
+     * @param generation The config generation of the given payload.
+     * @param applyOnRestart true if this config should only be applied on the next restart,
+     *                       false if it should be applied right away
+     * @param payloadChecksums checksums of the full config payload.
+     * @param deltaBase the xxhash64 checksum of the config the given payload is a delta against, if any.
+     */
+    void addOkResponse(Payload payload, long generation, boolean applyOnRestart, PayloadChecksums payloadChecksums,
+                       Optional<PayloadChecksum> deltaBase);
+
     /**
      * Returns the md5 of the config definition in the request.
      *
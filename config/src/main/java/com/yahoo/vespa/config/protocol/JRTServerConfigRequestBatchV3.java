@@ -0,0 +1,86 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.protocol;
+
+import com.yahoo.jrt.DataArray;
+import com.yahoo.jrt.Int32Array;
+import com.yahoo.jrt.Request;
+import com.yahoo.jrt.StringArray;
+import com.yahoo.jrt.StringValue;
+import com.yahoo.jrt.Values;
+import com.yahoo.vespa.config.JRTMethods;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Several V3 config requests, received in one "config.v3.getConfigs" request, and answered together.
+ * Each of the requests is a {@link JRTServerConfigRequestV3}, which is handled like one received alone,
+ * except that its response is not returned by itself, but as part of the response of this,
+ * by {@link #addResponses()}.
+ *
+ * @author agent
+ */
+public class JRTServerConfigRequestBatchV3 {
+
+    private final Request request;
+    private final List<JRTServerConfigRequest> requests;
+
+    private JRTServerConfigRequestBatchV3(Request request, List<JRTServerConfigRequest> requests) {
+        this.request = request;
+        this.requests = List.copyOf(requests);
+    }
+
+    public static JRTServerConfigRequestBatchV3 createFromRequest(Request req) {
+        List<JRTServerConfigRequest> requests = new ArrayList<>();
+        for (String data : req.parameters().get(0).asStringArray()) {
+            Request single = new Request(JRTMethods.configV3getConfigMethodName);
+            single.parameters().add(new StringValue(data));
+            requests.add(JRTServerConfigRequestV3.createFromRequest(single));
+        }
+        return new JRTServerConfigRequestBatchV3(req, requests);
+    }
+
+    /** Returns the requests in this, in the order they were sent */
+    public List<JRTServerConfigRequest> requests() { return requests; }
+
+    /** Returns the requests in this which do not have a response yet */
+    public List<JRTServerConfigRequest> pendingRequests() {
+        return requests.stream().filter(request -> request.getRequest().returnValues().size() == 0).toList();
+    }
+
+    /** Returns the shortest timeout of the requests in this, which is when this must be answered */
+    public long getTimeout() {
+        return requests.stream().mapToLong(JRTServerConfigRequest::getTimeout).min().orElse(0);
+    }
+
+    public Request getRequest() { return request; }
+
+    /** Adds the responses of all the requests in this, which must have been added to each of them, to the response of this */
+    public void addResponses() {
+        String[] responses = new String[requests.size()];
+        byte[][] payloads = new byte[requests.size()][];
+        int[] errorCodes = new int[requests.size()];
+        String[] errorMessages = new String[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            Request single = requests.get(i).getRequest();
+            Values values = single.returnValues();
+            if (values.size() == 0)
+                throw new IllegalStateException("No response for " + requests.get(i).getShortDescription());
+
+            responses[i] = values.get(0).asString();
+            payloads[i] = values.size() > 1 ? values.get(1).asData() : new byte[0];
+            errorCodes[i] = single.errorCode();
+            errorMessages[i] = single.isError() ? single.errorMessage() : "";
+        }
+        request.returnValues().add(new StringArray(responses));
+        request.returnValues().add(new DataArray(payloads));
+        request.returnValues().add(new Int32Array(errorCodes));
+        request.returnValues().add(new StringArray(errorMessages));
+    }
+
+    @Override
+    public String toString() {
+        return "batch of " + requests.size() + " config requests";
+    }
+
+}
@@ -10,6 +10,7 @@ import com.yahoo.jrt.Value;
 import com.yahoo.text.Utf8Array;
 import com.yahoo.vespa.config.ConfigKey;
 import com.yahoo.vespa.config.ErrorCode;
+import com.yahoo.vespa.config.PayloadChecksum;
 import com.yahoo.vespa.config.PayloadChecksums;
 
 import java.io.ByteArrayOutputStream;
@@ -71,6 +72,12 @@ public class JRTServerConfigRequestV3 implements JRTServerConfigRequest {
 
     @Override
     public void addOkResponse(Payload payload, long generation, boolean applyOnRestart, PayloadChecksums checksums) {
+        addOkResponse(payload, generation, applyOnRestart, checksums, Optional.empty());
+    }
+
+    @Override
+    public void addOkResponse(Payload payload, long generation, boolean applyOnRestart, PayloadChecksums checksums,
+                              Optional<PayloadChecksum> deltaBase) {
         this.applyOnRestart = applyOnRestart;
         Payload responsePayload = payload.withCompression(getCompressionType());
         if (responsePayload == null)
@@ -85,6 +92,8 @@ public class JRTServerConfigRequestV3 implements JRTServerConfigRequest {
             addPayloadCheckSums(jsonGenerator, checksums);
             setResponseField(jsonGenerator, SlimeResponseData.RESPONSE_CONFIG_GENERATION, generation);
             setResponseField(jsonGenerator, SlimeResponseData.RESPONSE_APPLY_ON_RESTART, applyOnRestart);
+            if (deltaBase.isPresent())
+                setResponseField(jsonGenerator, SlimeResponseData.RESPONSE_DELTA_BASE, deltaBase.get().asString());
             jsonGenerator.writeObjectFieldStart(SlimeResponseData.RESPONSE_COMPRESSION_INFO);
             responsePayload.getCompressionInfo().serialize(jsonGenerator);
             jsonGenerator.writeEndObject();
@@ -124,6 +133,11 @@ public class JRTServerConfigRequestV3 implements JRTServerConfigRequest {
         return false;
     }
 
+    @Override
+    public boolean acceptsDelta() {
+        return requestData.getAcceptDelta();
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,211 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.protocol;
+
+import com.yahoo.slime.ArrayInserter;
+import com.yahoo.slime.ArrayTraverser;
+import com.yahoo.slime.Cursor;
+import com.yahoo.slime.Injector;
+import com.yahoo.slime.Inserter;
+import com.yahoo.slime.Inspector;
+import com.yahoo.slime.ObjectInserter;
+import com.yahoo.slime.ObjectTraverser;
+import com.yahoo.slime.Slime;
+import com.yahoo.slime.SlimeInserter;
+import com.yahoo.slime.SlimeUtils;
+import com.yahoo.slime.Type;
+import com.yahoo.text.AbstractUtf8Array;
+import com.yahoo.vespa.config.ConfigPayload;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A Slime level delta between two config payloads, which a client holding the first payload can apply
+ * to get the second, without having the complete second payload sent to it.
+ *
+ * A delta is a patch of the root object of the payload, where a patch is one of
+ * <ul>
+ *     <li>{"value": v}, which replaces the old value with v,</li>
+ *     <li>{"fields": {name: patch, ...}, "remove": [name, ...]}, which patches, adds and removes fields of an object, or</li>
+ *     <li>{"length": n, "entries": [{"index": i, "patch": patch}, ...]}, which patches the entries of an array and
+ *         truncates or extends it to length n.</li>
+ * </ul>
+ * Applying a delta preserves the order of fields, such that the resulting payload is byte for byte equal to the one
+ * the delta was created from.
+ *
+ * @author agent
+ */
+public class PayloadDelta {
+
+    private static final String VALUE = "value";
+    private static final String FIELDS = "fields";
+    private static final String REMOVE = "remove";
+    private static final String LENGTH = "length";
+    private static final String ENTRIES = "entries";
+    private static final String INDEX = "index";
+    private static final String PATCH = "patch";
+
+    private static final Injector injector = new Injector();
+
+    private PayloadDelta() { }
+
+    /**
+     * Returns an uncompressed delta which transforms the given base payload into the given target payload,
+     * or empty if the delta is not less than half the size of the target.
+     */
+    public static Optional<Payload> create(Payload base, Payload target) {
+        Slime from = decode(base);
+        Slime to = decode(target);
+        if (from.get().type() != Type.OBJECT || to.get().type() != Type.OBJECT) return Optional.empty();
+
+        Slime delta = new Slime();
+        diff(from.get(), to.get(), delta.setObject());
+        AbstractUtf8Array data = encode(delta);
+        if (data.getByteLength() * 2L >= target.getCompressionInfo().getUncompressedSize()) return Optional.empty();
+
+        // Protect against deltas that would not reproduce the target exactly, as clients verify its checksum
+        if ( ! encode(apply(from, delta)).equals(target.withCompression(CompressionType.UNCOMPRESSED).getData()))
+            return Optional.empty();
+
+        return Optional.of(Payload.from(data));
+    }
+
+    /** Returns the uncompressed payload resulting from applying the given delta to the given base payload */
+    public static Payload apply(Payload base, Payload delta) {
+        return Payload.from(encode(apply(decode(base), decode(delta))));
+    }
+
+    static Slime apply(Slime base, Slime delta) {
+        Slime result = new Slime();
+        apply(base.get(), delta.get(), new SlimeInserter(result));
+        return result;
+    }
+
+    static void diff(Inspector base, Inspector target, Cursor patch) {
+        if (base.type() == Type.OBJECT && target.type() == Type.OBJECT && hasPatchableFieldOrder(base, target))
+            diffObject(base, target, patch);
+        else if (base.type() == Type.ARRAY && target.type() == Type.ARRAY && hasFewChanges(base, target))
+            diffArray(base, target, patch);
+        else
+            SlimeUtils.setObjectEntry(target, VALUE, patch);
+    }
+
+    private static void diffObject(Inspector base, Inspector target, Cursor patch) {
+        Cursor fields = patch.setObject(FIELDS);
+        target.traverse((ObjectTraverser) (name, value) -> {
+            Inspector old = base.field(name);
+            if ( ! old.valid())
+                SlimeUtils.setObjectEntry(value, VALUE, fields.setObject(name));
+            else if ( ! old.equalTo(value))
+                diff(old, value, fields.setObject(name));
+        });
+        Cursor[] removed = { null };
+        base.traverse((ObjectTraverser) (name, value) -> {
+            if (target.field(name).valid()) return;
+            if (removed[0] == null) removed[0] = patch.setArray(REMOVE);
+            removed[0].addString(name);
+        });
+    }
+
+    private static void diffArray(Inspector base, Inspector target, Cursor patch) {
+        patch.setLong(LENGTH, target.entries());
+        Cursor entries = patch.setArray(ENTRIES);
+        for (int i = 0; i < target.entries(); i++) {
+            if (i < base.entries() && base.entry(i).equalTo(target.entry(i))) continue;
+
+            Cursor entry = entries.addObject();
+            entry.setLong(INDEX, i);
+            if (i < base.entries())
+                diff(base.entry(i), target.entry(i), entry.setObject(PATCH));
+            else
+                SlimeUtils.setObjectEntry(target.entry(i), VALUE, entry.setObject(PATCH));
+        }
+    }
+
+    /** Returns whether the fields present in both objects have the same order, and all added fields are last in the target */
+    private static boolean hasPatchableFieldOrder(Inspector base, Inspector target) {
+        Map<String, Integer> positions = new HashMap<>();
+        base.traverse((ObjectTraverser) (name, value) -> positions.put(name, positions.size()));
+        int[] last = { -1 };
+        boolean[] added = { false };
+        boolean[] patchable = { true };
+        target.traverse((ObjectTraverser) (name, value) -> {
+            Integer position = positions.get(name);
+            if (position == null)
+                added[0] = true;
+            else if (added[0] || position < last[0])
+                patchable[0] = false;
+            else
+                last[0] = position;
+        });
+        return patchable[0];
+    }
+
+    /** Returns whether at most half the entries of the target array differ from the base array */
+    private static boolean hasFewChanges(Inspector base, Inspector target) {
+        int changed = Math.max(0, target.entries() - base.entries());
+        for (int i = 0; i < Math.min(base.entries(), target.entries()) && changed * 2 <= target.entries(); i++)
+            if ( ! base.entry(i).equalTo(target.entry(i))) changed++;
+        return changed * 2 <= target.entries();
+    }
+
+    private static void apply(Inspector base, Inspector patch, Inserter inserter) {
+        if (patch.field(VALUE).valid())
+            injector.inject(patch.field(VALUE), inserter);
+        else if (patch.field(FIELDS).valid())
+            applyObject(base, patch, inserter.insertOBJECT());
+        else if (patch.field(LENGTH).valid())
+            applyArray(base, patch, inserter.insertARRAY());
+        else
+            throw new IllegalArgumentException("Invalid config delta: " + patch);
+    }
+
+    private static void applyObject(Inspector base, Inspector patch, Cursor object) {
+        Inspector fields = patch.field(FIELDS);
+        Set<String> removed = new HashSet<>();
+        patch.field(REMOVE).traverse((ArrayTraverser) (i, name) -> removed.add(name.asString()));
+        base.traverse((ObjectTraverser) (name, value) -> {
+            if (removed.contains(name)) return;
+            Inspector fieldPatch = fields.field(name);
+            if (fieldPatch.valid())
+                apply(value, fieldPatch, new ObjectInserter(object, name));
+            else
+                injector.inject(value, new ObjectInserter(object, name));
+        });
+        fields.traverse((ObjectTraverser) (name, fieldPatch) -> {
+            if ( ! base.field(name).valid())
+                apply(base.field(name), fieldPatch, new ObjectInserter(object, name));
+        });
+    }
+
+    private static void applyArray(Inspector base, Inspector patch, Cursor array) {
+        Inspector entries = patch.field(ENTRIES);
+        long length = patch.field(LENGTH).asLong();
+        ArrayInserter inserter = new ArrayInserter(array);
+        for (int i = 0, next = 0; i < length; i++) {
+            Inspector entry = entries.entry(next);
+            if (entry.valid() && entry.field(INDEX).asLong() == i) {
+                apply(base.entry(i), entry.field(PATCH), inserter);
+                next++;
+            }
+            else if (base.entry(i).valid()) {
+                injector.inject(base.entry(i), inserter);
+            }
+            else {
+                throw new IllegalArgumentException("Invalid config delta: Missing entry " + i + " in " + patch);
+            }
+        }
+    }
+
+    private static Slime decode(Payload payload) {
+        return ConfigPayload.fromUtf8Array(payload.withCompression(CompressionType.UNCOMPRESSED).getData()).getSlime();
+    }
+
+    private static AbstractUtf8Array encode(Slime slime) {
+        return new ConfigPayload(slime).toUtf8Array(true);
+    }
+
+}
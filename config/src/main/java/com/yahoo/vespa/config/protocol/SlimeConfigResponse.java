@@ -3,11 +3,13 @@ package com.yahoo.vespa.config.protocol;
 
 import com.yahoo.text.AbstractUtf8Array;
 import com.yahoo.vespa.config.ConfigPayload;
+import com.yahoo.vespa.config.PayloadChecksum;
 import com.yahoo.vespa.config.PayloadChecksums;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.Optional;
 
 /**
  * Class for serializing config responses based on {@link com.yahoo.slime.Slime} implementing the {@link ConfigResponse} interface.
@@ -21,6 +23,7 @@ public class SlimeConfigResponse implements ConfigResponse {
     private final long generation;
     private final boolean applyOnRestart;
     private final PayloadChecksums payloadChecksums;
+    private final Optional<PayloadChecksum> deltaBase;
 
     public static SlimeConfigResponse fromConfigPayload(ConfigPayload payload,
                                                         long generation,
@@ -34,16 +37,36 @@ public class SlimeConfigResponse implements ConfigResponse {
                                        CompressionInfo.create(CompressionType.UNCOMPRESSED, data.getByteLength()));
     }
 
+    /** Returns a response with the given uncompressed delta against the config with the given checksum, instead of the full config */
+    public static SlimeConfigResponse delta(Payload delta, PayloadChecksum deltaBase, ConfigResponse target) {
+        return new SlimeConfigResponse(delta.getData(),
+                                       target.getGeneration(),
+                                       target.applyOnRestart(),
+                                       target.getPayloadChecksums(),
+                                       delta.getCompressionInfo(),
+                                       Optional.of(deltaBase));
+    }
+
     public SlimeConfigResponse(AbstractUtf8Array payload,
                                long generation,
                                boolean applyOnRestart,
                                PayloadChecksums payloadChecksums,
                                CompressionInfo compressionInfo) {
+        this(payload, generation, applyOnRestart, payloadChecksums, compressionInfo, Optional.empty());
+    }
+
+    private SlimeConfigResponse(AbstractUtf8Array payload,
+                                long generation,
+                                boolean applyOnRestart,
+                                PayloadChecksums payloadChecksums,
+                                CompressionInfo compressionInfo,
+                                Optional<PayloadChecksum> deltaBase) {
         this.payload = payload;
         this.generation = generation;
         this.applyOnRestart = applyOnRestart;
         this.payloadChecksums = payloadChecksums;
         this.compressionInfo = compressionInfo;
+        this.deltaBase = deltaBase;
     }
 
     @Override
@@ -77,4 +100,8 @@ public class SlimeConfigResponse implements ConfigResponse {
 
     @Override
     public PayloadChecksums getPayloadChecksums() { return payloadChecksums; }
+
+    @Override
+    public Optional<PayloadChecksum> getDeltaBase() { return deltaBase; }
+
 }
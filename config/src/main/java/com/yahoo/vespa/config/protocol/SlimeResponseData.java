@@ -8,6 +8,8 @@ import com.yahoo.slime.Inspector;
 import com.yahoo.slime.Slime;
 import com.yahoo.slime.SlimeUtils;
 
+import java.util.Optional;
+
 import static com.yahoo.vespa.config.PayloadChecksum.Type.MD5;
 import static com.yahoo.vespa.config.PayloadChecksum.Type.XXHASH64;
 
@@ -31,6 +33,7 @@ class SlimeResponseData {
     static final String RESPONSE_CONFIG_GENERATION = "generation";
     static final String RESPONSE_APPLY_ON_RESTART = "applyOnRestart";
     static final String RESPONSE_COMPRESSION_INFO = "compressionInfo";
+    static final String RESPONSE_DELTA_BASE = "deltaBase";
 
     private final Request request;
     private Slime data = null;
@@ -86,6 +89,14 @@ class SlimeResponseData {
         return CompressionInfo.fromSlime(getResponseField(RESPONSE_COMPRESSION_INFO));
     }
 
+    /** Returns the xxhash64 checksum of the config the payload is a delta against, or empty if the payload is a full config */
+    Optional<PayloadChecksum> getResponseDeltaBase() {
+        Inspector deltaBaseField = getResponseField(RESPONSE_DELTA_BASE);
+        return deltaBaseField.valid()
+                ? Optional.of(new PayloadChecksum(deltaBaseField.asString(), XXHASH64))
+                : Optional.empty();
+    }
+
     boolean getResponseApplyOnRestart() {
         Inspector inspector = getResponseField(RESPONSE_APPLY_ON_RESTART);
         return inspector.valid() && inspector.asBool();
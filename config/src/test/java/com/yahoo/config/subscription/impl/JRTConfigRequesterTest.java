@@ -6,14 +6,18 @@ import com.yahoo.foo.SimpletypesConfig;
 import com.yahoo.jrt.Request;
 import com.yahoo.jrt.RequestWaiter;
 import com.yahoo.vespa.config.ConfigKey;
+import com.yahoo.vespa.config.ConfigPayload;
 import com.yahoo.vespa.config.ConnectionPool;
 import com.yahoo.vespa.config.ErrorCode;
+import com.yahoo.vespa.config.JRTMethods;
 import com.yahoo.vespa.config.PayloadChecksums;
 import com.yahoo.vespa.config.TimingValues;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequestV3;
+import com.yahoo.vespa.config.protocol.Payload;
 import org.junit.Test;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import static com.yahoo.config.subscription.impl.JRTConfigRequester.calculateFailedRequestDelay;
 import static org.junit.Assert.assertEquals;
@@ -167,8 +171,102 @@ public class JRTConfigRequesterTest {
         }
     }
 
+    @Test
+    public void testRequestsForSeveralSubscriptionsAreBatched() {
+        TimingValues timingValues = getTestTimingValues();
+        MockConnection connection = new MockConnection();
+        JRTConfigRequester requester = new JRTConfigRequester(connection, timingValues);
+        JRTConfigSubscription<SimpletypesConfig> sub1 = createSubscription(requester, timingValues, "id1");
+        JRTConfigSubscription<SimpletypesConfig> sub2 = createSubscription(requester, timingValues, "id2");
+
+        requester.request(sub1);
+        requester.request(sub2);
+        assertTrue(sub1.nextConfig(0));
+        assertTrue(sub2.nextConfig(0));
+        assertEquals(JRTMethods.configV3getConfigMethodName, connection.getRequest().methodName());
+
+        waitForRequests(connection, 4);
+        Request batch = connection.getRequest();
+        assertEquals(JRTMethods.configV3getConfigsMethodName, batch.methodName());
+        assertEquals(2, batch.parameters().get(0).count());
+        assertTrue(sub1.nextConfig(1000));
+        assertTrue(sub2.nextConfig(1000));
+        assertEquals(0, requester.getFailures());
+        sub1.close();
+        sub2.close();
+    }
+
+    @Test
+    public void testUnchangedConfigsOfBatchAreRequestedAgainWithoutDelayWhenAnotherChanges() {
+        assertSecondConfigOfNewGenerationIsDeliveredWithoutDelay(false);
+    }
+
+    @Test
+    public void testConfigsMissingAtSourceAreRequestedAgainWithoutDelayAndAreNotFailures() {
+        assertSecondConfigOfNewGenerationIsDeliveredWithoutDelay(true);
+    }
+
+    private void assertSecondConfigOfNewGenerationIsDeliveredWithoutDelay(boolean missingAtSource) {
+        TimingValues timingValues = new TimingValues(1000, 500, 500, 2000, 1000);
+        NewGenerationResponseHandler handler = new NewGenerationResponseHandler(missingAtSource);
+        JRTConfigRequester requester = new JRTConfigRequester(new MockConnection(handler), timingValues);
+        JRTConfigSubscription<SimpletypesConfig> sub1 = createSubscription(requester, timingValues, "id1");
+        JRTConfigSubscription<SimpletypesConfig> sub2 = createSubscription(requester, timingValues, "id2");
+
+        requester.request(sub1);
+        requester.request(sub2);
+        assertTrue(sub1.nextConfig(0));
+        assertTrue(sub2.nextConfig(0));
+
+        // The first batch delivers generation 2 of id1 only, while id2 is at generation 1, or missing, at the source
+        assertTrue(sub1.nextConfig(5000));
+        assertEquals(2, (long) sub1.getConfigState().getGeneration());
+        assertTrue(sub2.nextConfig(5000));
+        assertEquals(2, (long) sub2.getConfigState().getGeneration());
+        long waited = TimeUnit.NANOSECONDS.toMillis(handler.secondConfigDeliveredAt - handler.firstBatchAt);
+        long minimumFixedDelay = (long) ((1 - JRTConfigRequester.randomFraction) * timingValues.getFixedDelay());
+        assertTrue("Waited " + waited + " ms for the second config", waited < minimumFixedDelay);
+        assertEquals(0, requester.getFailures());
+        sub1.close();
+        sub2.close();
+    }
+
+    @Test
+    public void testOneRequestPerSubscriptionWhenBatchesAreNotSupported() {
+        TimingValues timingValues = getTestTimingValues();
+        MockConnection connection = new MockConnection(new MockConnection.OKResponseHandler() {
+            @Override
+            public void handle(Request request, RequestWaiter requestWaiter) {
+                if (request.methodName().equals(JRTMethods.configV3getConfigsMethodName)) {
+                    request.setError(com.yahoo.jrt.ErrorCode.NO_SUCH_METHOD, "No such method");
+                    requestWaiter.handleRequestDone(request);
+                }
+                else {
+                    super.handle(request, requestWaiter);
+                }
+            }
+        });
+        JRTConfigRequester requester = new JRTConfigRequester(connection, timingValues);
+        JRTConfigSubscription<SimpletypesConfig> sub1 = createSubscription(requester, timingValues, "id1");
+        JRTConfigSubscription<SimpletypesConfig> sub2 = createSubscription(requester, timingValues, "id2");
+
+        requester.request(sub1);
+        requester.request(sub2);
+        waitForRequests(connection, 7);
+        assertEquals(JRTMethods.configV3getConfigMethodName, connection.getRequest().methodName());
+        assertTrue(sub1.nextConfig(1000));
+        assertTrue(sub2.nextConfig(1000));
+        assertEquals(0, requester.getFailures());
+        sub1.close();
+        sub2.close();
+    }
+
     private JRTConfigSubscription<SimpletypesConfig> createSubscription(JRTConfigRequester requester, TimingValues timingValues) {
-        return new JRTConfigSubscription<>(new ConfigKey<>(SimpletypesConfig.class, "testid"),
+        return createSubscription(requester, timingValues, "testid");
+    }
+
+    private JRTConfigSubscription<SimpletypesConfig> createSubscription(JRTConfigRequester requester, TimingValues timingValues, String configId) {
+        return new JRTConfigSubscription<>(new ConfigKey<>(SimpletypesConfig.class, configId),
                                            requester,
                                            timingValues);
     }
@@ -190,6 +288,19 @@ public class JRTConfigRequesterTest {
         }
     }
 
+    private void waitForRequests(MockConnection connection, int requests) {
+        int i = 0;
+        while (i < 1000 && connection.getNumberOfRequests() < requests) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            i++;
+        }
+        assertTrue(connection.getNumberOfRequests() >= requests);
+    }
+
     public static TimingValues getTestTimingValues() { return new TimingValues(
             1000,  // successTimeout
             500,   // errorTimeout
@@ -198,6 +309,47 @@ public class JRTConfigRequesterTest {
             250);   // fixedDelay
     }
 
+    /** Serves generation 1 of all configs, then generation 2, where id1 changes in the first batch and id2 after that */
+    private static class NewGenerationResponseHandler extends MockConnection.AbstractResponseHandler {
+
+        private final boolean missingAtSource;
+        private int requests = 0;
+        private int firstBatch = 0;
+        private volatile long firstBatchAt;
+        private volatile long secondConfigDeliveredAt;
+
+        NewGenerationResponseHandler(boolean missingAtSource) {
+            this.missingAtSource = missingAtSource;
+        }
+
+        @Override
+        public void handle(Request request, RequestWaiter requestWaiter) {
+            requests++;
+            if (request.methodName().equals(JRTMethods.configV3getConfigsMethodName) && firstBatch == 0) {
+                firstBatch = requests;
+                firstBatchAt = System.nanoTime();
+            }
+            super.handle(request, requestWaiter);
+        }
+
+        @Override
+        protected void createResponse(Request request) {
+            JRTServerConfigRequestV3 jrtReq = JRTServerConfigRequestV3.createFromRequest(request);
+            boolean secondConfig = jrtReq.getConfigKey().getConfigId().equals("id2");
+            boolean inFirstBatch = requests == firstBatch;
+            if (secondConfig && inFirstBatch && missingAtSource) {
+                jrtReq.addErrorResponse(com.yahoo.jrt.ErrorCode.TIMEOUT, "Timed out getting config");
+                return;
+            }
+            long generation = firstBatch == 0 || (secondConfig && inFirstBatch) ? 1 : 2;
+            if (secondConfig && generation == 2 && secondConfigDeliveredAt == 0)
+                secondConfigDeliveredAt = System.nanoTime();
+            Payload payload = Payload.from(ConfigPayload.empty());
+            jrtReq.addOkResponse(payload, generation, false, PayloadChecksums.fromPayload(payload));
+        }
+
+    }
+
     private static class ErrorResponseHandler extends MockConnection.OKResponseHandler {
         private final int errorCode;
 
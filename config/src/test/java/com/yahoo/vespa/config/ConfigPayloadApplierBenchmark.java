@@ -0,0 +1,69 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config;
+
+import com.yahoo.config.FileReference;
+import com.yahoo.foo.FunctionTestConfig;
+
+import java.io.File;
+
+import static com.yahoo.foo.FunctionTestConfig.*;
+
+/**
+ * Compares the throughput of applying a config payload to a builder through the generated
+ * {@link com.yahoo.config.PayloadApplicable#applyField} methods and through reflection.
+ *
+ * @author agent
+ */
+public class ConfigPayloadApplierBenchmark {
+
+    private static final int iterations = 20_000;
+
+    public static void main(String[] args) {
+        ConfigPayload payload = ConfigPayload.fromInstance(config());
+        for (int round = 0; round < 5; round++) {
+            long reflective = run(payload, true);
+            long generated = run(payload, false);
+            System.out.printf("reflective: %,9d configs/s, generated: %,9d configs/s%n",
+                              iterations * 1_000_000_000L / reflective, iterations * 1_000_000_000L / generated);
+        }
+    }
+
+    /** Returns a config with a few of each kind of field, where arrays and maps have 10 entries each */
+    private static FunctionTestConfig config() {
+        FileReference file = FileReference.mockFileReferenceForUnitTesting(new File("pom.xml"));
+        FunctionTestConfig.Builder builder = new FunctionTestConfig.Builder()
+                .bool_val(true)
+                .int_val(1)
+                .long_val(2)
+                .double_val(3.5)
+                .string_val("string")
+                .enum_val(Enum_val.BAR)
+                .refval(":parent:")
+                .fileVal("file")
+                .pathVal(file)
+                .basicStruct(b -> b.bar(4).intArr(5))
+                .rootStruct(b -> b.inner0(bb -> bb.index(6)).inner1(bb -> bb.index(7)));
+        for (int i = 0; i < 10; i++) {
+            int index = i;
+            builder.intarr(i)
+                   .stringarr("value" + i)
+                   .refarr(":parent:" + i)
+                   .intMap("key" + i, i)
+                   .stringMap("key" + i, "value" + i)
+                   .myarray(b -> b.stringval("value" + index).refval(":parent:").fileVal("file" + index).myStruct(bb -> bb.a(index)))
+                   .myStructMap("key" + i, b -> b.myInt(index).myString("value" + index));
+        }
+        return builder.build();
+    }
+
+    private static long run(ConfigPayload payload, boolean reflective) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            FunctionTestConfig.Builder builder = new FunctionTestConfig.Builder();
+            new ConfigPayloadApplier<>(builder, new ConfigPayloadApplier.IdentityPathAcquirer(), null, reflective).applyPayload(payload);
+            builder.build();
+        }
+        return System.nanoTime() - start;
+    }
+
+}
@@ -5,6 +5,7 @@ import com.yahoo.config.FileReference;
 import com.yahoo.config.ModelReference;
 import com.yahoo.config.ResolvedTypesConfig;
 import com.yahoo.config.UrlReference;
+import com.yahoo.foo.FunctionTestConfig;
 import org.junit.Test;
 
 import java.io.File;
@@ -69,6 +70,45 @@ public class ConfigPayloadApplierTest {
         assertEndsWith("resolvedPath/myPath.txt", config.myModel().toString());
     }
 
+    @Test
+    public void testGeneratedAndReflectiveApplicationAreEquivalent() {
+        FunctionTestConfig config = functionTestConfig();
+        ConfigPayload payload = ConfigPayload.fromInstance(config);
+        payload.getSlime().get().setString("unknown", "ignored");
+        payload.getSlime().get().field("basicStruct").setLong("unknown", 1);
+
+        var generated = new FunctionTestConfig.Builder();
+        new ConfigPayloadApplier<>(generated, new MockAcquirer(), new MockDownloader(), false).applyPayload(payload);
+        var reflective = new FunctionTestConfig.Builder();
+        new ConfigPayloadApplier<>(reflective, new MockAcquirer(), new MockDownloader(), true).applyPayload(payload);
+
+        assertEquals(reflective.build(), generated.build());
+        assertEndsWith("resolvedPath/" + config.pathVal().toString(), generated.build().pathVal().toString());
+        assertEquals(config.basicStruct(), generated.build().basicStruct());
+        assertEquals(config.myarray(), generated.build().myarray());
+        assertEquals(config.myStructMap(), generated.build().myStructMap());
+    }
+
+    private static FunctionTestConfig functionTestConfig() {
+        return new FunctionTestConfig.Builder()
+                .bool_val(true)
+                .int_val(1)
+                .long_val(2)
+                .double_val(3.5)
+                .string_val("string")
+                .enum_val(FunctionTestConfig.Enum_val.BAR)
+                .refval(":parent:")
+                .fileVal("file")
+                .pathVal(FileReference.mockFileReferenceForUnitTesting(new File("pom.xml")))
+                .stringarr("value")
+                .intMap("key", 1)
+                .basicStruct(b -> b.bar(4).intArr(5))
+                .rootStruct(b -> b.inner0(bb -> bb.index(6)).inner1(bb -> bb.index(7)))
+                .myarray(b -> b.stringval("value").refval(":parent:").fileVal("file").myStruct(bb -> bb.a(8)))
+                .myStructMap("key", b -> b.myInt(9).myString("value").anotherMap("key", bb -> bb.anInt(10)))
+                .build();
+    }
+
     private void assertEndsWith(String ending, String string) {
         String assertingThat = "'" + string + "' ends with '" + ending + "'";
         try {
@@ -7,6 +7,7 @@ import com.yahoo.config.subscription.impl.JRTConfigSubscription;
 import com.yahoo.config.subscription.impl.MockConnection;
 import com.yahoo.foo.SimpletypesConfig;
 import com.yahoo.jrt.Request;
+import com.yahoo.slime.Cursor;
 import com.yahoo.slime.Inspector;
 import com.yahoo.slime.Slime;
 import com.yahoo.slime.SlimeUtils;
@@ -15,6 +16,7 @@ import com.yahoo.vespa.config.ConfigKey;
 import com.yahoo.vespa.config.ConfigPayload;
 import com.yahoo.vespa.config.ErrorCode;
 import com.yahoo.vespa.config.JRTConnectionPool;
+import com.yahoo.vespa.config.PayloadChecksum;
 import com.yahoo.vespa.config.PayloadChecksums;
 import com.yahoo.vespa.config.RawConfig;
 import com.yahoo.vespa.config.TimingValues;
@@ -127,6 +129,50 @@ public class JRTConfigRequestV3Test {
         assertTrue(clientReq.hasUpdatedGeneration());
     }
 
+    @Test
+    public void delta_response_is_applied() {
+        Payload base = createPayload(100, 17, "bar");
+        Payload target = createPayload(100, 17, "baz");
+        PayloadChecksums targetChecksums = PayloadChecksums.fromPayload(target);
+        clientReq = createDeltaReq(base);
+        serverReq = createReq(clientReq.getRequest());
+        assertTrue(serverReq.acceptsDelta());
+
+        Payload delta = PayloadDelta.create(base, target).get();
+        serverReq.addOkResponse(delta, 4L, false, targetChecksums, Optional.of(PayloadChecksums.fromPayload(base).getForType(XXHASH64)));
+        assertTrue(clientReq.validateResponse());
+        assertTrue(clientReq.hasUpdatedConfig());
+        assertEquals(target.getData(), clientReq.getNewPayload().getData());
+
+        // The next request asks for a delta against the resolved config
+        JRTClientConfigRequest next = clientReq.nextRequest(6);
+        JRTServerConfigRequest nextServerReq = createReq(next.getRequest());
+        assertTrue(nextServerReq.acceptsDelta());
+        assertEquals(targetChecksums.getForType(XXHASH64), nextServerReq.getRequestConfigChecksums().getForType(XXHASH64));
+        Payload newTarget = createPayload(100, 17, "qux");
+        nextServerReq.addOkResponse(PayloadDelta.create(target, newTarget).get(), 5L, false,
+                                    PayloadChecksums.fromPayload(newTarget), Optional.of(targetChecksums.getForType(XXHASH64)));
+        assertTrue(next.validateResponse());
+        assertEquals(newTarget.getData(), next.getNewPayload().getData());
+    }
+
+    @Test
+    public void full_config_is_requested_after_invalid_delta() {
+        Payload base = createPayload(100, 17, "bar");
+        Payload target = createPayload(100, 17, "baz");
+        clientReq = createDeltaReq(base);
+        serverReq = createReq(clientReq.getRequest());
+        Payload delta = PayloadDelta.create(base, target).get();
+        PayloadChecksum baseChecksum = PayloadChecksums.fromPayload(base).getForType(XXHASH64);
+        serverReq.addOkResponse(delta, 4L, false, PayloadChecksums.fromPayload(createPayload()), Optional.of(baseChecksum));
+        assertFalse(clientReq.validateResponse());
+
+        JRTServerConfigRequest next = createReq(clientReq.nextRequest(6).getRequest());
+        assertFalse(next.acceptsDelta());
+        assertEquals(baseChecksum, next.getRequestConfigChecksums().getForType(XXHASH64));
+        assertEquals(currentGeneration, next.getRequestGeneration());
+    }
+
     @Test
     public void error_response_adds_common_elements() {
         serverReq.addErrorResponse(ErrorCode.APPLICATION_NOT_LOADED, ErrorCode.getName(ErrorCode.APPLICATION_NOT_LOADED));
@@ -259,6 +305,28 @@ public class JRTConfigRequestV3Test {
         return Payload.from(new ConfigPayload(slime));
     }
 
+    private static Payload createPayload(int entries, int changed, String value) {
+        Slime slime = new Slime();
+        Cursor array = slime.setObject().setArray("myarray");
+        for (int i = 0; i < entries; i++)
+            array.addObject().setString("myfield", i == changed ? value : "bar");
+        return Payload.from(new ConfigPayload(slime));
+    }
+
+    private JRTClientConfigRequest createDeltaReq(Payload base) {
+        trace = Trace.createNew(3, new ManualClock());
+        return JRTClientConfigRequestV3.createWithParams(ConfigKey.createFull(defName, configId, defNamespace),
+                                                         DefContent.fromList(List.of(configDefinition)),
+                                                         hostname,
+                                                         PayloadChecksums.fromPayload(base),
+                                                         currentGeneration,
+                                                         timeout,
+                                                         trace,
+                                                         CompressionType.LZ4,
+                                                         vespaVersion,
+                                                         base);
+    }
+
     private JRTClientConfigRequest createReq(String defName, String defNamespace,
                                              String hostname, String configId, PayloadChecksums payloadChecksums,
                                              long currentGeneration, long timeout, Trace trace) {
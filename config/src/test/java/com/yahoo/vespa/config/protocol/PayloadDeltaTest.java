@@ -0,0 +1,104 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.protocol;
+
+import com.yahoo.slime.Cursor;
+import com.yahoo.slime.Slime;
+import com.yahoo.slime.SlimeUtils;
+import com.yahoo.vespa.config.ConfigPayload;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ */
+public class PayloadDeltaTest {
+
+    @Test
+    public void delta_of_changed_array_entry_is_small() {
+        Payload base = payload(i -> "profile" + i, root -> { });
+        Payload target = payload(i -> i == 17 ? "changed" : "profile" + i, root -> { });
+        Payload delta = assertDelta(base, target);
+        assertTrue(delta.getData().getByteLength() * 50 < target.getData().getByteLength());
+        assertEquals("{\"fields\":{\"rankprofile\":{\"length\":100,\"entries\":[{\"index\":17,\"patch\":{\"fields\":{\"name\":{\"value\":\"changed\"}}}}]}}}",
+                     delta.getData().toString());
+    }
+
+    @Test
+    public void fields_and_entries_are_added_and_removed() {
+        Payload base = payload(i -> "profile" + i, root -> root.setString("removed", "value"));
+        Payload target = payload(i -> "profile" + i, root -> {
+            root.setLong("added", 3);
+            root.field("rankprofile").addObject().setString("name", "new");
+            root.field("rankprofile").entry(3).field("fef").field("property").addString("new");
+        });
+        assertDelta(base, target);
+        assertDelta(target, base);
+    }
+
+    @Test
+    public void reordered_fields_are_replaced() {
+        Slime base = new Slime();
+        Cursor root = base.setObject();
+        root.setString("a", "1");
+        root.setString("b", "2");
+        Slime target = new Slime();
+        Cursor reordered = target.setObject();
+        reordered.setString("b", "2");
+        reordered.setString("a", "1");
+
+        Slime delta = new Slime();
+        PayloadDelta.diff(base.get(), target.get(), delta.setObject());
+        assertEquals("{\"value\":{\"b\":\"2\",\"a\":\"1\"}}", SlimeUtils.toJson(delta.get(), true));
+        assertEquals(SlimeUtils.toJson(target), SlimeUtils.toJson(PayloadDelta.apply(base, delta)));
+    }
+
+    @Test
+    public void no_delta_when_most_of_the_config_changes() {
+        Payload base = payload(i -> "profile" + i, root -> { });
+        Payload target = payload(i -> "changed" + i, root -> { });
+        assertFalse(PayloadDelta.create(base, target).isPresent());
+    }
+
+    @Test
+    public void invalid_delta_is_rejected() {
+        try {
+            PayloadDelta.apply(payload(i -> "profile" + i, root -> { }), Payload.from("{\"fields\":{\"rankprofile\":{\"length\":101,\"entries\":[]}}}"));
+            fail("Expected exception");
+        }
+        catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Invalid config delta: Missing entry 100"));
+        }
+    }
+
+    private static Payload assertDelta(Payload base, Payload target) {
+        Optional<Payload> delta = PayloadDelta.create(base.withCompression(CompressionType.LZ4), target.withCompression(CompressionType.LZ4));
+        assertTrue(delta.isPresent());
+        assertEquals(target.getData(), PayloadDelta.apply(base, delta.get()).getData());
+        return delta.get();
+    }
+
+    private static Payload payload(IntFunction<String> names, Consumer<Cursor> modification) {
+        Slime slime = new Slime();
+        Cursor root = slime.setObject();
+        root.setString("version", "8.1");
+        Cursor profiles = root.setArray("rankprofile");
+        for (int i = 0; i < 100; i++) {
+            Cursor profile = profiles.addObject();
+            profile.setString("name", names.apply(i));
+            Cursor properties = profile.setObject("fef").setArray("property");
+            for (int j = 0; j < 10; j++)
+                properties.addObject().setString("name", "vespa.rank.feature" + j);
+        }
+        modification.accept(root);
+        return Payload.from(new ConfigPayload(slime));
+    }
+
+}
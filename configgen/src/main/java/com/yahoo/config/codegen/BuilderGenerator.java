@@ -34,14 +34,15 @@ public class BuilderGenerator {
                         + "\n\n" + //
                         getBuilderConstructors(node, nodeClass(node)) + "\n\n" + //
                         getOverrideMethod(node) + "\n\n" + //
-                        getBuilderSetters(node) + "\n" + //
+                        getBuilderSetters(node) + "\n\n" + //
+                        getApplyFieldMethod(node) + "\n" + //
                         getSpecialRootBuilderCode(node) + "\n" + //
                         getBuildMethod(node) + "\n") //
                 + "}";
     }
 
     private static String getDeclaration(InnerCNode node) {
-        String getInterfaces = (node.getParent() == null) ? "implements ConfigInstance.Builder" : "implements ConfigBuilder";
+        String getInterfaces = (node.getParent() == null) ? "implements ConfigInstance.Builder, PayloadApplicable" : "implements PayloadApplicable";
 
         return "public static final class Builder " + getInterfaces + " {";
     }
@@ -313,6 +314,61 @@ public class BuilderGenerator {
         }
     }
 
+    /** Returns a method setting each field from a config payload by calling its setter directly, without reflection. */
+    private static String getApplyFieldMethod(InnerCNode node) {
+        String name = INTERNAL_PREFIX + "name";
+        String value = INTERNAL_PREFIX + "value";
+        return "@java.lang.Override\n" + //
+                "public boolean applyField(String " + name + ", PayloadValue " + value + ") {\n" + //
+                "  switch (" + name + ") {\n" + //
+                stream(node.getChildren()).map(child -> indentCode(INDENTATION + INDENTATION, applyFieldCase(child, value)) + "\n")
+                        .collect(Collectors.joining()) + //
+                "    default:\n" + //
+                "      return false;\n" + //
+                "  }\n" + //
+                "}";
+    }
+
+    private static String applyFieldCase(CNode child, String value) {
+        String name = child.getName();
+        String element = INTERNAL_PREFIX + "element";
+        String key = INTERNAL_PREFIX + "key";
+        String apply;
+        if (child.isArray)
+            apply = value + ".forEachElement(" + element + " -> " + applyValue(child, element, "") + ");";
+        else if (child.isMap)
+            apply = value + ".forEachEntry((" + key + ", " + element + ") -> " + applyValue(child, element, key + ", ") + ");";
+        else if (child instanceof InnerCNode || child instanceof ModelLeaf)
+            apply = applyValue(child, value, "");
+        else
+            apply = applyValue(child, value, "") + ";";
+        return "case \"" + name + "\":\n" + //
+                INDENTATION + apply + "\n" + //
+                INDENTATION + "return true;";
+    }
+
+    /** Returns a statement, or a block if needed, which calls the setter of the given node with the given payload value */
+    private static String applyValue(CNode node, String value, String keyArgument) {
+        String setter = node.getName() + "(" + keyArgument;
+        if (node instanceof InnerCNode) {
+            String builder = INTERNAL_PREFIX + "builder";
+            return "{ " + builderType(node) + " " + builder + " = new " + builderType(node) + "(); " +
+                   value + ".applyTo(" + builder + "); " + setter + builder + "); }";
+        } else if (node instanceof PathLeaf) {
+            return setter + value + ".asPath())";
+        } else if (node instanceof OptionalPathLeaf) {
+            return setter + value + ".asOptionalPath())";
+        } else if (node instanceof UrlLeaf) {
+            return setter + value + ".asUrl())";
+        } else if (node instanceof ModelLeaf) {
+            // Empty model references are left unset
+            String model = INTERNAL_PREFIX + "model";
+            return "{ ModelReference " + model + " = " + value + ".asModel(); if (" + model + " != null) " + setter + model + "); }";
+        } else {
+            return setter + value + ".asString())";
+        }
+    }
+
     private static String setBuilderValueFromConfig(CNode child, CNode node) {
         String name = child.getName();
         boolean isArray = child.isArray;
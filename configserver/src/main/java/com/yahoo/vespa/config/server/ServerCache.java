@@ -7,8 +7,12 @@ import com.yahoo.vespa.config.ConfigDefinitionKey;
 import com.yahoo.vespa.config.PayloadChecksum;
 import com.yahoo.vespa.config.buildergen.ConfigDefinition;
 import com.yahoo.vespa.config.protocol.ConfigResponse;
+import com.yahoo.vespa.config.protocol.Payload;
+import com.yahoo.vespa.config.protocol.PayloadDelta;
+import com.yahoo.vespa.config.protocol.SlimeConfigResponse;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
@@ -16,6 +20,7 @@ import static com.yahoo.vespa.config.PayloadChecksum.Type.XXHASH64;
 
 /**
  * Cache that holds configs and config definitions (builtin and user config definitions).
+ * The configs of the previous generation are kept as well, so deltas against them can be served to clients.
  *
  * @author vegardh
  */
@@ -27,11 +32,21 @@ public class ServerCache {
     // NOTE: The reason we do a double mapping here is to de-dupe configs that have the same checksum.
     private final Map<ConfigCacheKey, PayloadChecksum> checksums = new ConcurrentHashMap<>();
     private final Map<PayloadChecksum, ConfigResponse> checksumToConfig = new ConcurrentHashMap<>();
+    // Configs of the previous generation, by checksum. Only the map is kept, so older generations may be collected
+    private final Map<PayloadChecksum, ConfigResponse> previousChecksumToConfig;
+    // Deltas from a base config to a config in this, or empty if a delta is not worthwhile
+    private final Map<DeltaKey, Optional<ConfigResponse>> deltas = new ConcurrentHashMap<>();
     private final Object [] stripedLocks = new Object[113];
 
     public ServerCache(ConfigDefinitionRepo builtinConfigDefinitions, ConfigDefinitionRepo userConfigDefinitions) {
+        this(builtinConfigDefinitions, userConfigDefinitions, Optional.empty());
+    }
+
+    public ServerCache(ConfigDefinitionRepo builtinConfigDefinitions, ConfigDefinitionRepo userConfigDefinitions,
+                       Optional<ServerCache> previous) {
         this.builtinConfigDefinitions = builtinConfigDefinitions;
         this.userConfigDefinitions = userConfigDefinitions;
+        this.previousChecksumToConfig = previous.map(cache -> cache.checksumToConfig).orElse(Map.of());
         for (int i = 0; i < stripedLocks.length; i++) {
             stripedLocks[i] = new Object();
         }
@@ -70,6 +85,24 @@ public class ServerCache {
         }
     }
 
+    /**
+     * Returns a response with a delta from the config with the given checksum, in this or the previous generation,
+     * to the given config, or empty if the base config is unknown or a delta would not be much smaller than the config.
+     */
+    public Optional<ConfigResponse> getDelta(PayloadChecksum base, ConfigResponse target) {
+        PayloadChecksum xxhash64 = target.getPayloadChecksums().getForType(XXHASH64);
+        if (base == null || base.isEmpty() || base.equals(xxhash64)) return Optional.empty();
+
+        ConfigResponse baseConfig = checksumToConfig.getOrDefault(base, previousChecksumToConfig.get(base));
+        if (baseConfig == null) return Optional.empty();
+
+        return deltas.computeIfAbsent(new DeltaKey(base, xxhash64), __ -> {
+            Payload basePayload = Payload.from(baseConfig.getPayload(), baseConfig.getCompressionInfo());
+            Payload targetPayload = Payload.from(target.getPayload(), target.getCompressionInfo());
+            return PayloadDelta.create(basePayload, targetPayload).map(delta -> SlimeConfigResponse.delta(delta, base, target));
+        });
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -103,4 +136,6 @@ public class ServerCache {
         return checksums.size();
     }
 
+    private record DeltaKey(PayloadChecksum base, PayloadChecksum target) { }
+
 }
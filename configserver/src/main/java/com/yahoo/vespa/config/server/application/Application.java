@@ -33,6 +33,8 @@ import java.util.logging.Level;
 import java.util.Objects;
 import java.util.Set;
 
+import static com.yahoo.vespa.config.PayloadChecksum.Type.XXHASH64;
+
 /**
  * A Vespa application for a specific version of Vespa. It holds data and metadata associated with
  * a Vespa application, i.e. generation, model and zookeeper data, as well as methods for resolving config
@@ -117,6 +119,8 @@ public class Application implements ModelResult {
                 metricUpdater.setCacheChecksumElems(cache.checkSumElems());
                 return response;
             });
+            if (req.acceptsDelta())
+                config = cache.getDelta(req.configPayloadChecksums().getForType(XXHASH64), config).orElse(config);
         } else {
             config = createConfigResponse(configKey, req, responseFactory);
         }
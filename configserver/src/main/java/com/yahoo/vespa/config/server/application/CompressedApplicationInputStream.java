@@ -1,19 +1,30 @@
 // Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.vespa.config.server.application;
 
+import com.yahoo.concurrent.DaemonThreadFactory;
 import com.yahoo.vespa.archive.ArchiveStreamReader;
 import com.yahoo.vespa.archive.ArchiveStreamReader.Options;
 import com.yahoo.vespa.config.server.http.BadRequestException;
 import com.yahoo.vespa.config.server.http.InternalServerException;
 import com.yahoo.vespa.config.server.http.v2.ApplicationApiHandler;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,6 +39,11 @@ public class CompressedApplicationInputStream implements AutoCloseable {
 
     private static final Logger log = Logger.getLogger(CompressedApplicationInputStream.class.getPackage().getName());
 
+    /** Entries up to this size are kept in memory until written, larger entries are written to disk as they are read */
+    private static final int maxBufferedEntrySize = 1024 * 1024;
+    private static final int writerThreads = 4;
+    private static final int maxQueuedWrites = 16;
+
     private final ArchiveStreamReader reader;
 
     private CompressedApplicationInputStream(ArchiveStreamReader reader) {
@@ -75,31 +91,49 @@ public class CompressedApplicationInputStream implements AutoCloseable {
         }
     }
 
+    /**
+     * Decompresses into the given directory. Entries are decompressed by the calling thread, while the decompressed
+     * entries are written to their destinations by writer threads, such that decompression is not held up by writing
+     * the many small files of large application packages. When the writers fall behind, the calling thread writes too.
+     */
     private File decompressInto(Path dir) throws IOException {
         if (!Files.isDirectory(dir)) throw new IllegalArgumentException("Not a directory: " + dir.toAbsolutePath());
 
         String absolutePath = dir.toFile().getAbsolutePath();
         log.log(Level.FINE, () -> "Decompress application into " + absolutePath);
         int entries = 0;
-        Path tmpFile = null;
-        OutputStream tmpStream = null;
+        List<Entry> read = new ArrayList<>();
+        List<Future<?>> writes = new ArrayList<>();
+        ThreadPoolExecutor writers = new ThreadPoolExecutor(writerThreads, writerThreads, 0, TimeUnit.SECONDS,
+                                                            new ArrayBlockingQueue<>(maxQueuedWrites),
+                                                            new DaemonThreadFactory("decompress-writer-"),
+                                                            new ThreadPoolExecutor.CallerRunsPolicy());
         try {
-            tmpFile = createTempFile(dir);
-            tmpStream = Files.newOutputStream(tmpFile);
-            ArchiveStreamReader.ArchiveFile file;
-            while ((file = reader.readNextTo(tmpStream)) != null) {
-                tmpStream.close();
+            while (true) {
+                Entry entry = new Entry(dir);
+                read.add(entry);
+                ArchiveStreamReader.ArchiveFile file;
+                try (entry) {
+                    file = reader.readNextTo(entry);
+                }
+                if (file == null) break;
+
                 log.log(Level.FINE, "Creating output file: " + file.path());
                 Path dstFile = dir.resolve(file.path().toString()).normalize();
-                Files.createDirectories(dstFile.getParent());
-                Files.move(tmpFile, dstFile);
-                tmpFile = createTempFile(dir);
-                tmpStream = Files.newOutputStream(tmpFile);
+                writes.add(writers.submit(() -> { entry.moveTo(dstFile); return null; }));
                 entries++;
             }
+            for (Future<?> write : writes)
+                awaitWrite(write);
         } finally {
-            if (tmpStream != null) tmpStream.close();
-            if (tmpFile != null) Files.deleteIfExists(tmpFile);
+            writers.shutdownNow();
+            try {
+                writers.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (Entry entry : read)
+                entry.delete();
         }
         if (entries == 0)
             log.log(Level.WARNING, "Unable to decompress any entries into " + absolutePath);
@@ -107,8 +141,75 @@ public class CompressedApplicationInputStream implements AutoCloseable {
         return dir.toFile();
     }
 
+    private static void awaitWrite(Future<?> write) throws IOException {
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while decompressing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) throw cause;
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
     private static Path createTempFile(Path applicationDir) throws IOException {
         return Files.createTempFile(applicationDir, "application", null);
     }
 
+    /**
+     * A decompressed archive entry, which is kept in memory until it exceeds {@link #maxBufferedEntrySize},
+     * and then written to a temporary file in the destination directory.
+     */
+    private static class Entry extends OutputStream {
+
+        private final Path dir;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private Path tmpFile = null;
+        private OutputStream tmpStream = null;
+
+        Entry(Path dir) { this.dir = dir; }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (tmpStream == null && buffer.size() + len > maxBufferedEntrySize) {
+                tmpFile = createTempFile(dir);
+                tmpStream = Files.newOutputStream(tmpFile);
+                buffer.writeTo(tmpStream);
+                buffer = null;
+            }
+            if (tmpStream != null)
+                tmpStream.write(b, off, len);
+            else
+                buffer.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (tmpStream != null) tmpStream.close();
+        }
+
+        /** Writes this to the given file, which must not exist */
+        void moveTo(Path dstFile) throws IOException {
+            Files.createDirectories(dstFile.getParent());
+            if (tmpFile != null)
+                Files.move(tmpFile, dstFile);
+            else
+                Files.write(dstFile, buffer.toByteArray(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            buffer = null;
+        }
+
+        /** Deletes the temporary file of this, if it was not moved to its destination */
+        void delete() throws IOException {
+            if (tmpFile != null) Files.deleteIfExists(tmpFile);
+        }
+
+    }
+
 }
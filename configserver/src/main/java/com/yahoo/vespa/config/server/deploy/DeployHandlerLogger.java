@@ -55,13 +55,16 @@ public class DeployHandlerLogger implements DeployLogger {
         if (level.intValue() <= LogLevel.DEBUG.intValue() && !verbose)
             return;
 
-        Cursor entry = logJson(level, message);
-        entry.setBool("applicationPackage", true);
+        synchronized (this) {
+            Cursor entry = logJson(level, message);
+            entry.setBool("applicationPackage", true);
+        }
         // Also tee to a normal log, Vespa log for example, but use level fine
         log.log(Level.FINE, () -> prefix + message);
     }
 
-    private Cursor logJson(Level level, String message) {
+    // Synchronized as the model may be built by several threads
+    private synchronized Cursor logJson(Level level, String message) {
         Cursor entry = logroot.addObject();
         entry.setLong("time", System.currentTimeMillis());
         entry.setString("level", level.getName());
@@ -17,6 +17,7 @@ import com.yahoo.text.Utf8;
 import com.yahoo.vespa.config.ConfigDefinitionKey;
 import com.yahoo.vespa.config.server.filedistribution.FileDBRegistry;
 import com.yahoo.vespa.config.server.zookeeper.ZKApplicationPackage;
+import com.yahoo.vespa.config.server.zookeeper.ZKContentStore;
 import com.yahoo.vespa.curator.Curator;
 import com.yahoo.yolean.Exceptions;
 
@@ -27,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.logging.Level;
 
 import static com.yahoo.config.application.api.ApplicationPackage.DEPLOYMENT_FILE;
@@ -58,8 +60,21 @@ public class ZooKeeperDeployer {
     private final Client client;
 
     public ZooKeeperDeployer(Curator curator, DeployLogger logger, ApplicationId applicationId, long sessionId) {
+        this(curator, logger, applicationId, sessionId, false);
+    }
+
+    /**
+     * Creates a deployer which, if writeContentByReference is true, writes large application package files
+     * to the content store of the tenant, and references to them in the session. Older config servers
+     * can not read such references.
+     */
+    public ZooKeeperDeployer(Curator curator, DeployLogger logger, ApplicationId applicationId, long sessionId,
+                             boolean writeContentByReference) {
         Path sessionPath = getSessionPath(applicationId.tenant(), sessionId);
-        this.client = new Client(curator, logger, sessionPath);
+        Optional<ZKContentStore> contentStore = writeContentByReference
+                                                ? Optional.of(new ZKContentStore(curator, applicationId.tenant(), sessionId))
+                                                : Optional.empty();
+        this.client = new Client(curator, logger, sessionPath, contentStore);
     }
 
     /**
@@ -92,13 +107,23 @@ public class ZooKeeperDeployer {
         private final Curator curator;
         private final DeployLogger logger;
         private final Path sessionPath; // session id
+        private final Optional<ZKContentStore> contentStore;
 
         private static final ApplicationFile.PathFilter xmlFilter = path -> path.getName().endsWith(".xml");
 
         public Client(Curator curator, DeployLogger logger, Path sessionPath) {
+            this(curator, logger, sessionPath, Optional.empty());
+        }
+
+        /**
+         * Creates a client which writes the content of large application package files to the given store,
+         * and a reference to it in the session, instead of writing all the content of each session.
+         */
+        public Client(Curator curator, DeployLogger logger, Path sessionPath, Optional<ZKContentStore> contentStore) {
             this.curator = curator;
             this.logger = logger;
             this.sessionPath = sessionPath;
+            this.contentStore = contentStore;
         }
 
         /**
@@ -129,6 +154,7 @@ public class ZooKeeperDeployer {
                 writeSchemas(app);
                 writeUserIncludeDirs(app, app.getUserIncludeDirs());
                 writeMetadata(app.getMetaData());
+                contentStore.ifPresent(ZKContentStore::writeReferences);
             } catch (Exception e) {
                 throw new IllegalStateException("Unable to write vespa model to config server(s) " + System.getProperty("configsources") + "\n" +
                                                 "Please ensure that config server is started " +
@@ -146,7 +172,7 @@ public class ZooKeeperDeployer {
             writeDir(app.getFile(ApplicationPackage.SEARCH_DEFINITIONS_DIR), zkPath);
             writeDir(app.getFile(ApplicationPackage.SCHEMAS_DIR), zkPath);
             for (NamedReader sd : schemas) {
-                curator.set(zkPath.append(sd.getName()), Utf8.toBytes(com.yahoo.io.IOUtils.readAll(sd.getReader())));
+                writeContent(zkPath.append(sd.getName()), Utf8.toBytes(com.yahoo.io.IOUtils.readAll(sd.getReader())));
                 sd.getReader().close();
             }
         }
@@ -233,10 +259,14 @@ public class ZooKeeperDeployer {
             try (InputStream inputStream = file.createInputStream()) {
                 inputStream.transferTo(baos);
                 baos.flush();
-                curator.set(zkPath.append(file.getPath().getName()), baos.toByteArray());
+                writeContent(zkPath.append(file.getPath().getName()), baos.toByteArray());
             }
         }
 
+        private void writeContent(Path path, byte[] content) {
+            curator.set(path, contentStore.map(store -> store.store(content)).orElse(content));
+        }
+
         private void writeUserIncludeDirs(ApplicationPackage applicationPackage, List<String> userIncludeDirs) throws IOException {
             for (String userInclude : userIncludeDirs) {
                 ApplicationFile dir = applicationPackage.getFile(Path.fromString(userInclude));
@@ -287,6 +317,7 @@ public class ZooKeeperDeployer {
             try {
                 List.of(DEFCONFIGS_ZK_SUBPATH, USER_DEFCONFIGS_ZK_SUBPATH, USERAPP_ZK_SUBPATH)
                     .forEach(path -> curator.delete(getZooKeeperAppPath(path)));
+                contentStore.ifPresent(store -> store.release(store.references()));
             } catch (Exception e) {
                 logger.log(Level.WARNING, "Could not clean up in zookeeper: " + Exceptions.toMessageString(e));
                 // Might be called in an exception handler before re-throw, so do not throw here.
@@ -127,7 +127,7 @@ public class ActivatedModelsBuilder extends ModelsBuilder<Application> {
                 modelFactory.version(),
                 wantedNodeVespaVersion);
         MetricUpdater applicationMetricUpdater = metrics.getOrCreateMetricUpdater(Metrics.createDimensions(applicationId));
-        ServerCache serverCache = new ServerCache(configDefinitionRepo, zkClient.getUserConfigDefinitions());
+        ServerCache serverCache = new ServerCache(configDefinitionRepo, zkClient.getUserConfigDefinitions(), cacheOf(modelFactory.version()));
         return new Application(modelFactory.createModel(modelContext),
                                serverCache,
                                applicationGeneration,
@@ -141,6 +141,11 @@ public class ActivatedModelsBuilder extends ModelsBuilder<Application> {
         return activeApplicationVersions.get().get(version).map(Application::getModel);
     }
 
+    private Optional<ServerCache> cacheOf(Version version) {
+        if (activeApplicationVersions.isEmpty()) return Optional.empty();
+        return activeApplicationVersions.get().get(version).map(Application::getCache);
+    }
+
     private static <T> Optional<T> getForVersionOrLatest(Map<Version, T> map, Version version) {
         if (map.isEmpty()) {
             return Optional.empty();
@@ -44,6 +44,8 @@ import com.yahoo.vespa.filedistribution.FileDownloader;
 import com.yahoo.vespa.filedistribution.FileReceiver;
 import com.yahoo.vespa.filedistribution.FileReferenceData;
 import com.yahoo.vespa.filedistribution.FileReferenceDownload;
+import net.jpountz.xxhash.XXHash64;
+import net.jpountz.xxhash.XXHashFactory;
 
 import java.nio.ByteBuffer;
 import java.time.Duration;
@@ -445,9 +447,24 @@ public class RpcServer implements Runnable, ConfigActivationListener, TenantList
     }
 
     static class ChunkedFileReceiver implements FileServer.Receiver {
+        private static final XXHash64 partHasher = XXHashFactory.fastestInstance().hash64();
+
         final Target target;
+        private final boolean sendPartChecksums;
+        private final long resumeOffset;
+
         ChunkedFileReceiver(Target target) {
+            this(target, false, 0);
+        }
+
+        /**
+         * @param sendPartChecksums whether to send the xxhash64 of each part, which older clients do not accept
+         * @param resumeOffset the number of bytes of the file the client already has, when resuming a partial download
+         */
+        ChunkedFileReceiver(Target target, boolean sendPartChecksums, long resumeOffset) {
             this.target = target;
+            this.sendPartChecksums = sendPartChecksums;
+            this.resumeOffset = resumeOffset;
         }
 
         @Override
@@ -457,7 +474,15 @@ public class RpcServer implements Runnable, ConfigActivationListener, TenantList
 
         @Override
         public void receive(FileReferenceData fileData, FileServer.ReplayStatus status) {
-            int session = sendMeta(fileData);
+            // Only plain files are resumed, as compressed content may differ between config servers
+            long offset = 0;
+            if (resumeOffset > 0 && fileData.type() == FileReferenceData.Type.file && resumeOffset <= fileData.size())
+                offset = resumeOffset;
+            Meta meta = sendMeta(fileData, offset);
+            // The receiver starts over if it can no longer resume at the offset
+            if (meta.offset() > 0 && fileData.skip(meta.offset()) != meta.offset())
+                throw new IllegalStateException("Failed skipping to offset " + meta.offset() + " of " + fileData);
+            int session = meta.session();
             sendParts(session, fileData);
             sendEof(session, fileData, status);
         }
@@ -476,24 +501,33 @@ public class RpcServer implements Runnable, ConfigActivationListener, TenantList
             }
         }
 
-        private int sendMeta(FileReferenceData fileData) {
-            Request request = createMetaRequest(fileData);
+        /** Returns the session to use for the transfer, and the offset in the file the receiver expects it to start at */
+        private Meta sendMeta(FileReferenceData fileData, long offset) {
+            Request request = createMetaRequest(fileData, offset);
             invokeRpcIfValidConnection(request);
             if (request.isError()) {
                 log.log(WARNING, () -> "Failed delivering meta for reference '" + fileData.fileReference().value() +
                         "' with file '" + fileData.filename() + "' to " +
                         target.toString() + " with error: '" + request.errorMessage() + "'.");
-                return 1;
+                return new Meta(1, 0);
             } else {
                 if (request.returnValues().get(0).asInt32() != 0) {
                     throw new IllegalArgumentException("Unknown error from target '" + target.toString() + "' during rpc call " + request.methodName());
                 }
-                return request.returnValues().get(1).asInt32();
+                // Receivers which cannot resume do not return an offset, and are not asked to resume
+                long startOffset = request.returnValues().size() > 2 ? request.returnValues().get(2).asInt64() : 0;
+                return new Meta(request.returnValues().get(1).asInt32(), startOffset);
             }
         }
 
+        private record Meta(int session, long offset) { }
+
         // non-private for testing
         static Request createMetaRequest(FileReferenceData fileData) {
+            return createMetaRequest(fileData, 0);
+        }
+
+        static Request createMetaRequest(FileReferenceData fileData, long offset) {
             Request request = new Request(FileReceiver.RECEIVE_META_METHOD);
             request.parameters().add(new StringValue(fileData.fileReference().value()));
             request.parameters().add(new StringValue(fileData.filename()));
@@ -501,8 +535,11 @@ public class RpcServer implements Runnable, ConfigActivationListener, TenantList
             request.parameters().add(new Int64Value(fileData.size()));
             // Only add parameter if not gzip, this is default and old clients will not handle the extra parameter
             // TODO Always add parameter in Vespa 9
-            if (fileData.compressionType() != CompressionType.gzip)
+            if (fileData.compressionType() != CompressionType.gzip || offset > 0)
                 request.parameters().add(new StringValue(fileData.compressionType().name()));
+            // Only clients which asked to resume at an offset get it
+            if (offset > 0)
+                request.parameters().add(new Int64Value(offset));
             return request;
         }
 
@@ -512,6 +549,8 @@ public class RpcServer implements Runnable, ConfigActivationListener, TenantList
             request.parameters().add(new Int32Value(session));
             request.parameters().add(new Int32Value(partId));
             request.parameters().add(new DataValue(buf));
+            if (sendPartChecksums)
+                request.parameters().add(new Int64Value(partHasher.hash(buf, 0, buf.length, 0)));
             invokeRpcIfValidConnection(request);
             if (request.isError()) {
                 throw new IllegalArgumentException("Failed delivering part of reference '" + ref.value() + "' to " +
@@ -555,7 +594,10 @@ public class RpcServer implements Runnable, ConfigActivationListener, TenantList
         request.detach();
         rpcAuthorizer.authorizeFileRequest(request)
                 .thenRun(() -> { // okay to do in authorizer thread as serveFile is async
-                    FileServer.Receiver receiver = new ChunkedFileReceiver(request.target());
+                    // Clients which send a resume offset also accept part checksums
+                    boolean hasResumeOffset = request.parameters().size() > 3;
+                    long resumeOffset = hasResumeOffset ? request.parameters().get(3).asInt64() : 0;
+                    FileServer.Receiver receiver = new ChunkedFileReceiver(request.target(), hasResumeOffset, resumeOffset);
 
                     FileReference reference = new FileReference(request.parameters().get(0).asString());
                     boolean downloadFromOtherSourceIfNotFound = request.parameters().get(1).asInt32() == 0;
@@ -95,6 +95,7 @@ public class SessionPreparer {
     private final FlagSource flagSource;
     private final ExecutorService executor;
     private final BooleanFlag writeSessionData;
+    private final BooleanFlag writeContentByReference;
     private final OnnxModelCost onnxModelCost;
     private final List<EndpointCertificateSecretStore> endpointCertificateSecretStores;
 
@@ -121,6 +122,7 @@ public class SessionPreparer {
         this.flagSource = flagSource;
         this.executor = executor;
         this.writeSessionData = Flags.WRITE_CONFIG_SERVER_SESSION_DATA_AS_ONE_BLOB.bindTo(flagSource);
+        this.writeContentByReference = Flags.WRITE_APPLICATION_PACKAGE_CONTENT_BY_REFERENCE.bindTo(flagSource);
         this.onnxModelCost = onnxModelCost;
         this.endpointCertificateSecretStores = endpointCertificateSecretStores;
     }
@@ -408,7 +410,8 @@ public class SessionPreparer {
                                        Optional<CloudAccount> cloudAccount,
                                        List<DataplaneToken> dataplaneTokens,
                                        ActivationTriggers activationTriggers) {
-        var zooKeeperDeplyer = new ZooKeeperDeployer(curator, deployLogger, applicationId, zooKeeperClient.sessionId());
+        var zooKeeperDeplyer = new ZooKeeperDeployer(curator, deployLogger, applicationId, zooKeeperClient.sessionId(),
+                                                     writeContentByReference.value());
         try {
             zooKeeperDeplyer.deploy(applicationPackage, fileRegistryMap, allocatedHosts);
             new SessionSerializer().write(zooKeeperClient,
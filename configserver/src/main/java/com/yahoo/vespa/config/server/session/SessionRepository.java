@@ -40,6 +40,7 @@ import com.yahoo.vespa.config.server.provision.HostProvisionerProvider;
 import com.yahoo.vespa.config.server.tenant.TenantRepository;
 import com.yahoo.vespa.config.server.zookeeper.SessionCounter;
 import com.yahoo.vespa.config.server.zookeeper.ZKApplication;
+import com.yahoo.vespa.config.server.zookeeper.ZKContentStore;
 import com.yahoo.vespa.curator.Curator;
 import com.yahoo.vespa.curator.transaction.CuratorTransaction;
 import com.yahoo.vespa.flags.BooleanFlag;
@@ -406,9 +407,12 @@ public class SessionRepository {
 
     public void deleteRemoteSessionFromZooKeeper(Session session) {
         SessionZooKeeperClient sessionZooKeeperClient = createSessionZooKeeperClient(session.getSessionId());
+        ZKContentStore contentStore = new ZKContentStore(curator, tenantName, session.getSessionId());
+        List<String> contentReferences = contentStore.references();
         Transaction transaction = sessionZooKeeperClient.deleteTransaction();
         transaction.commit();
         transaction.close();
+        contentStore.release(contentReferences);
     }
 
     private boolean sessionHasExpired(Instant created, Duration expiryTime) {
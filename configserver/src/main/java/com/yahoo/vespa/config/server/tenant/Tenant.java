@@ -19,6 +19,7 @@ public class Tenant {
 
     static final String SESSIONS = "sessions";
     static final String APPLICATIONS = "applications";
+    static final String CONTENTS = "contents";
 
     private final TenantName name;
     private final Path path;
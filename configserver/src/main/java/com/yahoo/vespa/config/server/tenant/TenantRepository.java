@@ -623,6 +623,16 @@ public class TenantRepository {
         return getTenantPath(tenantName).append(Tenant.APPLICATIONS);
     }
 
+    /**
+     * Gets zookeeper path for application package file content shared by the sessions of a tenant
+     *
+     * @param tenantName tenant name
+     * @return a {@link com.yahoo.path.Path} to the zookeeper application package content of a tenant
+     */
+    public static Path getContentsPath(TenantName tenantName) {
+        return getTenantPath(tenantName).append(Tenant.CONTENTS);
+    }
+
     /**
      * Gets zookeeper path for locks for a tenant's applications. This is never cleaned, but shouldn't be a problem.
      */
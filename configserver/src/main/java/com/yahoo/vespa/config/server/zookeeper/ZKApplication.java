@@ -103,6 +103,7 @@ public class ZKApplication {
 
     private byte[] getBytesInternal(Path path) {
         return curator.getData(path)
+                      .map(data -> ZKContentStore.resolve(curator, data))
                       .orElseThrow(() -> new IllegalArgumentException("Could not get data from '" +
                                                                       path + "' in zookeeper"));
     }
@@ -112,9 +113,12 @@ public class ZKApplication {
     }
 
     public long getSize(Path path) {
-        return curator.getStat(path).map(stat -> (long)stat.getDataLength())
+        Path fullPath = getFullPath(path);
+        long size = curator.getStat(fullPath).map(stat -> (long)stat.getDataLength())
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Could not get size from '" + path + "' in zookeeper"));
+        // A small node may be a reference to stored content
+        return size < ZKContentStore.minimumSize ? getBytesInternal(fullPath).length : size;
     }
 
     void putData(Path path, String data) {
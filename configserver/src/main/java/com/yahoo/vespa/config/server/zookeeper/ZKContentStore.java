@@ -0,0 +1,157 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.server.zookeeper;
+
+import com.yahoo.config.provision.TenantName;
+import com.yahoo.path.Path;
+import com.yahoo.text.Utf8;
+import com.yahoo.vespa.config.server.session.SessionZooKeeperClient;
+import com.yahoo.vespa.config.server.tenant.TenantRepository;
+import com.yahoo.vespa.curator.Curator;
+import org.apache.zookeeper.KeeperException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Stores the content of application package files in ZooKeeper by the hash of the content, such that a file which
+ * is equal in several sessions of a tenant's applications is stored only once, and a deployment writes only the files
+ * which have changed. The file node of a session then holds a short reference to the content node instead of the
+ * content, which {@link ZKApplication} resolves when reading it.
+ *
+ * A content node has a child node for each session referring to it, and is deleted when the last of these
+ * references is released. The hashes of the content a session refers to are listed in a node of the session,
+ * which is read to release its references when the session is deleted.
+ *
+ * Config servers which do not resolve references would read them as file content, so this is only used
+ * for deployments when the write-application-package-content-by-reference flag is enabled.
+ *
+ * @author agent
+ */
+public class ZKContentStore {
+
+    /** Files smaller than this are stored in the session, as a reference to them would save little */
+    static final int minimumSize = 1024;
+
+    private static final String REFERENCES = "contentReferences";
+    private static final byte[] referencePrefix = Utf8.toBytes("\0zk-content-ref:");
+
+    private final Curator curator;
+    private final Path contentsPath;
+    private final Path referencesPath;
+    private final long sessionId;
+    private final Set<String> stored = new TreeSet<>();
+
+    public ZKContentStore(Curator curator, TenantName tenantName, long sessionId) {
+        this.curator = curator;
+        this.contentsPath = TenantRepository.getContentsPath(tenantName);
+        this.referencesPath = SessionZooKeeperClient.getSessionPath(tenantName, sessionId).append(REFERENCES);
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * Stores the given content, referred to by the session of this, and returns the data to write to the file node
+     * of the session: a reference to the stored content, or the content itself if it is small.
+     */
+    public byte[] store(byte[] content) {
+        if (content.length < minimumSize) return content;
+
+        String hash = hash(content);
+        Path contentPath = contentsPath.append(hash);
+        while (true) {
+            create(contentPath, content, true);
+            // Without creating parents, this fails if the content is deleted by the release of its last reference
+            if (create(contentPath.append(Long.toString(sessionId)), new byte[0], false)) break;
+        }
+        stored.add(hash);
+        return reference(contentPath);
+    }
+
+    /** Writes the list of content the session of this refers to, which must be done after storing all its content */
+    public void writeReferences() {
+        curator.set(referencesPath, Utf8.toBytes(String.join("\n", stored)));
+    }
+
+    /** Returns the hashes of the content the session of this refers to, according to its list of references */
+    public List<String> references() {
+        return curator.getData(referencesPath)
+                      .map(Utf8::toString)
+                      .map(list -> list.isEmpty() ? List.<String>of() : List.of(list.split("\n")))
+                      .orElse(List.of());
+    }
+
+    /** Releases the references of the session of this to the given content, and to all content stored through this */
+    public void release(Collection<String> hashes) {
+        Set<String> released = new TreeSet<>(hashes);
+        released.addAll(stored);
+        for (String hash : released) {
+            Path contentPath = contentsPath.append(hash);
+            delete(contentPath.append(Long.toString(sessionId)));
+            delete(contentPath); // Fails if other sessions still refer to the content
+        }
+        stored.clear();
+    }
+
+    /** Returns the given file node data, with a reference to stored content replaced by that content */
+    static byte[] resolve(Curator curator, byte[] data) {
+        if ( ! isReference(data)) return data;
+
+        Path contentPath = Path.fromString(Utf8.toString(Arrays.copyOfRange(data, referencePrefix.length, data.length)));
+        return curator.getData(contentPath)
+                      .orElseThrow(() -> new IllegalArgumentException("Could not get content from '" + contentPath + "' in zookeeper"));
+    }
+
+    static boolean isReference(byte[] data) {
+        return data.length > referencePrefix.length
+               && Arrays.equals(data, 0, referencePrefix.length, referencePrefix, 0, referencePrefix.length);
+    }
+
+    private static byte[] reference(Path contentPath) {
+        byte[] path = Utf8.toBytes(contentPath.getAbsolute());
+        byte[] reference = Arrays.copyOf(referencePrefix, referencePrefix.length + path.length);
+        System.arraycopy(path, 0, reference, referencePrefix.length, path.length);
+        return reference;
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Creates the given node unless it exists, and returns false if its parent does not exist, unless it is created */
+    private boolean create(Path path, byte[] data, boolean creatingParents) {
+        try {
+            if (creatingParents)
+                curator.framework().create().creatingParentsIfNeeded().forPath(path.getAbsolute(), data);
+            else
+                curator.framework().create().forPath(path.getAbsolute(), data);
+            return true;
+        } catch (KeeperException.NodeExistsException e) {
+            return true;
+        } catch (KeeperException.NoNodeException e) {
+            return false;
+        } catch (Exception e) {
+            throw new RuntimeException("Could not create " + path.getAbsolute(), e);
+        }
+    }
+
+    /** Deletes the given node unless it has children or does not exist */
+    private void delete(Path path) {
+        try {
+            curator.framework().delete().forPath(path.getAbsolute());
+        } catch (KeeperException.NoNodeException | KeeperException.NotEmptyException e) {
+            // Already deleted, or still referenced
+        } catch (Exception e) {
+            throw new RuntimeException("Could not delete " + path.getAbsolute(), e);
+        }
+    }
+
+}
@@ -1,21 +1,29 @@
 // Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.vespa.config.server;
 
+import com.yahoo.slime.Cursor;
+import com.yahoo.slime.Slime;
 import com.yahoo.vespa.config.ConfigCacheKey;
 import com.yahoo.vespa.config.ConfigDefinitionKey;
 import com.yahoo.vespa.config.ConfigKey;
 import com.yahoo.vespa.config.ConfigPayload;
+import com.yahoo.vespa.config.PayloadChecksum;
 import com.yahoo.vespa.config.PayloadChecksums;
 import com.yahoo.vespa.config.buildergen.ConfigDefinition;
 import com.yahoo.vespa.config.protocol.ConfigResponse;
+import com.yahoo.vespa.config.protocol.Payload;
+import com.yahoo.vespa.config.protocol.PayloadDelta;
 import com.yahoo.vespa.config.protocol.SlimeConfigResponse;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Optional;
+
 import static com.yahoo.vespa.config.PayloadChecksum.Type.XXHASH64;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Ulf Lilleengen
@@ -77,6 +85,40 @@ public class ServerCacheTest {
         assertSame(cache.get(fooBarCacheKey), cache.get(bazQuuxCacheKey));
     }
 
+    @Test
+    public void testDeltaAgainstPreviousGeneration() {
+        SlimeConfigResponse previousConfig = createResponseWithValue("bar");
+        ServerCache previous = new ServerCache(new TestConfigDefinitionRepo(), new UserConfigDefinitionRepo());
+        previous.computeIfAbsent(fooBarCacheKey, (ConfigCacheKey key) -> previousConfig);
+
+        SlimeConfigResponse config = createResponseWithValue("baz");
+        ServerCache current = new ServerCache(new TestConfigDefinitionRepo(), new UserConfigDefinitionRepo(), Optional.of(previous));
+        current.computeIfAbsent(fooBarCacheKey, (ConfigCacheKey key) -> config);
+
+        PayloadChecksum base = previousConfig.getPayloadChecksums().getForType(XXHASH64);
+        ConfigResponse delta = current.getDelta(base, config).get();
+        assertEquals(Optional.of(base), delta.getDeltaBase());
+        assertEquals(config.getPayloadChecksums(), delta.getPayloadChecksums());
+        assertEquals(config.getGeneration(), delta.getGeneration());
+        Payload resolved = PayloadDelta.apply(Payload.from(previousConfig.getPayload(), previousConfig.getCompressionInfo()),
+                                              Payload.from(delta.getPayload(), delta.getCompressionInfo()));
+        assertEquals(config.getPayload(), resolved.getData());
+        assertSame(delta, current.getDelta(base, config).get());
+
+        assertTrue(current.getDelta(config.getPayloadChecksums().getForType(XXHASH64), config).isEmpty());
+        assertTrue(current.getDelta(new PayloadChecksum("abcdef", XXHASH64), config).isEmpty());
+        assertTrue(previous.getDelta(config.getPayloadChecksums().getForType(XXHASH64), previousConfig).isEmpty());
+    }
+
+    SlimeConfigResponse createResponseWithValue(String value) {
+        Slime slime = new Slime();
+        Cursor entries = slime.setObject().setArray("entries");
+        for (int i = 0; i < 100; i++)
+            entries.addObject().setString("value", i == 17 ? value : "foo");
+        ConfigPayload payload = new ConfigPayload(slime);
+        return SlimeConfigResponse.fromConfigPayload(payload, 3, false, PayloadChecksums.fromPayload(Payload.from(payload)));
+    }
+
     SlimeConfigResponse createResponse(String xxhash64) {
         return SlimeConfigResponse.fromConfigPayload(ConfigPayload.empty(), 2, false,
                                                      PayloadChecksums.from("", xxhash64));
@@ -6,6 +6,7 @@ import com.yahoo.vespa.config.server.http.InternalServerException;
 import com.yahoo.yolean.Exceptions;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.junit.Rule;
@@ -20,8 +21,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
+import java.util.Random;
 import java.util.zip.GZIPOutputStream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -134,6 +137,33 @@ public class CompressedApplicationInputStreamTest {
         assertEquals(new File(bar, "lol").getAbsolutePath(), bar.listFiles()[0].getAbsolutePath());
     }
 
+    @Test
+    public void require_that_many_and_large_files_can_be_unpacked() throws IOException {
+        File outFile = Files.createTempFile(temporaryFolder.getRoot().toPath(), "testapp", ".tar.gz").toFile();
+        Random random = new Random(1);
+        byte[][] contents = new byte[100][];
+        try (var taos = new TarArchiveOutputStream(new GZIPOutputStream(new FileOutputStream(outFile)))) {
+            for (int i = 0; i < contents.length; i++) {
+                // Every tenth file is larger than what is kept in memory while unpacking
+                contents[i] = new byte[i % 10 == 0 ? 3 * 1024 * 1024 + i : i];
+                random.nextBytes(contents[i]);
+                TarArchiveEntry entry = new TarArchiveEntry("constants/" + (i % 7) + "/file" + i);
+                entry.setSize(contents[i].length);
+                taos.putArchiveEntry(entry);
+                taos.write(contents[i]);
+                taos.closeArchiveEntry();
+            }
+        }
+
+        File outApp;
+        try (CompressedApplicationInputStream unpacked = streamFromTarGz(outFile)) {
+            outApp = unpacked.decompress();
+        }
+        for (int i = 0; i < contents.length; i++)
+            assertArrayEquals(contents[i], Files.readAllBytes(outApp.toPath().resolve("constants/" + (i % 7) + "/file" + i)));
+        assertEquals(List.of("constants"), List.of(Objects.requireNonNull(outApp.list())));
+    }
+
     @Test(expected = InternalServerException.class)
     public void require_that_invalid_application_returns_error_when_unpacked() throws Exception {
         File app = new File("src/test/resources/deploy/validapp/services.xml");
@@ -28,6 +28,7 @@ import com.yahoo.vespa.config.server.application.Application;
 import com.yahoo.vespa.config.server.application.ApplicationVersions;
 import com.yahoo.vespa.config.server.monitoring.MetricUpdater;
 import com.yahoo.vespa.config.server.session.PrepareParams;
+import com.yahoo.vespa.filedistribution.FileReferenceData;
 import com.yahoo.vespa.filedistribution.LazyFileReferenceData;
 import com.yahoo.vespa.model.VespaModel;
 import org.junit.Rule;
@@ -119,6 +120,11 @@ public class RpcServerTest {
         assertEquals("compressed", request.parameters().get(2).asString());
         assertEquals(0, request.parameters().get(3).asInt64());
         assertEquals("lz4", request.parameters().get(4).asString());
+
+        request = createMetaRequest(new LazyFileReferenceData(new FileReference("foo"), "fileA", FileReferenceData.Type.file, file, gzip), 17);
+        assertEquals(6, request.parameters().size());
+        assertEquals("gzip", request.parameters().get(4).asString());
+        assertEquals(17, request.parameters().get(5).asInt64());
     }
 
     private JRTClientConfigRequest createSimpleRequest() {
@@ -0,0 +1,117 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.server.zookeeper;
+
+import com.yahoo.component.Version;
+import com.yahoo.config.application.api.ApplicationFile;
+import com.yahoo.config.application.api.ApplicationPackage;
+import com.yahoo.config.model.application.provider.BaseDeployLogger;
+import com.yahoo.config.model.application.provider.DeployData;
+import com.yahoo.config.model.application.provider.FilesApplicationPackage;
+import com.yahoo.config.model.application.provider.MockFileRegistry;
+import com.yahoo.config.provision.AllocatedHosts;
+import com.yahoo.config.provision.ApplicationId;
+import com.yahoo.config.provision.TenantName;
+import com.yahoo.io.IOUtils;
+import com.yahoo.path.Path;
+import com.yahoo.text.Utf8;
+import com.yahoo.vespa.config.server.filedistribution.MockFileManager;
+import com.yahoo.vespa.config.server.deploy.ZooKeeperDeployer;
+import com.yahoo.vespa.config.server.tenant.TenantRepository;
+import com.yahoo.vespa.curator.Curator;
+import com.yahoo.vespa.curator.mock.MockCurator;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.yahoo.vespa.config.server.session.SessionZooKeeperClient.getSessionPath;
+import static com.yahoo.vespa.config.server.zookeeper.ZKApplication.USERAPP_ZK_SUBPATH;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class ZKContentStoreTest {
+
+    private static final File appDir = new File("src/test/apps/zkfeed");
+    private static final ApplicationId applicationId = ApplicationId.from("default", "appName", "default");
+    private static final TenantName tenant = applicationId.tenant();
+
+    private final Curator curator = new MockCurator();
+
+    @Test
+    public void large_files_are_stored_once_for_all_sessions_referring_to_them() throws IOException {
+        deploy(1, true);
+        deploy(2, true);
+
+        // pc.sd is the only file in the application package which is large enough to be stored by content
+        Path contents = TenantRepository.getContentsPath(tenant);
+        List<String> hashes = curator.getChildren(contents);
+        assertEquals(1, hashes.size());
+        assertEquals(Set.of("1", "2"), Set.copyOf(curator.getChildren(contents.append(hashes.get(0)))));
+
+        Path schema = Path.fromString("schemas/pc.sd");
+        assertTrue(ZKContentStore.isReference(curator.getData(getSessionPath(tenant, 1).append(USERAPP_ZK_SUBPATH).append(schema)).get()));
+        String expected = Files.readString(appDir.toPath().resolve(schema.getRelative()));
+        for (long sessionId : List.of(1L, 2L)) {
+            ApplicationFile file = new ZKApplicationPackage(new MockFileManager(), curator, getSessionPath(tenant, sessionId)).getFile(schema);
+            try (Reader reader = file.createReader()) {
+                assertEquals(expected, IOUtils.readAll(reader));
+            }
+            assertEquals(expected.length(), file.getSize());
+            assertFalse(file.isDirectory());
+        }
+
+        ZKContentStore first = new ZKContentStore(curator, tenant, 1);
+        assertEquals(hashes, first.references());
+        first.release(first.references());
+        assertEquals(List.of("2"), curator.getChildren(contents.append(hashes.get(0))));
+
+        ZKContentStore second = new ZKContentStore(curator, tenant, 2);
+        second.release(second.references());
+        assertEquals(List.of(), curator.getChildren(contents));
+    }
+
+    @Test
+    public void files_are_stored_in_the_session_unless_enabled() throws IOException {
+        deploy(1, false);
+
+        Path schema = Path.fromString("schemas/pc.sd");
+        byte[] data = curator.getData(getSessionPath(tenant, 1).append(USERAPP_ZK_SUBPATH).append(schema)).get();
+        assertFalse(ZKContentStore.isReference(data));
+        assertEquals(Files.readString(appDir.toPath().resolve(schema.getRelative())), Utf8.toString(data));
+        assertEquals(List.of(), new ZKContentStore(curator, tenant, 1).references());
+        assertFalse(curator.exists(TenantRepository.getContentsPath(tenant)));
+    }
+
+    @Test
+    public void small_files_are_stored_in_the_session() {
+        ZKContentStore store = new ZKContentStore(curator, tenant, 1);
+        byte[] content = new byte[ZKContentStore.minimumSize - 1];
+        assertSame(content, store.store(content));
+        store.writeReferences();
+        assertEquals(List.of(), store.references());
+        assertFalse(curator.exists(TenantRepository.getContentsPath(tenant)));
+    }
+
+    private void deploy(long sessionId, boolean writeContentByReference) throws IOException {
+        ApplicationPackage app = FilesApplicationPackage.fromFileWithDeployData(appDir, new DeployData("/bar/baz",
+                                                                                                       applicationId,
+                                                                                                       1345L,
+                                                                                                       false,
+                                                                                                       sessionId,
+                                                                                                       sessionId - 1));
+        app.writeMetaData();
+        new ZooKeeperDeployer(curator, new BaseDeployLogger(), applicationId, sessionId, writeContentByReference)
+                .deploy(app, Map.of(new Version(1, 0, 0), new MockFileRegistry()), AllocatedHosts.withHosts(Set.of()));
+    }
+
+}
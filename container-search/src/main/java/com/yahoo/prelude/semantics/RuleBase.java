@@ -301,6 +301,19 @@ public class RuleBase {
     public void initialize() {
         inlineIncluded();
         makeReferences();
+        analyzer.indexRules();
+    }
+
+    /**
+     * Sets whether rules should be looked up in an index of the terms they require to be present in the query
+     * (the default), or whether all rules should be evaluated on each query. Only useful for benchmarking and
+     * debugging. Changes to this are not thread safe.
+     */
+    public void setUseRuleIndex(boolean useRuleIndex) {
+        if (useRuleIndex)
+            analyzer.indexRules();
+        else
+            analyzer.clearRuleIndex();
     }
 
     /**
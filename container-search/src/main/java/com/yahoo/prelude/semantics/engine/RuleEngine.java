@@ -7,6 +7,8 @@ import com.yahoo.prelude.semantics.RuleBase;
 import com.yahoo.prelude.semantics.RuleBaseException;
 import com.yahoo.prelude.semantics.rule.ProductionRule;
 
+import java.util.BitSet;
+import java.util.List;
 import java.util.ListIterator;
 
 /**
@@ -19,10 +21,26 @@ public class RuleEngine {
 
     private final RuleBase rules;
 
+    /** The index of the rules of the rule base, or null to evaluate all rules on each query */
+    private volatile RuleIndex index = null;
+
     public RuleEngine(RuleBase rules) {
         this.rules=rules;
     }
 
+    /**
+     * Compiles an index of the rules of the rule base, which is used to look up the rules which may match
+     * a query instead of evaluating each rule of the rule base. Call this when the rule base is initialized.
+     */
+    public void indexRules() {
+        index = RuleIndex.of(rules.rules());
+    }
+
+    /** Discards any rule index such that all rules are evaluated on each query */
+    public void clearRuleIndex() {
+        index = null;
+    }
+
     /**
      * Evaluates a rule base over a query
      *
@@ -32,19 +50,30 @@ public class RuleEngine {
      *         If there is an error, this query is destroyed (unusable)
      */
     public String evaluate(Query query, int traceLevel) {
-        // TODO: This is O(query size*rule base size). We'll eventually need to create indices
-        //       on rules to look up rule candidates per term to make it O(query size) instead
-        //       Probably create indices on the first term like Prolog implementations use to
-
         boolean matchedAnything = false;
         Evaluation evaluation = new Evaluation(query, rules, traceLevel);
         if (traceLevel >= 2)
             evaluation.trace(2,"Evaluating query '" + evaluation.getQuery().getModel().getQueryTree().getRoot() + "':");
-        for (ListIterator<ProductionRule> i = rules.ruleIterator(); i.hasNext(); ) {
-            evaluation.reset();
-            ProductionRule rule = i.next();
-            boolean matched = matchRuleAtAllStartPoints(evaluation,rule);
-            matchedAnything |= matched;
+
+        RuleIndex index = this.index;
+        List<ProductionRule> ruleList = rules.rules();
+        if (index != null && index.indexes(ruleList)) {
+            BitSet candidates = index.candidates(evaluation);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                evaluation.reset();
+                boolean matched = matchRuleAtAllStartPoints(evaluation, ruleList.get(i));
+                if (matched) // the query has changed, which may make other rules candidates
+                    candidates = index.candidates(evaluation);
+                matchedAnything |= matched;
+            }
+        }
+        else {
+            for (ListIterator<ProductionRule> i = rules.ruleIterator(); i.hasNext(); ) {
+                evaluation.reset();
+                ProductionRule rule = i.next();
+                boolean matched = matchRuleAtAllStartPoints(evaluation,rule);
+                matchedAnything |= matched;
+            }
         }
 
         if ( ! matchedAnything) return null;
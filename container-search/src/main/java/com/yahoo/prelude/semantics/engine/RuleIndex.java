@@ -0,0 +1,150 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.prelude.semantics.engine;
+
+import com.yahoo.prelude.semantics.rule.ChoiceCondition;
+import com.yahoo.prelude.semantics.rule.CompositeCondition;
+import com.yahoo.prelude.semantics.rule.CompositeItemCondition;
+import com.yahoo.prelude.semantics.rule.Condition;
+import com.yahoo.prelude.semantics.rule.ConditionReference;
+import com.yahoo.prelude.semantics.rule.NamedCondition;
+import com.yahoo.prelude.semantics.rule.ProductionRule;
+import com.yahoo.prelude.semantics.rule.SequenceCondition;
+import com.yahoo.prelude.semantics.rule.SuperCondition;
+import com.yahoo.prelude.semantics.rule.TermCondition;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index from terms to the production rules which can only match a query containing one of those terms.
+ * This is compiled once from the rules of an initialized rule base, and used to look up the rules which are
+ * candidates for matching a query in a single pass over its terms, such that rules which cannot match are
+ * never evaluated.
+ *
+ * Rules containing conditions whose matching can not be determined from the terms alone (negations,
+ * ellipses, comparisons, namespaces and automata references) are always candidates.
+ *
+ * @author agent
+ */
+public class RuleIndex {
+
+    /** The number of rules indexed by this */
+    private final int ruleCount;
+
+    /** The rules which can only match if the query contains the key term, by rule index */
+    private final Map<String, BitSet> rulesByTerm;
+
+    /** The rules which must always be evaluated */
+    private final BitSet unindexedRules;
+
+    /** The distinct linguistics used to process terms in the indexed conditions */
+    private final List<RuleBaseLinguistics> linguistics;
+
+    private RuleIndex(int ruleCount, Map<String, BitSet> rulesByTerm, BitSet unindexedRules,
+                      List<RuleBaseLinguistics> linguistics) {
+        this.ruleCount = ruleCount;
+        this.rulesByTerm = rulesByTerm;
+        this.unindexedRules = unindexedRules;
+        this.linguistics = linguistics;
+    }
+
+    /** Returns whether this indexes exactly the given list of rules */
+    public boolean indexes(List<ProductionRule> rules) {
+        return rules.size() == ruleCount;
+    }
+
+    /** Returns the number of rules which will always be evaluated */
+    public int unindexedRuleCount() { return unindexedRules.cardinality(); }
+
+    /**
+     * Returns the indexes of the rules which may match the query of this evaluation in its current state.
+     * The evaluation must be reset since the query was last modified.
+     */
+    public BitSet candidates(Evaluation evaluation) {
+        BitSet candidates = (BitSet)unindexedRules.clone();
+        for (FlattenedItem item : evaluation.items()) {
+            String term = item.getItem().stringValue();
+            if (term == null) continue;
+            for (RuleBaseLinguistics termLinguistics : linguistics) {
+                BitSet rules = rulesByTerm.get(termLinguistics.process(term));
+                if (rules != null)
+                    candidates.or(rules);
+            }
+        }
+        return candidates;
+    }
+
+    /** Creates an index of the given rules, which must have resolved their condition references */
+    public static RuleIndex of(List<ProductionRule> rules) {
+        Map<String, BitSet> rulesByTerm = new HashMap<>();
+        BitSet unindexedRules = new BitSet(rules.size());
+        Map<RuleBaseLinguistics, Boolean> linguistics = new IdentityHashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            Set<TermCondition> terms = requiredTerms(rules.get(i).getCondition(), new HashSet<>());
+            if (terms == null) {
+                unindexedRules.set(i);
+                continue;
+            }
+            for (TermCondition term : terms) {
+                rulesByTerm.computeIfAbsent(term.term(), __ -> new BitSet(rules.size())).set(i);
+                linguistics.put(term.linguistics(), true);
+            }
+        }
+        return new RuleIndex(rules.size(), rulesByTerm, unindexedRules, new ArrayList<>(linguistics.keySet()));
+    }
+
+    /**
+     * Returns a set of term conditions of which at least one must match for the given condition to match,
+     * or null if no such set can be determined.
+     *
+     * @param visited the named conditions visited on the current path, to stop at recursive references
+     */
+    private static Set<TermCondition> requiredTerms(Condition condition, Set<NamedCondition> visited) {
+        if (condition == null) return null;
+        if (condition.getNameSpace() != null) return null;
+
+        if (condition instanceof TermCondition term) {
+            return Set.of(term);
+        }
+        else if (condition instanceof ConditionReference reference) {
+            NamedCondition named = reference.getNamedCondition();
+            if (named == null || ! visited.add(named)) return null;
+            Set<TermCondition> terms = requiredTerms(named.getCondition(), visited);
+            visited.remove(named);
+            return terms;
+        }
+        else if (condition instanceof SuperCondition superCondition) {
+            return requiredTerms(superCondition.getCondition(), visited);
+        }
+        else if (condition instanceof ChoiceCondition choice) { // any alternative may match
+            if (choice.conditionSize() == 0) return null;
+            Set<TermCondition> terms = new HashSet<>();
+            for (Condition alternative : choice.conditions()) {
+                Set<TermCondition> alternativeTerms = requiredTerms(alternative, visited);
+                if (alternativeTerms == null) return null;
+                terms.addAll(alternativeTerms);
+            }
+            return terms;
+        }
+        else if (condition instanceof SequenceCondition || condition instanceof CompositeItemCondition) {
+            // all must match: Any child which can be indexed suffices, prefer the most selective
+            Set<TermCondition> smallest = null;
+            for (Condition child : ((CompositeCondition)condition).conditions()) {
+                Set<TermCondition> childTerms = requiredTerms(child, visited);
+                if (childTerms != null && (smallest == null || childTerms.size() < smallest.size()))
+                    smallest = childTerms;
+            }
+            return smallest;
+        }
+        else {
+            return null;
+        }
+    }
+
+}
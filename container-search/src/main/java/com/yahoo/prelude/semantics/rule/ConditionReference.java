@@ -48,6 +48,12 @@ public class ConditionReference extends Condition {
 
     public void setConditionName(String name) { this.conditionName = name; }
 
+    /**
+     * Returns the condition referenced by this, or null if references are not made yet,
+     * or if this references automata annotations
+     */
+    public NamedCondition getNamedCondition() { return namedCondition; }
+
     public boolean doesMatch(RuleEvaluation e) {
         if (automataLookup) return automataMatch(e);
 
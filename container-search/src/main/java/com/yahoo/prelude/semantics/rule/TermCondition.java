@@ -50,6 +50,9 @@ public class TermCondition extends Condition {
 
     public String term() { return term; }
 
+    /** Returns the linguistics used to process the term of this and the terms it is matched against */
+    public RuleBaseLinguistics linguistics() { return linguistics; }
+
     @Override
     public String toInnerString() {
         return getLabelString() + term;
@@ -7,6 +7,7 @@ import com.yahoo.search.Query;
 import com.yahoo.searchlib.aggregation.Grouping;
 import com.yahoo.searchlib.aggregation.Hit;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,14 +16,16 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Incrementally merges underlying {@link Grouping} instances from {@link GroupingListHit} hits.
+ * Merges underlying {@link Grouping} instances from {@link GroupingListHit} hits.
+ * The groupings are collected as results arrive, and merged in a single pass over all of them when
+ * the aggregated hit is created, as that is cheaper than merging them pairwise when there are many nodes.
  *
  * @author bjorncs
  */
 class GroupingResultAggregator {
     private static final Logger log = Logger.getLogger(GroupingResultAggregator.class.getName());
 
-    private final Map<Integer, Grouping> groupings = new LinkedHashMap<>();
+    private final Map<Integer, List<Grouping>> groupings = new LinkedHashMap<>();
     private DocumentDatabase documentDatabase = null;
     private Query query = null;
     private int groupingHitsMerged = 0;
@@ -35,10 +38,7 @@ class GroupingResultAggregator {
                 String.format("Merging hit #%d having %d groupings",
                         groupingHitsMerged, result.getGroupingList().size()));
         for (Grouping grouping : result.getGroupingList()) {
-            groupings.merge(grouping.getId(), grouping, (existingGrouping, newGrouping) -> {
-                existingGrouping.merge(newGrouping);
-                return existingGrouping;
-            });
+            groupings.computeIfAbsent(grouping.getId(), __ -> new ArrayList<>()).add(grouping);
         }
     }
 
@@ -47,7 +47,13 @@ class GroupingResultAggregator {
         log.log(Level.FINE, () ->
                 String.format("Creating aggregated hit containing %d groupings from %d hits with docsums '%s' and %s",
                         groupings.size(), groupingHitsMerged, documentDatabase.getDocsumDefinitionSet(), query));
-        GroupingListHit groupingHit = new GroupingListHit(List.copyOf(groupings.values()), documentDatabase, query);
+        List<Grouping> merged = new ArrayList<>(groupings.size());
+        for (List<Grouping> partials : groupings.values()) {
+            Grouping grouping = partials.get(0);
+            grouping.merge(partials.subList(1, partials.size()));
+            merged.add(grouping);
+        }
+        GroupingListHit groupingHit = new GroupingListHit(merged, documentDatabase, query);
         groupingHit.setQuery(query);
         groupingHit.getGroupingList().forEach(g -> {
             g.select(o -> o instanceof Hit, o -> ((Hit)o).setContext(groupingHit));
@@ -12,7 +12,6 @@ import com.yahoo.search.searchchain.Execution;
 import com.yahoo.vespa.config.search.DispatchConfig;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
@@ -113,7 +112,7 @@ public class InterleavedSearchInvoker extends SearchInvoker implements ResponseM
     @Override
     protected InvokerResult getSearchResult() throws IOException {
         InvokerResult result = new InvokerResult(query, query.getHits());
-        List<LeanHit> merged = List.of();
+        LeanHits merged = new LeanHits(0);
         long nextTimeout = query.getTimeLeft();
         var groupingResultAggregator = new GroupingResultAggregator();
         try {
@@ -141,7 +140,7 @@ public class InterleavedSearchInvoker extends SearchInvoker implements ResponseM
 
         int needed = query.getOffset() + query.getHits();
         for (int index = query.getOffset(); (index < merged.size()) && (index < needed); index++) {
-            result.getLeanHits().add(merged.get(index));
+            result.getLeanHits().add(merged, index);
         }
         query.setOffset(0);  // Now we are all trimmed down
         return result;
@@ -175,8 +174,8 @@ public class InterleavedSearchInvoker extends SearchInvoker implements ResponseM
         }
     }
 
-    private List<LeanHit> mergeResult(Result result, InvokerResult partialResult, List<LeanHit> current,
-                                      GroupingResultAggregator groupingResultAggregator) {
+    private LeanHits mergeResult(Result result, InvokerResult partialResult, LeanHits current,
+                                 GroupingResultAggregator groupingResultAggregator) {
         coverageAggregator.add(partialResult.getResult().getCoverage(true));
 
         result.mergeWith(partialResult.getResult());
@@ -193,28 +192,25 @@ public class InterleavedSearchInvoker extends SearchInvoker implements ResponseM
         if (current.isEmpty() ) {
             return partialResult.getLeanHits();
         }
-        List<LeanHit> partial = partialResult.getLeanHits();
+        LeanHits partial = partialResult.getLeanHits();
         if (partial.isEmpty()) {
             return current;
         }
 
         int needed = query.getOffset() + query.getHits();
-        List<LeanHit> merged = new ArrayList<>(needed);
+        LeanHits merged = new LeanHits(needed);
         int indexCurrent = 0;
         int indexPartial = 0;
         while (indexCurrent < current.size() && indexPartial < partial.size() && merged.size() < needed) {
-            LeanHit incomingHit = partial.get(indexPartial);
-            LeanHit currentHit = current.get(indexCurrent);
-
-            int cmpRes = currentHit.compareTo(incomingHit);
+            int cmpRes = current.compare(indexCurrent, partial, indexPartial);
             if (cmpRes < 0) {
-                merged.add(currentHit);
+                merged.add(current, indexCurrent);
                 indexCurrent++;
             } else if (cmpRes > 0) {
-                merged.add(incomingHit);
+                merged.add(partial, indexPartial);
                 indexPartial++;
             } else { // Duplicates
-                merged.add(currentHit);
+                merged.add(current, indexCurrent);
                 indexCurrent++;
                 indexPartial++;
             }
@@ -224,9 +220,9 @@ public class InterleavedSearchInvoker extends SearchInvoker implements ResponseM
         return merged;
     }
 
-    private void appendRemainingIfNeeded(List<LeanHit> merged, int needed, List<LeanHit> hits, int index) {
+    private void appendRemainingIfNeeded(LeanHits merged, int needed, LeanHits hits, int index) {
         while ((index < hits.size()) && (merged.size() < needed)) {
-            merged.add(hits.get(index++));
+            merged.add(hits, index++);
         }
     }
 
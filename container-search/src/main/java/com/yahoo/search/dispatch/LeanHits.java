@@ -0,0 +1,237 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.dispatch;
+
+import com.google.protobuf.ByteString;
+import com.yahoo.data.access.Inspector;
+import com.yahoo.document.GlobalId;
+import com.yahoo.prelude.fastsearch.FastHit;
+import com.yahoo.search.Query;
+import com.yahoo.search.query.Sorting;
+import com.yahoo.search.result.FeatureData;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+/**
+ * A list of lean hits stored column-wise in primitive arrays, with the global ids and sort data
+ * of all hits packed into shared byte arrays. This allows hits to be decoded from a search reply and merged
+ * across search nodes without creating any objects per hit. Objects are only created when hits are
+ * accessed through the list interface, or when the final window of hits is turned into FastHits.
+ *
+ * @author agent
+ */
+public class LeanHits extends AbstractList<LeanHit> {
+
+    private static final int noSortData = -1;
+
+    private int size = 0;
+    private double[] relevance;
+    private int[] partId;
+    private int[] distributionKey;
+
+    /** The global ids of all the hits, where the id of hit i starts at gidStart[i] */
+    private byte[] gids;
+    private int[] gidStart;
+    private int[] gidLength;
+
+    /** The sort data of all the hits, where the data of hit i starts at sortDataStart[i] */
+    private byte[] sortData;
+    private int[] sortDataStart;
+    private int[] sortDataLength;
+    private int sortDataSize = 0;
+    private int gidsSize = 0;
+
+    /** Match features by hit, or null if no hit has match features */
+    private FeatureData[] matchFeatures = null;
+
+    public LeanHits(int expectedHits) {
+        int capacity = Math.max(expectedHits, 1);
+        relevance = new double[capacity];
+        partId = new int[capacity];
+        distributionKey = new int[capacity];
+        gids = new byte[capacity * GlobalId.LENGTH];
+        gidStart = new int[capacity];
+        gidLength = new int[capacity];
+        sortData = new byte[0];
+        sortDataStart = new int[capacity];
+        sortDataLength = new int[capacity];
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public void clear() {
+        size = 0;
+        gidsSize = 0;
+        sortDataSize = 0;
+        matchFeatures = null;
+    }
+
+    /** Returns a new LeanHit instance containing the data of the hit at the given index */
+    @Override
+    public LeanHit get(int index) {
+        checkIndex(index);
+        LeanHit hit = new LeanHit(Arrays.copyOfRange(gids, gidStart[index], gidStart[index] + gidLength[index]),
+                                  partId[index], distributionKey[index], relevance[index], sortDataOf(index));
+        if (hasMatchFeatures(index))
+            hit.setMatchFeatures(matchFeatures[index]);
+        return hit;
+    }
+
+    @Override
+    public boolean add(LeanHit hit) {
+        int index = addHit(hit.getPartId(), hit.getDistributionKey(), hit.getRelevance());
+        setGid(index, hit.getGid(), 0, hit.getGid().length);
+        if (hit.hasSortData())
+            setSortData(index, hit.getSortData(), 0, hit.getSortData().length);
+        if (hit.hasMatchFeatures())
+            setMatchFeatures(index, hit.getMatchFeatures());
+        return true;
+    }
+
+    /** Adds a hit from a search reply without creating intermediate arrays, and returns its index */
+    public int add(ByteString gid, int partId, int distributionKey, double relevance, ByteString sortData) {
+        int index = addHit(partId, distributionKey, relevance);
+        gidStart[index] = gidsSize;
+        gidLength[index] = gid.size();
+        gids = ensureCapacity(gids, gidsSize + gid.size());
+        gid.copyTo(gids, gidsSize);
+        gidsSize += gid.size();
+        if ( ! sortData.isEmpty()) {
+            sortDataStart[index] = sortDataSize;
+            sortDataLength[index] = sortData.size();
+            this.sortData = ensureCapacity(this.sortData, sortDataSize + sortData.size());
+            sortData.copyTo(this.sortData, sortDataSize);
+            sortDataSize += sortData.size();
+        }
+        return index;
+    }
+
+    /** Adds a copy of the hit at the given index in the given list to this */
+    public void add(LeanHits hits, int index) {
+        int added = addHit(hits.partId[index], hits.distributionKey[index], hits.relevance[index]);
+        setGid(added, hits.gids, hits.gidStart[index], hits.gidLength[index]);
+        if (hits.hasSortData(index))
+            setSortData(added, hits.sortData, hits.sortDataStart[index], hits.sortDataLength[index]);
+        if (hits.hasMatchFeatures(index))
+            setMatchFeatures(added, hits.matchFeatures[index]);
+    }
+
+    public void addMatchFeatures(int index, Inspector features) {
+        checkIndex(index);
+        setMatchFeatures(index, new FeatureData(features));
+    }
+
+    public double getRelevance(int index) { return relevance[index]; }
+    public boolean hasSortData(int index) { return sortDataLength[index] != noSortData; }
+    public boolean hasMatchFeatures(int index) { return matchFeatures != null && matchFeatures[index] != null; }
+
+    /**
+     * Compares the hit at the given index in this with the hit at the given index in the given list,
+     * in the same order as {@link LeanHit#compareTo}.
+     */
+    public int compare(int index, LeanHits other, int otherIndex) {
+        int res = hasSortData(index)
+                ? compareData(sortData, sortDataStart[index], sortDataLength[index],
+                              other.sortData, other.sortDataStart[otherIndex], other.sortDataLength[otherIndex])
+                : Double.compare(other.relevance[otherIndex], relevance[index]);
+        return (res != 0) ? res : compareData(gids, gidStart[index], gidLength[index],
+                                              other.gids, other.gidStart[otherIndex], other.gidLength[otherIndex]);
+    }
+
+    /** Returns a FastHit containing the data of the hit at the given index */
+    FastHit toFastHit(int index, Query query, Sorting sorting) {
+        FastHit hit = new FastHit(Arrays.copyOfRange(gids, gidStart[index], gidStart[index] + gidLength[index]),
+                                  relevance[index], partId[index], distributionKey[index]);
+        if (hasSortData(index)) {
+            hit.setSortData(sortDataOf(index), sorting);
+        }
+        if (hasMatchFeatures(index)) {
+            hit.setField("matchfeatures", matchFeatures[index]);
+        }
+        hit.setQuery(query);
+        hit.setFillable();
+        hit.setCached(false);
+        return hit;
+    }
+
+    private byte[] sortDataOf(int index) {
+        if ( ! hasSortData(index)) return null;
+        return Arrays.copyOfRange(sortData, sortDataStart[index], sortDataStart[index] + sortDataLength[index]);
+    }
+
+    private int addHit(int partId, int distributionKey, double relevance) {
+        if (size == this.relevance.length)
+            grow();
+        int index = size++;
+        this.relevance[index] = Double.isNaN(relevance) ? Double.NEGATIVE_INFINITY : relevance;
+        this.partId[index] = partId;
+        this.distributionKey[index] = distributionKey;
+        this.sortDataLength[index] = noSortData;
+        if (matchFeatures != null)
+            matchFeatures[index] = null;
+        return index;
+    }
+
+    private void setGid(int index, byte[] source, int start, int length) {
+        gidStart[index] = gidsSize;
+        gidLength[index] = length;
+        gids = ensureCapacity(gids, gidsSize + length);
+        System.arraycopy(source, start, gids, gidsSize, length);
+        gidsSize += length;
+    }
+
+    private void setSortData(int index, byte[] source, int start, int length) {
+        sortDataStart[index] = sortDataSize;
+        sortDataLength[index] = length;
+        sortData = ensureCapacity(sortData, sortDataSize + length);
+        System.arraycopy(source, start, sortData, sortDataSize, length);
+        sortDataSize += length;
+    }
+
+    private void setMatchFeatures(int index, FeatureData features) {
+        if (matchFeatures == null)
+            matchFeatures = new FeatureData[relevance.length];
+        matchFeatures[index] = features;
+    }
+
+    private void grow() {
+        int capacity = relevance.length * 2;
+        relevance = Arrays.copyOf(relevance, capacity);
+        partId = Arrays.copyOf(partId, capacity);
+        distributionKey = Arrays.copyOf(distributionKey, capacity);
+        gidStart = Arrays.copyOf(gidStart, capacity);
+        gidLength = Arrays.copyOf(gidLength, capacity);
+        sortDataStart = Arrays.copyOf(sortDataStart, capacity);
+        sortDataLength = Arrays.copyOf(sortDataLength, capacity);
+        if (matchFeatures != null)
+            matchFeatures = Arrays.copyOf(matchFeatures, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+    }
+
+    private static byte[] ensureCapacity(byte[] array, int required) {
+        if (required <= array.length) return array;
+        return Arrays.copyOf(array, Math.max(required, array.length * 2));
+    }
+
+    private static int compareData(byte[] left, int leftStart, int leftLength,
+                                   byte[] right, int rightStart, int rightLength) {
+        int i = Arrays.mismatch(left, leftStart, leftStart + leftLength, right, rightStart, rightStart + rightLength);
+        if (i < 0) {
+            return 0;
+        }
+        int max = Integer.min(leftLength, rightLength);
+        if (i >= max) {
+            return leftLength - rightLength;
+        }
+        int vl = (int) left[leftStart + i] & 0xFF;
+        int vr = (int) right[rightStart + i] & 0xFF;
+        return vl - vr;
+    }
+
+}
@@ -18,7 +18,6 @@ import com.yahoo.prelude.fastsearch.VespaBackend;
 import com.yahoo.search.Query;
 import com.yahoo.search.Result;
 import com.yahoo.search.dispatch.InvokerResult;
-import com.yahoo.search.dispatch.LeanHit;
 import com.yahoo.search.grouping.vespa.GroupingExecutor;
 import com.yahoo.search.query.Model;
 import com.yahoo.search.query.QueryTree;
@@ -259,9 +258,7 @@ public class ProtobufSerialization {
             result.getResult().hits().add(hit);
         }
         for (var replyHit : protobuf.getHitsList()) {
-            LeanHit hit = (replyHit.getSortData().isEmpty())
-                    ? new LeanHit(replyHit.getGlobalId().toByteArray(), partId, distKey, replyHit.getRelevance())
-                    : new LeanHit(replyHit.getGlobalId().toByteArray(), partId, distKey, replyHit.getRelevance(), replyHit.getSortData().toByteArray());
+            int hit = result.getLeanHits().add(replyHit.getGlobalId(), partId, distKey, replyHit.getRelevance(), replyHit.getSortData());
             if (haveMatchFeatures) {
                 var hitFeatures = matchFeatures.addHit();
                 var featureList = replyHit.getMatchFeaturesList();
@@ -275,12 +272,11 @@ public class ProtobufSerialization {
                             hitFeatures.set(idx++, tensorBlob.toByteArray());
                         }
                     }
-                    hit.addMatchFeatures(hitFeatures);
+                    result.getLeanHits().addMatchFeatures(hit, hitFeatures);
                 } else {
                     result.getResult().hits().addError(ErrorMessage.createBackendCommunicationError("mismatch in match feature sizes"));
                 }
             }
-            result.getLeanHits().add(hit);
         }
 
         var slimeTrace = protobuf.getSlimeTrace();
@@ -202,7 +202,8 @@ public class FederationSearcher extends ForkingSearcher {
                 setOptional(searchChain.optional()).
                 setUseByDefault(searchChain.useByDefault()).
                 setTimeoutInMilliseconds(searchChain.timeoutMillis()).
-                setRequestTimeoutInMilliseconds(searchChain.requestTimeoutMillis());
+                setRequestTimeoutInMilliseconds(searchChain.requestTimeoutMillis()).
+                setHedgeAfterInMilliseconds(searchChain.hedgeAfterMillis());
     }
 
     private static List<String> extractErrors(List<ResolveResult> results) {
@@ -258,6 +259,8 @@ public class FederationSearcher extends ForkingSearcher {
             search(query, execution, targetHandlers, mergedResults);
         else if (shouldExecuteTargetLongerThanThread(query, targetHandlers.iterator().next()))
             search(query, execution, targetHandlers, mergedResults); // one target, but search in separate thread
+        else if (shouldHedge(query, targetHandlers.iterator().next()))
+            search(query, execution, targetHandlers, mergedResults); // one target, but we may need to issue a hedge
         else
             search(query, execution, first(targetHandlers), mergedResults); // search in this thread
         return mergedResults;
@@ -301,6 +304,10 @@ public class FederationSearcher extends ForkingSearcher {
         if (timeout <= 0)
             return new FutureResult(() -> new Result(query, ErrorMessage.createTimeout("Timed out before federation")), execution, query);
         Query clonedQuery = cloneFederationQuery(query, window, timeout, target);
+        if (shouldHedge(target, timeout))
+            return HedgedFutureResult.search(target.getChain(), execution, clonedQuery,
+                                             cloneFederationQuery(query, window, timeout, target),
+                                             target.federationOptions().getHedgeAfterInMilliseconds());
         return new AsyncExecution(target.getChain(), execution).search(clonedQuery);
     }
 
@@ -535,6 +542,16 @@ public class FederationSearcher extends ForkingSearcher {
         return target.federationOptions().getRequestTimeoutInMilliseconds() > query.getTimeout();
     }
 
+    /** Returns true if a second request should be issued to this target if the first one is slow */
+    private boolean shouldHedge(Query query, Target target) {
+        return shouldHedge(target, target.federationOptions().getSearchChainExecutionTimeoutInMilliseconds(query.getTimeLeft()));
+    }
+
+    private boolean shouldHedge(Target target, long timeout) {
+        int hedgeAfter = target.federationOptions().getHedgeAfterInMilliseconds();
+        return hedgeAfter >= 0 && hedgeAfter < timeout;
+    }
+
     private static Result createSearchChainTimedOutResult(Query query, Target target) {
         ErrorMessage timeoutMessage = ErrorMessage.createTimeout("Error in execution of chain '" + target.getId() +
                                                                  "': " + "Chain timed out.");
@@ -0,0 +1,134 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.federation;
+
+import com.yahoo.component.chain.Chain;
+import com.yahoo.search.Query;
+import com.yahoo.search.Result;
+import com.yahoo.search.Searcher;
+import com.yahoo.search.result.ErrorMessage;
+import com.yahoo.search.searchchain.Execution;
+import com.yahoo.search.searchchain.FutureResult;
+import com.yahoo.yolean.Exceptions;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A future result of a search to a federation target where a second, identical request (a hedge) is issued
+ * to the target if the first has not completed within the hedge delay of the target.
+ * This completes with the first successful result of these requests, or with an error result if all
+ * the requests which were issued failed.
+ *
+ * @author agent
+ */
+class HedgedFutureResult extends FutureResult {
+
+    private final CompletableFuture<Result> first = new CompletableFuture<>();
+    private final Chain<Searcher> chain;
+    private final Query hedgeQuery;
+
+    /** The number of requests issued which have not completed, guarded by this */
+    private int pending = 1;
+
+    /** The error result to complete with if no request succeeds, guarded by this */
+    private Result failed = null;
+
+    private HedgedFutureResult(Chain<Searcher> chain, Execution execution, Query query, Query hedgeQuery) {
+        super(() -> new Execution(chain, execution.context()).search(query), execution, query);
+        this.chain = chain;
+        this.hedgeQuery = hedgeQuery;
+    }
+
+    /**
+     * Starts a search with the given query and schedules a request with the given hedge query
+     * if it has not completed after the given delay.
+     */
+    static HedgedFutureResult search(Chain<Searcher> chain, Execution execution, Query query,
+                                     Query hedgeQuery, long hedgeAfterMillis) {
+        HedgedFutureResult result = new HedgedFutureResult(chain, execution, query, hedgeQuery);
+        Executor executor = execution.context().executor();
+        execute(executor, result);
+        CompletableFuture.delayedExecutor(hedgeAfterMillis, TimeUnit.MILLISECONDS, executor)
+                         .execute(result::hedge);
+        return result;
+    }
+
+    private static void execute(Executor executor, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    private void hedge() {
+        synchronized (this) {
+            if (first.isDone()) return;
+            pending++;
+        }
+        Result result;
+        try {
+            result = new Execution(chain, getExecution().context()).search(hedgeQuery);
+        }
+        catch (RuntimeException e) {
+            result = new Result(hedgeQuery, ErrorMessage.createErrorInPluginSearcher("Error in hedged request to " +
+                                                                                     chain.getId() + ": " +
+                                                                                     Exceptions.toMessageString(e), e));
+        }
+        complete(result, false);
+    }
+
+    /** Completes this with the result of the primary request, unless the hedge completes it */
+    @Override
+    protected void done() {
+        if (isCancelled()) {
+            first.cancel(false);
+            return;
+        }
+        complete(super.get(), true);
+    }
+
+    /**
+     * Completes this with the given result if it is successful. Otherwise, this is completed with an error
+     * result only when no other request is pending, as that may still succeed.
+     */
+    private synchronized void complete(Result result, boolean primary) {
+        if (first.isDone()) return;
+        pending--;
+        if (result.hits().getError() == null) {
+            first.complete(result);
+            return;
+        }
+        if (failed == null || primary)
+            failed = result;
+        if (pending == 0)
+            first.complete(failed);
+    }
+
+    @Override
+    public Result get() {
+        return first.join();
+    }
+
+    @Override
+    public Optional<Result> getIfAvailable(long timeout, TimeUnit timeunit) {
+        try {
+            return Optional.of(first.get(timeout, timeunit));
+        }
+        catch (InterruptedException | ExecutionException e) {
+            return super.getIfAvailable(0, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean isDone() { return first.isDone(); }
+
+}
@@ -22,6 +22,12 @@ public abstract class AggregatorNode extends GroupingExpression {
         this.exp = exp;
     }
 
+    /** Creates an aggregator which takes a numeric parameter in addition to the expression it aggregates on. */
+    protected AggregatorNode(String image, String label, Integer level, Number parameter, GroupingExpression exp) {
+        super(image + "(" + parameter + ", " + exp.toString() + ")", label, level);
+        this.exp = exp;
+    }
+
     /**
      * Returns the expression that this node aggregates on.
      *
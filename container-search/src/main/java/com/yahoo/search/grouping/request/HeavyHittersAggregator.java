@@ -0,0 +1,41 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.grouping.request;
+
+/**
+ * This class represents a heavyhitters-aggregator in a {@link GroupingExpression}. It evaluates to the most frequent
+ * values that the contained expression evaluated to over all the inputs, with estimated counts. The values are
+ * found using a mergeable sketch keeping counts for a bounded number of values, such that all the distinct
+ * values do not need to be enumerated.
+ *
+ * @author agent
+ */
+public class HeavyHittersAggregator extends AggregatorNode {
+
+    private final int maxValues;
+
+    /**
+     * Constructs a new instance of this class.
+     *
+     * @param maxValues  the max number of values to return counts for
+     * @param expression the expression to aggregate on.
+     */
+    public HeavyHittersAggregator(int maxValues, GroupingExpression expression) {
+        this(null, null, maxValues, expression);
+    }
+
+    private HeavyHittersAggregator(String label, Integer level, int maxValues, GroupingExpression expression) {
+        super("heavyhitters", label, level, maxValues, expression);
+        if (maxValues < 1)
+            throw new IllegalArgumentException("Max values must be positive, but was " + maxValues);
+        this.maxValues = maxValues;
+    }
+
+    /** Returns the max number of values to return counts for. */
+    public int getMaxValues() { return maxValues; }
+
+    @Override
+    public HeavyHittersAggregator copy() {
+        return new HeavyHittersAggregator(getLabel(), getLevelOrNull(), maxValues, getExpression().copy());
+    }
+
+}
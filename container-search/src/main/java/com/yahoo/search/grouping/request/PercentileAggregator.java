@@ -0,0 +1,40 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.grouping.request;
+
+/**
+ * This class represents a percentile-aggregator in a {@link GroupingExpression}. It evaluates to an estimate of the
+ * given percentile of the values that the contained expression evaluated to over all the inputs. The estimate is
+ * computed from a mergeable sketch of bounded size, such that it does not require holding all the values.
+ *
+ * @author agent
+ */
+public class PercentileAggregator extends AggregatorNode {
+
+    private final double percentile;
+
+    /**
+     * Constructs a new instance of this class.
+     *
+     * @param percentile the percentile to estimate, in the range [0, 100]
+     * @param expression the expression to aggregate on.
+     */
+    public PercentileAggregator(double percentile, GroupingExpression expression) {
+        this(null, null, percentile, expression);
+    }
+
+    private PercentileAggregator(String label, Integer level, double percentile, GroupingExpression expression) {
+        super("percentile", label, level, percentile, expression);
+        if ( ! (percentile >= 0 && percentile <= 100))
+            throw new IllegalArgumentException("Percentile must be in the range [0, 100], but was " + percentile);
+        this.percentile = percentile;
+    }
+
+    /** Returns the percentile estimated by this, in the range [0, 100]. */
+    public double getPercentile() { return percentile; }
+
+    @Override
+    public PercentileAggregator copy() {
+        return new PercentileAggregator(getLabel(), getLevelOrNull(), percentile, getExpression().copy());
+    }
+
+}
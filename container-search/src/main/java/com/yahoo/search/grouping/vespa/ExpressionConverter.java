@@ -24,6 +24,7 @@ import com.yahoo.search.grouping.request.DoubleValue;
 import com.yahoo.search.grouping.request.FixedWidthFunction;
 import com.yahoo.search.grouping.request.GroupingExpression;
 import com.yahoo.search.grouping.request.GroupingOperation;
+import com.yahoo.search.grouping.request.HeavyHittersAggregator;
 import com.yahoo.search.grouping.request.HourOfDayFunction;
 import com.yahoo.search.grouping.request.InfiniteValue;
 import com.yahoo.search.grouping.request.InterpolatedLookup;
@@ -62,6 +63,7 @@ import com.yahoo.search.grouping.request.NegFunction;
 import com.yahoo.search.grouping.request.NormalizeSubjectFunction;
 import com.yahoo.search.grouping.request.NowFunction;
 import com.yahoo.search.grouping.request.OrFunction;
+import com.yahoo.search.grouping.request.PercentileAggregator;
 import com.yahoo.search.grouping.request.PredefinedFunction;
 import com.yahoo.search.grouping.request.RawValue;
 import com.yahoo.search.grouping.request.RelevanceValue;
@@ -91,9 +93,11 @@ import com.yahoo.searchlib.aggregation.AggregationResult;
 import com.yahoo.searchlib.aggregation.AverageAggregationResult;
 import com.yahoo.searchlib.aggregation.CountAggregationResult;
 import com.yahoo.searchlib.aggregation.ExpressionCountAggregationResult;
+import com.yahoo.searchlib.aggregation.HeavyHittersAggregationResult;
 import com.yahoo.searchlib.aggregation.HitsAggregationResult;
 import com.yahoo.searchlib.aggregation.MaxAggregationResult;
 import com.yahoo.searchlib.aggregation.MinAggregationResult;
+import com.yahoo.searchlib.aggregation.QuantileAggregationResult;
 import com.yahoo.searchlib.aggregation.StandardDeviationAggregationResult;
 import com.yahoo.searchlib.aggregation.SumAggregationResult;
 import com.yahoo.searchlib.aggregation.XorAggregationResult;
@@ -239,6 +243,14 @@ class ExpressionConverter {
             return new StandardDeviationAggregationResult()
                     .setExpression(toExpressionNode(((StandardDeviationAggregator) exp).getExpression()));
         }
+        if (exp instanceof PercentileAggregator percentile) {
+            return new QuantileAggregationResult(percentile.getPercentile() / 100)
+                    .setExpression(toExpressionNode(percentile.getExpression()));
+        }
+        if (exp instanceof HeavyHittersAggregator heavyHitters) {
+            return new HeavyHittersAggregationResult(heavyHitters.getMaxValues())
+                    .setExpression(toExpressionNode(heavyHitters.getExpression()));
+        }
         if (exp instanceof XorAggregator) {
             return new XorAggregationResult()
                     .setExpression(toExpressionNode(((XorAggregator)exp).getExpression()));
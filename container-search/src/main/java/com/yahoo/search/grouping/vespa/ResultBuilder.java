@@ -1,6 +1,7 @@
 // Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.search.grouping.vespa;
 
+import com.yahoo.data.access.simple.Value;
 import com.yahoo.prelude.hitfield.RawBase64;
 import com.yahoo.search.grouping.Continuation;
 import com.yahoo.search.grouping.GroupingRequest;
@@ -27,8 +28,10 @@ import com.yahoo.searchlib.aggregation.ExpressionCountAggregationResult;
 import com.yahoo.searchlib.aggregation.Grouping;
 import com.yahoo.searchlib.aggregation.Hit;
 import com.yahoo.searchlib.aggregation.HitsAggregationResult;
+import com.yahoo.searchlib.aggregation.HeavyHittersAggregationResult;
 import com.yahoo.searchlib.aggregation.MaxAggregationResult;
 import com.yahoo.searchlib.aggregation.MinAggregationResult;
+import com.yahoo.searchlib.aggregation.QuantileAggregationResult;
 import com.yahoo.searchlib.aggregation.RawData;
 import com.yahoo.searchlib.aggregation.StandardDeviationAggregationResult;
 import com.yahoo.searchlib.aggregation.SumAggregationResult;
@@ -266,6 +269,10 @@ class ResultBuilder {
                 return ((SumAggregationResult) execResult).getSum().getValue();
             } else if (execResult instanceof StandardDeviationAggregationResult) {
                 return ((StandardDeviationAggregationResult) execResult).getStandardDeviation();
+            } else if (execResult instanceof QuantileAggregationResult quantile) {
+                return quantile.getValue();
+            } else if (execResult instanceof HeavyHittersAggregationResult heavyHitters) {
+                return toHeavyHitters(heavyHitters);
             } else if (execResult instanceof XorAggregationResult) {
                 return ((XorAggregationResult)execResult).getXor();
             } else {
@@ -273,6 +280,23 @@ class ResultBuilder {
             }
         }
 
+        private Value.ArrayValue toHeavyHitters(HeavyHittersAggregationResult result) {
+            Value.ArrayValue heavyHitters = new Value.ArrayValue();
+            for (var entry : result.getHeavyHitters()) {
+                Value.ObjectValue heavyHitter = new Value.ObjectValue();
+                ResultNode value = entry.getKey();
+                if (value instanceof IntegerResultNode)
+                    heavyHitter.put("value", value.getInteger());
+                else if (value instanceof FloatResultNode)
+                    heavyHitter.put("value", value.getFloat());
+                else
+                    heavyHitter.put("value", value.getString());
+                heavyHitter.put("count", entry.getValue());
+                heavyHitters.add(heavyHitter);
+            }
+            return heavyHitters;
+        }
+
         private long correctExpressionCountEstimate(long count, int tag) {
             int actualGroupCount = group.getNumChildren();
             // Use actual group count if estimate differ. If max is present, only use actual group count if less than max.
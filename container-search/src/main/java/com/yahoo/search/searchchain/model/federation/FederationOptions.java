@@ -15,6 +15,7 @@ public class FederationOptions implements Cloneable {
     private final Integer timeoutInMilliseconds;
     private final Integer requestTimeoutInMilliseconds;
     private final Boolean useByDefault;
+    private final Integer hedgeAfterInMilliseconds;
 
     /**
      * Creates a request with no separate requestTimeoutInMilliseconds
@@ -34,35 +35,53 @@ public class FederationOptions implements Cloneable {
      * @param useByDefault whether this should be invoked by default
      */
     public FederationOptions(Boolean optional, Integer timeoutInMilliseconds, Integer requestTimeoutInMilliseconds, Boolean useByDefault) {
+        this(optional, timeoutInMilliseconds, requestTimeoutInMilliseconds, useByDefault, null);
+    }
+
+    /**
+     * Creates a fully specified set of options, including hedging
+     *
+     * @param hedgeAfterInMilliseconds the time to wait for a response from this source before issuing a second,
+     *                                 identical request to it and using whichever response arrives first,
+     *                                 or null to never hedge requests to this source
+     */
+    public FederationOptions(Boolean optional, Integer timeoutInMilliseconds, Integer requestTimeoutInMilliseconds,
+                             Boolean useByDefault, Integer hedgeAfterInMilliseconds) {
         this.optional = optional;
         this.timeoutInMilliseconds = timeoutInMilliseconds;
         this.requestTimeoutInMilliseconds = requestTimeoutInMilliseconds;
         this.useByDefault = useByDefault;
+        this.hedgeAfterInMilliseconds = hedgeAfterInMilliseconds;
     }
 
     /** Creates a set of default options: Mandatory, no timeout restriction and not used by default */
     public FederationOptions() {
-        this(null, null, null, null);
+        this(null, null, null, null, null);
     }
 
     /** Returns a set of options which are the same of this but with optional set to the given value */
     public FederationOptions setOptional(Boolean newOptional) {
-        return new FederationOptions(newOptional, timeoutInMilliseconds, requestTimeoutInMilliseconds, useByDefault);
+        return new FederationOptions(newOptional, timeoutInMilliseconds, requestTimeoutInMilliseconds, useByDefault, hedgeAfterInMilliseconds);
     }
 
     /** Returns a set of options which are the same of this but with timeout set to the given value */
     public FederationOptions setTimeoutInMilliseconds(Integer newTimeoutInMilliseconds) {
-        return new FederationOptions(optional, newTimeoutInMilliseconds, requestTimeoutInMilliseconds, useByDefault);
+        return new FederationOptions(optional, newTimeoutInMilliseconds, requestTimeoutInMilliseconds, useByDefault, hedgeAfterInMilliseconds);
     }
 
     /** Returns a set of options which are the same of this but with request timeout set to the given value */
     public FederationOptions setRequestTimeoutInMilliseconds(Integer newRequestTimeoutInMilliseconds) {
-        return new FederationOptions(optional, timeoutInMilliseconds, newRequestTimeoutInMilliseconds, useByDefault);
+        return new FederationOptions(optional, timeoutInMilliseconds, newRequestTimeoutInMilliseconds, useByDefault, hedgeAfterInMilliseconds);
     }
 
     /** Returns a set of options which are the same of this but with default set to the given value */
     public FederationOptions setUseByDefault(Boolean newUseByDefault) {
-        return new FederationOptions(optional, timeoutInMilliseconds, requestTimeoutInMilliseconds, newUseByDefault);
+        return new FederationOptions(optional, timeoutInMilliseconds, requestTimeoutInMilliseconds, newUseByDefault, hedgeAfterInMilliseconds);
+    }
+
+    /** Returns a set of options which are the same of this but with hedge delay set to the given value */
+    public FederationOptions setHedgeAfterInMilliseconds(Integer newHedgeAfterInMilliseconds) {
+        return new FederationOptions(optional, timeoutInMilliseconds, requestTimeoutInMilliseconds, useByDefault, newHedgeAfterInMilliseconds);
     }
 
     public boolean getOptional() {
@@ -79,6 +98,11 @@ public class FederationOptions implements Cloneable {
         return (requestTimeoutInMilliseconds != null) ? requestTimeoutInMilliseconds : -1;
     }
 
+    /** Returns the time to wait for this target before issuing a hedged request to it, or -1 to never hedge */
+    public int getHedgeAfterInMilliseconds() {
+        return (hedgeAfterInMilliseconds != null) ? hedgeAfterInMilliseconds : -1;
+    }
+
     public long getSearchChainExecutionTimeoutInMilliseconds(long queryTimeout) {
         return getTimeoutInMilliseconds() >= 0 ? getTimeoutInMilliseconds() : queryTimeout;
     }
@@ -92,7 +116,8 @@ public class FederationOptions implements Cloneable {
                 inherit(optional, parent.optional),
                 inherit(timeoutInMilliseconds, parent.timeoutInMilliseconds),
                 inherit(requestTimeoutInMilliseconds, parent.requestTimeoutInMilliseconds),
-                inherit(useByDefault, parent.useByDefault));
+                inherit(useByDefault, parent.useByDefault),
+                inherit(hedgeAfterInMilliseconds, parent.hedgeAfterInMilliseconds));
     }
 
     private static <T> T inherit(T child, T parent) {
@@ -120,6 +145,7 @@ public class FederationOptions implements Cloneable {
                 "optional=" + optional +
                 ", timeoutInMilliseconds=" + timeoutInMilliseconds +
                 ", useByDefault=" + useByDefault +
+                ", hedgeAfterInMilliseconds=" + hedgeAfterInMilliseconds +
                 '}';
     }
 }
@@ -0,0 +1,69 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.prelude.semantics.test;
+
+import com.yahoo.language.simple.SimpleLinguistics;
+import com.yahoo.prelude.semantics.RuleBase;
+import com.yahoo.prelude.semantics.engine.RuleIndex;
+import com.yahoo.search.Query;
+import com.yahoo.search.test.QueryTestCase;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that looking up candidate rules in the rule index gives the same result as evaluating all rules.
+ *
+ * @author agent
+ */
+public class RuleIndexTestCase {
+
+    private static final String rules =
+            "[brand] [category] -> brand:[brand] category:[category];\n" +
+            "[brand] :- sony, dell;\n" +
+            "[category] :- camera, phone;\n" +
+            "lotr -> lord of the rings;\n" +
+            "rings +> tolkien;\n" +
+            "java ... +> -coffee;\n" +
+            "!cheap laptop +> expensive;\n" +
+            "[stopword] -> ;\n" +
+            "[stopword] :- the, of;\n" +
+            "... fast +> speed;\n" +
+            "parameter.hits>='11' +> largepage;\n";
+
+    @Test
+    void testRuleIndex() throws Exception {
+        RuleBase ruleBase = RuleBase.createFromString("test", rules, null, new SimpleLinguistics());
+        assertEquals(1, RuleIndex.of(ruleBase.rules()).unindexedRuleCount());
+
+        assertSameRewrite(ruleBase, "sony camera");
+        assertSameRewrite(ruleBase, "dell phone");
+        assertSameRewrite(ruleBase, "canon camera");
+        assertSameRewrite(ruleBase, "lotr");
+        assertSameRewrite(ruleBase, "java island");
+        assertSameRewrite(ruleBase, "cheap laptop");
+        assertSameRewrite(ruleBase, "new laptop");
+        assertSameRewrite(ruleBase, "the sony camera of the year");
+        assertSameRewrite(ruleBase, "fast car");
+        assertSameRewrite(ruleBase, "nothing matches this");
+    }
+
+    @Test
+    void testRewrittenQueriesMatchLaterRules() throws Exception {
+        RuleBase ruleBase = RuleBase.createFromString("test", rules, null, new SimpleLinguistics());
+        assertEquals("AND (WEAKAND(100) lord rings) tolkien", rewrite(ruleBase, "lotr"));
+    }
+
+    private void assertSameRewrite(RuleBase ruleBase, String queryString) {
+        ruleBase.setUseRuleIndex(false);
+        String expected = rewrite(ruleBase, queryString);
+        ruleBase.setUseRuleIndex(true);
+        assertEquals(expected, rewrite(ruleBase, queryString), "Rewrite of '" + queryString + "'");
+    }
+
+    private String rewrite(RuleBase ruleBase, String queryString) {
+        Query query = new Query("?query=" + QueryTestCase.httpEncode(queryString) + "&language=und");
+        ruleBase.analyze(query, 0);
+        return query.getModel().getQueryTree().getRoot().toString();
+    }
+
+}
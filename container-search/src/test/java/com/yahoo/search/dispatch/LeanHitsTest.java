@@ -0,0 +1,74 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.dispatch;
+
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author agent
+ */
+public class LeanHitsTest {
+
+    private static final byte[] gidA = {'a'};
+    private static final byte[] gidB = {'b'};
+    private static final byte[] gidC = {'c', 'c'};
+
+    @Test
+    void testColumnsRoundTrip() {
+        LeanHits hits = new LeanHits(1);
+        hits.add(new LeanHit(gidA, 1, 2, 0.5));
+        hits.add(ByteString.copyFrom(gidB), 3, 4, Double.NaN, ByteString.EMPTY);
+        hits.add(ByteString.copyFrom(gidC), 5, 6, 0.1, ByteString.copyFrom(new byte[] {7, 8}));
+        assertEquals(3, hits.size());
+
+        assertArrayEquals(gidA, hits.get(0).getGid());
+        assertEquals(1, hits.get(0).getPartId());
+        assertEquals(2, hits.get(0).getDistributionKey());
+        assertFalse(hits.get(0).hasSortData());
+
+        assertArrayEquals(gidB, hits.get(1).getGid());
+        assertEquals(Double.NEGATIVE_INFINITY, hits.get(1).getRelevance());
+        assertNull(hits.get(1).getSortData());
+
+        assertArrayEquals(gidC, hits.get(2).getGid());
+        assertArrayEquals(new byte[] {7, 8}, hits.get(2).getSortData());
+        assertEquals(6, hits.get(2).getDistributionKey());
+
+        LeanHits copy = new LeanHits(0);
+        copy.add(hits, 2);
+        assertArrayEquals(gidC, copy.get(0).getGid());
+        assertArrayEquals(new byte[] {7, 8}, copy.get(0).getSortData());
+
+        hits.clear();
+        assertTrue(hits.isEmpty());
+    }
+
+    @Test
+    void testCompareIsConsistentWithLeanHit() {
+        LeanHit[] hits = { new LeanHit(gidA, 0, 0, 1.0), new LeanHit(gidB, 0, 0, 1.0), new LeanHit(gidA, 0, 0, 0.5),
+                           new LeanHit(gidC, 0, 0, Double.NaN) };
+        LeanHit[] sorted = { new LeanHit(gidB, 0, 0, 1.0, new byte[] {1, 2}), new LeanHit(gidA, 0, 0, 1.0, new byte[] {1, 2}),
+                             new LeanHit(gidA, 0, 0, 1.0, new byte[] {1}), new LeanHit(gidA, 0, 0, 1.0, new byte[] {(byte)0xff}) };
+        assertConsistentOrder(hits);
+        assertConsistentOrder(sorted);
+    }
+
+    private void assertConsistentOrder(LeanHit[] hits) {
+        LeanHits columns = new LeanHits(hits.length);
+        for (LeanHit hit : hits)
+            columns.add(hit);
+        for (int i = 0; i < hits.length; i++) {
+            for (int j = 0; j < hits.length; j++) {
+                assertEquals(Integer.signum(hits[i].compareTo(hits[j])), Integer.signum(columns.compare(i, columns, j)),
+                             "Comparing hit " + i + " and " + j);
+            }
+        }
+    }
+
+}
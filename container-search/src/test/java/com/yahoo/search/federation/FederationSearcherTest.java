@@ -26,6 +26,10 @@ import org.junit.jupiter.api.Test;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -160,6 +164,43 @@ public class FederationSearcherTest {
         assertEquals("Timed out", error.getMessage());
     }
 
+    @Test
+    void require_that_a_slow_source_is_hedged() {
+        FirstRequestSearcher slowSearcher = new FirstRequestSearcher(false);
+        Result result = searchHedged(slowSearcher);
+        slowSearcher.release();
+        assertNull(result.hits().getError());
+        HitGroup chain1Result = (HitGroup) result.hits().get(0);
+        assertEquals(1, chain1Result.size());
+        assertEquals("answered", chain1Result.get(0).getId().toString());
+    }
+
+    @Test
+    void require_that_a_failed_request_waits_for_the_hedge() {
+        FirstRequestSearcher failingSearcher = new FirstRequestSearcher(true);
+        Result result = searchHedged(failingSearcher);
+        assertNull(result.hits().getError());
+        HitGroup chain1Result = (HitGroup) result.hits().get(0);
+        assertEquals(1, chain1Result.size());
+        assertEquals("answered", chain1Result.get(0).getId().toString());
+    }
+
+    private Result searchHedged(Searcher searcher) {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            FederationTester tester = new FederationTester(executor);
+            tester.addSearchChain("chain1",
+                                  new FederationOptions().setUseByDefault(true).setHedgeAfterInMilliseconds(1),
+                                  searcher);
+            Query query = new Query();
+            query.setTimeout(20000);
+            return tester.search(query);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void custom_federation_target() {
         ComponentId targetSelectorId = ComponentId.fromString("TargetSelector");
@@ -262,6 +303,50 @@ public class FederationSearcherTest {
 
     }
 
+    /**
+     * Answers the second request with a hit. The first request either blocks until released, or fails when
+     * the second request arrives, before that is answered. Which of the primary and hedged request is first
+     * does not matter.
+     */
+    private static class FirstRequestSearcher extends Searcher {
+
+        private final boolean failFirst;
+        private final AtomicBoolean first = new AtomicBoolean(true);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final CountDownLatch failed = new CountDownLatch(1);
+
+        FirstRequestSearcher(boolean failFirst) {
+            this.failFirst = failFirst;
+        }
+
+        @Override
+        public Result search(Query query, Execution execution) {
+            if (first.getAndSet(false)) {
+                await(released);
+                if ( ! failFirst) return execution.search(query);
+                failed.countDown();
+                return new Result(query, ErrorMessage.createBackendCommunicationError("Failed"));
+            }
+            if (failFirst) {
+                release();
+                await(failed);
+            }
+            Result result = execution.search(query);
+            result.hits().add(new Hit("answered"));
+            return result;
+        }
+
+        void release() { released.countDown(); }
+
+        private static void await(CountDownLatch latch) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+            }
+        }
+
+    }
+
     private static class TimeoutInFillSearcher extends Searcher {
 
         private Hit createHit(String id) {
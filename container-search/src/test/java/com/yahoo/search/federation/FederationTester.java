@@ -3,16 +3,21 @@ package com.yahoo.search.federation;
 
 import com.yahoo.component.ComponentId;
 import com.yahoo.component.chain.Chain;
+import com.yahoo.language.simple.SimpleLinguistics;
+import com.yahoo.prelude.IndexFacts;
 import com.yahoo.search.Query;
 import com.yahoo.search.Result;
 import com.yahoo.search.Searcher;
 import com.yahoo.search.federation.sourceref.SearchChainResolver;
+import com.yahoo.search.rendering.RendererRegistry;
+import com.yahoo.search.schema.SchemaInfo;
 import com.yahoo.search.searchchain.Execution;
 import com.yahoo.search.searchchain.SearchChainRegistry;
 import com.yahoo.search.searchchain.model.federation.FederationOptions;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * @author Tony Vaagenes
@@ -22,8 +27,18 @@ class FederationTester {
     private final SearchChainResolver.Builder builder = new SearchChainResolver.Builder();
     private final SearchChainRegistry registry = new SearchChainRegistry();
 
+    private final Executor executor;
     private Execution execution;
 
+    FederationTester() {
+        this(null);
+    }
+
+    /** Creates a tester executing asynchronous work in the given executor, or a single thread if null */
+    FederationTester(Executor executor) {
+        this.executor = executor;
+    }
+
     void addSearchChain(String id, Searcher... searchers) {
         addSearchChain(id, federationOptions(), searchers);
     }
@@ -69,7 +84,12 @@ class FederationTester {
 
     private Execution createExecution() {
         registry.freeze();
-        return new Execution(new Chain<Searcher>(buildFederationSearcher()), Execution.Context.createContextStub(registry));
+        Execution.Context context = executor == null
+                                    ? Execution.Context.createContextStub(registry)
+                                    : new Execution.Context(registry, new IndexFacts(), SchemaInfo.empty(), null,
+                                                            new RendererRegistry(Runnable::run),
+                                                            new SimpleLinguistics(), executor);
+        return new Execution(new Chain<Searcher>(buildFederationSearcher()), context);
     }
 
     public void fill(Result result) {
@@ -93,6 +93,7 @@ public class GroupingParserTestCase {
                 "fixedwidth",
                 "floor",
                 "group",
+                "heavyhitters",
                 "hint",
                 "hypot",
                 "log",
@@ -110,6 +111,7 @@ public class GroupingParserTestCase {
                 "or",
                 "order",
                 "output",
+                "percentile",
                 "pow",
                 "precision",
                 "predefined",
@@ -580,6 +582,10 @@ public class GroupingParserTestCase {
         assertIllegalArgument("all(group(debugwait(artist, 3.3, lol)))",
                 "Encountered \" <IDENTIFIER> \"lol\"\" at line 1, column 34");
         assertParse("all(group(artist) each(output(stddev(simple))))");
+        assertParse("all(group(artist) each(output(percentile(99.9, price))))");
+        assertParse("all(group(artist) each(output(heavyhitters(10, album))))");
+        assertIllegalArgument("all(group(artist) each(output(percentile(101, price))))",
+                              "Percentile must be in the range [0, 100], but was 101.0");
 
         // Test max()
         assertTrue(assertParse("all(group(artist) max(inf))").get(0).hasUnlimitedMax());
@@ -49,6 +49,8 @@ public class RequestBuilderTestCase {
         assertLayout("all(group(a) each(each(output(summary()))))", "[[{ Attribute, result = [Hits] }]]");
         assertLayout("all(group(a) each(output(xor(b))))", "[[{ Attribute, result = [Xor] }]]");
         assertLayout("all(group(a) each(output(stddev(b))))", "[[{ Attribute, result = [StandardDeviation] }]]");
+        assertLayout("all(group(a) each(output(percentile(99, b))))", "[[{ Attribute, result = [Quantile] }]]");
+        assertLayout("all(group(a) each(output(heavyhitters(10, b))))", "[[{ Attribute, result = [HeavyHitters] }]]");
     }
 
     @Test
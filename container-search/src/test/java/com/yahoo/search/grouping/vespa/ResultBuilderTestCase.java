@@ -17,9 +17,11 @@ import com.yahoo.searchlib.aggregation.ExpressionCountAggregationResult;
 import com.yahoo.searchlib.aggregation.FS4Hit;
 import com.yahoo.searchlib.aggregation.Group;
 import com.yahoo.searchlib.aggregation.Grouping;
+import com.yahoo.searchlib.aggregation.HeavyHittersAggregationResult;
 import com.yahoo.searchlib.aggregation.HitsAggregationResult;
 import com.yahoo.searchlib.aggregation.MaxAggregationResult;
 import com.yahoo.searchlib.aggregation.MinAggregationResult;
+import com.yahoo.searchlib.aggregation.QuantileAggregationResult;
 import com.yahoo.searchlib.aggregation.SumAggregationResult;
 import com.yahoo.searchlib.aggregation.XorAggregationResult;
 import com.yahoo.searchlib.aggregation.hll.SparseSketch;
@@ -84,6 +86,11 @@ public class ResultBuilderTestCase {
         assertResult("69", new SumAggregationResult(new IntegerResultNode(69)));
         assertResult("69", new XorAggregationResult(69));
         assertResult("69", new ExpressionCountAggregationResult(new SparseSketch(), sketch -> 69));
+        assertResult("69.0", new QuantileAggregationResult(0.5).addValue(69));
+        assertResult("[{\"value\":\"a\",\"count\":2},{\"value\":69,\"count\":1}]",
+                     new HeavyHittersAggregationResult(2).addValue(new IntegerResultNode(69))
+                                                         .addValue(new StringResultNode("a"))
+                                                         .addValue(new StringResultNode("a")));
     }
 
     @Test
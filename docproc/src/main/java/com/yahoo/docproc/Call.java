@@ -156,6 +156,33 @@ public class Call implements Cloneable {
         }
     }
 
+    /**
+     * Call the DocumentProcessor of this call with a batch of processings.
+     *
+     * @param processings the Processing objects to use
+     * @return the progress of each processing, in the same order as the given processings
+     */
+    public List<DocumentProcessor.Progress> call(List<Processing> processings) {
+        try {
+            int numDocs = 0;
+            for (Processing processing : processings) {
+                numDocs += processing.getDocumentOperations().size();
+                schemaMapProcessing(processing);
+            }
+            long startTime = SystemTimer.INSTANCE.milliTime();
+            List<DocumentProcessor.Progress> retval = processor.process(processings);
+            long procTime = SystemTimer.INSTANCE.milliTime() - startTime;
+            if (retval.size() != processings.size())
+                throw new IllegalStateException(processor + " returned " + retval.size() + " results for " +
+                                                processings.size() + " processings");
+            updateMetrics(procTime, numDocs);
+            return retval;
+        } finally {
+            for (Processing processing : processings)
+                unwrapSchemaMapping(processing);
+        }
+    }
+
     public String toString() {
         return "call to class " + processor.getClass().getName() + " (id: " + getDocumentProcessorId() + ")";
     }
@@ -5,7 +5,9 @@ import com.yahoo.collections.Pair;
 import com.yahoo.component.chain.ChainedComponent;
 import com.yahoo.docproc.impl.DocprocService;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
@@ -71,6 +73,32 @@ public abstract class DocumentProcessor extends ChainedComponent {
      */
     public abstract Progress process(Processing processing);
 
+    /**
+     * Processes a batch of processings, typically from different requests, in one call.
+     * This is only called on processors returning true from {@link #isBatching}, when the container is
+     * configured to collect operations into batches, and lets processors amortize the overhead of calls to
+     * external models or remote stores over many documents.
+     * The default implementation processes each processing in turn.
+     *
+     * <p>Failures should be returned for the individual processings which fail, as an exception
+     * thrown from this fails all the processings of the batch. Use {@link Progress#failed(RuntimeException)}
+     * to fail a single processing with an exception, as if it was thrown when processing it alone.</p>
+     *
+     * @param processings the processings to process
+     * @return the outcome of each processing, in the same order as the given processings
+     */
+    public List<Progress> process(List<Processing> processings) {
+        List<Progress> progress = new ArrayList<>(processings.size());
+        for (Processing processing : processings)
+            progress.add(process(processing));
+        return progress;
+    }
+
+    /** Returns whether this should be given batches of processings through {@link #process(List)}. Default is false. */
+    public boolean isBatching() {
+        return false;
+    }
+
     /** Sets the schema map for field names */
     public void setFieldMap(Map<Pair<String, String>, String> fieldMap) {
         this.fieldMap = fieldMap;
@@ -145,6 +173,11 @@ public abstract class DocumentProcessor extends ChainedComponent {
             return new LaterProgress(delay);
         }
 
+        /** Returns a FAILED progress which carries the exception the processing failed with */
+        public static Progress failed(RuntimeException exception) {
+            return new FailedProgress(exception);
+        }
+
         public Progress withReason(String reason) {
             return new Progress(this.name, reason);
         }
@@ -190,4 +223,20 @@ public abstract class DocumentProcessor extends ChainedComponent {
 
     }
 
+    /** A FAILED progress which carries the exception processing failed with. */
+    public static final class FailedProgress extends Progress {
+
+        private final RuntimeException exception;
+
+        private FailedProgress(RuntimeException exception) {
+            super("failed");
+            this.exception = exception;
+        }
+
+        public RuntimeException getException() {
+            return exception;
+        }
+
+    }
+
 }
@@ -11,7 +11,9 @@ import com.yahoo.document.json.JsonWriter;
 import com.yahoo.jdisc.Metric;
 import com.yahoo.text.Utf8;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -97,15 +99,8 @@ public class DocprocExecutor {
      * @see com.yahoo.docproc.Processing
      */
     public DocumentProcessor.Progress process(Processing processing) {
-        processing.setServiceName(getName());
-        if (processing.callStack() == null) {
-            ((ProcessingAccess)processing).setCallStack(new CallStack(getCallStack()));
-        }
-
+        prepare(processing);
         DocumentProcessor.Progress progress = DocumentProcessor.Progress.DONE;
-        //metrics stuff:
-        //TODO: Note that this is *wrong* in case of Progress.LATER, documents are then counted several times until the Processing is DONE or FAILED.
-        incrementNumDocsProcessed(processing);
         do {
             Call call = processing.callStack().pop();
             if (call == null) {
@@ -128,6 +123,104 @@ public class DocprocExecutor {
         return progress;
     }
 
+    /**
+     * Processes a batch of Processings through the CallStack of this executor. Each Processing is processed
+     * until it is done, has failed, or a processor returns LATER for it, as by {@link #process(Processing)}.
+     * Batching processors are called once with all the Processings which have reached them at the same time,
+     * while other processors are called with each Processing in turn. An exception thrown by a processor
+     * fails only the Processings it was called with.
+     *
+     * @param processings the Processings to process. The CallStack of each Processing will be set to a clone of the CallStack of this executor, iff. it is currently null.
+     * @return the outcome of each Processing, in the same order as the given Processings
+     * @see DocumentProcessor#isBatching()
+     */
+    public List<Outcome> process(List<Processing> processings) {
+        Outcome[] outcomes = new Outcome[processings.size()];
+        List<Integer> active = new ArrayList<>(processings.size());
+        for (int i = 0; i < processings.size(); i++) {
+            prepare(processings.get(i));
+            active.add(i);
+        }
+        while (true) {
+            for (Iterator<Integer> i = active.iterator(); i.hasNext(); ) {
+                int index = i.next();
+                if (processings.get(index).callStack().peek() == null) { // No more processors - done
+                    outcomes[index] = new Outcome(DocumentProcessor.Progress.DONE, null);
+                    i.remove();
+                }
+            }
+            if (active.isEmpty()) return List.of(outcomes);
+
+            // Call the next processor of the first Processing with all the Processings which are at that processor
+            DocumentProcessor processor = processings.get(active.get(0)).callStack().peek().getDocumentProcessor();
+            List<Integer> batch = new ArrayList<>();
+            for (int index : active)
+                if (processings.get(index).callStack().peek().getDocumentProcessor() == processor)
+                    batch.add(index);
+
+            List<Call> calls = new ArrayList<>(batch.size());
+            List<Processing> batchProcessings = new ArrayList<>(batch.size());
+            for (int index : batch) {
+                calls.add(processings.get(index).callStack().pop());
+                batchProcessings.add(processings.get(index));
+            }
+            List<Outcome> results = call(calls, batchProcessings, processor.isBatching());
+            for (int i = 0; i < batch.size(); i++) {
+                Outcome result = results.get(i);
+                if (result.exception() == null && log.isLoggable(Level.FINEST)) {
+                    logProgress(batchProcessings.get(i), result.progress(), calls.get(i));
+                }
+                if (DocumentProcessor.Progress.LATER.equals(result.progress())) {
+                    batchProcessings.get(i).callStack().addNext(calls.get(i));
+                    outcomes[batch.get(i)] = result;
+                } else if ( ! DocumentProcessor.Progress.DONE.equals(result.progress())) {
+                    outcomes[batch.get(i)] = result;
+                }
+            }
+            active.removeIf(index -> outcomes[index] != null);
+        }
+    }
+
+    /** Calls the processor of the given calls with the given Processings, either as one batch, or one at the time */
+    private static List<Outcome> call(List<Call> calls, List<Processing> processings, boolean batching) {
+        List<Outcome> outcomes = new ArrayList<>(processings.size());
+        if (batching && processings.size() > 1) {
+            try {
+                for (DocumentProcessor.Progress progress : calls.get(0).call(processings))
+                    outcomes.add(outcomeOf(progress));
+            } catch (RuntimeException e) {
+                outcomes.clear();
+                for (int i = 0; i < processings.size(); i++)
+                    outcomes.add(new Outcome(DocumentProcessor.Progress.FAILED, e));
+            }
+            return outcomes;
+        }
+        for (int i = 0; i < processings.size(); i++) {
+            try {
+                outcomes.add(outcomeOf(calls.get(i).call(processings.get(i))));
+            } catch (RuntimeException e) {
+                outcomes.add(new Outcome(DocumentProcessor.Progress.FAILED, e));
+            }
+        }
+        return outcomes;
+    }
+
+    private static Outcome outcomeOf(DocumentProcessor.Progress progress) {
+        if (progress instanceof DocumentProcessor.FailedProgress failed)
+            return new Outcome(DocumentProcessor.Progress.FAILED, failed.getException());
+        return new Outcome(progress, null);
+    }
+
+    private void prepare(Processing processing) {
+        processing.setServiceName(getName());
+        if (processing.callStack() == null) {
+            ((ProcessingAccess)processing).setCallStack(new CallStack(getCallStack()));
+        }
+        //metrics stuff:
+        //TODO: Note that this is *wrong* in case of Progress.LATER, documents are then counted several times until the Processing is DONE or FAILED.
+        incrementNumDocsProcessed(processing);
+    }
+
     private void logProgress(Processing processing, DocumentProcessor.Progress progress, Call call) {
         StringBuilder message = new StringBuilder();
         boolean first = true;
@@ -180,6 +273,14 @@ public class DocprocExecutor {
         return progress;
     }
 
+    /**
+     * The outcome of processing a Processing as part of a batch.
+     *
+     * @param progress the progress of the Processing; this is FAILED if processing failed with an exception
+     * @param exception the exception processing failed with, or null if none
+     */
+    public record Outcome(DocumentProcessor.Progress progress, RuntimeException exception) { }
+
     private Function<String, Metric.Context> cachedContexts(String chainDimension) {
         Map<String, Metric.Context> contextCache = new ConcurrentHashMap<>();
         return documentType -> contextCache.computeIfAbsent(documentType, type -> {
@@ -0,0 +1,136 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.docproc.jdisc;
+
+import com.yahoo.docproc.Processing;
+import com.yahoo.docproc.impl.DocprocExecutor;
+import com.yahoo.docproc.impl.DocprocService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the requests to a chain into batches, which are processed as one task, such that processors
+ * which process batches are called with the processings of many requests at once. A batch is processed when it
+ * contains the max number of requests, or when the max delay has passed since its first request was added.
+ * Each request is replied to individually, as when processed by its own {@link DocumentProcessingTask}.
+ *
+ * <p>This class is thread safe.</p>
+ *
+ * @author agent
+ */
+class DocumentProcessingBatcher {
+
+    private final DocprocService service;
+    private final int maxBatchSize;
+    private final long maxDelayMicros;
+    private final ScheduledExecutorService timer;
+
+    /** The tasks of the batch currently being collected */
+    private List<DocumentProcessingTask> pending = new ArrayList<>();
+
+    /** Incremented each time a batch is processed, so that delayed flushes only apply to the batch they were scheduled for */
+    private long generation = 0;
+
+    DocumentProcessingBatcher(DocprocService service, int maxBatchSize, long maxDelayMicros, ScheduledExecutorService timer) {
+        this.service = service;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayMicros = maxDelayMicros;
+        this.timer = timer;
+    }
+
+    /** Adds a task to the current batch, and processes the batch if it is full */
+    void add(DocumentProcessingTask task) {
+        List<DocumentProcessingTask> batch = null;
+        long scheduledGeneration = -1;
+        synchronized (this) {
+            pending.add(task);
+            if (pending.size() >= maxBatchSize)
+                batch = take();
+            else if (pending.size() == 1)
+                scheduledGeneration = generation;
+        }
+        if (batch != null) {
+            submit(batch);
+        } else if (scheduledGeneration >= 0) {
+            long flushGeneration = scheduledGeneration;
+            try {
+                timer.schedule(() -> flush(flushGeneration), maxDelayMicros, TimeUnit.MICROSECONDS);
+            } catch (RejectedExecutionException e) {
+                flush(flushGeneration);
+            }
+        }
+    }
+
+    /** Processes the current batch, if any */
+    void flush() {
+        List<DocumentProcessingTask> batch;
+        synchronized (this) {
+            batch = take();
+        }
+        if ( ! batch.isEmpty()) submit(batch);
+    }
+
+    private void flush(long generation) {
+        List<DocumentProcessingTask> batch;
+        synchronized (this) {
+            if (generation != this.generation) return;
+            batch = take();
+        }
+        if ( ! batch.isEmpty()) submit(batch);
+    }
+
+    private List<DocumentProcessingTask> take() {
+        List<DocumentProcessingTask> batch = pending;
+        pending = new ArrayList<>();
+        generation++;
+        return batch;
+    }
+
+    private void submit(List<DocumentProcessingTask> batch) {
+        try {
+            service.getThreadPoolExecutor().execute(new Batch(batch));
+        } catch (RejectedExecutionException e) {
+            batch.forEach(DocumentProcessingTask::queueFull);
+        }
+    }
+
+    private class Batch implements Runnable {
+
+        private final List<DocumentProcessingTask> tasks;
+
+        Batch(List<DocumentProcessingTask> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        public void run() {
+            try {
+                List<DocumentProcessingTask> processedTasks = new ArrayList<>(tasks.size());
+                List<List<Processing>> taskProcessings = new ArrayList<>(tasks.size());
+                List<Processing> processings = new ArrayList<>();
+                for (DocumentProcessingTask task : tasks) {
+                    List<Processing> batch = task.processingsForBatch();
+                    if (batch == null) continue; // already failed
+                    processedTasks.add(task);
+                    taskProcessings.add(batch);
+                    processings.addAll(batch);
+                }
+
+                List<DocprocExecutor.Outcome> outcomes = service.getExecutor().process(processings);
+                int offset = 0;
+                for (int i = 0; i < processedTasks.size(); i++) {
+                    List<Processing> batch = taskProcessings.get(i);
+                    processedTasks.get(i).completeBatch(batch, outcomes.subList(offset, offset + batch.size()));
+                    offset += batch.size();
+                }
+            } catch (Error error) {
+                DocumentProcessingTask.halt(error);
+            }
+        }
+
+    }
+
+}
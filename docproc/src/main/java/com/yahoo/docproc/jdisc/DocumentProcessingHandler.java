@@ -11,6 +11,7 @@ import com.yahoo.config.docproc.SchemamappingConfig;
 import com.yahoo.container.core.ChainsConfig;
 import com.yahoo.container.core.document.ContainerDocumentConfig;
 import com.yahoo.docproc.AbstractConcreteDocumentFactory;
+import com.yahoo.docproc.Call;
 import com.yahoo.docproc.CallStack;
 import com.yahoo.docproc.impl.DocprocService;
 import com.yahoo.docproc.DocumentProcessor;
@@ -25,7 +26,10 @@ import com.yahoo.jdisc.handler.ResponseHandler;
 import com.yahoo.messagebus.jdisc.MbusRequest;
 import com.yahoo.processing.execution.chain.ChainRegistry;
 
+import java.util.Iterator;
+import java.util.Map;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
@@ -49,6 +53,9 @@ public class DocumentProcessingHandler extends AbstractRequestHandler {
             new ScheduledThreadPoolExecutor(2, new DaemonThreadFactory("docproc-later-"));
     private final ContainerDocumentConfig containerDocConfig;
     private final DocumentTypeManager documentTypeManager;
+    private final int maxBatchSize;
+    private final long maxBatchDelayMicros;
+    private final Map<DocprocService, DocumentProcessingBatcher> batchers = new ConcurrentHashMap<>();
 
     private DocumentProcessingHandler(ComponentRegistry<DocprocService> docprocServiceRegistry,
                                       ComponentRegistry<DocumentProcessor> documentProcessorComponentRegistry,
@@ -57,8 +64,11 @@ public class DocumentProcessingHandler extends AbstractRequestHandler {
                                       DocumentTypeManager documentTypeManager,
                                       ChainsModel chainsModel, SchemaMap schemaMap,
                                       Metric metric,
-                                      ContainerDocumentConfig containerDocConfig) {
+                                      ContainerDocumentConfig containerDocConfig,
+                                      int maxBatchSize, long maxBatchDelayMicros) {
         this.docprocServiceRegistry = docprocServiceRegistry;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchDelayMicros = maxBatchDelayMicros;
         this.docFactoryRegistry = docFactoryRegistry;
         this.containerDocConfig = containerDocConfig;
         this.documentTypeManager = documentTypeManager;
@@ -90,7 +100,8 @@ public class DocumentProcessingHandler extends AbstractRequestHandler {
              params.getMaxNumThreads(),
              params.getDocumentTypeManager(), params.getChainsModel(), params.getSchemaMap(),
              params.getMetric(),
-             params.getContainerDocConfig());
+             params.getContainerDocConfig(),
+             params.getMaxBatchSize(), params.getMaxBatchDelayMicros());
     }
 
     @Inject
@@ -109,12 +120,15 @@ public class DocumentProcessingHandler extends AbstractRequestHandler {
                      .setDocumentTypeManager(documentTypeManager)
                      .setChainsModel(buildFromConfig(chainsConfig)).setSchemaMap(configureMapping(mappingConfig))
                      .setMetric(metric)
-                     .setContainerDocumentConfig(containerDocConfig));
+                     .setContainerDocumentConfig(containerDocConfig)
+                     .setMaxBatchSize(docprocConfig.maxbatchsize())
+                     .setMaxBatchDelayMicros(docprocConfig.maxbatchdelayus()));
         docprocServiceRegistry.freeze();
     }
 
     @Override
     protected void destroy() {
+        batchers.values().forEach(DocumentProcessingBatcher::flush);
         laterExecutor.shutdown();
         if ( ! laterExecutor.getQueue().isEmpty()) {
             // This should not happen, as container should keep this alive until all requests are served.
@@ -178,10 +192,20 @@ public class DocumentProcessingHandler extends AbstractRequestHandler {
         }
 
         DocumentProcessingTask task = new DocumentProcessingTask(requestContext, this, service, service.getThreadPoolExecutor());
-        task.submit();
+        if (maxBatchSize > 1 && hasBatchingProcessor(service.getExecutor().getCallStack()))
+            batchers.computeIfAbsent(service, s -> new DocumentProcessingBatcher(s, maxBatchSize, maxBatchDelayMicros, laterExecutor))
+                    .add(task);
+        else
+            task.submit();
         return null;
     }
 
+    private static boolean hasBatchingProcessor(CallStack callStack) {
+        for (Iterator<Call> i = callStack.iterator(); i.hasNext(); )
+            if (i.next().getDocumentProcessor().isBatching()) return true;
+        return false;
+    }
+
     void submit(DocumentProcessingTask task, long delay) {
         LaterTimerTask timerTask = new LaterTimerTask(task, delay);
         laterExecutor.schedule(timerTask, delay, TimeUnit.MILLISECONDS);
@@ -22,6 +22,8 @@ public class DocumentProcessingHandlerParameters {
     private SchemaMap schemaMap = null;
     private Metric metric = new NullMetric();
     private ContainerDocumentConfig containerDocConfig;
+    private int maxBatchSize = 1;
+    private long maxBatchDelayMicros = 1000;
 
 
 
@@ -48,6 +50,29 @@ public class DocumentProcessingHandlerParameters {
         return this;
     }
 
+    /**
+     * Returns the max number of requests to process as one batch, in chains containing processors which
+     * process batches. Batching is disabled if this is 1 or less.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public DocumentProcessingHandlerParameters setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    /** Returns the max time in microseconds a request waits for its batch to fill up before it is processed. */
+    public long getMaxBatchDelayMicros() {
+        return maxBatchDelayMicros;
+    }
+
+    public DocumentProcessingHandlerParameters setMaxBatchDelayMicros(long maxBatchDelayMicros) {
+        this.maxBatchDelayMicros = maxBatchDelayMicros;
+        return this;
+    }
+
     public DocumentTypeManager getDocumentTypeManager() {
         return documentTypeManager;
     }
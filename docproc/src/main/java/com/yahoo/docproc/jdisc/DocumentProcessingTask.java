@@ -55,29 +55,32 @@ public class DocumentProcessingTask implements Runnable {
     @Override
     public void run() {
         try {
-            try {
-                processings.addAll(requestContext.getProcessings());
-            } catch (Exception e) {
-                log.log(Level.WARNING, "Deserialization of message failed", e);
-                requestContext.processingFailed(e);
-                return;
-            }
+            if ( ! deserialize()) return;
 
             DocprocExecutor executor = service.getExecutor();
             DocumentProcessor.Progress progress = process(executor);
-
-            if (DocumentProcessor.Progress.LATER.equals(progress) && !processings.isEmpty()) {
-                DocumentProcessor.LaterProgress laterProgress = (DocumentProcessor.LaterProgress) progress;
-                docprocHandler.submit(this, laterProgress.getDelay());
-            }
+            submitIfLater(progress);
         } catch (Error error) {
-            try {
-                log.log(Level.SEVERE, Exceptions.toMessageString(error), error);
-            } catch (Throwable t) {
-                // do nothing
-            } finally {
-                Runtime.getRuntime().halt(1);
-            }
+            halt(error);
+        }
+    }
+
+    /** Adds the processings of the request of this to the processings to process, and returns whether this succeeded */
+    private boolean deserialize() {
+        try {
+            processings.addAll(requestContext.getProcessings());
+            return true;
+        } catch (Exception e) {
+            log.log(Level.WARNING, "Deserialization of message failed", e);
+            requestContext.processingFailed(e);
+            return false;
+        }
+    }
+
+    private void submitIfLater(DocumentProcessor.Progress progress) {
+        if (DocumentProcessor.Progress.LATER.equals(progress) && !processings.isEmpty()) {
+            DocumentProcessor.LaterProgress laterProgress = (DocumentProcessor.LaterProgress) progress;
+            docprocHandler.submit(this, laterProgress.getDelay());
         }
     }
 
@@ -93,54 +96,73 @@ public class DocumentProcessingTask implements Runnable {
             Processing processing = iterator.next();
             iterator.remove();
             if (requestContext.hasExpired()) {
-                DocumentProcessor.Progress progress = DocumentProcessor.Progress.FAILED;
-                final String location;
-                if (processing != null) {
-                    final CallStack callStack = processing.callStack();
-                    if (callStack != null) {
-                        final Call lastPopped = callStack.getLastPopped();
-                        if (lastPopped != null) {
-                            location = lastPopped.toString();
-                        } else {
-                            location = "empty call stack or no processors popped";
-                        }
-                    } else {
-                        location = "no call stack";
-                    }
-                } else {
-                    location = "no processing instance";
-                }
-                log.log(Level.FINE, () -> "Time is up for '" + processing + " failed, " + location + "'.");
-                requestContext.processingFailed(RequestContext.ErrorCode.ERROR_PROCESSING_FAILURE, "Time is up.");
-                return progress;
+                return timeUp(processing);
             }
 
-            DocumentProcessor.Progress progress = DocumentProcessor.Progress.FAILED;
+            DocumentProcessor.Progress progress;
             try {
                 progress = executor.process(processing);
             } catch (Exception e) {
-                logProcessingFailure(processing, e);
-                requestContext.processingFailed(e);
-                return progress;
+                return failed(processing, e);
             }
+            if ( ! handle(processing, progress, later)) return progress;
+        }
+        return complete(later);
+    }
 
-            if (DocumentProcessor.Progress.LATER.equals(progress)) {
-                later.add(new Tuple2<>(progress, processing));
-            } else if (DocumentProcessor.Progress.DONE.equals(progress)) {
-                processingsDone.add(processing);
-            } else if (DocumentProcessor.Progress.FAILED.equals(progress)) {
-                logProcessingFailure(processing, null);
-                requestContext.processingFailed(RequestContext.ErrorCode.ERROR_PROCESSING_FAILURE,
-                        progress.getReason().orElse("Document processing failed."));
-                return progress;
-            } else if (DocumentProcessor.Progress.PERMANENT_FAILURE.equals(progress)) {
-                logProcessingFailure(processing, null);
-                requestContext.processingFailed(RequestContext.ErrorCode.ERROR_PROCESSING_FAILURE,
-                        progress.getReason().orElse("Document processing failed."));
-                return progress;
+    /**
+     * Removes and returns the processings of this task to be processed as part of a batch,
+     * or returns null if the request of this has already failed.
+     */
+    List<Processing> processingsForBatch() {
+        if ( ! deserialize()) return null;
+        if (requestContext.hasExpired()) {
+            timeUp(processings.isEmpty() ? null : processings.get(0));
+            return null;
+        }
+        List<Processing> batch = new ArrayList<>(processings);
+        processings.clear();
+        return batch;
+    }
+
+    /**
+     * Completes processing of the processings returned from {@link #processingsForBatch}, given their outcomes
+     * from processing them as part of a batch, by replying, or by resubmitting this if any processing returned LATER.
+     */
+    void completeBatch(List<Processing> batch, List<DocprocExecutor.Outcome> outcomes) {
+        List<Tuple2<DocumentProcessor.Progress, Processing>> later = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            DocprocExecutor.Outcome outcome = outcomes.get(i);
+            if (outcome.exception() != null) {
+                failed(batch.get(i), outcome.exception());
+                return;
             }
+            if ( ! handle(batch.get(i), outcome.progress(), later)) return;
         }
+        submitIfLater(complete(later));
+    }
 
+    /** Handles the progress of a processing, and returns false if it failed the request of this */
+    private boolean handle(Processing processing, DocumentProcessor.Progress progress,
+                           List<Tuple2<DocumentProcessor.Progress, Processing>> later) {
+        if (DocumentProcessor.Progress.LATER.equals(progress)) {
+            later.add(new Tuple2<>(progress, processing));
+        } else if (DocumentProcessor.Progress.DONE.equals(progress)) {
+            processingsDone.add(processing);
+        } else if (progress instanceof DocumentProcessor.FailedProgress failed) {
+            failed(processing, failed.getException());
+            return false;
+        } else if (DocumentProcessor.Progress.FAILED.equals(progress)
+                   || DocumentProcessor.Progress.PERMANENT_FAILURE.equals(progress)) {
+            logProcessingFailure(processing, null);
+            requestContext.processingFailed(RequestContext.ErrorCode.ERROR_PROCESSING_FAILURE,
+                    progress.getReason().orElse("Document processing failed."));
+            return false;
+        }
+        return true;
+    }
+
+    private DocumentProcessor.Progress complete(List<Tuple2<DocumentProcessor.Progress, Processing>> later) {
         // Processings that have FAILED will have made this method terminate by now.
         // We now have successful Processings in 'processingsDone' and
         // the ones that have returned LATER in 'later'.
@@ -166,6 +188,44 @@ public class DocumentProcessingTask implements Runnable {
         }
     }
 
+    private DocumentProcessor.Progress timeUp(Processing processing) {
+        final String location;
+        if (processing != null) {
+            final CallStack callStack = processing.callStack();
+            if (callStack != null) {
+                final Call lastPopped = callStack.getLastPopped();
+                if (lastPopped != null) {
+                    location = lastPopped.toString();
+                } else {
+                    location = "empty call stack or no processors popped";
+                }
+            } else {
+                location = "no call stack";
+            }
+        } else {
+            location = "no processing instance";
+        }
+        log.log(Level.FINE, () -> "Time is up for '" + processing + " failed, " + location + "'.");
+        requestContext.processingFailed(RequestContext.ErrorCode.ERROR_PROCESSING_FAILURE, "Time is up.");
+        return DocumentProcessor.Progress.FAILED;
+    }
+
+    private DocumentProcessor.Progress failed(Processing processing, Exception e) {
+        logProcessingFailure(processing, e);
+        requestContext.processingFailed(e);
+        return DocumentProcessor.Progress.FAILED;
+    }
+
+    /** Logs the given error and halts the JVM, as the state of the container is unknown */
+    static void halt(Error error) {
+        try {
+            log.log(Level.SEVERE, Exceptions.toMessageString(error), error);
+        } catch (Throwable t) {
+            // do nothing
+        } finally {
+            Runtime.getRuntime().halt(1);
+        }
+    }
 
     void queueFull() {
         requestContext.processingFailed(RequestContext.ErrorCode.ERROR_BUSY,
@@ -20,6 +20,7 @@ import com.yahoo.document.serialization.DocumentWriter;
 import com.yahoo.document.serialization.FieldReader;
 import com.yahoo.document.serialization.FieldWriter;
 import com.yahoo.document.serialization.SerializationException;
+import com.yahoo.document.serialization.SerializedFields;
 import com.yahoo.document.serialization.XmlStream;
 import com.yahoo.vespa.objects.Serializer;
 
@@ -292,6 +293,16 @@ public class ProxyDocument extends Document implements DocumentOperationWrapper
         return doc.getFieldCount();
     }
 
+    @Override
+    public void setSerializedFields(SerializedFields serialized) {
+        doc.setSerializedFields(serialized);
+    }
+
+    @Override
+    public SerializedFields getSerializedFields() {
+        return doc.getSerializedFields();
+    }
+
     @Override
     public void serialize(DocumentWriter writer) {
         doc.serialize(writer);
@@ -0,0 +1,209 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.docproc;
+
+import com.yahoo.docproc.impl.DocprocExecutor;
+import com.yahoo.docproc.impl.DocprocService;
+import com.yahoo.document.DataType;
+import com.yahoo.document.DocumentId;
+import com.yahoo.document.DocumentPut;
+import com.yahoo.document.DocumentType;
+import com.yahoo.document.datatypes.StringFieldValue;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests processing of batches of processings
+ *
+ * @author agent
+ */
+public class BatchProcessingTestCase {
+
+    private final DocumentType type = new DocumentType("test");
+
+    public BatchProcessingTestCase() {
+        type.addField("test", DataType.STRING);
+    }
+
+    @Test
+    public void testBatchingProcessorsAreCalledWithTheWholeBatch() {
+        BatchingProcessor batching = new BatchingProcessor();
+        CountingProcessor counting = new CountingProcessor();
+        DocprocExecutor executor = executor(new CallStack().addLast(counting).addLast(batching).addLast(new SettingValueProcessor("done")));
+
+        List<Processing> processings = processings(3);
+        List<DocprocExecutor.Outcome> outcomes = executor.process(processings);
+
+        assertEquals(List.of(3), batching.batchSizes);
+        assertEquals(3, counting.calls);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(DocumentProcessor.Progress.DONE, outcomes.get(i).progress());
+            assertNull(outcomes.get(i).exception());
+            assertEquals(new StringFieldValue("done"), document(processings.get(i)).getFieldValue("test"));
+        }
+    }
+
+    @Test
+    public void testFailuresOfIndividualProcessings() {
+        BatchingProcessor batching = new BatchingProcessor();
+        DocprocExecutor executor = executor(new CallStack().addLast(batching).addLast(new SettingValueProcessor("done")));
+
+        List<Processing> processings = processings(3);
+        batching.fail = "id:test:test::1";
+        List<DocprocExecutor.Outcome> outcomes = executor.process(processings);
+
+        assertEquals(DocumentProcessor.Progress.DONE, outcomes.get(0).progress());
+        assertEquals(DocumentProcessor.Progress.FAILED, outcomes.get(1).progress());
+        assertEquals("Failed test:1", outcomes.get(1).progress().getReason().get());
+        assertEquals(DocumentProcessor.Progress.DONE, outcomes.get(2).progress());
+        assertNull(document(processings.get(1)).getFieldValue("test"));
+        assertEquals(new StringFieldValue("done"), document(processings.get(2)).getFieldValue("test"));
+    }
+
+    @Test
+    public void testExceptionsOfIndividualProcessings() {
+        BatchingProcessor batching = new BatchingProcessor();
+        DocprocExecutor executor = executor(new CallStack().addLast(batching).addLast(new SettingValueProcessor("done")));
+
+        List<Processing> processings = processings(2);
+        batching.fail = "id:test:test::0";
+        batching.failWithException = true;
+        List<DocprocExecutor.Outcome> outcomes = executor.process(processings);
+
+        assertEquals(DocumentProcessor.Progress.FAILED, outcomes.get(0).progress());
+        assertTrue(outcomes.get(0).exception() instanceof IllegalStateException);
+        assertEquals(DocumentProcessor.Progress.DONE, outcomes.get(1).progress());
+        assertNull(outcomes.get(1).exception());
+        assertEquals(new StringFieldValue("done"), document(processings.get(1)).getFieldValue("test"));
+    }
+
+    @Test
+    public void testExceptionsFailOnlyTheProcessingsOfTheCall() {
+        DocprocExecutor executor = executor(new CallStack().addLast(new ThrowingProcessor()).addLast(new SettingValueProcessor("done")));
+
+        List<Processing> processings = processings(2);
+        List<DocprocExecutor.Outcome> outcomes = executor.process(processings);
+
+        assertEquals(DocumentProcessor.Progress.FAILED, outcomes.get(0).progress());
+        assertTrue(outcomes.get(0).exception() instanceof IllegalStateException);
+        assertEquals(DocumentProcessor.Progress.DONE, outcomes.get(1).progress());
+        assertEquals(new StringFieldValue("done"), document(processings.get(1)).getFieldValue("test"));
+    }
+
+    @Test
+    public void testLaterProcessingsContinueAtTheSameProcessor() {
+        LaterOnceProcessor later = new LaterOnceProcessor();
+        DocprocExecutor executor = executor(new CallStack().addLast(later).addLast(new SettingValueProcessor("done")));
+
+        List<Processing> processings = processings(2);
+        List<DocprocExecutor.Outcome> outcomes = executor.process(processings);
+        assertEquals(DocumentProcessor.Progress.LATER, outcomes.get(0).progress());
+        assertEquals(DocumentProcessor.Progress.LATER, outcomes.get(1).progress());
+
+        outcomes = executor.process(processings);
+        assertEquals(DocumentProcessor.Progress.DONE, outcomes.get(0).progress());
+        assertEquals(DocumentProcessor.Progress.DONE, outcomes.get(1).progress());
+        assertEquals(new StringFieldValue("done"), document(processings.get(0)).getFieldValue("test"));
+    }
+
+    private static DocprocExecutor executor(CallStack callStack) {
+        DocprocService service = new DocprocService("batching");
+        service.setCallStack(callStack);
+        service.setInService(true);
+        return service.getExecutor();
+    }
+
+    private List<Processing> processings(int count) {
+        List<Processing> processings = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            processings.add(Processing.of(new DocumentPut(type, new DocumentId("id:test:test::" + i))));
+        return processings;
+    }
+
+    private static com.yahoo.document.Document document(Processing processing) {
+        return ((DocumentPut)processing.getDocumentOperations().get(0)).getDocument();
+    }
+
+    private static class BatchingProcessor extends DocumentProcessor {
+
+        final List<Integer> batchSizes = new ArrayList<>();
+        String fail = null;
+        boolean failWithException = false;
+
+        @Override
+        public Progress process(Processing processing) {
+            if (processing.getDocumentOperations().get(0).getId().toString().equals(fail))
+                return failWithException ? Progress.failed(new IllegalStateException("Failed " + fail))
+                                         : Progress.FAILED.withReason("Failed test:1");
+            return Progress.DONE;
+        }
+
+        @Override
+        public List<Progress> process(List<Processing> processings) {
+            batchSizes.add(processings.size());
+            return super.process(processings);
+        }
+
+        @Override
+        public boolean isBatching() { return true; }
+
+    }
+
+    private static class CountingProcessor extends DocumentProcessor {
+
+        int calls = 0;
+
+        @Override
+        public Progress process(Processing processing) {
+            calls++;
+            return Progress.DONE;
+        }
+
+    }
+
+    private static class ThrowingProcessor extends DocumentProcessor {
+
+        @Override
+        public Progress process(Processing processing) {
+            if (processing.getDocumentOperations().get(0).getId().toString().equals("id:test:test::0"))
+                throw new IllegalStateException("Failed test:0");
+            return Progress.DONE;
+        }
+
+    }
+
+    private static class LaterOnceProcessor extends DocumentProcessor {
+
+        @Override
+        public Progress process(Processing processing) {
+            if (processing.getVariable("later") != null) return Progress.DONE;
+            processing.setVariable("later", true);
+            return Progress.LATER;
+        }
+
+        @Override
+        public boolean isBatching() { return true; }
+
+    }
+
+    private static class SettingValueProcessor extends SimpleDocumentProcessor {
+
+        private final String value;
+
+        SettingValueProcessor(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public void process(DocumentPut put) {
+            put.getDocument().setFieldValue("test", value);
+        }
+
+    }
+
+}
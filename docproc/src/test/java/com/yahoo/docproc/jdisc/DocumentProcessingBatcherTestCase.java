@@ -0,0 +1,185 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.docproc.jdisc;
+
+import com.yahoo.docproc.CallStack;
+import com.yahoo.docproc.DocumentProcessor;
+import com.yahoo.docproc.Processing;
+import com.yahoo.docproc.impl.DocprocService;
+import com.yahoo.docproc.impl.TransientFailureException;
+import com.yahoo.document.DocumentId;
+import com.yahoo.document.DocumentPut;
+import com.yahoo.document.DocumentType;
+import org.junit.After;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class DocumentProcessingBatcherTestCase {
+
+    private final DocumentType type = new DocumentType("test");
+    private final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1);
+    private final BatchingProcessor processor = new BatchingProcessor();
+    private final DocprocService service = new DocprocService("batching");
+
+    public DocumentProcessingBatcherTestCase() {
+        service.setCallStack(new CallStack().addLast(processor));
+        service.setInService(true);
+    }
+
+    @After
+    public void shutdown() {
+        timer.shutdownNow();
+        service.deconstruct();
+    }
+
+    @Test
+    public void testFullBatchesAreProcessedTogether() throws InterruptedException {
+        CountDownLatch replies = new CountDownLatch(4);
+        DocumentProcessingBatcher batcher = new DocumentProcessingBatcher(service, 2, TimeUnit.MINUTES.toMicros(1), timer);
+        List<TestRequestContext> requests = List.of(request(0, replies), request(1, replies), request(2, replies), request(3, replies));
+        for (TestRequestContext request : requests)
+            batcher.add(new DocumentProcessingTask(request, null, service, service.getThreadPoolExecutor()));
+
+        assertTrue(replies.await(1, TimeUnit.MINUTES));
+        assertEquals(List.of(2, 2), processor.batchSizes);
+        for (TestRequestContext request : requests)
+            assertEquals(1, request.done.size());
+    }
+
+    @Test
+    public void testPartialBatchesAreProcessedAfterTheMaxDelay() throws InterruptedException {
+        CountDownLatch replies = new CountDownLatch(3);
+        DocumentProcessingBatcher batcher = new DocumentProcessingBatcher(service, 10, 1000, timer);
+        List<TestRequestContext> requests = List.of(request(0, replies), request(1, replies), request(2, replies));
+        for (TestRequestContext request : requests)
+            batcher.add(new DocumentProcessingTask(request, null, service, service.getThreadPoolExecutor()));
+
+        assertTrue(replies.await(1, TimeUnit.MINUTES));
+        assertEquals(3, processor.batchSizes.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    public void testFailuresAreRepliedToIndividually() throws InterruptedException {
+        CountDownLatch replies = new CountDownLatch(3);
+        DocumentProcessingBatcher batcher = new DocumentProcessingBatcher(service, 3, TimeUnit.MINUTES.toMicros(1), timer);
+        List<TestRequestContext> requests = List.of(request(0, replies), request(1, replies), request(2, replies));
+        processor.fail = "id:test:test::1";
+        for (TestRequestContext request : requests)
+            batcher.add(new DocumentProcessingTask(request, null, service, service.getThreadPoolExecutor()));
+
+        assertTrue(replies.await(1, TimeUnit.MINUTES));
+        assertEquals(List.of(3), processor.batchSizes);
+        assertNull(requests.get(0).failure);
+        assertEquals("Failed test:1", requests.get(1).failure);
+        assertEquals(0, requests.get(1).done.size());
+        assertNull(requests.get(2).failure);
+        assertEquals(1, requests.get(2).done.size());
+    }
+
+    @Test
+    public void testExceptionsOfIndividualProcessingsAreReplied() throws InterruptedException {
+        CountDownLatch replies = new CountDownLatch(2);
+        DocumentProcessingBatcher batcher = new DocumentProcessingBatcher(service, 2, TimeUnit.MINUTES.toMicros(1), timer);
+        List<TestRequestContext> requests = List.of(request(0, replies), request(1, replies));
+        processor.fail = "id:test:test::0";
+        processor.failWithException = true;
+        for (TestRequestContext request : requests)
+            batcher.add(new DocumentProcessingTask(request, null, service, service.getThreadPoolExecutor()));
+
+        assertTrue(replies.await(1, TimeUnit.MINUTES));
+        assertEquals(List.of(2), processor.batchSizes);
+        assertTrue(requests.get(0).exception instanceof TransientFailureException);
+        assertNull(requests.get(1).exception);
+        assertEquals(1, requests.get(1).done.size());
+    }
+
+    private TestRequestContext request(int id, CountDownLatch replies) {
+        return new TestRequestContext(Processing.of(new DocumentPut(type, new DocumentId("id:test:test::" + id))), replies);
+    }
+
+    private static class BatchingProcessor extends DocumentProcessor {
+
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        volatile String fail = null;
+        volatile boolean failWithException = false;
+
+        @Override
+        public Progress process(Processing processing) {
+            if (processing.getDocumentOperations().get(0).getId().toString().equals(fail))
+                return failWithException ? Progress.failed(new TransientFailureException("Overloaded"))
+                                         : Progress.FAILED.withReason("Failed test:1");
+            return Progress.DONE;
+        }
+
+        @Override
+        public List<Progress> process(List<Processing> processings) {
+            batchSizes.add(processings.size());
+            return super.process(processings);
+        }
+
+        @Override
+        public boolean isBatching() { return true; }
+
+    }
+
+    private static class TestRequestContext implements RequestContext {
+
+        private final Processing processing;
+        private final CountDownLatch replies;
+        final List<Processing> done = new CopyOnWriteArrayList<>();
+        volatile String failure = null;
+        volatile Exception exception = null;
+
+        TestRequestContext(Processing processing, CountDownLatch replies) {
+            this.processing = processing;
+            this.replies = replies;
+        }
+
+        @Override
+        public List<Processing> getProcessings() { return List.of(processing); }
+
+        @Override
+        public String getServiceName() { return "batching"; }
+
+        @Override
+        public URI getUri() { return URI.create("mbus://localhost/batching"); }
+
+        @Override
+        public boolean isProcessable() { return true; }
+
+        @Override
+        public void processingDone(List<Processing> processings) {
+            done.addAll(processings);
+            replies.countDown();
+        }
+
+        @Override
+        public void processingFailed(ErrorCode error, String message) {
+            failure = message;
+            replies.countDown();
+        }
+
+        @Override
+        public void processingFailed(Exception exception) {
+            this.exception = exception;
+            processingFailed(ErrorCode.ERROR_PROCESSING_FAILURE, exception.getMessage());
+        }
+
+        @Override
+        public void skip() { }
+
+    }
+
+}
@@ -13,17 +13,23 @@ import com.yahoo.document.datatypes.StructuredFieldValue;
 import com.yahoo.document.datatypes.WeightedSet;
 import com.yahoo.document.fieldpathupdate.AssignFieldPathUpdate;
 import com.yahoo.document.fieldpathupdate.FieldPathUpdate;
+import com.yahoo.document.serialization.SerializedFields;
 import com.yahoo.document.update.FieldUpdate;
 import com.yahoo.document.update.MapValueUpdate;
 import com.yahoo.document.update.ValueUpdate;
 import com.yahoo.vespa.indexinglanguage.AdapterFactory;
+import com.yahoo.vespa.indexinglanguage.DocumentAdapter;
+import com.yahoo.vespa.indexinglanguage.expressions.CompiledScript;
+import com.yahoo.vespa.indexinglanguage.expressions.ExecutionContext;
 import com.yahoo.vespa.indexinglanguage.expressions.Expression;
+import com.yahoo.vespa.indexinglanguage.expressions.ScriptExpression;
 
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * @author Simon Thoresen Hult
@@ -33,22 +39,46 @@ public class DocumentScript {
     private final String documentType;
     private final Set<String> inputFields;
     private final Expression expression;
+    /** The compiled form of the expression used to process documents, or null if it is not a script */
+    private final CompiledScript compiled;
 
     public DocumentScript(String documentType, Collection<String> inputFields, Expression expression) {
         this.documentType = documentType;
         this.inputFields = new HashSet<>(inputFields);
         this.expression = expression;
+        this.compiled = expression instanceof ScriptExpression script ? CompiledScript.compile(script) : null;
     }
 
     public Expression getExpression() { return expression; }
 
     public Document execute(AdapterFactory adapterFactory, Document document) {
+        return execute(adapterFactory, document, null);
+    }
+
+    /**
+     * Executes this on a document.
+     *
+     * @param executor the executor to use for executing independent statements in parallel,
+     *                 or null to execute all statements in the calling thread
+     */
+    public Document execute(AdapterFactory adapterFactory, Document document, Executor executor) {
+        // Fields which are still serialized are not deserialized here, but have their span trees removed if accessed
+        SerializedFields serialized = document.getSerializedFields();
+        if (serialized != null)
+            serialized.onDeserialize(this::removeAnyLinguisticsSpanTree);
         for (var i = document.iterator(); i.hasNext(); ) {
             Map.Entry<Field, FieldValue> entry = i.next();
             requireThatFieldIsDeclaredInDocument(entry.getKey());
-            removeAnyLinguisticsSpanTree(entry.getValue());
+            if (serialized == null || ! serialized.isUntouched(entry.getKey().getId()))
+                removeAnyLinguisticsSpanTree(entry.getValue());
         }
-        return expression.execute(adapterFactory, document);
+        DocumentAdapter adapter = adapterFactory.newDocumentAdapter(document);
+        ExecutionContext context = new ExecutionContext(adapter).setExecutor(executor);
+        if (compiled != null)
+            compiled.execute(context);
+        else
+            expression.execute(context);
+        return adapter.getFullOutput();
     }
 
     public DocumentUpdate execute(AdapterFactory adapterFactory, DocumentUpdate update) {
@@ -8,6 +8,7 @@ import com.yahoo.component.chain.dependencies.After;
 import com.yahoo.component.chain.dependencies.Before;
 import com.yahoo.component.chain.dependencies.Provides;
 import com.yahoo.component.provider.ComponentRegistry;
+import com.yahoo.concurrent.DaemonThreadFactory;
 import com.yahoo.docproc.DocumentProcessor;
 import com.yahoo.docproc.Processing;
 import com.yahoo.document.Document;
@@ -29,6 +30,14 @@ import com.yahoo.vespa.indexinglanguage.SimpleAdapterFactory;
 import com.yahoo.vespa.indexinglanguage.expressions.Expression;
 
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
@@ -47,6 +56,13 @@ public class IndexingProcessor extends DocumentProcessor {
     private final ScriptManager scriptMgr;
     private final AdapterFactory adapterFactory;
 
+    /**
+     * Executes independent, expensive statements (such as embed and tokenize) of a document script in parallel
+     * with the docproc thread. Tasks which are rejected or not yet started when the docproc thread is done with
+     * its own are executed by the docproc thread, so this never blocks processing.
+     */
+    private final ExecutorService statementExecutor;
+
     private class ExpressionSelector extends SimpleAdapterFactory.SelectExpression {
         @Override
         public Expression selectExpression(DocumentType documentType, String fieldName) {
@@ -59,9 +75,33 @@ public class IndexingProcessor extends DocumentProcessor {
                              IlscriptsConfig ilscriptsConfig,
                              Linguistics linguistics,
                              ComponentRegistry<Embedder> embedders) {
+        this(documentTypeManager, ilscriptsConfig, linguistics, embedders, createStatementExecutor());
+    }
+
+    IndexingProcessor(DocumentTypeManager documentTypeManager,
+                      IlscriptsConfig ilscriptsConfig,
+                      Linguistics linguistics,
+                      ComponentRegistry<Embedder> embedders,
+                      ExecutorService statementExecutor) {
         docTypeMgr = documentTypeManager;
         scriptMgr = new ScriptManager(docTypeMgr, ilscriptsConfig, linguistics, toMap(embedders));
         adapterFactory = new SimpleAdapterFactory(new ExpressionSelector());
+        this.statementExecutor = statementExecutor;
+    }
+
+    private static ExecutorService createStatementExecutor() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+                                                             new ArrayBlockingQueue<>(threads * 4),
+                                                             new DaemonThreadFactory("indexing-statement-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public void deconstruct() {
+        statementExecutor.shutdown();
+        super.deconstruct();
     }
 
     @Override
@@ -87,6 +127,71 @@ public class IndexingProcessor extends DocumentProcessor {
         return Progress.DONE;
     }
 
+    /**
+     * Processes the processings of a batch in parallel, using the statement executor in addition to the calling
+     * thread, as the cost of processing documents is typically dominated by embedding and tokenization.
+     * Processings which fail are returned as failed with their exception, without affecting the rest of the batch.
+     * If an error is thrown, the processings not yet started are skipped, and the error is rethrown once all
+     * workers are done.
+     */
+    @Override
+    public List<Progress> process(List<Processing> processings) {
+        Progress[] progress = new Progress[processings.size()];
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<Error> error = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(processings.size());
+        Runnable worker = () -> {
+            for (int i; (i = next.getAndIncrement()) < processings.size(); ) {
+                try {
+                    if (error.get() == null)
+                        progress[i] = processOrFail(processings.get(i));
+                }
+                catch (Error e) {
+                    error.compareAndSet(null, e);
+                }
+                finally {
+                    done.countDown();
+                }
+            }
+        };
+        for (int i = 1; i < processings.size(); i++) {
+            try {
+                statementExecutor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                break; // the remaining processings are processed by the calling thread
+            }
+        }
+        worker.run();
+        awaitUninterruptibly(done);
+        if (error.get() != null) throw error.get();
+        return List.of(progress);
+    }
+
+    @Override
+    public boolean isBatching() { return true; }
+
+    private Progress processOrFail(Processing processing) {
+        try {
+            return process(processing);
+        } catch (RuntimeException e) {
+            return Progress.failed(e);
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            }
+            catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
     DocumentTypeManager getDocumentTypeManager() {
         return docTypeMgr;
     }
@@ -110,7 +215,7 @@ public class IndexingProcessor extends DocumentProcessor {
             buffer.flip();
             inputDocument = docTypeMgr.createDocument(buffer);
         }
-        Document output = script.execute(adapterFactory, inputDocument);
+        Document output = script.execute(adapterFactory, inputDocument, statementExecutor);
         if (output == null) return;
 
         out.add(new DocumentPut(input, output));
@@ -5,6 +5,7 @@ import com.yahoo.document.ArrayDataType;
 import com.yahoo.document.DataType;
 import com.yahoo.document.Document;
 import com.yahoo.document.DocumentType;
+import com.yahoo.document.DocumentTypeManager;
 import com.yahoo.document.DocumentUpdate;
 import com.yahoo.document.Field;
 import com.yahoo.document.MapDataType;
@@ -19,9 +20,12 @@ import com.yahoo.document.datatypes.Struct;
 import com.yahoo.document.datatypes.WeightedSet;
 import com.yahoo.document.fieldpathupdate.AssignFieldPathUpdate;
 import com.yahoo.document.fieldpathupdate.FieldPathUpdate;
+import com.yahoo.document.serialization.DocumentDeserializerFactory;
+import com.yahoo.document.serialization.DocumentSerializerFactory;
 import com.yahoo.document.update.AssignValueUpdate;
 import com.yahoo.document.update.FieldUpdate;
 import com.yahoo.document.update.ValueUpdate;
+import com.yahoo.io.GrowableByteBuffer;
 import com.yahoo.vespa.indexinglanguage.AdapterFactory;
 import com.yahoo.vespa.indexinglanguage.SimpleAdapterFactory;
 import com.yahoo.vespa.indexinglanguage.expressions.Expression;
@@ -158,6 +162,31 @@ public class DocumentScriptTestCase {
         assertSpanTrees(str, "mySpanTree");
     }
 
+    @Test
+    public void requireThatSerializedFieldsAreNotDeserializedToRemoveLinguisticsSpanTree() {
+        DocumentType docType = new DocumentType("myDocumentType");
+        docType.addField("myField", DataType.STRING);
+        docType.addField("otherField", DataType.STRING);
+        DocumentTypeManager manager = new DocumentTypeManager();
+        manager.register(docType);
+        Document doc = new Document(docType, "id:ns:myDocumentType::");
+        doc.setFieldValue("myField", newString(SpanTrees.LINGUISTICS, "mySpanTree"));
+        doc.setFieldValue("otherField", newString(SpanTrees.LINGUISTICS, "mySpanTree"));
+
+        GrowableByteBuffer buffer = new GrowableByteBuffer();
+        DocumentSerializerFactory.createHead(buffer).write(doc);
+        buffer.flip();
+        doc = Document.createDocument(DocumentDeserializerFactory.createHeadWithLazyFields(manager, buffer));
+
+        DocumentScript script = new DocumentScript(docType.getName(), List.of("myField", "otherField"),
+                                                   new StatementExpression(new InputExpression("myField"),
+                                                                           new IndexExpression("myField")));
+        doc = script.execute(ADAPTER_FACTORY, doc);
+        assertSpanTrees(doc.getFieldValue("myField"), "mySpanTree");
+        assertTrue(doc.getSerializedFields().isUntouched(docType.getField("otherField").getId()));
+        assertSpanTrees(doc.getFieldValue("otherField"), "mySpanTree");
+    }
+
     private static class FieldPathFixture {
         final DocumentType type;
         final StructDataType structType;
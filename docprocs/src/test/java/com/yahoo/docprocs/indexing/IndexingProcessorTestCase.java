@@ -3,6 +3,7 @@ package com.yahoo.docprocs.indexing;
 
 import com.yahoo.component.provider.ComponentRegistry;
 import com.yahoo.config.subscription.ConfigGetter;
+import com.yahoo.docproc.DocumentProcessor;
 import com.yahoo.docproc.Processing;
 import com.yahoo.document.Document;
 import com.yahoo.document.DocumentPut;
@@ -19,13 +20,17 @@ import com.yahoo.language.simple.SimpleLinguistics;
 import com.yahoo.vespa.configdefinition.IlscriptsConfig;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author Simon Thoresen Hult
@@ -183,6 +188,60 @@ public class IndexingProcessorTestCase {
         assertSame(input, output);
     }
 
+    @Test
+    public void testBatch() {
+        DocumentType inputType = indexer.getDocumentTypeManager().getDocumentType("music");
+        List<Processing> processings = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            DocumentPut input = new DocumentPut(inputType, "id:ns:music::" + i);
+            input.getDocument().setFieldValue(inputType.getField("artist"), new StringFieldValue("artist" + i));
+            input.getDocument().setFieldValue(inputType.getField("title"), new StringFieldValue("title" + i));
+            processings.add(Processing.of(input));
+        }
+        processings.get(2).getDocumentOperations().set(0, null);
+
+        List<DocumentProcessor.Progress> progress = indexer.process(processings);
+        assertEquals(5, progress.size());
+        for (int i = 0; i < 5; i++) {
+            if (i == 2) {
+                assertEquals(DocumentProcessor.Progress.FAILED, progress.get(i));
+                RuntimeException exception = ((DocumentProcessor.FailedProgress)progress.get(i)).getException();
+                assertEquals(IllegalArgumentException.class, exception.getClass());
+                assertEquals("Expected document, got null.", exception.getMessage());
+                continue;
+            }
+            assertEquals(DocumentProcessor.Progress.DONE, progress.get(i));
+            Document output = ((DocumentPut)processings.get(i).getDocumentOperations().get(0)).getDocument();
+            assertEquals("artist" + i + " title" + i, output.getFieldValue("combined").getWrappedValue());
+        }
+    }
+
+    @Test(timeout = 60_000)
+    @SuppressWarnings("deprecation")
+    public void requireThatBatchWithErrorCompletesWhenExecutorRejects() {
+        ExecutorService rejecting = Executors.newSingleThreadExecutor();
+        rejecting.shutdown();
+        IndexingProcessor failing = new IndexingProcessor(indexer.getDocumentTypeManager(),
+                                                          ConfigGetter.getConfig(IlscriptsConfig.class, CONFIG_ID),
+                                                          new SimpleLinguistics(),
+                                                          new ComponentRegistry<>(),
+                                                          rejecting) {
+            @Override
+            public Progress process(Processing processing) { throw new Error("Processing failed"); }
+        };
+        List<Processing> processings = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+            processings.add(Processing.of(new DocumentPut(new Document(new DocumentType("unknown"), "id:ns:unknown::" + i))));
+
+        try {
+            failing.process(processings);
+            fail("Expected the error to be rethrown");
+        }
+        catch (Error e) {
+            assertEquals("Processing failed", e.getMessage());
+        }
+    }
+
     private void assertAssignment(String fieldName, String value, DocumentUpdate output) {
         FieldUpdate update = output.getFieldUpdate(fieldName);
         assertNotNull("Update of '" + fieldName + "' exists", update);
@@ -12,6 +12,7 @@ import com.yahoo.document.serialization.DocumentWriter;
 import com.yahoo.document.serialization.FieldReader;
 import com.yahoo.document.serialization.FieldWriter;
 import com.yahoo.document.serialization.SerializationException;
+import com.yahoo.document.serialization.SerializedFields;
 import com.yahoo.document.serialization.XmlSerializationHelper;
 import com.yahoo.document.serialization.XmlStream;
 import com.yahoo.io.GrowableByteBuffer;
@@ -200,6 +201,16 @@ public class Document extends StructuredFieldValue {
         return content.iterator();
     }
 
+    /** Sets fields of this which are kept in serialized form until they are accessed, see {@link Struct#setSerializedFields} */
+    public void setSerializedFields(SerializedFields serialized) {
+        content.setSerializedFields(serialized);
+    }
+
+    /** Returns the fields of this which are still serialized, or null if there are none */
+    public SerializedFields getSerializedFields() {
+        return content.getSerializedFields();
+    }
+
     public String toString() {
         return "document '" + docId + "' of type '" + getDataType().getName() + "'";
     }
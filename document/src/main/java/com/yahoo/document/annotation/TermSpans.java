@@ -0,0 +1,148 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.document.annotation;
+
+import com.yahoo.document.datatypes.StringFieldValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact representation of a span tree consisting of a flat list of spans annotated with
+ * {@link AnnotationTypes#TERM} annotations, such as the tree produced by linguistics processing.
+ * Spans and annotations are stored in parallel int arrays, and distinct terms are stored once, such that
+ * no objects are created per token. This can be set on a {@link StringFieldValue} in place of the span tree it
+ * represents, and is serialized to exactly the same bytes as that span tree. The span tree is only created if
+ * it is accessed.
+ *
+ * @author agent
+ */
+public final class TermSpans {
+
+    private final String name;
+
+    private int spanCount = 0;
+    private int[] spanFrom = new int[16];
+    private int[] spanLength = new int[16];
+
+    private int annotationCount = 0;
+    private int[] annotationSpan = new int[16];
+    /** The index of the term value of each annotation, or -1 if the annotation has no value */
+    private int[] annotationTerm = new int[16];
+
+    private final List<String> terms = new ArrayList<>();
+    private final Map<String, Integer> termIndexes = new HashMap<>();
+
+    public TermSpans(String name) {
+        this.name = name;
+    }
+
+    public String getName() { return name; }
+
+    /**
+     * Adds a span to this.
+     *
+     * @param from the start of the span, in chars
+     * @param length the length of the span, in chars
+     * @return the index of the added span
+     */
+    public int span(int from, int length) {
+        if (spanCount == spanFrom.length) {
+            spanFrom = Arrays.copyOf(spanFrom, spanCount * 2);
+            spanLength = Arrays.copyOf(spanLength, spanCount * 2);
+        }
+        spanFrom[spanCount] = from;
+        spanLength[spanCount] = length;
+        return spanCount++;
+    }
+
+    /**
+     * Adds a term annotation to a span of this.
+     *
+     * @param span the index of the span to annotate
+     * @param term the term value of the annotation, or null to add an annotation without a value
+     */
+    public void annotate(int span, String term) {
+        if (span < 0 || span >= spanCount)
+            throw new IndexOutOfBoundsException("No span with index " + span + " in " + this);
+        if (annotationCount == annotationSpan.length) {
+            annotationSpan = Arrays.copyOf(annotationSpan, annotationCount * 2);
+            annotationTerm = Arrays.copyOf(annotationTerm, annotationCount * 2);
+        }
+        annotationSpan[annotationCount] = span;
+        annotationTerm[annotationCount] = term == null ? -1 : termIndexes.computeIfAbsent(term, __ -> {
+            terms.add(term);
+            return terms.size() - 1;
+        });
+        annotationCount++;
+    }
+
+    public int numSpans() { return spanCount; }
+
+    public int getSpanFrom(int span) { return spanFrom[span]; }
+
+    public int getSpanLength(int span) { return spanLength[span]; }
+
+    public int numAnnotations() { return annotationCount; }
+
+    /** Returns the index of the span annotated by the given annotation */
+    public int getAnnotationSpan(int annotation) { return annotationSpan[annotation]; }
+
+    /** Returns the term value of the given annotation, or null if it has no value */
+    public String getAnnotationTerm(int annotation) {
+        int term = annotationTerm[annotation];
+        return term < 0 ? null : terms.get(term);
+    }
+
+    /**
+     * Returns the indexes of the annotations of this in the order of the annotations of the corresponding span tree
+     * when sorted: By span start, span end, and term value, where annotations without a value come first.
+     */
+    public int[] sortedAnnotations() {
+        Integer[] order = new Integer[annotationCount];
+        for (int i = 0; i < annotationCount; i++)
+            order[i] = i;
+        Arrays.sort(order, this::compareAnnotations); // stable, as is the sorting of span tree annotations
+        int[] sorted = new int[annotationCount];
+        for (int i = 0; i < annotationCount; i++)
+            sorted[i] = order[i];
+        return sorted;
+    }
+
+    private int compareAnnotations(int a, int b) {
+        int spanA = annotationSpan[a];
+        int spanB = annotationSpan[b];
+        int comparison = Integer.compare(spanFrom[spanA], spanFrom[spanB]);
+        if (comparison != 0) return comparison;
+        comparison = Integer.compare(spanFrom[spanA] + spanLength[spanA], spanFrom[spanB] + spanLength[spanB]);
+        if (comparison != 0) return comparison;
+        int termA = annotationTerm[a];
+        int termB = annotationTerm[b];
+        if (termA < 0) return termB < 0 ? 0 : -1;
+        if (termB < 0) return 1;
+        return terms.get(termA).compareTo(terms.get(termB));
+    }
+
+    /** Returns a span tree containing the spans and annotations of this */
+    public SpanTree toSpanTree() {
+        SpanTree tree = new SpanTree(name);
+        SpanList root = tree.spanList();
+        Span[] spans = new Span[spanCount];
+        for (int i = 0; i < spanCount; i++)
+            spans[i] = root.span(spanFrom[i], spanLength[i]);
+        for (int i = 0; i < annotationCount; i++) {
+            String term = getAnnotationTerm(i);
+            tree.annotate(spans[annotationSpan[i]], term == null ? new Annotation(AnnotationTypes.TERM)
+                                                                 : new Annotation(AnnotationTypes.TERM, new StringFieldValue(term)));
+        }
+        return tree;
+    }
+
+    @Override
+    public String toString() {
+        return "term spans '" + name + "' with " + spanCount + " spans and " + annotationCount + " annotations";
+    }
+
+}
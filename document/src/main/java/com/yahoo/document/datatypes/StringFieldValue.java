@@ -6,6 +6,7 @@ import com.yahoo.document.DataType;
 import com.yahoo.document.Field;
 import com.yahoo.document.PrimitiveDataType;
 import com.yahoo.document.annotation.SpanTree;
+import com.yahoo.document.annotation.TermSpans;
 import com.yahoo.document.serialization.FieldReader;
 import com.yahoo.document.serialization.FieldWriter;
 import com.yahoo.document.serialization.XmlSerializationHelper;
@@ -42,6 +43,12 @@ public class StringFieldValue extends FieldValue {
     private String value;
     private Map<String, SpanTree> spanTrees = null;
 
+    /**
+     * A span tree of this in compact form, which is turned into a span tree if span trees are accessed.
+     * As this modifies this, access to span trees is synchronized, such that this may be read by multiple threads.
+     */
+    private TermSpans termSpans = null;
+
     /** Creates a new StringFieldValue holding an empty String. */
     public StringFieldValue() {
         value = "";
@@ -89,7 +96,7 @@ public class StringFieldValue extends FieldValue {
      */
     @Override
     public StringFieldValue clone() {
-        StringFieldValue strfval = (StringFieldValue) super.clone();
+        StringFieldValue strfval = (StringFieldValue) super.clone(); // term spans are not modified once set, so they are shared
         if (spanTrees != null) {
             strfval.spanTrees = new HashMap<>(spanTrees.size());
             for (Map.Entry<String, SpanTree> entry : spanTrees.entrySet()) {
@@ -103,6 +110,7 @@ public class StringFieldValue extends FieldValue {
     @Override
     public void clear() {
         value = "";
+        termSpans = null;
         if (spanTrees != null) {
             spanTrees.clear();
             spanTrees = null;
@@ -119,6 +127,7 @@ public class StringFieldValue extends FieldValue {
      */
     @Override
     public void assign(Object o) {
+        termSpans = null;
         if (spanTrees != null) {
             spanTrees.clear();
             spanTrees = null;
@@ -127,8 +136,11 @@ public class StringFieldValue extends FieldValue {
         if (!checkAssign(o)) {
             return;
         }
-        if (o instanceof StringFieldValue) {
-            spanTrees=((StringFieldValue)o).spanTrees;
+        if (o instanceof StringFieldValue other) {
+            synchronized (other) {
+                spanTrees = other.spanTrees;
+                termSpans = other.termSpans;
+            }
         }
         if (o instanceof String) {
             setValue((String) o);
@@ -141,10 +153,12 @@ public class StringFieldValue extends FieldValue {
 
     /**
      * Returns an unmodifiable Collection of the span trees with annotations over this String, if any.
+     * A span tree held in compact form is created and held by this from now on, as the returned span trees may be modified.
      *
      * @return an unmodifiable Collection of the span trees with annotations over this String, or an empty Collection
      */
-    public Collection<SpanTree> getSpanTrees() {
+    public synchronized Collection<SpanTree> getSpanTrees() {
+        materializeTermSpans();
         if (spanTrees == null) {
             return List.of();
         }
@@ -152,7 +166,8 @@ public class StringFieldValue extends FieldValue {
     }
 
     /** Returns the map of spantrees. Might be null. */
-    public final Map<String, SpanTree> getSpanTreeMap() {
+    public final synchronized Map<String, SpanTree> getSpanTreeMap() {
+        materializeTermSpans();
         return spanTrees;
     }
 
@@ -162,13 +177,22 @@ public class StringFieldValue extends FieldValue {
      * @param name the name of the span tree to return
      * @return the span tree associated with the given name, or null if this does not exist.
      */
-    public SpanTree getSpanTree(String name) {
+    public synchronized SpanTree getSpanTree(String name) {
+        if (termSpans != null && termSpans.getName().equals(name)) {
+            materializeTermSpans();
+        }
         if (spanTrees == null) {
             return null;
         }
         return spanTrees.get(name);
     }
 
+    /** Returns whether this has a span tree with the given name, without creating it if it is held in compact form. */
+    public synchronized boolean hasSpanTree(String name) {
+        if (termSpans != null && termSpans.getName().equals(name)) return true;
+        return spanTrees != null && spanTrees.containsKey(name);
+    }
+
     /**
      * Sets the span tree with annotations over this String.
      *
@@ -176,7 +200,8 @@ public class StringFieldValue extends FieldValue {
      * @return the input spanTree for chaining
      * @throws IllegalArgumentException if a span tree with the given name already exists.
      */
-    public SpanTree setSpanTree(SpanTree spanTree) {
+    public synchronized SpanTree setSpanTree(SpanTree spanTree) {
+        materializeTermSpans();
         if (spanTrees == null) {
             spanTrees = new HashMap<>(1);
         }
@@ -188,13 +213,64 @@ public class StringFieldValue extends FieldValue {
         return spanTree;
     }
 
+    /**
+     * Sets a span tree with term annotations over this String in compact form. The span tree is only
+     * created if the span trees of this are accessed, while serialization writes the compact form directly.
+     *
+     * @param termSpans the span tree with term annotations over this String, in compact form,
+     *                  which must not be modified after being set
+     * @throws IllegalArgumentException if a span tree with the given name already exists.
+     */
+    public synchronized void setSpanTree(TermSpans termSpans) {
+        if ((this.termSpans != null && this.termSpans.getName().equals(termSpans.getName())) ||
+            (spanTrees != null && spanTrees.containsKey(termSpans.getName()))) {
+            throw new IllegalArgumentException("Span tree " + termSpans.getName() + " already exists.");
+        }
+        materializeTermSpans();
+        this.termSpans = termSpans;
+    }
+
+    /**
+     * Returns the span tree of this in compact form if it is the only span tree of this and has not been accessed
+     * as a span tree, and null otherwise.
+     */
+    public synchronized TermSpans getTermSpans() {
+        if (spanTrees != null && ! spanTrees.isEmpty()) return null;
+        return termSpans;
+    }
+
+    /**
+     * Turns the span tree of this in compact form into a span tree held by this, as span trees returned
+     * from this may be modified. Callers must hold the lock of this.
+     */
+    private void materializeTermSpans() {
+        if (termSpans == null) return;
+        TermSpans compact = termSpans;
+        termSpans = null;
+        setSpanTree(compact.toSpanTree());
+    }
+
+    /**
+     * Returns the span trees of this by name, including a span tree created from the compact form,
+     * without modifying this. Might be null.
+     */
+    private synchronized Map<String, SpanTree> spanTreesWithoutMaterializing() {
+        if (termSpans == null) return spanTrees;
+        Map<String, SpanTree> trees = (spanTrees == null) ? new HashMap<>(1) : new HashMap<>(spanTrees);
+        trees.put(termSpans.getName(), termSpans.toSpanTree());
+        return trees;
+    }
+
     /**
      * Removes the span tree associated with the given name.
      *
      * @param name the name of the span tree to remove
      * @return the span tree previously associated with the given name, or null if it did not exist
      */
-    public SpanTree removeSpanTree(String name) {
+    public synchronized SpanTree removeSpanTree(String name) {
+        if (termSpans != null && termSpans.getName().equals(name)) {
+            materializeTermSpans();
+        }
         if (spanTrees == null) {
             return null;
         }
@@ -243,9 +319,8 @@ public class StringFieldValue extends FieldValue {
         if (this == o) return true;
         if (!(o instanceof StringFieldValue that)) return false;
         if (!super.equals(o)) return false;
-        if (!Objects.equals(spanTrees, that.spanTrees)) return false;
         if (!Objects.equals(value, that.value)) return false;
-        return true;
+        return Objects.equals(spanTreesWithoutMaterializing(), that.spanTreesWithoutMaterializing());
     }
 
     @Override
@@ -279,17 +354,19 @@ public class StringFieldValue extends FieldValue {
             return comp;
         }
 
-        if (spanTrees == null) {
-            comp = (otherValue.spanTrees == null) ? 0 : -1;
+        Map<String, SpanTree> trees = spanTreesWithoutMaterializing();
+        Map<String, SpanTree> otherTrees = otherValue.spanTreesWithoutMaterializing();
+        if (trees == null) {
+            comp = (otherTrees == null) ? 0 : -1;
         } else {
-            if (otherValue.spanTrees == null) {
+            if (otherTrees == null) {
                 comp = 1;
             } else {
-                comp = CollectionComparator.compare(spanTrees.keySet(), otherValue.spanTrees.keySet());
+                comp = CollectionComparator.compare(trees.keySet(), otherTrees.keySet());
                 if (comp != 0) {
                     return comp;
                 }
-                comp = CollectionComparator.compare(spanTrees.values(), otherValue.spanTrees.values());
+                comp = CollectionComparator.compare(trees.values(), otherTrees.values());
             }
         }
         return comp;
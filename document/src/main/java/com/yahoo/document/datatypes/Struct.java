@@ -9,6 +9,7 @@ import com.yahoo.document.PositionDataType;
 import com.yahoo.document.StructDataType;
 import com.yahoo.document.serialization.FieldReader;
 import com.yahoo.document.serialization.FieldWriter;
+import com.yahoo.document.serialization.SerializedFields;
 import com.yahoo.document.serialization.XmlSerializationHelper;
 import com.yahoo.document.serialization.XmlStream;
 import com.yahoo.vespa.objects.Ids;
@@ -28,21 +29,56 @@ public class Struct extends StructuredFieldValue {
 
     public static final int classId = registerClass(Ids.document + 33, Struct.class);
     private Hashlet<Integer, FieldValue> values = new Hashlet<>();
+    /** Fields which are still serialized, or null if none. Disjoint with values */
+    private SerializedFields serialized = null;
     private int [] order = null;
 
     private int version;
 
     private int [] getInOrder() {
         if (order == null) {
-            order = new int[values.size()];
+            int[] serializedIds = serialized == null ? new int[0] : serialized.fieldIds();
+            order = new int[values.size() + serializedIds.length];
             for (int i = 0; i < values.size(); i++) {
                 order[i] = values.key(i);
             }
+            System.arraycopy(serializedIds, 0, order, values.size(), serializedIds.length);
             Arrays.sort(order);
         }
         return order;
     }
 
+    private FieldValue getValue(int id) {
+        FieldValue value = values.get(id);
+        if (value == null && serialized != null)
+            value = serialized.get(getDataType().getField(id));
+        return value;
+    }
+
+    /** Removes the given field from the serialized fields, if present */
+    private void removeSerialized(int id) {
+        if (serialized == null) return;
+        serialized.remove(id);
+        if (serialized.size() == 0)
+            serialized = null;
+    }
+
+    /**
+     * Sets fields of this which are kept in serialized form until they are accessed. This is done by
+     * deserializers, and replaces any serialized fields already set.
+     */
+    public void setSerializedFields(SerializedFields serialized) {
+        for (int i = 0; i < values.size(); i++)
+            serialized.remove(values.key(i));
+        this.serialized = serialized.size() == 0 ? null : serialized;
+        invalidateOrder();
+    }
+
+    /** Returns the fields of this which are still serialized, or null if there are none */
+    public SerializedFields getSerializedFields() {
+        return serialized;
+    }
+
     private void invalidateOrder() {
         order = null;
     }
@@ -65,6 +101,15 @@ public class Struct extends StructuredFieldValue {
         return this.version;
     }
 
+    /** Returns the hash code of the field values of this, as the hash code of a Hashlet containing all of them */
+    private int valuesHashCode() {
+        if (serialized == null) return values.hashCode();
+        int hashCode = 0;
+        for (int id : getInOrder())
+            hashCode += Integer.hashCode(id) + getValue(id).hashCode();
+        return hashCode;
+    }
+
     @Override
     public Struct clone() {
         Struct struct = (Struct) super.clone();
@@ -73,12 +118,14 @@ public class Struct extends StructuredFieldValue {
         for (int i = 0; i < values.size(); i++) {
             struct.values.put(values.key(i), values.value(i).clone());
         }
+        struct.serialized = serialized == null ? null : serialized.copy();
         return struct;
     }
 
     @Override
     public void clear() {
         values = new Hashlet<>();
+        serialized = null;
         invalidateOrder();
     }
 
@@ -107,7 +154,7 @@ public class Struct extends StructuredFieldValue {
 
     @Override
     public FieldValue getFieldValue(Field field) {
-        return values.get(field.getId());
+        return getValue(field.getId());
     }
 
 
@@ -118,7 +165,7 @@ public class Struct extends StructuredFieldValue {
 
     @Override
     public int getFieldCount() {
-        return values.size();
+        return values.size() + (serialized == null ? 0 : serialized.size());
     }
 
     @Override
@@ -140,6 +187,7 @@ public class Struct extends StructuredFieldValue {
 
         int index = values.getIndexOfKey(field.getId());
         if (index == -1) {
+            removeSerialized(field.getId());
             values.put(field.getId(), value);
             invalidateOrder();
         } else {
@@ -150,7 +198,12 @@ public class Struct extends StructuredFieldValue {
     @Override
     public FieldValue removeFieldValue(Field field) {
         FieldValue found = values.get(field.getId());
-        if (found != null) {
+        if (found == null && serialized != null) {
+            found = serialized.get(field);
+            removeSerialized(field.getId());
+            invalidateOrder();
+        }
+        else if (found != null) {
             Hashlet<Integer, FieldValue> copy = new Hashlet<>();
             copy.reserve(values.size() - 1);
             for (int i=0; i < values.size(); i++) {
@@ -196,13 +249,18 @@ public class Struct extends StructuredFieldValue {
         if (!(o instanceof Struct struct)) return false;
         if (!super.equals(o)) return false;
 
-        return values.equals(struct.values);
+        if (serialized == null && struct.serialized == null) return values.equals(struct.values);
+        if (getFieldCount() != struct.getFieldCount()) return false;
+        for (int id : getInOrder()) {
+            if ( ! getValue(id).equals(struct.getValue(id))) return false;
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
         int result = super.hashCode();
-        result = 31 * result + values.hashCode();
+        result = 31 * result + valuesHashCode();
         return result;
     }
 
@@ -212,7 +270,7 @@ public class Struct extends StructuredFieldValue {
         retVal.append("Struct (").append(getDataType()).append("): ");
         int [] increasing = getInOrder();
         for (int id : increasing) {
-            retVal.append(getDataType().getField(id)).append("=").append(values.get(id)).append(", ");
+            retVal.append(getDataType().getField(id)).append("=").append(getValue(id)).append(", ");
         }
         return retVal.toString();
     }
@@ -229,7 +287,7 @@ public class Struct extends StructuredFieldValue {
             return cmp;
         }
         Struct rhs = (Struct)obj;
-        cmp = values.size() - rhs.values.size();
+        cmp = getFieldCount() - rhs.getFieldCount();
         if (cmp != 0) {
             return cmp;
         }
@@ -270,7 +328,7 @@ public class Struct extends StructuredFieldValue {
         }
 
         public FieldValue getValue() {
-            return values.get(id);
+            return Struct.this.getValue(id);
         }
 
         public FieldValue setValue(FieldValue value) {
@@ -281,6 +339,10 @@ public class Struct extends StructuredFieldValue {
             int index = values.getIndexOfKey(id);
             FieldValue retVal = null;
             if (index == -1) {
+                if (serialized != null) {
+                    retVal = serialized.get(getKey());
+                    removeSerialized(id);
+                }
                 values.put(id, value);
                 invalidateOrder();
             } else {
@@ -306,7 +368,7 @@ public class Struct extends StructuredFieldValue {
     private class FieldSet extends AbstractSet<Map.Entry<Field, FieldValue>> {
         @Override
         public int size() {
-            return values.size();
+            return getFieldCount();
         }
 
         @Override
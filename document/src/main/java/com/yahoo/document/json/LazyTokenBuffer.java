@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 
 import java.io.IOException;
+import java.util.function.DoubleConsumer;
 import java.util.function.Supplier;
 
 /**
@@ -49,6 +50,34 @@ public class LazyTokenBuffer extends TokenBuffer {
         };
     }
 
+    /** Reads numbers directly from the parser when they are not already buffered, without creating tokens for them. */
+    @Override
+    public int readNumbers(DoubleConsumer consumer) {
+        if (tokens.size() > 1) return super.readNumbers(consumer);
+
+        int count = 0;
+        try {
+            for (int depth = 1; depth > 0; ) {
+                JsonToken token = parser.nextValue();
+                if (token == null)
+                    throw new IllegalStateException("no more JSON tokens");
+                switch (token) {
+                    case START_ARRAY -> depth++;
+                    case END_ARRAY -> depth--;
+                    case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> { consumer.accept(parser.getDoubleValue()); count++; }
+                    default -> { consumer.accept(toNumber(token, parser.getText())); count++; }
+                }
+            }
+            super.advance();
+            tokens.add(new Token(JsonToken.END_ARRAY, parser.currentName(), parser.getText()));
+            updateNesting(JsonToken.END_ARRAY);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException("failed reading document JSON", e);
+        }
+        return count;
+    }
+
     private Token nextToken() {
         try {
             JsonToken token = parser.nextValue();
@@ -9,8 +9,11 @@ import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.function.DoubleConsumer;
 import java.util.function.Supplier;
 
+import static com.yahoo.tensor.serialization.JsonFormat.decodeNumberString;
+
 /**
  * Helper class to enable lookahead in the token stream.
  *
@@ -64,6 +67,36 @@ public class TokenBuffer {
         return () -> iterator.hasNext() ? iterator.next() : null;
     }
 
+    /**
+     * Reads the numbers of the array at the current position, including those of any arrays nested in it, in order,
+     * and leaves this positioned at the end of that array. Numbers may also be given as strings, such as "inf".
+     *
+     * @param consumer receives each number read
+     * @return the number of values read
+     * @throws IllegalArgumentException if the array contains something which is not a number or a nested array
+     */
+    public int readNumbers(DoubleConsumer consumer) {
+        int count = 0;
+        int initNesting = nesting();
+        for (next(); nesting() >= initNesting; next()) {
+            if (current() == JsonToken.START_ARRAY || current() == JsonToken.END_ARRAY) continue;
+            consumer.accept(toNumber(current(), currentText()));
+            count++;
+        }
+        return count;
+    }
+
+    static double toNumber(JsonToken token, String text) {
+        try {
+            if (token == JsonToken.VALUE_STRING)
+                return decodeNumberString(text);
+            return Double.parseDouble(text);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected a number but got '" + text + "'");
+        }
+    }
+
     private void add(JsonToken token, String name, String text) {
         tokens.add(new Token(token, name, text));
     }
@@ -12,11 +12,13 @@ import com.yahoo.tensor.TensorAddress;
 import com.yahoo.tensor.TensorType;
 import com.yahoo.tensor.TensorType.Dimension;
 
+import java.util.function.DoubleConsumer;
 import java.util.function.Supplier;
 
 import static com.yahoo.document.json.readers.JsonParserHelpers.*;
 import static com.yahoo.tensor.serialization.JsonFormat.decodeHexString;
 import static com.yahoo.tensor.serialization.JsonFormat.decodeNumberString;
+import static com.yahoo.tensor.serialization.JsonFormat.hexStringSize;
 
 /**
  * Reads the tensor format defined at
@@ -40,12 +42,8 @@ public class TensorReader {
         if (buffer.current() == JsonToken.VALUE_STRING
             && builder instanceof IndexedTensor.BoundBuilder indexedBuilder)
         {
-            double[] decoded = decodeHexString(buffer.currentText(), builder.type().valueType());
-            if (decoded.length == 0)
+            if (decodeHexString(buffer.currentText(), builder.type().valueType(), indexedBuilder) == 0)
                 throw new IllegalArgumentException("Bad string input for tensor with type " + builder.type());
-            for (int i = 0; i < decoded.length; i++) {
-                indexedBuilder.cellByDirectIndex(i, decoded[i]);
-            }
             tensorFieldValue.assign(builder.build());
             return;
         }
@@ -136,21 +134,12 @@ public class TensorReader {
             throw new IllegalArgumentException("The 'values' field can only be used with dense tensors. " +
                                                "Use 'cells' or 'blocks' instead");
         if (buffer.current() == JsonToken.VALUE_STRING) {
-            double[] decoded = decodeHexString(buffer.currentText(), builder.type().valueType());
-            if (decoded.length == 0)
+            if (decodeHexString(buffer.currentText(), builder.type().valueType(), indexedBuilder) == 0)
                 throw new IllegalArgumentException("The 'values' string does not contain any values");
-            for (int i = 0; i < decoded.length; i++) {
-                indexedBuilder.cellByDirectIndex(i, decoded[i]);
-            }
             return;
         }
-        int index = 0;
-        int initNesting = buffer.nesting();
-        for (buffer.next(); buffer.nesting() >= initNesting; buffer.next()) {
-            if (buffer.current() == JsonToken.START_ARRAY || buffer.current() == JsonToken.END_ARRAY) continue; // nested arrays: Skip
-            indexedBuilder.cellByDirectIndex(index++, readDouble(buffer));
-        }
-        if (index == 0)
+        expectArrayStart(buffer.current());
+        if (buffer.readNumbers(new CellWriter(indexedBuilder, Long.MAX_VALUE)) == 0)
             throw new IllegalArgumentException("The 'values' array does not contain any values");
         expectCompositeEnd(buffer.current());
     }
@@ -168,8 +157,8 @@ public class TensorReader {
             int initNesting = buffer.nesting();
             for (buffer.next(); buffer.nesting() >= initNesting; buffer.next()) {
                 TensorAddress mappedAddress = asAddress(buffer.currentName(), builder.type().mappedSubtype());
-                mixedBuilder.block(mappedAddress,
-                                   readValues(buffer, (int) mixedBuilder.denseSubspaceSize(), mappedAddress, mixedBuilder.type()));
+                readValues(buffer, mixedBuilder.denseSubspaceBuilder(mappedAddress), (int)mixedBuilder.denseSubspaceSize(),
+                           mappedAddress, mixedBuilder.type());
             }
         }
         else {
@@ -184,22 +173,34 @@ public class TensorReader {
         expectObjectStart(buffer.current());
 
         TensorAddress address = null;
-        double[] values = null;
+        double[] values = null; // only used if the values precede the address
+        boolean hasValues = false;
 
+        int size = (int)mixedBuilder.denseSubspaceSize();
         int initNesting = buffer.nesting();
         for (buffer.next(); buffer.nesting() >= initNesting; buffer.next()) {
             String currentName = buffer.currentName();
-            if (TensorReader.TENSOR_ADDRESS.equals(currentName))
+            if (TensorReader.TENSOR_ADDRESS.equals(currentName)) {
                 address = readAddress(buffer, mixedBuilder.type().mappedSubtype());
-            else if (TensorReader.TENSOR_VALUES.equals(currentName))
-                values = readValues(buffer, (int)mixedBuilder.denseSubspaceSize(), address, mixedBuilder.type());
+            }
+            else if (TensorReader.TENSOR_VALUES.equals(currentName)) {
+                if (address != null) {
+                    readValues(buffer, mixedBuilder.denseSubspaceBuilder(address), size, address, mixedBuilder.type());
+                }
+                else {
+                    values = new double[size];
+                    readValues(buffer, new ArrayCells(mixedBuilder.type(), values), size, null, mixedBuilder.type());
+                }
+                hasValues = true;
+            }
         }
         expectObjectEnd(buffer.current());
         if (address == null)
             throw new IllegalArgumentException("Expected a 'blocks' array object to contain an object 'address'");
-        if (values == null)
+        if ( ! hasValues)
             throw new IllegalArgumentException("Expected a 'blocks' array object to contain an array 'values'");
-        mixedBuilder.block(address, values);
+        if (values != null)
+            mixedBuilder.block(address, values);
     }
 
     /** Reads a tensor value directly at the root, where the format is decided by the tensor type. */
@@ -236,33 +237,29 @@ public class TensorReader {
     }
 
     /**
-     * Reads values for a tensor subspace block
+     * Reads values for a tensor subspace block directly into the given target
      *
      * @param buffer the buffer containing the values
+     * @param target the dense subspace to write the values to
      * @param size the expected number of values
      * @param address the address for the block for error reporting, or null if not known
      * @param type the type of the tensor we are reading
-     * @return the values read
      */
-    private static double[] readValues(TokenBuffer buffer, int size, TensorAddress address, TensorType type) {
-        int index = 0;
-        double[] values = new double[size];
+    private static void readValues(TokenBuffer buffer, IndexedTensor.DirectIndexBuilder target, int size,
+                                   TensorAddress address, TensorType type) {
+        int count;
         if (buffer.current() == JsonToken.VALUE_STRING) {
-            values = decodeHexString(buffer.currentText(), type.valueType());
-            index = values.length;
+            count = hexStringSize(buffer.currentText(), type.valueType());
+            if (count == size)
+                decodeHexString(buffer.currentText(), type.valueType(), target);
         } else {
             expectArrayStart(buffer.current());
-            int initNesting = buffer.nesting();
-            for (buffer.next(); buffer.nesting() >= initNesting; buffer.next()) {
-                if (buffer.current() == JsonToken.START_ARRAY || buffer.current() == JsonToken.END_ARRAY) continue; // nested arrays: Skip
-                values[index++] = readDouble(buffer);
-            }
+            count = buffer.readNumbers(new CellWriter(target, size));
             expectCompositeEnd(buffer.current());
         }
-        if (index != size)
+        if (count != size)
             throw new IllegalArgumentException((address != null ? "At " + address.toString(type) + ": " : "") +
-                                               "Expected " + size + " values, but got " + index);
-        return values;
+                                               "Expected " + size + " values, but got " + count);
     }
 
     private static double readDouble(TokenBuffer buffer) {
@@ -283,4 +280,36 @@ public class TensorReader {
         return new TensorAddress.Builder(type).add(type.dimensions().get(0).name(), label).build();
     }
 
+    /** Writes values to consecutive cells of a builder, ignoring any beyond the given size. */
+    private static class CellWriter implements DoubleConsumer {
+
+        private final IndexedTensor.DirectIndexBuilder builder;
+        private final long size;
+        private long index = 0;
+
+        CellWriter(IndexedTensor.DirectIndexBuilder builder, long size) {
+            this.builder = builder;
+            this.size = size;
+        }
+
+        @Override
+        public void accept(double value) {
+            if (index < size)
+                builder.cellByDirectIndex(index, value);
+            index++;
+        }
+
+    }
+
+    /** Cells of a block whose address is not yet known. */
+    private record ArrayCells(TensorType type, double[] values) implements IndexedTensor.DirectIndexBuilder {
+
+        @Override
+        public void cellByDirectIndex(long index, double value) { values[(int)index] = value; }
+
+        @Override
+        public void cellByDirectIndex(long index, float value) { values[(int)index] = value; }
+
+    }
+
 }
@@ -19,6 +19,16 @@ public class DocumentDeserializerFactory {
         return new VespaDocumentDeserializerHead(manager, buf);
     }
 
+    /**
+     * Creates a de-serializer for the current head document format, which keeps the fields of the documents
+     * it reads in serialized form until they are accessed.
+     */
+    public static DocumentDeserializer createHeadWithLazyFields(DocumentTypeManager manager, GrowableByteBuffer buf) {
+        VespaDocumentDeserializerHead deserializer = new VespaDocumentDeserializerHead(manager, buf);
+        deserializer.setLazyFields(true);
+        return deserializer;
+    }
+
     /**
      * Creates a de-serializer for the 6.x document format.
      * This format is an extension of the 4.2 format.
@@ -0,0 +1,152 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.document.serialization;
+
+import com.yahoo.collections.Hashlet;
+import com.yahoo.document.DocumentTypeManager;
+import com.yahoo.document.Field;
+import com.yahoo.document.datatypes.FieldValue;
+import com.yahoo.io.GrowableByteBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * The fields of a struct which are kept in serialized form until they are accessed. Each field is deserialized
+ * on first access, and fields which are never accessed are written as the bytes they were read from
+ * when the struct is serialized again.
+ * Deserialization is thread safe, such that a struct may be read concurrently as if it were fully deserialized.
+ *
+ * @author agent
+ */
+public final class SerializedFields {
+
+    private final DocumentTypeManager manager;
+    /** The serialized fields, a read-only view of the buffer they were read from */
+    private final ByteBuffer data;
+    private final int[] ids;
+    private final int[] offsets;
+    private final int[] lengths;
+
+    /** The index of each field id in the arrays of this */
+    private final Hashlet<Integer, Integer> indexes;
+
+    /** The deserialized value of each field, or null if not yet deserialized */
+    private final FieldValue[] values;
+
+    /** Whether each field is removed, i.e. set or removed in the owning struct */
+    private final boolean[] removed;
+    private int size;
+
+    /** An action to apply to each value when it is deserialized, or null if none */
+    private Consumer<FieldValue> onDeserialize = null;
+
+    SerializedFields(DocumentTypeManager manager, ByteBuffer data, int[] ids, int[] offsets, int[] lengths) {
+        this.manager = manager;
+        this.data = data;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.indexes = new Hashlet<>();
+        this.indexes.reserve(ids.length);
+        for (int i = 0; i < ids.length; i++)
+            this.indexes.put(ids[i], i);
+        this.values = new FieldValue[ids.length];
+        this.removed = new boolean[ids.length];
+        this.size = ids.length;
+    }
+
+    private SerializedFields(SerializedFields other) {
+        this.manager = other.manager;
+        this.data = other.data;
+        this.ids = other.ids;
+        this.offsets = other.offsets;
+        this.lengths = other.lengths;
+        this.indexes = other.indexes;
+        this.values = new FieldValue[ids.length];
+        synchronized (other) {
+            for (int i = 0; i < ids.length; i++)
+                this.values[i] = other.values[i] == null ? null : other.values[i].clone();
+        }
+        this.removed = other.removed.clone();
+        this.size = other.size;
+        this.onDeserialize = other.onDeserialize;
+    }
+
+    /** Returns the number of fields in this */
+    public int size() { return size; }
+
+    /** Returns whether this contains the field with the given id */
+    public boolean contains(int fieldId) {
+        return indexOf(fieldId) >= 0;
+    }
+
+    /** Returns the ids of the fields in this */
+    public int[] fieldIds() {
+        int[] fieldIds = new int[size];
+        for (int i = 0, j = 0; i < ids.length; i++)
+            if ( ! removed[i]) fieldIds[j++] = ids[i];
+        return fieldIds;
+    }
+
+    /** Returns the value of the given field, deserializing it if this is the first access, or null if it is not in this */
+    public FieldValue get(Field field) {
+        int index = indexOf(field.getId());
+        if (index < 0) return null;
+        synchronized (this) {
+            if (values[index] == null) {
+                FieldValue value = field.getDataType().createFieldValue();
+                value.deserialize(field, new VespaDocumentDeserializerHead(manager, new GrowableByteBuffer(slice(index))));
+                if (onDeserialize != null)
+                    onDeserialize.accept(value);
+                values[index] = value;
+            }
+            return values[index];
+        }
+    }
+
+    /** Removes the field with the given id from this, if present */
+    public void remove(int fieldId) {
+        int index = indexOf(fieldId);
+        if (index < 0) return;
+        removed[index] = true;
+        size--;
+    }
+
+    /**
+     * Sets an action to apply to each value of this when it is deserialized, such as removing annotations which
+     * should not be kept. This replaces any action already set, and does not apply to values already deserialized.
+     */
+    public synchronized void onDeserialize(Consumer<FieldValue> action) {
+        this.onDeserialize = action;
+    }
+
+    /** Returns a copy of this, sharing the serialized data, but with copies of any deserialized values */
+    public SerializedFields copy() {
+        return new SerializedFields(this);
+    }
+
+    /** Returns whether the given field is in this and has never been accessed, such that its serialized form is current */
+    public boolean isUntouched(int fieldId) {
+        int index = indexOf(fieldId);
+        if (index < 0) return false;
+        synchronized (this) {
+            return values[index] == null;
+        }
+    }
+
+    /** Writes the serialized form of the given field, which must be untouched, to the given buffer */
+    void write(int fieldId, GrowableByteBuffer buffer) {
+        int index = indexOf(fieldId);
+        buffer.put(slice(index));
+    }
+
+    private ByteBuffer slice(int index) {
+        return data.slice(offsets[index], lengths[index]);
+    }
+
+    private int indexOf(int fieldId) {
+        Integer index = indexes.get(fieldId);
+        return index == null || removed[index] ? -1 : index;
+    }
+
+}
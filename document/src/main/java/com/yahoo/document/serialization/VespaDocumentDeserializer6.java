@@ -64,6 +64,7 @@ import com.yahoo.vespa.objects.FieldBase;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -82,6 +83,7 @@ public class VespaDocumentDeserializer6 extends BufferSerializer implements Docu
     private List<SpanNode> spanNodes;
     private List<Annotation> annotations;
     private int[] stringPositions;
+    private boolean lazyFields = false;
 
     VespaDocumentDeserializer6(DocumentTypeManager manager, GrowableByteBuffer buf) {
         super(buf);
@@ -91,6 +93,15 @@ public class VespaDocumentDeserializer6 extends BufferSerializer implements Docu
 
     final public DocumentTypeManager getDocumentTypeManager() { return manager; }
 
+    /**
+     * Sets whether the fields of documents read by this should be kept in serialized form until they are accessed,
+     * see {@link SerializedFields}. Default is false. Serialized fields share the bytes of the buffer read from,
+     * so its content must not be modified while documents read from it are in use.
+     */
+    public void setLazyFields(boolean lazyFields) {
+        this.lazyFields = lazyFields;
+    }
+
     @Override
     public DocumentTypeManager getTypeRepo() {
         return manager;
@@ -116,7 +127,10 @@ public class VespaDocumentDeserializer6 extends BufferSerializer implements Docu
         doc.setDataType(readDocumentType());
         doc.setId(documentId);
 
-        if ((content & 0x2) != 0) {
+        if (lazyFields && (content & 0x6) == 0x2) {
+            readSerializedFields(doc, doc.getDataType().contentStruct());
+        }
+        else if ((content & 0x2) != 0) {
             readStruct(doc, doc.getDataType().contentStruct());
 
         }
@@ -296,6 +310,39 @@ public class VespaDocumentDeserializer6 extends BufferSerializer implements Docu
         position(afterPos);
     }
 
+    /** Reads a struct into the given document, keeping the fields in serialized form until they are accessed */
+    private void readSerializedFields(Document target, StructDataType priType) {
+        if (version < 8) {
+            throw new DeserializationException("Illegal document serialization version " + version);
+        }
+        int dataSize = getInt(null);
+        byte unusedComprCode = getByte(null);
+        int numberOfFields = getInt1_4Bytes(null);
+
+        var fieldIds = new int[numberOfFields];
+        var fieldOffsets = new int[numberOfFields];
+        var fieldLens = new int[numberOfFields];
+        int knownFields = 0;
+        for (int i = 0, offset = 0; i < numberOfFields; i++) {
+            int fieldId = getInt1_4Bytes(null);
+            int fieldLen = (int) getInt2_4_8Bytes(null);
+            // ignoring unknown field
+            if (priType.getField(fieldId) != null) {
+                fieldIds[knownFields] = fieldId;
+                fieldOffsets[knownFields] = offset;
+                fieldLens[knownFields] = fieldLen;
+                knownFields++;
+            }
+            offset += fieldLen;
+        }
+        ByteBuffer data = buf.getByteBuffer().slice(position(), dataSize).asReadOnlyBuffer();
+        position(position() + dataSize);
+        target.setSerializedFields(new SerializedFields(manager, data,
+                                                        Arrays.copyOf(fieldIds, knownFields),
+                                                        Arrays.copyOf(fieldOffsets, knownFields),
+                                                        Arrays.copyOf(fieldLens, knownFields)));
+    }
+
     public void read(FieldBase field, StructuredFieldValue value) {
         throw new IllegalArgumentException("read not implemented yet.");
     }
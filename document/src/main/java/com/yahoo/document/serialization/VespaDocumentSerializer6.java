@@ -16,10 +16,12 @@ import com.yahoo.document.WeightedSetDataType;
 import com.yahoo.document.annotation.AlternateSpanList;
 import com.yahoo.document.annotation.Annotation;
 import com.yahoo.document.annotation.AnnotationReference;
+import com.yahoo.document.annotation.AnnotationTypes;
 import com.yahoo.document.annotation.Span;
 import com.yahoo.document.annotation.SpanList;
 import com.yahoo.document.annotation.SpanNode;
 import com.yahoo.document.annotation.SpanTree;
+import com.yahoo.document.annotation.TermSpans;
 import com.yahoo.document.datatypes.Array;
 import com.yahoo.document.datatypes.BoolFieldValue;
 import com.yahoo.document.datatypes.ByteFieldValue;
@@ -245,6 +247,12 @@ public class VespaDocumentSerializer6 extends BufferSerializer implements Docume
     public void write(FieldBase field, StringFieldValue value) {
         byte[] stringBytes = createUTF8CharArray(value.getString());
 
+        TermSpans termSpans = value.getTermSpans();
+        if (termSpans != null) {
+            write(value, stringBytes, termSpans);
+            return;
+        }
+
         byte coding = 0;
         //Use bit 6 of "coding" to say whether span tree is available or not
         if (!value.getSpanTrees().isEmpty()) {
@@ -286,6 +294,62 @@ public class VespaDocumentSerializer6 extends BufferSerializer implements Docume
         }
     }
 
+    /** Writes a string value whose only span tree is in compact form, exactly as if it were a span tree */
+    private void write(StringFieldValue value, byte[] stringBytes, TermSpans termSpans) {
+        buf.put((byte) 64);
+        buf.putInt1_4Bytes(stringBytes.length + 1);
+        buf.put(stringBytes);
+        buf.put(((byte) 0));
+
+        int[] bytePositions = calculateBytePositions(value.getString());
+        int posBeforeSize = buf.position();
+        buf.putInt(0);
+        buf.putInt1_2_4Bytes(1);
+        try {
+            new StringFieldValue(termSpans.getName()).serialize(this);
+
+            buf.put(SpanList.ID);
+            buf.putInt1_2_4Bytes(termSpans.numSpans());
+            for (int i = 0; i < termSpans.numSpans(); i++) {
+                int from = termSpans.getSpanFrom(i);
+                int byteFrom = bytePositions[from];
+                buf.put(Span.ID);
+                buf.putInt1_2_4Bytes(byteFrom);
+                buf.putInt1_2_4Bytes(bytePositions[from + termSpans.getSpanLength(i)] - byteFrom);
+            }
+
+            int[] annotations = termSpans.sortedAnnotations();
+            buf.putInt1_2_4Bytes(annotations.length);
+            for (int annotation : annotations) {
+                String term = termSpans.getAnnotationTerm(annotation);
+                buf.putInt(AnnotationTypes.TERM.getId());
+                buf.put(term == null ? (byte) 1 : (byte) 3); // has span node, and value if a term is set
+                int posBeforeAnnotationSize = buf.position();
+                buf.putInt1_2_4BytesAs4(0);
+                buf.putInt1_2_4Bytes(termSpans.getAnnotationSpan(annotation) + 1); // the root span list is node 0
+                if (term != null) {
+                    byte[] termBytes = createUTF8CharArray(term);
+                    buf.putInt(AnnotationTypes.TERM.getDataType().getId());
+                    buf.put((byte) 0);
+                    buf.putInt1_4Bytes(termBytes.length + 1);
+                    buf.put(termBytes);
+                    buf.put((byte) 0);
+                }
+                int end = buf.position();
+                buf.position(posBeforeAnnotationSize);
+                buf.putInt1_2_4BytesAs4(end - posBeforeAnnotationSize - 4);
+                buf.position(end);
+            }
+        } catch (RuntimeException e) {
+            throw new SerializationException("Exception thrown while serializing span tree '" +
+                                             termSpans.getName() + "'; string='" + value.getString() + "'", e);
+        }
+        int endPos = buf.position();
+        buf.position(posBeforeSize);
+        buf.putInt(endPos - posBeforeSize - 4); //length shall exclude itself
+        buf.position(endPos);
+    }
+
     @Override
     public void write(FieldBase field, TensorFieldValue value) {
         var encodedTensor = value.getSerializedTensor();
@@ -329,6 +393,9 @@ public class VespaDocumentSerializer6 extends BufferSerializer implements Docume
         int numFields = s.getFieldCount();
         int [] fieldIds = new int[numFields];
         int [] fieldLengths = new int[numFields];
+        SerializedFields serialized = s instanceof Document document ? document.getSerializedFields()
+                                    : s instanceof Struct struct ? struct.getSerializedFields()
+                                    : null;
 
         var iter = s.iterator();
         for (int i=0; iter.hasNext(); i++) {
@@ -336,7 +403,10 @@ public class VespaDocumentSerializer6 extends BufferSerializer implements Docume
 
             int startPos = buffer.position();
             Field key = value.getKey();
-            value.getValue().serialize(key, this);
+            if (serialized != null && serialized.isUntouched(key.getId()))
+                serialized.write(key.getId(), buffer); // pass through without deserializing
+            else
+                value.getValue().serialize(key, this);
 
             fieldLengths[i] = buffer.position() - startPos;
             fieldIds[i] = key.getId();
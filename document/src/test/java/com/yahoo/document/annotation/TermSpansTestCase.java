@@ -0,0 +1,135 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.document.annotation;
+
+import com.yahoo.document.datatypes.StringFieldValue;
+import com.yahoo.document.serialization.DocumentDeserializerFactory;
+import com.yahoo.document.serialization.DocumentSerializerFactory;
+import com.yahoo.document.DocumentTypeManager;
+import com.yahoo.io.GrowableByteBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ */
+public class TermSpansTestCase {
+
+    private static final String text = "Blåbær er gode, og blåbær er sunne";
+
+    @Test
+    public void requireThatTermSpansSerializeLikeTheCorrespondingSpanTree() {
+        StringFieldValue compact = new StringFieldValue(text);
+        compact.setSpanTree(createTermSpans());
+        assertNotNull(compact.getTermSpans());
+
+        StringFieldValue materialized = new StringFieldValue(text);
+        materialized.setSpanTree(createTermSpans().toSpanTree());
+
+        byte[] compactBytes = serialize(compact);
+        assertNotNull("Serialization does not create the span tree", compact.getTermSpans());
+        assertArrayEquals(serialize(materialized), compactBytes);
+
+        StringFieldValue deserialized = new StringFieldValue();
+        DocumentDeserializerFactory.create6(new DocumentTypeManager(), GrowableByteBuffer.wrap(compactBytes))
+                                   .read(null, deserialized);
+        assertEquals(materialized, deserialized);
+        assertEquals(materialized, compact);
+        assertEquals(compact, materialized);
+        assertEquals(0, compact.compareTo(materialized));
+        assertEquals(0, materialized.compareTo(compact));
+        assertNotNull("Comparison does not create the span tree", compact.getTermSpans());
+    }
+
+    @Test
+    public void requireThatTermSpansAreTurnedIntoASpanTreeOnAccess() {
+        StringFieldValue value = new StringFieldValue(text);
+        value.setSpanTree(createTermSpans());
+        assertTrue(value.hasSpanTree(SpanTrees.LINGUISTICS));
+        assertFalse(value.hasSpanTree("other"));
+        assertNull(value.getSpanTree("other"));
+        assertNotNull(value.getTermSpans());
+
+        SpanTree tree = value.getSpanTree(SpanTrees.LINGUISTICS);
+        assertNotNull(tree);
+        assertNull(value.getTermSpans());
+        assertSame(value, tree.getStringFieldValue());
+        assertEquals(5, tree.numAnnotations());
+        assertSame(tree, value.getSpanTree(SpanTrees.LINGUISTICS));
+        assertTrue(value.hasSpanTree(SpanTrees.LINGUISTICS));
+    }
+
+    @Test
+    public void requireThatTermSpansCanBeRemoved() {
+        StringFieldValue value = new StringFieldValue(text);
+        value.setSpanTree(createTermSpans());
+        SpanTree removed = value.removeSpanTree(SpanTrees.LINGUISTICS);
+        assertEquals(5, removed.numAnnotations());
+        assertFalse(value.hasSpanTree(SpanTrees.LINGUISTICS));
+        assertTrue(value.getSpanTrees().isEmpty());
+    }
+
+    @Test
+    public void requireThatTermSpansAreNotSerializedDirectlyWithOtherSpanTrees() {
+        StringFieldValue value = new StringFieldValue(text);
+        value.setSpanTree(createTermSpans());
+        value.setSpanTree(new SpanTree("other"));
+        assertNull(value.getTermSpans());
+        assertEquals(2, value.getSpanTrees().size());
+    }
+
+    @Test
+    public void requireThatDuplicateSpanTreesAreRejected() {
+        StringFieldValue value = new StringFieldValue(text);
+        value.setSpanTree(createTermSpans());
+        try {
+            value.setSpanTree(createTermSpans());
+            fail("Expected exception");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Span tree linguistics already exists.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void requireThatClonesShareTermSpans() {
+        StringFieldValue value = new StringFieldValue(text);
+        value.setSpanTree(createTermSpans());
+        StringFieldValue clone = value.clone();
+        assertSame(value.getTermSpans(), clone.getTermSpans());
+        assertEquals(value, clone);
+    }
+
+    /** Annotations are added out of order, with repeated terms, to verify sorting and term interning */
+    private static TermSpans createTermSpans() {
+        TermSpans spans = new TermSpans(SpanTrees.LINGUISTICS);
+        int blaabaer = spans.span(0, 6);
+        int gode = spans.span(10, 4);
+        int blaabaer2 = spans.span(19, 6);
+        spans.annotate(blaabaer2, "blåbær");
+        spans.annotate(gode, null);
+        spans.annotate(blaabaer, "blåbær");
+        spans.annotate(blaabaer, "blabaer");
+        spans.annotate(blaabaer2, null);
+        spans.span(29, 5); // a span without annotations
+        return spans;
+    }
+
+    private static byte[] serialize(StringFieldValue value) {
+        GrowableByteBuffer buffer = new GrowableByteBuffer();
+        DocumentSerializerFactory.create6(buffer).write(null, value);
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+}
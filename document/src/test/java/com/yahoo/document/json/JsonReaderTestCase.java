@@ -1930,6 +1930,10 @@ public class JsonReaderTestCase {
                 "mixed_tensor", "Expected 3 values, but got 0");
         assertCreatePutFails(inputJson("{\"blocks\":[ {\"address\":{\"x\":\"a\"}, \"values\": [] } ] }"),
                 "mixed_tensor", "Expected 3 values, but got 0");
+        assertCreatePutFails(inputJson("{\"blocks\":{ \"a\": [1, 2, 3, 4] } }"),
+                "mixed_tensor", "Expected 3 values, but got 4");
+        assertCreatePutFails(inputJson("{\"blocks\":{ \"a\": \"3FF00000000000004000000000000000\" } }"),
+                "mixed_tensor", "Expected 3 values, but got 2");
     }
 
     @Test
@@ -2104,6 +2108,17 @@ public class JsonReaderTestCase {
                                           createPutWithTensor(inputJson(mixedJson), "mixed_tensor"), "mixed_tensor");
         assertTrue(tensor instanceof MixedTensor); // this matters for performance
 
+        String mixedJsonValuesFirst =
+                """
+                {
+                  "blocks":[
+                    {"values":[2.0,3.0,4.0],"address":{"x":"0"}},
+                    {"values":[[5.0,6.0],[7.0]],"address":{"x":"1"}}
+                  ]
+                }
+                """;
+        assertTensorField(expected, createPutWithTensor(inputJson(mixedJsonValuesFirst), "mixed_tensor"), "mixed_tensor");
+
         String mixedJsonDirect =
                 """
                 [
@@ -2955,7 +2970,7 @@ public class JsonReaderTestCase {
             createPutWithTensor(inputJson(tensor), name);
             fail("Expected exception");
         } catch (IllegalArgumentException e) {
-            assertTrue(e.getMessage().contains(msg));
+            assertTrue(e.getMessage(), e.getMessage().contains(msg));
         }
     }
 
@@ -7,6 +7,8 @@ import com.yahoo.document.json.TokenBuffer.Token;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Supplier;
 
 import static org.junit.Assert.assertEquals;
@@ -129,4 +131,42 @@ public class LazyTokenBufferTest {
         assertNull(buffer.next());
     }
 
+    @Test
+    public void testReadNumbers() throws IOException {
+        String json = """
+                      {
+                        "fields": {
+                          "foo": [1, [2.5, "inf"], 3],
+                          "bar": [4, 5],
+                          "baz": 6
+                        }
+                      }""";
+        JsonParser parser = new JsonFactory().createParser(json);
+        parser.nextValue();
+        parser.nextValue();
+        LazyTokenBuffer buffer = new LazyTokenBuffer(parser);
+
+        // Numbers are read directly from the parser.
+        assertEquals(JsonToken.START_ARRAY, buffer.next());
+        List<Double> values = new ArrayList<>();
+        assertEquals(4, buffer.readNumbers(values::add));
+        assertEquals(List.of(1.0, 2.5, Double.POSITIVE_INFINITY, 3.0), values);
+        assertEquals(JsonToken.END_ARRAY, buffer.current());
+        assertEquals(1, buffer.nesting());
+
+        // Numbers already buffered by peeking are read from the buffer.
+        assertEquals(JsonToken.START_ARRAY, buffer.next());
+        buffer.lookahead().get();
+        values.clear();
+        assertEquals(2, buffer.readNumbers(values::add));
+        assertEquals(List.of(4.0, 5.0), values);
+        assertEquals(JsonToken.END_ARRAY, buffer.current());
+        assertEquals(1, buffer.nesting());
+
+        assertEquals(JsonToken.VALUE_NUMBER_INT, buffer.next());
+        assertEquals("baz", buffer.currentName());
+        assertEquals(JsonToken.END_OBJECT, buffer.next());
+        assertEquals(0, buffer.nesting());
+    }
+
 }
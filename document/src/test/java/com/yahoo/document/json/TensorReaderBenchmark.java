@@ -0,0 +1,89 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.document.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.yahoo.document.DocumentType;
+import com.yahoo.document.DocumentTypeManager;
+import com.yahoo.document.Field;
+import com.yahoo.document.TensorDataType;
+import com.yahoo.tensor.TensorType;
+import com.yahoo.text.Utf8;
+
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+
+/**
+ * Measures the throughput of parsing feed documents with large dense and mixed tensors, given as
+ * value arrays, hex strings and blocks, both from a fully buffered and a streamed document.
+ *
+ * @author agent
+ */
+public class TensorReaderBenchmark {
+
+    private static final int dimensions = 1024;
+    private static final int documents = 200;
+
+    public static void main(String[] args) {
+        DocumentTypeManager types = new DocumentTypeManager();
+        DocumentType type = new DocumentType("embeddings");
+        type.addField(new Field("dense", new TensorDataType(TensorType.fromSpec("tensor<float>(x[" + dimensions + "])"))));
+        type.addField(new Field("mixed", new TensorDataType(TensorType.fromSpec("tensor<float>(p{},x[" + dimensions / 8 + "])"))));
+        types.registerDocumentType(type);
+        JsonFactory parserFactory = new JsonFactory();
+        Random random = new Random(42);
+
+        String values = "{ \"dense\": { \"values\": " + valueArray(random, dimensions) + " } }";
+        String hex = "{ \"dense\": { \"values\": \"" + hexString(random, dimensions) + "\" } }";
+        StringBuilder blocks = new StringBuilder("{ \"mixed\": { \"blocks\": {");
+        for (int i = 0; i < 8; i++)
+            blocks.append(i == 0 ? "" : ",").append(" \"p").append(i).append("\": ").append(valueArray(random, dimensions / 8));
+        blocks.append(" } } }");
+
+        for (int round = 0; round < 5; round++) {
+            for (String[] format : new String[][] { { "values", values }, { "hex", hex }, { "blocks", blocks.toString() } }) {
+                byte[] feed = feed(format[1]);
+                byte[] fields = Utf8.toBytes("{ \"fields\": " + format[1] + " }");
+                long buffered = run(() -> {
+                    JsonReader reader = new JsonReader(types, new ByteArrayInputStream(feed), parserFactory);
+                    while (reader.next() != null) { }
+                });
+                long streamed = run(() -> {
+                    for (int i = 0; i < documents; i++)
+                        new JsonReader(types, new ByteArrayInputStream(fields), parserFactory)
+                                .readSingleDocumentStreaming(DocumentOperationType.PUT, "id:ns:embeddings::" + i);
+                });
+                System.out.printf("%-7s buffered: %,8d docs/s, streamed: %,8d docs/s%n",
+                                  format[0], documents * 20 * 1_000_000_000L / buffered, documents * 20 * 1_000_000_000L / streamed);
+            }
+        }
+    }
+
+    private static String valueArray(Random random, int size) {
+        StringBuilder b = new StringBuilder("[");
+        for (int i = 0; i < size; i++)
+            b.append(i == 0 ? "" : ",").append(random.nextFloat());
+        return b.append("]").toString();
+    }
+
+    private static String hexString(Random random, int size) {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < size; i++)
+            b.append(String.format("%08X", Float.floatToIntBits(random.nextFloat())));
+        return b.toString();
+    }
+
+    private static byte[] feed(String fields) {
+        StringBuilder b = new StringBuilder("[");
+        for (int i = 0; i < documents; i++)
+            b.append(i == 0 ? "" : ",").append("{ \"put\": \"id:ns:embeddings::").append(i).append("\", \"fields\": ").append(fields).append(" }");
+        return Utf8.toBytes(b.append("]").toString());
+    }
+
+    private static long run(Runnable parsing) {
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++)
+            parsing.run();
+        return System.nanoTime() - start;
+    }
+
+}
@@ -0,0 +1,126 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.document.serialization;
+
+import com.yahoo.document.ArrayDataType;
+import com.yahoo.document.DataType;
+import com.yahoo.document.Document;
+import com.yahoo.document.DocumentType;
+import com.yahoo.document.DocumentTypeManager;
+import com.yahoo.document.Field;
+import com.yahoo.document.datatypes.Array;
+import com.yahoo.document.datatypes.FieldValue;
+import com.yahoo.document.datatypes.IntegerFieldValue;
+import com.yahoo.document.datatypes.StringFieldValue;
+import com.yahoo.io.GrowableByteBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author agent
+ */
+public class SerializedFieldsTestCase {
+
+    private final DocumentTypeManager manager = new DocumentTypeManager();
+    private final DocumentType type;
+
+    public SerializedFieldsTestCase() {
+        type = new DocumentType("my_type");
+        type.addField("my_str", DataType.STRING);
+        type.addField("my_int", DataType.INT);
+        type.addField("my_array", new ArrayDataType(DataType.STRING));
+        manager.register(type);
+    }
+
+    @Test
+    public void fields_are_deserialized_on_access() {
+        Document original = document();
+        Document lazy = deserialize(serialize(original), true);
+
+        assertNotNull(lazy.getSerializedFields());
+        assertEquals(3, lazy.getSerializedFields().size());
+        assertEquals(3, lazy.getFieldCount());
+        assertEquals(new IntegerFieldValue(69), lazy.getFieldValue("my_int"));
+        assertEquals(original, lazy);
+        assertEquals(lazy, original);
+        assertEquals(original.hashCode(), lazy.hashCode());
+
+        List<String> names = new ArrayList<>();
+        for (Iterator<Map.Entry<Field, FieldValue>> i = lazy.iterator(); i.hasNext(); )
+            names.add(i.next().getKey().getName());
+        assertEquals(List.of("my_str", "my_int", "my_array").stream().sorted(this::byId).toList(), names);
+    }
+
+    @Test
+    public void untouched_fields_are_serialized_as_read() {
+        byte[] serialized = serialize(document());
+        assertArrayEquals(serialized, serialize(deserialize(serialized, true)));
+    }
+
+    @Test
+    public void modifications_are_serialized() {
+        Document lazy = deserialize(serialize(document()), true);
+        ((Array<StringFieldValue>)lazy.getFieldValue("my_array")).add(new StringFieldValue("baz"));
+        lazy.setFieldValue("my_int", new IntegerFieldValue(42));
+        assertEquals(new StringFieldValue("foo"), lazy.removeFieldValue("my_str"));
+        assertEquals(2, lazy.getFieldCount());
+
+        Document result = deserialize(serialize(lazy), false);
+        assertNull(result.getSerializedFields());
+        assertNull(result.getFieldValue("my_str"));
+        assertEquals(new IntegerFieldValue(42), result.getFieldValue("my_int"));
+        assertEquals(3, ((Array<?>)result.getFieldValue("my_array")).size());
+    }
+
+    @Test
+    public void clones_are_independent() {
+        Document lazy = deserialize(serialize(document()), true);
+        Document clone = lazy.clone();
+        lazy.setFieldValue("my_str", new StringFieldValue("changed"));
+        ((Array<StringFieldValue>)clone.getFieldValue("my_array")).add(new StringFieldValue("baz"));
+
+        assertEquals(new StringFieldValue("foo"), clone.getFieldValue("my_str"));
+        assertEquals(2, ((Array<?>)lazy.getFieldValue("my_array")).size());
+        assertEquals(3, ((Array<?>)clone.getFieldValue("my_array")).size());
+    }
+
+    private int byId(String a, String b) {
+        return Integer.compare(type.getField(a).getId(), type.getField(b).getId());
+    }
+
+    private Document document() {
+        Document document = new Document(type, "id:ns:my_type::");
+        document.setFieldValue("my_str", new StringFieldValue("foo"));
+        document.setFieldValue("my_int", new IntegerFieldValue(69));
+        Array<StringFieldValue> array = new Array<>(type.getField("my_array").getDataType());
+        array.add(new StringFieldValue("foo"));
+        array.add(new StringFieldValue("bar"));
+        document.setFieldValue("my_array", array);
+        return document;
+    }
+
+    private static byte[] serialize(Document document) {
+        GrowableByteBuffer buffer = new GrowableByteBuffer();
+        DocumentSerializerFactory.createHead(buffer).write(document);
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private Document deserialize(byte[] data, boolean lazy) {
+        GrowableByteBuffer buffer = new GrowableByteBuffer(ByteBuffer.wrap(data));
+        return Document.createDocument(lazy ? DocumentDeserializerFactory.createHeadWithLazyFields(manager, buffer)
+                                            : DocumentDeserializerFactory.createHead(manager, buffer));
+    }
+
+}
@@ -216,6 +216,12 @@ abstract class RoutableFactories80 {
         return Document.createDocument(deserializer);
     }
 
+    /** Returns the document, with fields which are deserialized on first access, and otherwise passed on as-is */
+    private static Document fromProtoDocumentWithLazyFields(DocapiCommon.Document protoDoc, DocumentTypeManager repo) {
+        var deserializer = DocumentDeserializerFactory.createHeadWithLazyFields(repo, new GrowableByteBuffer(protoDoc.getPayload().asReadOnlyByteBuffer()));
+        return Document.createDocument(deserializer);
+    }
+
     private static Document deserializeDoc(ByteBuffer rawDocData, DocumentTypeManager repo) {
         var deserializer = DocumentDeserializerFactory.createHead(repo, new GrowableByteBuffer(rawDocData));
         return Document.createDocument(deserializer);
@@ -346,7 +352,7 @@ abstract class RoutableFactories80 {
                     return builder.build();
                 })
                 .decoderWithRepo(DocapiFeed.PutDocumentRequest.parser(), (protoMsg, repo) -> {
-                    var doc = fromProtoDocument(protoMsg.getDocument(), repo);
+                    var doc = fromProtoDocumentWithLazyFields(protoMsg.getDocument(), repo);
                     var msg = new PutDocumentMessage(new DocumentPut(doc));
                     if (protoMsg.hasCondition()) {
                         msg.setCondition(fromProtoTasCondition(protoMsg.getCondition()));
@@ -55,9 +55,10 @@ public class FileDownloader implements AutoCloseable {
         this.downloadDirectory = downloadDirectory;
         this.timeout = timeout;
         // Needed to receive RPC receiveFile* calls from server after starting download of file reference
-        new FileReceiver(supervisor, downloads, downloadDirectory);
+        FileReceiver fileReceiver = new FileReceiver(supervisor, downloads, downloadDirectory);
         this.fileReferenceDownloader = new FileReferenceDownloader(connectionPool,
                                                                    downloads,
+                                                                   fileReceiver,
                                                                    timeout,
                                                                    sleepBetweenRetries,
                                                                    downloadDirectory);
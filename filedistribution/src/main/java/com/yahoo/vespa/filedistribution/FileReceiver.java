@@ -4,11 +4,13 @@ package com.yahoo.vespa.filedistribution;
 import com.yahoo.config.FileReference;
 import com.yahoo.io.IOUtils;
 import com.yahoo.jrt.Int32Value;
+import com.yahoo.jrt.Int64Value;
 import com.yahoo.jrt.Method;
 import com.yahoo.jrt.Request;
 import com.yahoo.jrt.Supervisor;
 import com.yahoo.security.tls.Capability;
 import net.jpountz.xxhash.StreamingXXHash64;
+import net.jpountz.xxhash.XXHash64;
 import net.jpountz.xxhash.XXHashFactory;
 import java.io.File;
 import java.io.IOException;
@@ -19,6 +21,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -31,11 +34,17 @@ import static com.yahoo.vespa.filedistribution.FileReferenceData.CompressionType
  * Uses the same Supervisor as the original caller that requests files, so communication uses the same
  * connection in both directions.
  *
+ * Parts may carry their own xxhash64, so that corrupt parts are rejected as they arrive. A plain file
+ * which was only partially received is kept, and a later transfer of the same file reference may resume
+ * it by sending the offset it starts at (see {@link #resumeOffset(FileReference)}). Sessions which fail
+ * are dropped, and a transfer which cannot be resumed gets a new session starting at offset 0 instead.
+ *
  * @author baldersheim
  */
 public class FileReceiver {
 
     private final static Logger log = Logger.getLogger(FileReceiver.class.getName());
+    private final static XXHash64 partHasher = XXHashFactory.fastestInstance().hash64();
     public final static String RECEIVE_META_METHOD = "filedistribution.receiveFileMeta";
     public final static String RECEIVE_PART_METHOD = "filedistribution.receiveFilePart";
     public final static String RECEIVE_EOF_METHOD = "filedistribution.receiveFileEof";
@@ -48,7 +57,7 @@ public class FileReceiver {
 
     final static class Session {
         private final StreamingXXHash64 hasher;
-        private final int sessionId;
+        private int sessionId;
         private final FileReference reference;
         private final Type fileType;
         private final CompressionType compressionType;
@@ -114,11 +123,10 @@ public class FileReceiver {
         }
 
         File close(long hash) {
-            verifyHash(hash);
-
             File file = new File(fileReferenceDir, fileName);
             File decompressedDir = null;
             try {
+                verifyHash(hash);
                 if (fileType == Type.file) {
                     try {
                         Files.createDirectories(fileReferenceDir.toPath());
@@ -144,6 +152,28 @@ public class FileReceiver {
             return file;
         }
 
+        /** Continues this session as the given session, which sends the remaining parts starting at part id 0 */
+        void resume(int sessionId) {
+            this.sessionId = sessionId;
+            currentPartId = 0;
+        }
+
+        /** Returns whether the transfer given by the arguments can continue this session from the given offset */
+        boolean canResume(String fileName, Type fileType, long fileSize, long offset) {
+            return isResumable() && fileType == Type.file && this.fileName.equals(fileName)
+                   && this.fileSize == fileSize && currentFileSize == offset;
+        }
+
+        /** Returns whether some transfer may continue this session, from the number of bytes received so far */
+        boolean isResumable() {
+            return fileType == Type.file && currentFileSize > 0 && inprogressFile.exists();
+        }
+
+        /** Deletes what has been received in this session, which must not be used after this */
+        void discard() {
+            deletePath(inprogressFile);
+        }
+
         double percentageReceived() {
             return (double)currentFileSize/(double)fileSize;
         }
@@ -170,21 +200,24 @@ public class FileReceiver {
     // receiveFile after getting a serveFile method call). handler needs to implement receiveFile* methods
     private List<Method> receiveFileMethod() {
         List<Method> methods = new ArrayList<>();
-        methods.add(new Method(RECEIVE_META_METHOD, "sssl*", "ii", this::receiveFileMeta)
+        methods.add(new Method(RECEIVE_META_METHOD, "sssl*", "iil", this::receiveFileMeta)
                 .requireCapabilities(Capability.CLIENT__FILERECEIVER_API)
                 .paramDesc(0, "filereference", "file reference to download")
                 .paramDesc(1, "filename", "filename")
                 .paramDesc(2, "type", "'file' or 'compressed'")
                 .paramDesc(3, "filelength", "length in bytes of file")
-                .paramDesc(3, "compressionType", "compression type: gzip, lz4, zstd")
+                .paramDesc(4, "compressionType", "compression type: gzip, lz4, zstd (optional)")
+                .paramDesc(5, "offset", "offset in file to resume a partial download at (optional)")
                 .returnDesc(0, "ret", "0 if success, 1 otherwise")
-                .returnDesc(1, "session-id", "Session id to be used for this transfer"));
-        methods.add(new Method(RECEIVE_PART_METHOD, "siix", "i", this::receiveFilePart)
+                .returnDesc(1, "session-id", "Session id to be used for this transfer")
+                .returnDesc(2, "offset", "offset in file this transfer starts at, 0 unless a partial download is resumed"));
+        methods.add(new Method(RECEIVE_PART_METHOD, "siix*", "i", this::receiveFilePart)
                 .requireCapabilities(Capability.CLIENT__FILERECEIVER_API)
                 .paramDesc(0, "filereference", "file reference to download")
                 .paramDesc(1, "session-id", "Session id to be used for this transfer")
                 .paramDesc(2, "partid", "relative part number starting at zero")
                 .paramDesc(3, "data", "bytes in this part")
+                .paramDesc(4, "xxhash", "xxhash64 of the bytes in this part (optional)")
                 .returnDesc(0, "ret", "0 if success, 1 otherwise"));
         methods.add(new Method(RECEIVE_EOF_METHOD, "silis", "i", this::receiveFileEof)
                 .requireCapabilities(Capability.CLIENT__FILERECEIVER_API)
@@ -238,13 +271,29 @@ public class FileReceiver {
         CompressionType compressionType = (req.parameters().size() > 4)
                 ? CompressionType.valueOf(req.parameters().get(4).asString())
                 : CompressionType.gzip; // fallback/legacy compression type
+        long offset = (req.parameters().size() > 5) ? req.parameters().get(5).asInt64() : 0;
         int sessionId = nextSessionId.getAndIncrement();
         int retval = 0;
+        long startOffset = 0;
         synchronized (sessions) {
+            Optional<Integer> resumable = offset <= 0 ? Optional.empty()
+                                                      : sessions.entrySet().stream()
+                                                                .filter(e -> e.getValue().reference.equals(reference))
+                                                                .filter(e -> e.getValue().canResume(fileName, type, fileSize, offset))
+                                                                .map(Map.Entry::getKey)
+                                                                .findFirst();
             if (sessions.containsKey(sessionId)) {
                 retval = 1;
                 log.severe("Session id " + sessionId + " already exist, impossible. Request from " + req.target());
+            } else if (resumable.isPresent()) {
+                Session session = sessions.remove(resumable.get());
+                session.resume(sessionId);
+                sessions.put(sessionId, session);
+                startOffset = offset;
+                log.log(Level.FINE, () -> "Resuming download of " + reference + " at offset " + offset);
             } else {
+                if (offset > 0)
+                    log.log(Level.FINE, () -> "No partial download of " + reference + " to resume at offset " + offset + ", starting over");
                 try {
                     sessions.put(sessionId, new Session(downloadDirectory, sessionId, reference,
                                                         type, compressionType, fileName, fileSize));
@@ -255,6 +304,7 @@ public class FileReceiver {
         }
         req.returnValues().add(new Int32Value(retval));
         req.returnValues().add(new Int32Value(sessionId));
+        req.returnValues().add(new Int64Value(startOffset));
     }
 
     private void receiveFilePart(Request req) {
@@ -266,11 +316,16 @@ public class FileReceiver {
         byte [] part = req.parameters().get(3).asData();
         Session session = getSession(sessionId);
         int retval = verifySession(session, sessionId, reference);
+        if (retval == 0 && req.parameters().size() > 4 && partHasher.hash(part, 0, part.length, 0) != req.parameters().get(4).asInt64()) {
+            log.log(Level.WARNING, "xxhash of part " + partId + " of " + reference + " does not match the xxhash in request, rejecting it");
+            retval = 1;
+        }
         if (retval == 0) {
             try {
                 session.addPart(partId, part);
             } catch (Exception e) {
                 log.severe("Got exception " + e);
+                drop(sessionId);
                 retval = 1;
             }
             double completeness = (double) session.currentFileSize / (double) session.fileSize;
@@ -287,14 +342,41 @@ public class FileReceiver {
         long xxhash = req.parameters().get(2).asInt64();
         Session session = getSession(sessionId);
         int retval = verifySession(session, sessionId, reference);
-        File file = session.close(xxhash);
-        downloads.completedDownloading(reference, file);
-        synchronized (sessions) {
-            sessions.remove(sessionId);
+        if (retval == 0) {
+            try {
+                File file = session.close(xxhash);
+                downloads.completedDownloading(reference, file);
+            } finally {
+                drop(sessionId);
+            }
         }
         req.returnValues().add(new Int32Value(retval));
     }
 
+    /**
+     * Returns the number of bytes already received of a partial download of the given file reference,
+     * which a new transfer may resume from, or 0 if there is none.
+     */
+    long resumeOffset(FileReference reference) {
+        synchronized (sessions) {
+            return sessions.values().stream()
+                           .filter(session -> session.reference.equals(reference) && session.isResumable())
+                           .mapToLong(session -> session.currentFileSize)
+                           .max()
+                           .orElse(0);
+        }
+    }
+
+    /** Removes the given session, and deletes whatever it has received which is not yet moved to its destination */
+    private void drop(int sessionId) {
+        Session session;
+        synchronized (sessions) {
+            session = sessions.remove(sessionId);
+        }
+        if (session != null)
+            session.discard();
+    }
+
     private Session getSession(Integer sessionId) {
         synchronized (sessions) {
             return sessions.get(sessionId);
@@ -50,6 +50,23 @@ public abstract class FileReferenceData implements AutoCloseable {
      */
     public abstract int nextContent(ByteBuffer bb);
 
+    /**
+     * Skips the given number of bytes of the content. Skipped bytes are still part of {@link #xxhash()}.
+     *
+     * @return number of bytes skipped, less than the given number if the end of the content was reached
+     */
+    public long skip(long bytes) {
+        ByteBuffer bb = ByteBuffer.allocate((int) Math.min(bytes, 0x100000));
+        long skipped = 0;
+        while (skipped < bytes) {
+            bb.clear().limit((int) Math.min(bb.capacity(), bytes - skipped));
+            int read = nextContent(bb);
+            if (read <= 0) break;
+            skipped += read;
+        }
+        return skipped;
+    }
+
     /**
      * Only guaranteed to be valid after all content has been consumed.
      * @return xxhash64 of content
@@ -4,6 +4,7 @@ package com.yahoo.vespa.filedistribution;
 import com.yahoo.concurrent.DaemonThreadFactory;
 import com.yahoo.config.FileReference;
 import com.yahoo.jrt.Int32Value;
+import com.yahoo.jrt.Int64Value;
 import com.yahoo.jrt.Request;
 import com.yahoo.jrt.StringArray;
 import com.yahoo.jrt.StringValue;
@@ -29,7 +30,8 @@ import static com.yahoo.vespa.filedistribution.FileReferenceData.CompressionType
 import static com.yahoo.vespa.filedistribution.FileReferenceData.CompressionType.zstd;
 
 /**
- * Downloads file reference from config server and keeps track of files being downloaded
+ * Downloads file reference from config server and keeps track of files being downloaded.
+ * A download which fails after some of a file has been received is resumed from where it stopped.
  *
  * @author hmusum
  */
@@ -43,6 +45,7 @@ public class FileReferenceDownloader {
                                          new DaemonThreadFactory("filereference downloader"));
     private final ConnectionPool connectionPool;
     private final Downloads downloads;
+    private final FileReceiver fileReceiver;
     private final Duration downloadTimeout;
     private final Duration sleepBetweenRetries;
     private final Duration rpcTimeout;
@@ -50,11 +53,13 @@ public class FileReferenceDownloader {
 
     FileReferenceDownloader(ConnectionPool connectionPool,
                             Downloads downloads,
+                            FileReceiver fileReceiver,
                             Duration timeout,
                             Duration sleepBetweenRetries,
                             File downloadDirectory) {
         this.connectionPool = connectionPool;
         this.downloads = downloads;
+        this.fileReceiver = fileReceiver;
         this.downloadTimeout = timeout;
         this.sleepBetweenRetries = sleepBetweenRetries;
         this.downloadDirectory = downloadDirectory;
@@ -146,6 +151,8 @@ public class FileReferenceDownloader {
         String[] temp = new String[defaultAcceptedCompressionTypes.size()];
         defaultAcceptedCompressionTypes.stream().map(Enum::name).toList().toArray(temp);
         request.parameters().add(new StringArray(temp));
+        // Resume a partial download, e.g. one which failed when connection to another config server was lost
+        request.parameters().add(new Int64Value(fileReceiver.resumeOffset(fileReferenceDownload.fileReference())));
         return request;
     }
 
@@ -15,6 +15,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.util.Arrays;
 
 import static com.yahoo.vespa.filedistribution.FileReferenceData.CompressionType;
 import static com.yahoo.vespa.filedistribution.FileReferenceData.CompressionType.gzip;
@@ -23,6 +24,9 @@ import static com.yahoo.vespa.filedistribution.FileReferenceData.CompressionType
 import static com.yahoo.vespa.filedistribution.FileReferenceData.Type.compressed;
 import static com.yahoo.vespa.filedistribution.FileReferenceData.Type.file;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 public class FileReceiverTest {
     private File root;
@@ -67,6 +71,40 @@ public class FileReceiverTest {
         testWithCompression(dirWithFiles, zstd);
     }
 
+    @Test
+    public void resumePartialTransfer() throws IOException {
+        byte[] content = Utf8.toBytes("first part\nsecond part\n");
+        FileReference ref = new FileReference("ref-b");
+        FileReceiver.Session session = new FileReceiver.Session(root, 1, ref, file, gzip, "myfile", content.length);
+        session.addPart(0, Arrays.copyOfRange(content, 0, 11));
+        assertFalse(session.canResume("myfile", file, content.length, 0));
+        assertFalse(session.canResume("myfile", compressed, content.length, 11));
+        assertFalse(session.canResume("otherfile", file, content.length, 11));
+        assertTrue(session.canResume("myfile", file, content.length, 11));
+
+        // A new transfer continues where the first one stopped, numbering its parts from zero
+        session.resume(2);
+        session.addPart(0, Arrays.copyOfRange(content, 11, content.length));
+        assertEquals(1.0, session.percentageReceived(), 0.0001);
+        File file = session.close(hasher.hash(ByteBuffer.wrap(content), 0));
+
+        assertEquals("first part\nsecond part\n", Utf8.toString(Files.readAllBytes(file.toPath())));
+        file.delete();
+    }
+
+    @Test
+    public void failedTransferIsNotResumable() {
+        byte[] content = Utf8.toBytes("first part\nsecond part\n");
+        FileReceiver.Session session = new FileReceiver.Session(root, 1, new FileReference("ref-c"), file, gzip, "myfile", content.length);
+        session.addPart(0, Arrays.copyOfRange(content, 0, 11));
+        assertTrue(session.isResumable());
+
+        session.addPart(1, Arrays.copyOfRange(content, 11, content.length));
+        assertThrows(RuntimeException.class, () -> session.close(hasher.hash(ByteBuffer.wrap(content), 0) + 1));
+        assertFalse(session.isResumable());
+        assertFalse(session.canResume("myfile", file, content.length, content.length));
+    }
+
     private void testWithCompression(File dirWithFiles, CompressionType compressionType) throws IOException {
         File tempFile = temporaryFolder.newFile();
         File file = new FileReferenceCompressor(compressed, compressionType).compress(dirWithFiles, tempFile);
@@ -4,6 +4,7 @@ package com.yahoo.vespa.filedistribution;
 import com.yahoo.config.FileReference;
 import com.yahoo.io.IOUtils;
 import com.yahoo.text.Utf8;
+import net.jpountz.xxhash.XXHashFactory;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -62,6 +63,22 @@ public class FileReferenceDataTest {
         assertTrue(file.exists()); // file should not be removed
     }
 
+    @Test
+    public void testSkippedContentIsHashed() throws IOException {
+        String content = "blobbblubbblabb";
+        File file = writeTempFile(content);
+        FileReferenceData fileReferenceData =
+                new LazyFileReferenceData(new FileReference("ref"), "foo", Type.file, file, CompressionType.gzip);
+        assertEquals(10, fileReferenceData.skip(10));
+        ByteBuffer byteBuffer = ByteBuffer.allocate(10);
+        assertEquals(5, fileReferenceData.nextContent(byteBuffer));
+        assertEquals(content.substring(10,15), Utf8.toString(Arrays.copyOfRange(byteBuffer.array(), 0, 5)));
+        assertEquals(0, fileReferenceData.skip(10));
+        assertEquals(XXHashFactory.fastestInstance().hash64().hash(ByteBuffer.wrap(Utf8.toBytes(content)), 0),
+                     fileReferenceData.xxhash());
+        fileReferenceData.close();
+    }
+
     private File writeTempFile(String content) throws IOException {
         File file = temporaryFolder.newFile();
         IOUtils.writeFile(file, Utf8.toBytes(content));
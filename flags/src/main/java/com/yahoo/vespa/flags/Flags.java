@@ -351,6 +351,14 @@ public class Flags {
             "Whether to read config server session data from session data blob or from individual paths",
             "Takes effect immediately");
 
+    public static final UnboundBooleanFlag WRITE_APPLICATION_PACKAGE_CONTENT_BY_REFERENCE = defineFeatureFlag(
+            "write-application-package-content-by-reference", false,
+            List.of("agent"), "2026-10-19", "2027-03-01",
+            "Whether to write large application package files to ZooKeeper once per tenant and refer to them from " +
+            "sessions, instead of writing them in each session. Must not be enabled before all config servers " +
+            "can read such references",
+            "Takes effect on next deployment");
+
     public static final UnboundBooleanFlag MORE_WIREGUARD = defineFeatureFlag(
             "more-wireguard", false,
             List.of("andreer"), "2023-08-21", "2025-01-01",
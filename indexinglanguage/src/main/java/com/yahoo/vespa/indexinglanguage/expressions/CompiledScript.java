@@ -0,0 +1,153 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.indexinglanguage.expressions;
+
+import com.yahoo.document.DataType;
+import com.yahoo.document.Document;
+import com.yahoo.document.datatypes.FieldValue;
+import com.yahoo.vespa.indexinglanguage.DocumentAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A script compiled to straight-line form: The statements of the script, and the expressions of each statement,
+ * are flattened into arrays, nested scripts are compiled recursively, and the input and output types of each
+ * expression are resolved once, at compile time. Executing this has the same effect as executing the script
+ * it is compiled from, but avoids walking the linked expression lists and resolving types for every document.
+ * Composite expressions other than statements and scripts are executed as usual.
+ * As types are resolved at compile time, scripts must be compiled after the statement outputs are set.
+ *
+ * @author agent
+ */
+public final class CompiledScript {
+
+    private final ScriptExpression script;
+    private final DataType inputType;
+    private final DataType outputType;
+    private final Statement[] statements;
+
+    private CompiledScript(ScriptExpression script) {
+        this.script = script;
+        this.inputType = script.requiredInputType();
+        this.outputType = script.createdOutputType();
+        List<Statement> statements = new ArrayList<>(script.size());
+        for (StatementExpression statement : script)
+            statements.add(new Statement(statement));
+        this.statements = statements.toArray(Statement[]::new);
+    }
+
+    /** Returns the script this is compiled from */
+    public ScriptExpression script() { return script; }
+
+    /** Executes this on the document of the given adapter, and returns the output document */
+    public Document execute(DocumentAdapter adapter) {
+        execute(new ExecutionContext(adapter));
+        return adapter.getFullOutput();
+    }
+
+    /** Executes this in the given context, and returns the resulting value, as {@link Expression#execute} */
+    public FieldValue execute(ExecutionContext context) {
+        if (context.getExecutor() != null && context.getAdapter() != null &&
+            script.size() > 1 && script.dependencies().hasParallelism())
+            return script.execute(context); // statements will run in parallel
+
+        if ( ! checkInput(script, inputType, context)) return null;
+        FieldValue input = context.getValue();
+        for (Statement statement : statements) {
+            if (statement.shouldExecute(context)) {
+                context.setValue(input);
+                statement.execute(context);
+            }
+        }
+        context.setValue(input);
+        checkOutput(script, outputType, context);
+        return context.getValue();
+    }
+
+    /** Returns a compiled form of the given script */
+    public static CompiledScript compile(ScriptExpression script) {
+        return new CompiledScript(script);
+    }
+
+    /** Returns whether the expression should be executed, or throws if the input value has the wrong type */
+    private static boolean checkInput(Expression expression, DataType inputType, ExecutionContext context) {
+        if (inputType == null) return true;
+        FieldValue input = context.getValue();
+        if (input == null) return false;
+        if ( ! inputType.isValueCompatible(input))
+            throw new IllegalArgumentException("Expression '" + expression + "' expected " + inputType.getName() +
+                                               " input, got " + input.getDataType().getName());
+        return true;
+    }
+
+    private static void checkOutput(Expression expression, DataType outputType, ExecutionContext context) {
+        if (outputType == null) return;
+        FieldValue output = context.getValue();
+        if (output != null && ! outputType.isValueCompatible(output))
+            throw new IllegalStateException("Expression '" + expression + "' expected " + outputType.getName() +
+                                            " output, got " + output.getDataType().getName());
+    }
+
+    private static final class Statement {
+
+        private final StatementExpression statement;
+        private final String[] inputFields;
+        private final DataType inputType;
+        private final DataType outputType;
+        private final Step[] steps;
+
+        Statement(StatementExpression statement) {
+            this.statement = statement;
+            this.inputFields = statement.getInputFields().toArray(String[]::new);
+            this.inputType = statement.requiredInputType();
+            this.outputType = statement.createdOutputType();
+            List<Step> steps = new ArrayList<>(statement.size());
+            for (Expression expression : statement)
+                steps.add(new Step(expression));
+            this.steps = steps.toArray(Step[]::new);
+        }
+
+        boolean shouldExecute(ExecutionContext context) {
+            if (context.isComplete() || inputFields.length == 0) return true;
+            for (String inputField : inputFields)
+                if (context.getInputValue(inputField) != null) return true;
+            return false;
+        }
+
+        void execute(ExecutionContext context) {
+            if ( ! checkInput(statement, inputType, context)) return;
+            for (Step step : steps)
+                step.execute(context);
+            checkOutput(statement, outputType, context);
+        }
+
+    }
+
+    private static final class Step {
+
+        private final Expression expression;
+        private final DataType inputType;
+        private final DataType outputType;
+        /** The compiled form of the expression if it is a script, or null */
+        private final CompiledScript script;
+
+        Step(Expression expression) {
+            this.expression = expression;
+            this.inputType = expression.requiredInputType();
+            this.outputType = expression.createdOutputType();
+            this.script = expression instanceof ScriptExpression nested ? new CompiledScript(nested) : null;
+        }
+
+        void execute(ExecutionContext context) {
+            if (script != null) {
+                script.execute(context);
+                return;
+            }
+            if ( ! checkInput(expression, inputType, context)) return;
+            expression.doExecute(context);
+            checkOutput(expression, outputType, context);
+        }
+
+    }
+
+}
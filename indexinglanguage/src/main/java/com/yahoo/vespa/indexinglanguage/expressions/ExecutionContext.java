@@ -12,6 +12,7 @@ import com.yahoo.language.detect.Detection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 /**
  * @author Simon Thoresen Hult
@@ -23,6 +24,7 @@ public class ExecutionContext implements FieldTypeAdapter, FieldValueAdapter {
     private FieldValue value;
     private Language language;
     private final Map<Object, Object> cache = LazyMap.newHashMap();
+    private Executor executor = null;
 
     public ExecutionContext() {
         this(null);
@@ -113,6 +115,40 @@ public class ExecutionContext implements FieldTypeAdapter, FieldValueAdapter {
         return detected;
     }
 
+    /** Returns the executor used to execute independent statements in parallel, or null to execute sequentially. */
+    public Executor getExecutor() { return executor; }
+
+    /**
+     * Sets an executor to use for executing independent statements of a script in parallel with the calling thread,
+     * or null (the default) to execute all statements sequentially in the calling thread.
+     */
+    public ExecutionContext setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Returns a new context for executing a statement in parallel with others, using the given adapter,
+     * with a copy of the variables, language, value and cache of this. Nested scripts are executed sequentially.
+     */
+    ExecutionContext fork(FieldValueAdapter adapter) {
+        ExecutionContext fork = new ExecutionContext(adapter);
+        fork.variables.putAll(variables);
+        fork.language = language;
+        fork.value = value;
+        fork.cache.putAll(cache);
+        return fork;
+    }
+
+    /** Merges the variables and cached values set in a context returned by {@link #fork} into this. */
+    void join(ExecutionContext fork) {
+        for (var entry : fork.variables.entrySet()) {
+            if (variables.get(entry.getKey()) != entry.getValue())
+                variables.put(entry.getKey(), entry.getValue());
+        }
+        cache.putAll(fork.cache);
+    }
+
     public FieldValue getValue() { return value; }
 
     public ExecutionContext setValue(FieldValue value) {
@@ -2,6 +2,7 @@
 package com.yahoo.vespa.indexinglanguage.expressions;
 
 import com.yahoo.document.DataType;
+import com.yahoo.document.FieldPath;
 import com.yahoo.document.datatypes.FieldValue;
 import com.yahoo.language.Linguistics;
 import com.yahoo.language.process.Embedder;
@@ -9,20 +10,29 @@ import com.yahoo.language.simple.SimpleLinguistics;
 import com.yahoo.vespa.indexinglanguage.ExpressionConverter;
 import com.yahoo.vespa.indexinglanguage.ScriptParser;
 import com.yahoo.vespa.indexinglanguage.ScriptParserContext;
+import com.yahoo.vespa.indexinglanguage.UpdateAdapter;
 import com.yahoo.vespa.indexinglanguage.parser.IndexingInput;
 import com.yahoo.vespa.indexinglanguage.parser.ParseException;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author Simon Thoresen Hult
  */
 public final class ScriptExpression extends ExpressionList<StatementExpression> {
 
+    /** The dependencies between the statements of this, created on first parallel execution */
+    private volatile StatementDependencies dependencies = null;
+
     public ScriptExpression() {
         this(List.of());
     }
@@ -46,9 +56,18 @@ public final class ScriptExpression extends ExpressionList<StatementExpression>
     @Override
     protected void doExecute(ExecutionContext context) {
         FieldValue input = context.getValue();
+        if (context.getExecutor() != null && context.getAdapter() != null &&
+            ! (context.getAdapter() instanceof UpdateAdapter) && size() > 1) {
+            StatementDependencies dependencies = dependencies();
+            if (dependencies.hasParallelism()) {
+                for (List<Integer> stage : dependencies.stages())
+                    executeStage(stage, dependencies, input, context);
+                context.setValue(input);
+                return;
+            }
+        }
         for (StatementExpression statement : this) {
-            if (context.isComplete() ||
-                (statement.getInputFields().isEmpty() || containsAtLeastOneInputFrom(statement.getInputFields(), context))) {
+            if (shouldExecute(statement, context)) {
                 context.setValue(input);
                 context.execute(statement);
             }
@@ -56,6 +75,86 @@ public final class ScriptExpression extends ExpressionList<StatementExpression>
         context.setValue(input);
     }
 
+    private boolean shouldExecute(StatementExpression statement, ExecutionContext context) {
+        return context.isComplete() ||
+               statement.getInputFields().isEmpty() ||
+               containsAtLeastOneInputFrom(statement.getInputFields(), context);
+    }
+
+    StatementDependencies dependencies() {
+        if (dependencies == null)
+            dependencies = new StatementDependencies(asList());
+        return dependencies;
+    }
+
+    /**
+     * Executes the given independent statements. If there are several expensive statements, each statement is
+     * executed in a forked context, where all but the first expensive statement are offered to the executor,
+     * and statements not picked up by the executor when the calling thread is done with its own are run
+     * by the calling thread.
+     */
+    private void executeStage(List<Integer> stage, StatementDependencies dependencies,
+                              FieldValue input, ExecutionContext context) {
+        if (stage.stream().filter(dependencies::isExpensive).count() < 2) {
+            for (int index : stage) {
+                if (shouldExecute(get(index), context)) {
+                    context.setValue(input);
+                    context.execute(get(index));
+                }
+            }
+            return;
+        }
+
+        FieldValueAdapter adapter = new SynchronizedAdapter(context.getAdapter());
+        context.setValue(input);
+        List<StatementTask> tasks = new ArrayList<>(stage.size());
+        for (int index : stage) {
+            if (shouldExecute(get(index), context))
+                tasks.add(new StatementTask(get(index), context.fork(adapter), dependencies.isExpensive(index)));
+        }
+        CountDownLatch done = new CountDownLatch(tasks.size());
+        tasks.forEach(task -> task.done = done);
+
+        boolean first = true;
+        for (StatementTask task : tasks) {
+            if ( ! task.expensive) continue;
+            if (first) { // leave one for the calling thread
+                first = false;
+                continue;
+            }
+            try {
+                context.getExecutor().execute(task);
+            }
+            catch (RejectedExecutionException e) {
+                // run by the calling thread below
+            }
+        }
+        for (StatementTask task : tasks)
+            task.run();
+        awaitUninterruptibly(done);
+
+        for (StatementTask task : tasks) {
+            if (task.failure instanceof RuntimeException e) throw e;
+            if (task.failure instanceof Error e) throw e;
+            context.join(task.context);
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            }
+            catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
     private boolean containsAtLeastOneInputFrom(List<String> inputFields, ExecutionContext context) {
         for (String inputField : inputFields)
             if (context.getInputValue(inputField) != null)
@@ -110,6 +209,78 @@ public final class ScriptExpression extends ExpressionList<StatementExpression>
         return super.equals(obj) && obj instanceof ScriptExpression;
     }
 
+    /** A statement to execute in a forked context, once, by whichever thread gets to it first */
+    private static class StatementTask implements Runnable {
+
+        private final StatementExpression statement;
+        private final ExecutionContext context;
+        private final boolean expensive;
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+        private CountDownLatch done;
+        private Throwable failure = null;
+
+        StatementTask(StatementExpression statement, ExecutionContext context, boolean expensive) {
+            this.statement = statement;
+            this.context = context;
+            this.expensive = expensive;
+        }
+
+        @Override
+        public void run() {
+            if ( ! claimed.compareAndSet(false, true)) return;
+            try {
+                context.execute(statement);
+            }
+            catch (Throwable e) {
+                failure = e;
+            }
+            finally {
+                done.countDown();
+            }
+        }
+
+    }
+
+    /** An adapter which serializes access to the document shared by statements executing in parallel */
+    private static class SynchronizedAdapter implements FieldValueAdapter {
+
+        private final FieldValueAdapter adapter;
+
+        SynchronizedAdapter(FieldValueAdapter adapter) {
+            this.adapter = adapter;
+        }
+
+        @Override
+        public synchronized DataType getInputType(Expression exp, String fieldName) {
+            return adapter.getInputType(exp, fieldName);
+        }
+
+        @Override
+        public synchronized FieldValue getInputValue(String fieldName) {
+            return adapter.getInputValue(fieldName);
+        }
+
+        @Override
+        public synchronized FieldValue getInputValue(FieldPath fieldPath) {
+            return adapter.getInputValue(fieldPath);
+        }
+
+        @Override
+        public synchronized void tryOutputType(Expression exp, String fieldName, DataType valueType) {
+            adapter.tryOutputType(exp, fieldName, valueType);
+        }
+
+        @Override
+        public synchronized FieldValueAdapter setOutputValue(Expression exp, String fieldName, FieldValue fieldValue) {
+            adapter.setOutputValue(exp, fieldName, fieldValue);
+            return this;
+        }
+
+        @Override
+        public boolean isComplete() { return adapter.isComplete(); }
+
+    }
+
     /** Creates an expression with simple lingustics for testing */
     public static ScriptExpression fromString(String expression) throws ParseException {
         return fromString(expression, new SimpleLinguistics(), Embedder.throwsOnUse.asMap());
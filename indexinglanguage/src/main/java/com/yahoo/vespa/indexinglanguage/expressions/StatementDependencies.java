@@ -0,0 +1,130 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.indexinglanguage.expressions;
+
+import com.yahoo.collections.Pair;
+import com.yahoo.vespa.indexinglanguage.ExpressionVisitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The dependencies between the statements of a script, used to execute independent statements in parallel.
+ * A statement depends on an earlier statement if it reads a field or variable the earlier one writes,
+ * writes a field or variable the earlier one reads or writes, or if either of them changes the shared
+ * execution state (language, or all state). The statements are grouped into stages, such that each statement
+ * only depends on statements in earlier stages.
+ *
+ * @author agent
+ */
+final class StatementDependencies {
+
+    /** The indexes of the statements of each stage, in script order within each stage */
+    private final List<List<Integer>> stages;
+
+    /** Whether each statement contains expressions which are expensive enough to be worth executing in parallel */
+    private final boolean[] expensive;
+
+    StatementDependencies(List<StatementExpression> statements) {
+        List<Accesses> accesses = new ArrayList<>(statements.size());
+        for (StatementExpression statement : statements)
+            accesses.add(new Accesses(statement));
+
+        expensive = new boolean[statements.size()];
+        int[] stageOf = new int[statements.size()];
+        List<List<Integer>> stages = new ArrayList<>();
+        for (int i = 0; i < statements.size(); i++) {
+            expensive[i] = accesses.get(i).expensive;
+            int stage = 0;
+            for (int j = 0; j < i; j++) {
+                if (accesses.get(i).dependsOn(accesses.get(j)))
+                    stage = Math.max(stage, stageOf[j] + 1);
+            }
+            stageOf[i] = stage;
+            if (stage == stages.size())
+                stages.add(new ArrayList<>());
+            stages.get(stage).add(i);
+        }
+        this.stages = stages.stream().map(Collections::unmodifiableList).toList();
+    }
+
+    /** Returns the indexes of the statements of each stage, which must be executed in order */
+    List<List<Integer>> stages() { return stages; }
+
+    /** Returns whether the statement at the given index is expensive enough to be worth executing in parallel */
+    boolean isExpensive(int statement) { return expensive[statement]; }
+
+    /** Returns whether any stage contains more than one expensive statement */
+    boolean hasParallelism() {
+        for (List<Integer> stage : stages) {
+            if (stage.stream().filter(this::isExpensive).count() > 1) return true;
+        }
+        return false;
+    }
+
+    /** The fields and variables read and written by a statement */
+    private static class Accesses extends ExpressionVisitor {
+
+        private final Set<String> inputs = new HashSet<>();
+        private final Set<String> outputs = new HashSet<>();
+        private final Set<String> readVariables = new HashSet<>();
+        private final Set<String> writtenVariables = new HashSet<>();
+        private boolean changesState = false;
+        private boolean expensive = false;
+
+        Accesses(StatementExpression statement) {
+            visit(statement);
+        }
+
+        @Override
+        protected void doVisit(Expression expression) {
+            if (expression instanceof InputExpression input)
+                inputs.add(topLevelField(input.getFieldName()));
+            else if (expression instanceof SelectInputExpression select)
+                for (Pair<String, Expression> selectCase : select.getCases())
+                    inputs.add(topLevelField(selectCase.getFirst()));
+            else if (expression instanceof OutputExpression output)
+                outputs.add(topLevelField(output.getFieldName()));
+            else if (expression instanceof GetVarExpression getVar)
+                readVariables.add(getVar.getVariableName());
+            else if (expression instanceof SetVarExpression setVar)
+                writtenVariables.add(setVar.getVariableName());
+            else if (expression instanceof OptimizePredicateExpression)
+                readVariables.addAll(List.of("arity", "lower_bound", "upper_bound"));
+            else if (expression instanceof SetLanguageExpression || expression instanceof ClearStateExpression)
+                changesState = true;
+            else if (expression instanceof EmbedExpression || expression instanceof TokenizeExpression ||
+                     expression instanceof NGramExpression || expression instanceof SleepExpression ||
+                     expression instanceof BusyWaitExpression)
+                expensive = true;
+        }
+
+        boolean dependsOn(Accesses earlier) {
+            if (changesState || earlier.changesState) return true;
+            if (intersects(inputs, earlier.outputs) || intersects(outputs, earlier.outputs) || intersects(outputs, earlier.inputs))
+                return true;
+            return intersects(readVariables, earlier.writtenVariables) ||
+                   intersects(writtenVariables, earlier.writtenVariables) ||
+                   intersects(writtenVariables, earlier.readVariables);
+        }
+
+        private static boolean intersects(Set<String> a, Set<String> b) {
+            for (String element : a)
+                if (b.contains(element)) return true;
+            return false;
+        }
+
+        /** Returns the top level field of a field name which may be a field path */
+        private static String topLevelField(String fieldName) {
+            for (int i = 0; i < fieldName.length(); i++) {
+                char c = fieldName.charAt(i);
+                if (c == '.' || c == '{' || c == '[') return fieldName.substring(0, i);
+            }
+            return fieldName;
+        }
+
+    }
+
+}
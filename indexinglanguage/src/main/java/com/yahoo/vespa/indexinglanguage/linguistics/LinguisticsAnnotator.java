@@ -3,10 +3,8 @@ package com.yahoo.vespa.indexinglanguage.linguistics;
 
 import com.yahoo.document.annotation.Annotation;
 import com.yahoo.document.annotation.AnnotationTypes;
-import com.yahoo.document.annotation.Span;
-import com.yahoo.document.annotation.SpanList;
-import com.yahoo.document.annotation.SpanTree;
 import com.yahoo.document.annotation.SpanTrees;
+import com.yahoo.document.annotation.TermSpans;
 import com.yahoo.document.datatypes.StringFieldValue;
 import com.yahoo.language.Linguistics;
 import com.yahoo.language.process.StemMode;
@@ -21,6 +19,8 @@ import static com.yahoo.language.LinguisticsCase.toLowerCase;
 
 /**
  * This is a tool for adding {@link AnnotationTypes} type annotations to {@link StringFieldValue} objects.
+ * The annotations are added as compact {@link TermSpans}, which are serialized as a span tree without
+ * creating span and annotation objects per token.
  *
  * @author Simon Thoresen Hult
  */
@@ -67,22 +67,20 @@ public class LinguisticsAnnotator {
      * @return whether anything was annotated
      */
     public boolean annotate(StringFieldValue text) {
-        if (text.getSpanTree(SpanTrees.LINGUISTICS) != null) return true;  // Already annotated with LINGUISTICS.
+        if (text.hasSpanTree(SpanTrees.LINGUISTICS)) return true;  // Already annotated with LINGUISTICS.
 
         Tokenizer tokenizer = factory.getTokenizer();
         String input = (text.getString().length() <= config.getMaxTokenizeLength())
                 ? text.getString()
                 : Text.substringByCodepoints(text.getString(), 0, config.getMaxTokenizeLength());
-        Iterable<Token> tokens = tokenizer.tokenize(input, config.getLanguage(), config.getStemMode(),
-                                                    config.getRemoveAccents());
         TermOccurrences termOccurrences = new TermOccurrences(config.getMaxTermOccurrences());
-        SpanTree tree = new SpanTree(SpanTrees.LINGUISTICS);
-        for (Token token : tokens)
-            addAnnotationSpan(text.getString(), tree.spanList(), token, config.getStemMode(), termOccurrences,
-                    config.getMaxTokenLength());
+        TermSpans spans = new TermSpans(SpanTrees.LINGUISTICS);
+        tokenizer.tokenize(input, config.getLanguage(), config.getStemMode(), config.getRemoveAccents(),
+                           token -> addAnnotationSpan(text.getString(), spans, token, config.getStemMode(),
+                                                      termOccurrences, config.getMaxTokenLength()));
 
-        if (tree.numAnnotations() == 0) return false;
-        text.setSpanTree(tree);
+        if (spans.numAnnotations() == 0) return false;
+        text.setSpanTree(spans);
         return true;
     }
 
@@ -101,22 +99,23 @@ public class LinguisticsAnnotator {
             return new Annotation(AnnotationTypes.TERM, new StringFieldValue(term));
     }
 
-    private static void addAnnotation(Span here, String term, String orig, TermOccurrences termOccurrences,
-                                      int maxTokenLength) {
+    /** Adds a term annotation which has the term as value (only) if it is different from the original. */
+    private static void addAnnotation(TermSpans spans, int span, String term, String orig,
+                                      TermOccurrences termOccurrences, int maxTokenLength) {
         if (term.length() > maxTokenLength) {
             return;
         }
         if (termOccurrences.termCountBelowLimit(term)) {
-            here.annotate(termAnnotation(term, orig));
+            spans.annotate(span, term.equals(orig) ? null : term);
         }
     }
 
-    private static void addAnnotationSpan(String input, SpanList parent, Token token, StemMode mode,
+    private static void addAnnotationSpan(String input, TermSpans spans, Token token, StemMode mode,
                                           TermOccurrences termOccurrences, int maxTokenLength) {
         if ( ! token.isSpecialToken()) {
             if (token.getNumComponents() > 0) {
                 for (int i = 0; i < token.getNumComponents(); ++i) {
-                    addAnnotationSpan(input, parent, token.getComponent(i), mode, termOccurrences, maxTokenLength);
+                    addAnnotationSpan(input, spans, token.getComponent(i), mode, termOccurrences, maxTokenLength);
                 }
                 return;
             }
@@ -131,19 +130,19 @@ public class LinguisticsAnnotator {
                                                "the bounds of the input string; " + input);
         }
         if (mode == StemMode.ALL) {
-            Span where = parent.span((int)token.getOffset(), token.getOrig().length());
+            int where = spans.span((int)token.getOffset(), token.getOrig().length());
 
             String lowercasedOrig = toLowerCase(token.getOrig());
             String term = token.getTokenString();
             if (term != null) {
-                addAnnotation(where, term, token.getOrig(), termOccurrences, maxTokenLength);
+                addAnnotation(spans, where, term, token.getOrig(), termOccurrences, maxTokenLength);
                 if ( ! term.equals(lowercasedOrig))
-                    addAnnotation(where, lowercasedOrig, token.getOrig(), termOccurrences, maxTokenLength);
+                    addAnnotation(spans, where, lowercasedOrig, token.getOrig(), termOccurrences, maxTokenLength);
             }
             for (int i = 0; i < token.getNumStems(); i++) {
                 String stem = token.getStem(i);
                 if (! (stem.equals(lowercasedOrig) || stem.equals(term)))
-                    addAnnotation(where, stem, token.getOrig(), termOccurrences, maxTokenLength);
+                    addAnnotation(spans, where, stem, token.getOrig(), termOccurrences, maxTokenLength);
             }
         } else {
             String term = token.getTokenString();
@@ -152,7 +151,8 @@ public class LinguisticsAnnotator {
                 return;
             }
             if (termOccurrences.termCountBelowLimit(term))  {
-                parent.span((int)token.getOffset(), token.getOrig().length()).annotate(termAnnotation(term, token.getOrig()));
+                int where = spans.span((int)token.getOffset(), token.getOrig().length());
+                spans.annotate(where, term.equals(token.getOrig()) ? null : term);
             }
         }
     }
@@ -0,0 +1,56 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.indexinglanguage.expressions;
+
+import com.yahoo.document.Document;
+import com.yahoo.document.DocumentType;
+import com.yahoo.vespa.indexinglanguage.SimpleAdapterFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Compares the throughput of interpreting and executing a compiled form of a typical indexing script,
+ * with and without linguistics processing.
+ *
+ * @author agent
+ */
+public class CompiledScriptBenchmark {
+
+    private static final String attributesScript = "{ input price | attribute price | summary price; " +
+                                                   "input tags | for_each { lowercase } | attribute tags; " +
+                                                   "input title . \" \" . input body | summary combined; " +
+                                                   "input title | { 1 | set_var one; lowercase | attribute lowercased; }; " +
+                                                   "get_var one | attribute one; " +
+                                                   "input missing | attribute copy; }";
+
+    public static void main(String[] args) throws Exception {
+        DocumentType type = CompiledScriptTestCase.documentType();
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            documents.add(CompiledScriptTestCase.document(type, i));
+
+        for (String script : List.of(attributesScript, CompiledScriptTestCase.script)) {
+            ScriptExpression expression = ScriptExpression.fromString(script);
+            CompiledScript compiled = CompiledScript.compile(expression);
+            SimpleAdapterFactory factory = new SimpleAdapterFactory();
+            for (int round = 0; round < 5; round++) {
+                long interpreted = run(documents, document -> expression.execute(factory, document));
+                long fused = run(documents, document -> compiled.execute(factory.newDocumentAdapter(document)));
+                System.out.printf("%-20s interpreted: %,10d docs/s, compiled: %,10d docs/s%n",
+                                  script == attributesScript ? "attributes only" : "with tokenize",
+                                  documents.size() * 200 * 1_000_000_000L / interpreted,
+                                  documents.size() * 200 * 1_000_000_000L / fused);
+            }
+        }
+    }
+
+    private static long run(List<Document> documents, Consumer<Document> execution) {
+        long start = System.nanoTime();
+        for (int i = 0; i < 200; i++)
+            for (Document document : documents)
+                execution.accept(document);
+        return System.nanoTime() - start;
+    }
+
+}
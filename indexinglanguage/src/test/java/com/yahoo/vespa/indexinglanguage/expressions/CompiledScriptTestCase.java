@@ -0,0 +1,144 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.indexinglanguage.expressions;
+
+import com.yahoo.document.ArrayDataType;
+import com.yahoo.document.DataType;
+import com.yahoo.document.Document;
+import com.yahoo.document.DocumentType;
+import com.yahoo.document.Field;
+import com.yahoo.document.datatypes.Array;
+import com.yahoo.document.datatypes.FieldValue;
+import com.yahoo.document.datatypes.IntegerFieldValue;
+import com.yahoo.document.datatypes.StringFieldValue;
+import com.yahoo.vespa.indexinglanguage.SimpleAdapterFactory;
+import com.yahoo.vespa.indexinglanguage.SimpleTestAdapter;
+import com.yahoo.vespa.indexinglanguage.parser.ParseException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ */
+public class CompiledScriptTestCase {
+
+    static final String script = "{ input title | tokenize normalize stem:\"BEST\" | summary title | index title; " +
+                                 "input body | tokenize normalize | summary body | index body; " +
+                                 "input price | attribute price | summary price; " +
+                                 "input tags | for_each { lowercase } | attribute tags; " +
+                                 "input title . \" \" . input body | summary combined; " +
+                                 "input title | { 1 | set_var one; lowercase | attribute lowercased; }; " +
+                                 "get_var one | attribute one; " +
+                                 "input missing | attribute copy; }";
+
+    static DocumentType documentType() {
+        DocumentType type = new DocumentType("mytype");
+        type.addField("title", DataType.STRING);
+        type.addField("body", DataType.STRING);
+        type.addField("price", DataType.INT);
+        type.addField("tags", new ArrayDataType(DataType.STRING));
+        type.addField("combined", DataType.STRING);
+        type.addField("lowercased", DataType.STRING);
+        type.addField("one", DataType.INT);
+        type.addField("missing", DataType.STRING);
+        type.addField("copy", DataType.STRING);
+        return type;
+    }
+
+    static Document document(DocumentType type, int i) {
+        Document document = new Document(type, "id:ns:mytype::" + i);
+        document.setFieldValue("title", new StringFieldValue("Title of Document " + i));
+        document.setFieldValue("body", new StringFieldValue("The body of document " + i + " is somewhat longer than the title"));
+        document.setFieldValue("price", new IntegerFieldValue(i));
+        Array<StringFieldValue> tags = new Array<>(type.getField("tags").getDataType());
+        tags.add(new StringFieldValue("Tag" + i));
+        tags.add(new StringFieldValue("Other"));
+        document.setFieldValue("tags", tags);
+        return document;
+    }
+
+    @Test
+    public void requireThatCompiledScriptProducesTheSameOutputAsTheInterpreter() throws ParseException {
+        DocumentType type = documentType();
+        ScriptExpression expression = ScriptExpression.fromString(script);
+        CompiledScript compiled = CompiledScript.compile(expression);
+        SimpleAdapterFactory factory = new SimpleAdapterFactory();
+        for (int i = 0; i < 3; i++) {
+            Document interpreted = expression.execute(factory, document(type, i));
+            Document output = compiled.execute(factory.newDocumentAdapter(document(type, i)));
+            assertEquals(interpreted, output);
+            assertEquals(new StringFieldValue("title of document " + i), output.getFieldValue("lowercased"));
+            assertEquals(new IntegerFieldValue(1), output.getFieldValue("one"));
+            assertNull(output.getFieldValue("copy"));
+        }
+    }
+
+    @Test
+    public void requireThatStatementsProcessingMissingInputsAreSkipped() {
+        RecordingAdapter adapter = new RecordingAdapter();
+        var script = new ScriptExpression(new StatementExpression(new InputExpression("foo"), new AttributeExpression("foo")),
+                                          new StatementExpression(new InputExpression("bar"), new ThrowingExpression()));
+        CompiledScript.compile(script).execute(new ExecutionContext(adapter));
+        assertEquals(List.of("foo"), adapter.outputs);
+    }
+
+    @Test
+    public void requireThatTypesAreCheckedAsByTheInterpreter() {
+        var script = new ScriptExpression(new StatementExpression(SimpleExpression.newConversion(DataType.INT, DataType.STRING)));
+        String expected = null;
+        try {
+            script.execute(new StringFieldValue("foo"));
+            fail("Expected exception");
+        }
+        catch (IllegalArgumentException e) {
+            expected = e.getMessage();
+        }
+        try {
+            CompiledScript.compile(script).execute(new ExecutionContext().setValue(new StringFieldValue("foo")));
+            fail("Expected exception");
+        }
+        catch (IllegalArgumentException e) {
+            assertEquals(expected, e.getMessage());
+        }
+        assertNull(CompiledScript.compile(script).execute(new ExecutionContext()));
+    }
+
+    private static class RecordingAdapter extends SimpleTestAdapter {
+
+        final List<String> outputs = new ArrayList<>();
+
+        RecordingAdapter() {
+            super(new Field("foo", DataType.STRING), new Field("bar", DataType.STRING));
+            setValue("foo", new StringFieldValue("foo1"));
+        }
+
+        @Override
+        public RecordingAdapter setOutputValue(Expression exp, String fieldName, FieldValue fieldValue) {
+            outputs.add(fieldName);
+            super.setOutputValue(exp, fieldName, fieldValue);
+            return this;
+        }
+
+    }
+
+    private static class ThrowingExpression extends Expression {
+
+        ThrowingExpression() { super(null); }
+
+        @Override
+        protected void doExecute(ExecutionContext context) { throw new RuntimeException(); }
+
+        @Override
+        protected void doVerify(VerificationContext context) { }
+
+        @Override
+        public DataType createdOutputType() { return null; }
+
+    }
+
+}
@@ -3,6 +3,7 @@ package com.yahoo.vespa.indexinglanguage.expressions;
 
 import com.yahoo.document.DataType;
 import com.yahoo.document.Field;
+import com.yahoo.document.datatypes.DoubleFieldValue;
 import com.yahoo.document.datatypes.IntegerFieldValue;
 import com.yahoo.document.datatypes.StringFieldValue;
 import com.yahoo.vespa.indexinglanguage.SimpleTestAdapter;
@@ -10,6 +11,8 @@ import org.junit.Test;
 
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.yahoo.vespa.indexinglanguage.expressions.ExpressionAssert.assertVerify;
 import static com.yahoo.vespa.indexinglanguage.expressions.ExpressionAssert.assertVerifyThrows;
@@ -143,6 +146,76 @@ public class ScriptTestCase {
         assertEquals(new IntegerFieldValue(9), adapter.getInputValue("out"));
     }
 
+    @Test
+    public void requireThatIndependentStatementsAreGroupedIntoStages() {
+        var script = newScript(newStatement(new InputExpression("in-1"), new SleepExpression(), new AttributeExpression("out-1")),
+                               newStatement(new InputExpression("in-2"), new SleepExpression(), new AttributeExpression("out-2")),
+                               newStatement(new InputExpression("out-1"), new AttributeExpression("out-3")),
+                               newStatement(new InputExpression("in-1"), new SetVarExpression("tmp")),
+                               newStatement(new GetVarExpression("tmp"), new SleepExpression(), new AttributeExpression("out-4")),
+                               newStatement(new ConstantExpression(new StringFieldValue("en")), new SetLanguageExpression()),
+                               newStatement(new InputExpression("in-2"), new SleepExpression(), new AttributeExpression("out-5")));
+        var dependencies = new StatementDependencies(script.asList());
+        assertEquals(List.of(List.of(0, 1, 3), List.of(2, 4), List.of(5), List.of(6)), dependencies.stages());
+        assertTrue(dependencies.isExpensive(0));
+        assertFalse(dependencies.isExpensive(2));
+        assertTrue(dependencies.hasParallelism());
+        assertFalse(new StatementDependencies(script.asList().subList(2, 7)).hasParallelism());
+    }
+
+    @Test
+    public void requireThatParallelExecutionProducesTheSameResultAsSequentialExecution() {
+        var script = newScript(newStatement(new InputExpression("in-1"), new SleepExpression(), new AttributeExpression("out-1")),
+                               newStatement(new InputExpression("in-2"), new SleepExpression(), new SetVarExpression("tmp"),
+                                            new PutCacheExpression("myCacheKey", "myCacheValue")),
+                               newStatement(new InputExpression("in-2"), new SleepExpression(), new AttributeExpression("out-2")),
+                               newStatement(new InputExpression("out-1"), new AttributeExpression("out-3")),
+                               newStatement(new GetVarExpression("tmp"), new AttributeExpression("out-4")));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 100; i++) {
+                SimpleTestAdapter adapter = parallelTestAdapter();
+                ExecutionContext context = new ExecutionContext(adapter).setExecutor(executor);
+                script.execute(context);
+                assertEquals(new DoubleFieldValue(0.001), adapter.getInputValue("out-1"));
+                assertEquals(new DoubleFieldValue(0.002), adapter.getInputValue("out-2"));
+                assertEquals(new DoubleFieldValue(0.001), adapter.getInputValue("out-3"));
+                assertEquals(new DoubleFieldValue(0.002), adapter.getInputValue("out-4"));
+                assertEquals(new DoubleFieldValue(0.002), context.getVariable("tmp"));
+                assertEquals("myCacheValue", context.getCachedValue("myCacheKey"));
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void requireThatFailuresInParallelStatementsArePropagated() {
+        var script = newScript(newStatement(new InputExpression("in-1"), new SleepExpression(), new AttributeExpression("out-1")),
+                               newStatement(new InputExpression("in-2"), new SleepExpression(), new ThrowingExpression()));
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        try {
+            script.execute(new ExecutionContext(parallelTestAdapter()).setExecutor(executor));
+            fail("Expected exception");
+        }
+        catch (RuntimeException e) {
+            assertEquals(RuntimeException.class, e.getClass());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    private static SimpleTestAdapter parallelTestAdapter() {
+        SimpleTestAdapter adapter = new SimpleTestAdapter(new Field("in-1", DataType.DOUBLE), new Field("in-2", DataType.DOUBLE),
+                                                          new Field("out-1", DataType.DOUBLE), new Field("out-2", DataType.DOUBLE),
+                                                          new Field("out-3", DataType.DOUBLE), new Field("out-4", DataType.DOUBLE));
+        adapter.setValue("in-1", new DoubleFieldValue(0.001)); // seconds to sleep
+        adapter.setValue("in-2", new DoubleFieldValue(0.002));
+        return adapter;
+    }
+
     private static ScriptExpression newScript(StatementExpression... args) {
         return new ScriptExpression(args);
     }
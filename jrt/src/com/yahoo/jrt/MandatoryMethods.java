@@ -78,7 +78,7 @@ class MandatoryMethods {
         req.returnValues().add(new StringValue(method.paramTypes()));
         req.returnValues().add(new StringValue(method.returnTypes()));
 
-        int paramCnt  = method.paramTypes().length();
+        int paramCnt  = method.paramCount();
         int returnCnt = method.returnTypes().length();
         String[] ret3_paramName  = new String[paramCnt];
         String[] ret4_paramDesc  = new String[paramCnt];
@@ -5,6 +5,8 @@ package com.yahoo.jrt;
 import com.yahoo.security.tls.Capability;
 import com.yahoo.security.tls.CapabilitySet;
 
+import java.util.Arrays;
+
 /**
  * <p>A Method encapsulates the reflective information about a single RPC
  * method.</p>
@@ -140,7 +142,10 @@ public class Method {
 
     /**
      * Describe a parameter of this method. This adds documentation
-     * that can be obtained through remote reflection.
+     * that can be obtained through remote reflection. When the
+     * parameter type string ends with '*', the optional parameters
+     * it matches may be described one by one, starting at the index
+     * of the '*'.
      *
      * @return this Method, to allow chaining
      * @param index the parameter index
@@ -148,6 +153,13 @@ public class Method {
      * @param desc the parameter description
      **/
     public Method paramDesc(int index, String name, String desc) {
+        if (index >= paramName.length && paramTypes.endsWith("*")) {
+            int size = paramName.length;
+            paramName = Arrays.copyOf(paramName, index + 1);
+            paramDesc = Arrays.copyOf(paramDesc, index + 1);
+            Arrays.fill(paramName, size, index + 1, undocumented);
+            Arrays.fill(paramDesc, size, index + 1, undocumented);
+        }
         paramName[index] = name;
         paramDesc[index] = desc;
         return this;
@@ -165,6 +177,16 @@ public class Method {
 
     public RequestAccessFilter requestAccessFilter() { return filter; }
 
+    /**
+     * Obtain the number of described parameters, which may exceed the
+     * length of the parameter type string when it ends with '*'
+     *
+     * @return number of described parameters
+     **/
+    int paramCount() {
+        return paramName.length;
+    }
+
     /**
      * Obtain the name of a parameter
      *
@@ -8,6 +8,7 @@ import org.junit.Before;
 import java.time.Duration;
 import java.util.HashSet;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -102,4 +103,20 @@ public class MandatoryMethodsTest {
         assertTrue(retName.length == retDesc.length);
     }
 
+    @org.junit.Test
+    public void testGetMethodInfoWithOptionalParameters() {
+        server.addMethod(new Method("test.optional", "s*", "", request -> { })
+                                 .paramDesc(0, "required", "a required parameter")
+                                 .paramDesc(2, "second", "the second optional parameter"));
+        Request req = new Request("frt.rpc.getMethodInfo");
+        req.parameters().add(new StringValue("test.optional"));
+        target.invokeSync(req, Duration.ofSeconds(5));
+
+        assertFalse(req.isError());
+        assertEquals("s*", req.returnValues().get(1).asString());
+        assertArrayEquals(new String[] { "required", "???", "second" }, req.returnValues().get(3).asStringArray());
+        assertArrayEquals(new String[] { "a required parameter", "???", "the second optional parameter" },
+                          req.returnValues().get(4).asStringArray());
+    }
+
 }
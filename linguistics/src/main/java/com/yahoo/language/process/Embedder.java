@@ -79,6 +79,23 @@ public interface Embedder {
         /** Add a sample embedding length to this */
         void sampleSequenceLength(long length, Context ctx);
 
+        /**
+         * Returns the embedding of a text from a cache shared by all embedders in this container,
+         * or computes it and adds it to the cache if it is not present. This default implementation
+         * does no caching.
+         *
+         * @param text the text to embed
+         * @param ctx the context of the embedding, whose embedder id, destination and language are part of the key
+         * @param type the type of the embedding
+         * @param modelId identifies the model and configuration of the embedder, such that embeddings computed
+         *                by an embedder with a different model under the same embedder id are not returned
+         * @param embedding computes the embedding if it is not cached
+         */
+        default Tensor computeCachedEmbeddingIfAbsent(String text, Context ctx, TensorType type, String modelId,
+                                                      Supplier<Tensor> embedding) {
+            return embedding.get();
+        }
+
         static Runtime testInstance() {
             return new Runtime() {
                 @Override public void sampleEmbeddingLatency(double millis, Context ctx) { }
@@ -20,9 +20,7 @@ public class SegmenterImpl implements Segmenter {
     @Override
     public List<String> segment(String input, Language language) {
         List<String> segments = new ArrayList<>();
-        for (Token token : tokenizer.tokenize(input, language, StemMode.NONE, false)) {
-            findSegments(token, segments);
-        }
+        tokenizer.tokenize(input, language, StemMode.NONE, false, token -> findSegments(token, segments));
         if (segments.isEmpty()) {
             segments.add(input); // no segments, return original string
         }
@@ -3,6 +3,8 @@ package com.yahoo.language.process;
 
 import com.yahoo.language.Language;
 
+import java.util.function.Consumer;
+
 /**
  * Language-sensitive tokenization of a text string.
  *
@@ -22,4 +24,23 @@ public interface Tokenizer {
      */
     Iterable<Token> tokenize(String input, Language language, StemMode stemMode, boolean removeAccents);
 
+    /**
+     * Tokenizes the input and passes each token to the given consumer as it is produced, instead of
+     * collecting the tokens. Tokenizers which support this natively may pass the same, reused token instance
+     * for every token, so tokens are only valid during the call to the consumer and must not be retained.
+     * By default, this passes each of the tokens returned by {@link #tokenize(String, Language, StemMode, boolean)}.
+     *
+     * @param input the string to tokenize. May be arbitrarily large.
+     * @param language the language of the input string.
+     * @param stemMode the stem mode applied on the tokens
+     * @param removeAccents if true accents and similar are removed from the tokens
+     * @param consumer the consumer receiving each token of the input String, in order
+     * @throws ProcessingException If the underlying library throws an Exception.
+     */
+    default void tokenize(String input, Language language, StemMode stemMode, boolean removeAccents,
+                          Consumer<Token> consumer) {
+        for (Token token : tokenize(input, language, stemMode, removeAccents))
+            consumer.accept(token);
+    }
+
 }
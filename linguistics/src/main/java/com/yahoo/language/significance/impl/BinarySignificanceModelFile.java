@@ -0,0 +1,227 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.language.significance.impl;
+
+import com.yahoo.language.significance.SignificanceModel;
+import com.yahoo.text.Utf8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A significance model in a compact binary format which can be memory-mapped, such that models do not need
+ * to be parsed into the heap. The file consists of a header listing the languages of the model, followed by
+ * one section per entry in the languages of the model, each containing the UTF-8 bytes of all terms sorted in
+ * unsigned byte order, the offsets of the terms and their document frequencies in packed arrays.
+ *
+ * <pre>
+ * file:    int magic, int version, int headerSize, header, section*
+ * header:  string id, string description, int sectionCount,
+ *          (string languages, long documentCount, long sectionOffset, long sectionSize)*
+ * section: int termCount, int termOffsets[termCount + 1], long frequencies[termCount], byte terms[]
+ * string:  int byteCount, byte utf8[byteCount]
+ * </pre>
+ *
+ * Section offsets are relative to the end of the header.
+ *
+ * @author agent
+ */
+public class BinarySignificanceModelFile {
+
+    private static final int MAGIC = 0x5349474d; // "SIGM"
+    private static final int VERSION = 1;
+
+    /** A section of this, holding the document frequencies of one or more languages. */
+    public record Section(String languages, long documentCount, long offset, long size) { }
+
+    private final Path path;
+    private final String id;
+    private final String description;
+    private final List<Section> sections;
+
+    private BinarySignificanceModelFile(Path path, String id, String description, List<Section> sections) {
+        this.path = path;
+        this.id = id;
+        this.description = description;
+        this.sections = List.copyOf(sections);
+    }
+
+    public String id() { return id; }
+
+    public String description() { return description; }
+
+    public List<Section> sections() { return sections; }
+
+    /** Maps the given section of this into memory and returns it as a significance model. */
+    public SignificanceModel map(Section section) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedSignificanceModel(id, section.documentCount(),
+                                               channel.map(FileChannel.MapMode.READ_ONLY, section.offset(), section.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map languages '" + section.languages() + "' of model " + path, e);
+        }
+    }
+
+    /** Reads the header of the binary model file at the given path. */
+    public static BinarySignificanceModelFile open(Path path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC)
+                throw new IllegalArgumentException(path + " is not a binary significance model");
+            int version = in.readInt();
+            if (version != VERSION)
+                throw new IllegalArgumentException("Unsupported binary significance model version " + version + " in " + path);
+            int headerSize = in.readInt();
+            long dataStart = 3 * Integer.BYTES + (long)headerSize;
+            String id = readString(in);
+            String description = readString(in);
+            int sectionCount = in.readInt();
+            List<Section> sections = new ArrayList<>(sectionCount);
+            for (int i = 0; i < sectionCount; i++) {
+                String languages = readString(in);
+                long documentCount = in.readLong();
+                long offset = in.readLong();
+                long size = in.readLong();
+                sections.add(new Section(languages, documentCount, dataStart + offset, size));
+            }
+            return new BinarySignificanceModelFile(path, id, description, sections);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read model from " + path, e);
+        }
+    }
+
+    /** Returns whether the file at the given path is a binary significance model. */
+    public static boolean isBinary(Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] magic = in.readNBytes(Integer.BYTES);
+            return magic.length == Integer.BYTES &&
+                   ((magic[0] & 0xff) << 24 | (magic[1] & 0xff) << 16 | (magic[2] & 0xff) << 8 | (magic[3] & 0xff)) == MAGIC;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read model from " + path, e);
+        }
+    }
+
+    /** Writes the given significance model to the given path in the binary format. */
+    public static void write(SignificanceModelFile model, Path path) {
+        Map<String, DocumentFrequencyFile> languages = new TreeMap<>(model.languages());
+        List<EncodedSection> encoded = new ArrayList<>();
+        long offset = 0;
+        for (var entry : languages.entrySet()) {
+            EncodedSection section = new EncodedSection(entry.getKey(), entry.getValue(), offset);
+            encoded.add(section);
+            offset += section.size();
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            DataOutputStream headerOut = new DataOutputStream(header);
+            writeString(model.id(), headerOut);
+            writeString(model.description(), headerOut);
+            headerOut.writeInt(encoded.size());
+            for (EncodedSection section : encoded) {
+                writeString(section.languages, headerOut);
+                headerOut.writeLong(section.documentCount);
+                headerOut.writeLong(section.offset);
+                headerOut.writeLong(section.size());
+            }
+            headerOut.flush();
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(header.size());
+            header.writeTo(out);
+            for (EncodedSection section : encoded)
+                section.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write model to " + path, e);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        return Utf8.toString(in.readNBytes(length));
+    }
+
+    private static void writeString(String value, DataOutputStream out) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = Utf8.toBytes(value);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /** The terms of a language entry encoded and sorted, ready to be written as a section. */
+    private static class EncodedSection {
+
+        final String languages;
+        final long documentCount;
+        final long offset;
+        final byte[][] terms;
+        final long[] frequencies;
+        final long termBytes;
+
+        EncodedSection(String languages, DocumentFrequencyFile file, long offset) {
+            this.languages = languages;
+            this.documentCount = file.documentCount();
+            this.offset = offset;
+            Map<String, Long> documentFrequencies = file.frequencies() == null ? Map.of() : file.frequencies();
+
+            byte[][] unsorted = new byte[documentFrequencies.size()][];
+            Map<byte[], Long> frequencyByTerm = new IdentityHashMap<>();
+            int i = 0;
+            long termBytes = 0;
+            for (var entry : documentFrequencies.entrySet()) {
+                byte[] term = Utf8.toBytes(entry.getKey());
+                unsorted[i++] = term;
+                frequencyByTerm.put(term, entry.getValue());
+                termBytes += term.length;
+            }
+            Arrays.sort(unsorted, Arrays::compareUnsigned);
+            this.terms = unsorted;
+            this.frequencies = new long[terms.length];
+            for (int j = 0; j < terms.length; j++)
+                frequencies[j] = frequencyByTerm.get(terms[j]);
+            this.termBytes = termBytes;
+            if (size() > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("The model for languages '" + languages + "' is too large: " +
+                                                   size() + " bytes, max is " + Integer.MAX_VALUE);
+        }
+
+        long size() {
+            return Integer.BYTES + (long)Integer.BYTES * (terms.length + 1) + (long)Long.BYTES * terms.length + termBytes;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(terms.length);
+            int termOffset = 0;
+            for (byte[] term : terms) {
+                out.writeInt(termOffset);
+                termOffset += term.length;
+            }
+            out.writeInt(termOffset);
+            for (long frequency : frequencies)
+                out.writeLong(frequency);
+            for (byte[] term : terms)
+                out.write(term);
+        }
+
+    }
+
+}
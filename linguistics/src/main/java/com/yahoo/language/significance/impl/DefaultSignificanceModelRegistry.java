@@ -7,6 +7,7 @@ import com.yahoo.language.Language;
 import com.yahoo.language.significance.SignificanceModel;
 import com.yahoo.language.significance.SignificanceModelRegistry;
 import com.yahoo.search.significance.config.SignificanceConfig;
+import com.yahoo.yolean.concurrent.Memoized;
 import io.airlift.compress.zstd.ZstdInputStream;
 
 import java.io.IOException;
@@ -20,11 +21,14 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 /**
  * Default implementation of {@link SignificanceModelRegistry}.
  * This implementation loads models lazily and caches them.
+ * Models in the {@link BinarySignificanceModelFile binary format} are memory-mapped per language on first use,
+ * while models in the JSON format are read into the heap when added.
  *
  * @author MariusArhaug
  */
@@ -32,7 +36,7 @@ public class DefaultSignificanceModelRegistry implements SignificanceModelRegist
 
     private static final Logger log = Logger.getLogger(DefaultSignificanceModelRegistry.class.getName());
 
-    private final Map<Language, SignificanceModel> models;
+    private final Map<Language, Supplier<SignificanceModel>> models;
 
     @Inject
     public DefaultSignificanceModelRegistry(SignificanceConfig cfg) {
@@ -50,6 +54,27 @@ public class DefaultSignificanceModelRegistry implements SignificanceModelRegist
     }
 
     public void addModel(Path path) {
+        if ( ! path.toString().endsWith(".zst") && BinarySignificanceModelFile.isBinary(path))
+            addBinaryModel(path);
+        else
+            addJsonModel(path);
+    }
+
+    private void addBinaryModel(Path path) {
+        log.fine(() -> "Reading binary model header from " + path);
+        BinarySignificanceModelFile file = BinarySignificanceModelFile.open(path);
+        for (var section : file.sections()) {
+            log.fine(() -> "Found model for languages '%s'".formatted(section.languages()));
+            Supplier<SignificanceModel> model = new Memoized<>(() -> file.map(section));
+            for (var languageTag : section.languages().split(",")) {
+                var language = Language.fromLanguageTag(languageTag);
+                log.fine(() -> "Adding model for language %s with id %s".formatted(language, file.id()));
+                this.models.put(language, model);
+            }
+        }
+    }
+
+    private void addJsonModel(Path path) {
         log.fine(() -> "Loading model from " + path);
         ObjectMapper objectMapper = new ObjectMapper();
         try {
@@ -67,7 +92,8 @@ public class DefaultSignificanceModelRegistry implements SignificanceModelRegist
                 for (var languageTag : languageTags) {
                     var language = Language.fromLanguageTag(languageTag);
                     log.fine(() -> "Adding model for language %s with id %s".formatted(language, file.id()));
-                    this.models.put(language, new DefaultSignificanceModel(pair.getValue(), file.id()));
+                    SignificanceModel model = new DefaultSignificanceModel(pair.getValue(), file.id());
+                    this.models.put(language, () -> model);
                 }
             }
         } catch (IOException e) {
@@ -81,6 +107,6 @@ public class DefaultSignificanceModelRegistry implements SignificanceModelRegist
         {
             return Optional.empty();
         }
-        return Optional.of(models.get(language));
+        return Optional.of(models.get(language).get());
     }
 }
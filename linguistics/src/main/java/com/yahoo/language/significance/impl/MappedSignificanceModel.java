@@ -0,0 +1,76 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.language.significance.impl;
+
+import com.yahoo.language.significance.DocumentFrequency;
+import com.yahoo.language.significance.SignificanceModel;
+import com.yahoo.text.Utf8;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A significance model backed by a section of a {@link BinarySignificanceModelFile} mapped into memory.
+ * Terms are looked up by binary search over the sorted UTF-8 bytes of the terms in the mapped buffer,
+ * such that the model takes no heap space beyond this object.
+ *
+ * @author agent
+ */
+class MappedSignificanceModel implements SignificanceModel {
+
+    private final String id;
+    private final long corpusSize;
+    private final ByteBuffer buffer;
+    private final int termCount;
+    private final int offsetsStart;
+    private final int frequenciesStart;
+    private final int termsStart;
+
+    MappedSignificanceModel(String id, long corpusSize, ByteBuffer buffer) {
+        this.id = id;
+        this.corpusSize = corpusSize;
+        this.buffer = buffer;
+        this.termCount = buffer.getInt(0);
+        this.offsetsStart = Integer.BYTES;
+        this.frequenciesStart = offsetsStart + Integer.BYTES * (termCount + 1);
+        this.termsStart = frequenciesStart + Long.BYTES * termCount;
+    }
+
+    @Override
+    public DocumentFrequency documentFrequency(String word) {
+        int index = indexOf(Utf8.toBytes(word));
+        if (index < 0) return new DocumentFrequency(1, corpusSize);
+        return new DocumentFrequency(buffer.getLong(frequenciesStart + Long.BYTES * index), corpusSize);
+    }
+
+    @Override
+    public String getId() { return id; }
+
+    /** Returns the index of the given term, or -1 if it is not present */
+    private int indexOf(byte[] term) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareTo(middle, term);
+            if (comparison < 0)
+                low = middle + 1;
+            else if (comparison > 0)
+                high = middle - 1;
+            else
+                return middle;
+        }
+        return -1;
+    }
+
+    /** Compares the term at the given index to the given term, in unsigned byte order */
+    private int compareTo(int index, byte[] term) {
+        int start = termsStart + buffer.getInt(offsetsStart + Integer.BYTES * index);
+        int length = termsStart + buffer.getInt(offsetsStart + Integer.BYTES * (index + 1)) - start;
+        int common = Math.min(length, term.length);
+        for (int i = 0; i < common; i++) {
+            int comparison = Byte.compareUnsigned(buffer.get(start + i), term[i]);
+            if (comparison != 0) return comparison;
+        }
+        return Integer.compare(length, term.length);
+    }
+
+}
@@ -14,7 +14,7 @@ import java.util.Objects;
  */
 public class SimpleToken implements Token {
 
-    private final List<Token> components = new ArrayList<>();
+    private List<Token> components = null; // created on the first added component, as most tokens have none
     private final String original;
     private TokenType type = TokenType.UNKNOWN;
     private TokenScript script = TokenScript.UNKNOWN;
@@ -61,15 +61,19 @@ public class SimpleToken implements Token {
 
     @Override
     public int getNumComponents() {
-        return components.size();
+        return components == null ? 0 : components.size();
     }
 
     @Override
     public Token getComponent(int i) {
+        if (components == null)
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length 0");
         return components.get(i);
     }
 
     public SimpleToken addComponent(Token token) {
+        if (components == null)
+            components = new ArrayList<>();
         components.add(token);
         return this;
     }
@@ -8,6 +8,7 @@ import com.yahoo.language.simple.kstem.KStemmer;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -16,6 +17,9 @@ import java.util.logging.Level;
  * <p>A tokenizer which splits on whitespace, normalizes and transforms using the given implementations
  * and stems using the kstem algorithm.</p>
  *
+ * <p>Subclasses may change how token strings are produced by overriding
+ * {@link #processToken(String, Language, StemMode, boolean)}, which is used by both tokenize variants.</p>
+ *
  * <p>This is not multithread safe.</p>
  *
  * @author Mathias Mølster Lidal
@@ -56,11 +60,48 @@ public class SimpleTokenizer implements Tokenizer {
                         token -> processToken(token, language, stemMode, removeAccents));
     }
 
+    /**
+     * Tokenize the input, applying the transform of this to each token string, and pass each token to the given
+     * consumer. The same token instance is passed for all the tokens.
+     */
+    @Override
+    public void tokenize(String input, Language language, StemMode stemMode, boolean removeAccents,
+                         Consumer<Token> consumer) {
+        tokenize(input, token -> processToken(token, language, stemMode, removeAccents), consumer);
+    }
+
+    /**
+     * Tokenize the input, apply the given transform to each token string, and pass each token to the given consumer.
+     * The same token instance is passed for all the tokens.
+     */
+    public void tokenize(String input, Function<String, String> tokenProcessor, Consumer<Token> consumer) {
+        ReusableToken token = new ReusableToken();
+        tokenize(input, (start, end, type, script) -> {
+            String original = input.substring(start, end);
+            token.set(original, start, type, script, tokenProcessor.apply(original));
+            consumer.accept(token);
+        });
+    }
+
     /** Tokenize the input, and apply the given transform to each token string. */
     public Iterable<Token> tokenize(String input, Function<String, String> tokenProcessor) {
         if (input.isEmpty()) return List.of();
 
         List<Token> tokens = new ArrayList<>();
+        tokenize(input, (start, end, type, script) -> {
+            String original = input.substring(start, end);
+            tokens.add(new SimpleToken(original).setOffset(start)
+                                                .setType(type)
+                                                .setTokenString(tokenProcessor.apply(original))
+                                                .setScript(script));
+        });
+        return tokens;
+    }
+
+    /** Finds the tokens of the input and passes the range, type and script of each to the given sink. */
+    private void tokenize(String input, TokenSink sink) {
+        if (input.isEmpty()) return;
+
         int nextCode = input.codePointAt(0);
         TokenType prevType = SimpleTokenType.valueOf(nextCode);
         TokenType tokenType = prevType;
@@ -72,11 +113,7 @@ public class SimpleTokenizer implements Tokenizer {
             TokenScript nextScript = SimpleTokenScript.valueOf(nextCode);
 
             if (isAtTokenBoundary(prevType, nextType)) {
-                String original = input.substring(prev, next);
-                tokens.add(new SimpleToken(original).setOffset(prev)
-                                                    .setType(tokenType)
-                                                    .setTokenString(tokenProcessor.apply(original))
-                                                    .setScript(tokenScript));
+                sink.token(prev, next, tokenType, tokenScript);
                 prev = next;
                 prevType = nextType;
                 prevScript = nextScript;
@@ -89,7 +126,6 @@ public class SimpleTokenizer implements Tokenizer {
             }
             next += Character.charCount(nextCode);
         }
-        return tokens;
     }
 
     private boolean isAtTokenBoundary(TokenType prevType, TokenType nextType) {
@@ -109,7 +145,8 @@ public class SimpleTokenizer implements Tokenizer {
         return tokenScript;
     }
 
-    private String processToken(String token, Language language, StemMode stemMode, boolean removeAccents) {
+    /** Returns the token string to produce for the given original token string. */
+    protected String processToken(String token, Language language, StemMode stemMode, boolean removeAccents) {
         String original = token;
         log.log(Level.FINEST, () -> "processToken '" + original + "'");
         token = normalizer.normalize(token);
@@ -127,4 +164,71 @@ public class SimpleTokenizer implements Tokenizer {
         return result;
     }
 
+    private interface TokenSink {
+
+        void token(int start, int end, TokenType type, TokenScript script);
+
+    }
+
+    /** A token which is reused for each token of an input. */
+    private static class ReusableToken implements Token {
+
+        private String original;
+        private int offset;
+        private TokenType type;
+        private TokenScript script;
+        private String tokenString;
+
+        void set(String original, int offset, TokenType type, TokenScript script, String tokenString) {
+            this.original = original;
+            this.offset = offset;
+            this.type = type;
+            this.script = script;
+            this.tokenString = tokenString;
+        }
+
+        @Override
+        public TokenType getType() { return type; }
+
+        @Override
+        public String getOrig() { return original; }
+
+        @Override
+        public int getNumStems() { return tokenString != null ? 1 : 0; }
+
+        @Override
+        public String getStem(int i) {
+            if (i != 0 || tokenString == null)
+                throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + getNumStems());
+            return tokenString;
+        }
+
+        @Override
+        public int getNumComponents() { return 0; }
+
+        @Override
+        public Token getComponent(int i) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length 0");
+        }
+
+        @Override
+        public long getOffset() { return offset; }
+
+        @Override
+        public TokenScript getScript() { return script; }
+
+        @Override
+        public String getTokenString() { return tokenString; }
+
+        @Override
+        public boolean isSpecialToken() { return false; }
+
+        @Override
+        public boolean isIndexable() { return type.isIndexable() && ! original.isEmpty(); }
+
+        @Override
+        public String toString() { return "token '" + getOrig() + "'"; }
+
+    }
+
 }
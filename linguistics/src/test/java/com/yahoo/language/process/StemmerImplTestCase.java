@@ -43,6 +43,8 @@ public class StemmerImplTestCase {
         Mockito.when(tokenizer.tokenize(Mockito.anyString(), Mockito.<Language>any(), Mockito.<StemMode>any(),
                                         Mockito.anyBoolean()))
                .thenReturn(List.of(token));
+        Mockito.doCallRealMethod().when(tokenizer).tokenize(Mockito.anyString(), Mockito.<Language>any(), Mockito.<StemMode>any(),
+                                                            Mockito.anyBoolean(), Mockito.any());
         Stemmer stemmer = new StemmerImpl(tokenizer);
 
         token.setSpecialToken(false);
@@ -1,10 +1,16 @@
 // Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.language.significance;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yahoo.language.Language;
+import com.yahoo.language.significance.impl.BinarySignificanceModelFile;
 import com.yahoo.language.significance.impl.DefaultSignificanceModelRegistry;
+import com.yahoo.language.significance.impl.SignificanceModelFile;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +23,9 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 public class DefaultSignificanceModelRegistryTest {
 
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
     @Test
     public void testDefaultSignificanceModelRegistry() {
         List<Path> models = new ArrayList<>();
@@ -140,4 +149,58 @@ public class DefaultSignificanceModelRegistryTest {
         assertEquals(1, norwegianModel.documentFrequency("non-existent-word").frequency());
         assertEquals(20, norwegianModel.documentFrequency("non-existent-word").corpusSize());
     }
+
+    @Test
+    public void testDefaultSignificanceModelRegistryWithBinaryModels() throws IOException {
+        List<Path> models = new ArrayList<>();
+
+        models.add(toBinary(Path.of("src/test/models/docv1.json")));
+        models.add(toBinary(Path.of("src/test/models/docv2.json")));
+        assertTrue(BinarySignificanceModelFile.isBinary(models.get(0)));
+
+        DefaultSignificanceModelRegistry defaultSignificanceModelRegistry = new DefaultSignificanceModelRegistry(models);
+
+        var englishModel = defaultSignificanceModelRegistry.getModel(Language.ENGLISH).get();
+        var norwegianModel = defaultSignificanceModelRegistry.getModel(Language.NORWEGIAN_BOKMAL).get();
+        assertTrue(defaultSignificanceModelRegistry.getModel(Language.GERMAN).isEmpty());
+
+        assertEquals("test::2", englishModel.getId());
+        assertEquals("test::2", norwegianModel.getId());
+
+        assertEquals(4, englishModel.documentFrequency("test").frequency());
+        assertEquals(14, englishModel.documentFrequency("test").corpusSize());
+
+        assertEquals(3, norwegianModel.documentFrequency("nei").frequency());
+        assertEquals(20, norwegianModel.documentFrequency("nei").corpusSize());
+
+        assertEquals(1, norwegianModel.documentFrequency("non-existent-word").frequency());
+        assertEquals(20, norwegianModel.documentFrequency("non-existent-word").corpusSize());
+    }
+
+    @Test
+    public void testBinaryModelHasSameFrequenciesAsJsonModel() throws IOException {
+        Path json = Path.of("src/test/models/docv2.json");
+        Path binary = toBinary(json);
+        var jsonModel = new DefaultSignificanceModelRegistry(List.of(json)).getModel(Language.FRENCH).get();
+        var binaryModel = new DefaultSignificanceModelRegistry(List.of(binary)).getModel(Language.FRENCH).get();
+
+        var file = new ObjectMapper().readValue(json.toFile(), SignificanceModelFile.class);
+        for (var language : file.languages().values()) {
+            for (var term : language.frequencies().keySet()) {
+                assertEquals(jsonModel.documentFrequency(term), binaryModel.documentFrequency(term), term);
+                assertEquals(jsonModel.documentFrequency(term + "x"), binaryModel.documentFrequency(term + "x"));
+                assertEquals(jsonModel.documentFrequency(term.substring(1)), binaryModel.documentFrequency(term.substring(1)));
+            }
+        }
+        assertEquals(jsonModel.documentFrequency(""), binaryModel.documentFrequency(""));
+        assertEquals(jsonModel.documentFrequency("\u00e6\u00f8\u00e5"), binaryModel.documentFrequency("\u00e6\u00f8\u00e5"));
+    }
+
+    private Path toBinary(Path jsonModel) throws IOException {
+        var file = new ObjectMapper().readValue(jsonModel.toFile(), SignificanceModelFile.class);
+        Path binaryModel = tempDir.newFile(jsonModel.getFileName() + ".bin").toPath();
+        BinarySignificanceModelFile.write(file, binaryModel);
+        return binaryModel;
+    }
+
 }
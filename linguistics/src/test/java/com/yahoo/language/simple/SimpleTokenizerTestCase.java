@@ -8,10 +8,13 @@ import com.yahoo.language.process.Token;
 import com.yahoo.language.process.TokenScript;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -20,6 +23,42 @@ import static org.junit.Assert.assertTrue;
  */
 public class SimpleTokenizerTestCase extends AbstractTokenizerTestCase {
 
+    @Test
+    public void testStreamingTokenizationProducesTheSameTokens() {
+        TokenizerTester tester = new TokenizerTester().setStemMode(StemMode.ALL).setAccentDrop(true);
+        String input = "Blåbær og tralalala n4lle. \uD800\uDFC8 (old Persian sign, gods.Running)";
+        List<String> expected = new ArrayList<>();
+        for (Token token : tester.tokenize(input))
+            expected.add(token.getOffset() + ":" + token.getOrig() + ":" + token.getTokenString() + ":" +
+                         token.getType() + ":" + token.getScript() + ":" + token.isIndexable());
+        List<String> streamed = new ArrayList<>();
+        tester.tokenize(input, token -> streamed.add(token.getOffset() + ":" + token.getOrig() + ":" + token.getTokenString() + ":" +
+                                                     token.getType() + ":" + token.getScript() + ":" + token.isIndexable()));
+        assertEquals(expected, streamed);
+    }
+
+    @Test
+    public void testSubclassTokenProcessingIsUsedByBothVariants() {
+        SimpleTokenizer tokenizer = new SimpleTokenizer() {
+            @Override
+            protected String processToken(String token, Language language, StemMode stemMode, boolean removeAccents) {
+                return "[" + token + "]";
+            }
+        };
+        List<String> listed = new ArrayList<>();
+        for (Token token : tokenizer.tokenize("foo bar", Language.ENGLISH, StemMode.NONE, false))
+            listed.add(token.getTokenString());
+        List<String> streamed = new ArrayList<>();
+        tokenizer.tokenize("foo bar", Language.ENGLISH, StemMode.NONE, false, token -> {
+            assertEquals(1, token.getNumStems());
+            assertEquals(token.getTokenString(), token.getStem(0));
+            assertThrows(IndexOutOfBoundsException.class, () -> token.getStem(1));
+            streamed.add(token.getTokenString());
+        });
+        assertEquals(List.of("[foo]", "[ ]", "[bar]"), listed);
+        assertEquals(listed, streamed);
+    }
+
     @Test
     public void testTokenizingNoStemming() {
         TokenizerTester tester = new TokenizerTester().setStemMode(StemMode.NONE);
@@ -9,6 +9,7 @@ import com.yahoo.language.process.TokenScript;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.Assert.assertEquals;
 
@@ -28,6 +29,10 @@ public class TokenizerTester {
             findTokenStrings(token, actual);
         }
         assertEquals(List.of(expectedTokenStrings), actual);
+
+        List<String> streamed = new ArrayList<>();
+        tokenize(input, token -> findTokenStrings(token, streamed));
+        assertEquals("Streaming tokenization", List.of(expectedTokenStrings), streamed);
     }
 
     public void assertTokenScripts(String input, TokenScript... expectedTokenScripts) {
@@ -36,6 +41,10 @@ public class TokenizerTester {
             findTokenScripts(token, actual);
         }
         assertEquals(List.of(expectedTokenScripts), actual);
+
+        List<TokenScript> streamed = new ArrayList<>();
+        tokenize(input, token -> findTokenScripts(token, streamed));
+        assertEquals("Streaming tokenization", List.of(expectedTokenScripts), streamed);
     }
 
     public List<String> findTokenStrings(Token token, List<String> out) {
@@ -66,6 +75,10 @@ public class TokenizerTester {
         return linguistics.getTokenizer().tokenize(input, language, stemMode, accentDrop);
     }
 
+    public void tokenize(String input, Consumer<Token> consumer) {
+        linguistics.getTokenizer().tokenize(input, language, stemMode, accentDrop, consumer);
+    }
+
     public TokenizerTester setAccentDrop(boolean accentDrop) {
         this.accentDrop = accentDrop;
         return this;
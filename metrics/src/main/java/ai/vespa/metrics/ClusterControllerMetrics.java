@@ -18,6 +18,8 @@ public enum ClusterControllerMetrics implements VespaMetrics {
     BUSY_TICK_TIME_MS("cluster-controller.busy-tick-time-ms", Unit.MILLISECOND, "Time busy"),
     IDLE_TICK_TIME_MS("cluster-controller.idle-tick-time-ms", Unit.MILLISECOND, "Time idle"),
     WORK_MS("cluster-controller.work-ms", Unit.MILLISECOND, "Time used for actual work"),
+    STATE_GENERATION_MS("cluster-controller.state-generation-ms", Unit.MILLISECOND, "Time used to generate the baseline cluster state"),
+    STATE_DERIVATION_MS("cluster-controller.state-derivation-ms", Unit.MILLISECOND, "Time used to derive the cluster states of all bucket spaces from the baseline state"),
     IS_MASTER("cluster-controller.is-master", Unit.BINARY, "1 if this cluster controller is currently the master, or 0 if not"),
     REMOTE_TASK_QUEUE_SIZE("cluster-controller.remote-task-queue.size", Unit.OPERATION, "Number of remote tasks queued"),
     // TODO(hakonhall): Update this name once persistent "count" metrics has been implemented.
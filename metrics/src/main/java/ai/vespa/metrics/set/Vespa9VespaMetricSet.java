@@ -214,6 +214,9 @@ public class Vespa9VespaMetricSet {
         // Embedders
         addMetric(metrics, ContainerMetrics.EMBEDDER_LATENCY, EnumSet.of(max, sum, count));
         addMetric(metrics, ContainerMetrics.EMBEDDER_SEQUENCE_LENGTH, EnumSet.of(max, sum, count));
+        addMetric(metrics, ContainerMetrics.EMBEDDER_CACHE_HITS.count());
+        addMetric(metrics, ContainerMetrics.EMBEDDER_CACHE_MISSES.count());
+        addMetric(metrics, ContainerMetrics.EMBEDDER_CACHE_SIZE.last());
 
         return metrics;
     }
@@ -233,6 +236,8 @@ public class Vespa9VespaMetricSet {
         addMetric(metrics, ClusterControllerMetrics.IDLE_TICK_TIME_MS, EnumSet.of(max, sum, count));
 
         addMetric(metrics, ClusterControllerMetrics.WORK_MS, EnumSet.of(sum, count));
+        addMetric(metrics, ClusterControllerMetrics.STATE_GENERATION_MS, EnumSet.of(max, sum, count));
+        addMetric(metrics, ClusterControllerMetrics.STATE_DERIVATION_MS, EnumSet.of(max, sum, count));
 
         addMetric(metrics, ClusterControllerMetrics.IS_MASTER.max());
 
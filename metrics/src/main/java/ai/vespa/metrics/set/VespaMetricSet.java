@@ -236,6 +236,9 @@ public class VespaMetricSet {
         // Embedders
         addMetric(metrics, ContainerMetrics.EMBEDDER_LATENCY, EnumSet.of(max, sum, count));
         addMetric(metrics, ContainerMetrics.EMBEDDER_SEQUENCE_LENGTH, EnumSet.of(max, sum, count));
+        addMetric(metrics, ContainerMetrics.EMBEDDER_CACHE_HITS.count());
+        addMetric(metrics, ContainerMetrics.EMBEDDER_CACHE_MISSES.count());
+        addMetric(metrics, ContainerMetrics.EMBEDDER_CACHE_SIZE.last());
 
         // Deprecated metrics. TODO: Remove on Vespa 9.
         addMetric(metrics, ContainerMetrics.SERVER_REJECTED_REQUESTS, EnumSet.of(rate, count));
@@ -264,6 +267,8 @@ public class VespaMetricSet {
         addMetric(metrics, ClusterControllerMetrics.IDLE_TICK_TIME_MS, EnumSet.of(last, max, sum, count)); // TODO: Vespa 9: Remove last
 
         addMetric(metrics, ClusterControllerMetrics.WORK_MS, EnumSet.of(last, sum, count)); // TODO: Vespa 9: Remove last
+        addMetric(metrics, ClusterControllerMetrics.STATE_GENERATION_MS, EnumSet.of(max, sum, count));
+        addMetric(metrics, ClusterControllerMetrics.STATE_DERIVATION_MS, EnumSet.of(max, sum, count));
 
         addMetric(metrics, ClusterControllerMetrics.IS_MASTER, EnumSet.of(max, last)); // TODO: Vespa 9: Remove last
         addMetric(metrics, ClusterControllerMetrics.REMOTE_TASK_QUEUE_SIZE.last());
@@ -42,12 +42,14 @@ public class BertBaseEmbedder extends AbstractComponent implements Embedder {
     private final PoolingStrategy poolingStrategy;
 
     private final Embedder.Runtime runtime;
+    private final String modelId;
     private final WordPieceEmbedder tokenizer;
     private final OnnxEvaluator evaluator;
 
     @Inject
     public BertBaseEmbedder(OnnxRuntime onnx, Embedder.Runtime runtime, BertBaseEmbedderConfig config) {
         this.runtime = runtime;
+        this.modelId = EmbedderRuntime.modelIdOf(config);
         maxTokens = config.transformerMaxTokens();
         startSequenceToken = config.transformerStartSequenceToken();
         endSequenceToken = config.transformerEndSequenceToken();
@@ -99,6 +101,10 @@ public class BertBaseEmbedder extends AbstractComponent implements Embedder {
 
     @Override
     public Tensor embed(String text, Context context, TensorType type) {
+        return runtime.computeCachedEmbeddingIfAbsent(text, context, type, modelId, () -> embedUncached(text, context, type));
+    }
+
+    private Tensor embedUncached(String text, Context context, TensorType type) {
         var start = System.nanoTime();
         if (type.dimensions().size() != 1) {
             throw new IllegalArgumentException("Error in embedding to type '" + type + "': should only have one dimension.");
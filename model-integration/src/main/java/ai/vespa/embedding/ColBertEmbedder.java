@@ -43,6 +43,7 @@ public class ColBertEmbedder extends AbstractComponent implements Embedder {
     private static final String PUNCTUATION = "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~";
 
     private final Embedder.Runtime runtime;
+    private final String modelId;
     private final String inputIdsName;
     private final String attentionMaskName;
     private final String outputName;
@@ -68,6 +69,7 @@ public class ColBertEmbedder extends AbstractComponent implements Embedder {
     @Inject
     public ColBertEmbedder(OnnxRuntime onnx, Embedder.Runtime runtime, ColBertEmbedderConfig config) {
         this.runtime = runtime;
+        this.modelId = EmbedderRuntime.modelIdOf(config);
         inputIdsName = config.transformerInputIds();
         attentionMaskName = config.transformerAttentionMask();
         outputName = config.transformerOutput();
@@ -132,6 +134,10 @@ public class ColBertEmbedder extends AbstractComponent implements Embedder {
 
     @Override
     public Tensor embed(String text, Context context, TensorType tensorType) {
+        return runtime.computeCachedEmbeddingIfAbsent(text, context, tensorType, modelId, () -> embedUncached(text, context, tensorType));
+    }
+
+    private Tensor embedUncached(String text, Context context, TensorType tensorType) {
         if ( ! validTensorType(tensorType)) {
             throw new IllegalArgumentException("Invalid colbert embedder tensor target destination. " +
                                                "Wanted a mixed 2-d mapped-indexed tensor, got " + tensorType);
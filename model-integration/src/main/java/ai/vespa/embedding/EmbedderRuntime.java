@@ -4,14 +4,24 @@ package ai.vespa.embedding;
 
 import ai.vespa.metrics.ContainerMetrics;
 import com.yahoo.component.annotation.Inject;
+import com.yahoo.config.ConfigInstance;
+import com.yahoo.embedding.EmbedderRuntimeConfig;
 import com.yahoo.language.Language;
 import com.yahoo.language.process.Embedder;
+import com.yahoo.metrics.simple.Counter;
 import com.yahoo.metrics.simple.Gauge;
 import com.yahoo.metrics.simple.MetricReceiver;
 import com.yahoo.metrics.simple.Point;
+import com.yahoo.tensor.Tensor;
+import com.yahoo.tensor.TensorType;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * @author bjorncs
@@ -20,12 +30,28 @@ public class EmbedderRuntime implements Embedder.Runtime {
 
     private final Gauge embedLatency;
     private final Gauge sequenceLength;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Gauge cacheSize;
     private final Map<MetricDimensions, Point> metricPointCache = new ConcurrentHashMap<>();
 
-    @Inject
+    /** The cache of embeddings shared by all embedders, or null if disabled */
+    private final EmbeddingCache cache;
+
     public EmbedderRuntime(MetricReceiver metrics) {
+        this(metrics, new EmbedderRuntimeConfig.Builder().build());
+    }
+
+    @Inject
+    public EmbedderRuntime(MetricReceiver metrics, EmbedderRuntimeConfig config) {
         embedLatency = metrics.declareGauge(ContainerMetrics.EMBEDDER_LATENCY.baseName());
         sequenceLength = metrics.declareGauge(ContainerMetrics.EMBEDDER_SEQUENCE_LENGTH.baseName());
+        cacheHits = metrics.declareCounter(ContainerMetrics.EMBEDDER_CACHE_HITS.baseName());
+        cacheMisses = metrics.declareCounter(ContainerMetrics.EMBEDDER_CACHE_MISSES.baseName());
+        cacheSize = metrics.declareGauge(ContainerMetrics.EMBEDDER_CACHE_SIZE.baseName());
+        cache = config.cacheMaxBytes() > 0 && config.cacheMaxEntries() > 0
+                ? new EmbeddingCache(config.cacheMaxBytes(), config.cacheMaxEntries(), config.cacheOffHeap())
+                : null;
     }
 
     @Override
@@ -38,6 +64,36 @@ public class EmbedderRuntime implements Embedder.Runtime {
         sequenceLength.sample(length, metricPoint(ctx));
     }
 
+    @Override
+    public Tensor computeCachedEmbeddingIfAbsent(String text, Embedder.Context ctx, TensorType type, String modelId,
+                                                 Supplier<Tensor> embedding) {
+        if (cache == null) return embedding.get();
+        var key = new EmbeddingCache.Key(ctx.getEmbedderId(), modelId, ctx.getDestination(), ctx.getLanguage(), type, text);
+        Tensor cached = cache.get(key);
+        if (cached != null) {
+            cacheHits.add(metricPoint(ctx));
+            return cached;
+        }
+        cacheMisses.add(metricPoint(ctx));
+        Tensor computed = embedding.get();
+        cache.put(key, computed);
+        cacheSize.sample(cache.sizeInBytes());
+        return computed;
+    }
+
+    /**
+     * Returns an id of an embedder's model and configuration, to pass when computing cached embeddings.
+     * Models are referenced by file references or urls in the config, so a changed model changes the config.
+     */
+    public static String modelIdOf(ConfigInstance config) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(config.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private Point metricPoint(Embedder.Context ctx) {
         var dimensions = new MetricDimensions(ctx.getEmbedderId(), ctx.getLanguage(), ctx.getDestination());
         return metricPointCache.computeIfAbsent(
@@ -0,0 +1,129 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.embedding;
+
+import com.yahoo.io.GrowableByteBuffer;
+import com.yahoo.language.Language;
+import com.yahoo.tensor.Tensor;
+import com.yahoo.tensor.TensorType;
+import com.yahoo.tensor.serialization.TypedBinaryFormat;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A bounded cache of embeddings, shared by all embedders in a container, which evicts the least recently
+ * used embeddings when either the total estimated size in bytes or the number of entries exceeds the limits.
+ * Embeddings are either kept as tensors on the heap, or serialized into direct buffers outside the heap.
+ * Embeddings are computed outside the lock of this, so concurrent misses for the same key may compute it twice.
+ *
+ * @author agent
+ */
+class EmbeddingCache {
+
+    /** Estimated bytes used per entry in addition to the text and embedding */
+    private static final int entryOverhead = 128;
+
+    private final long maxBytes;
+    private final int maxEntries;
+    private final boolean offHeap;
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes = 0;
+
+    EmbeddingCache(long maxBytes, int maxEntries, boolean offHeap) {
+        if (maxBytes < 0) throw new IllegalArgumentException("Max bytes must be non-negative, got " + maxBytes);
+        if (maxEntries < 0) throw new IllegalArgumentException("Max entries must be non-negative, got " + maxEntries);
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+        this.offHeap = offHeap;
+    }
+
+    /** Returns the cached embedding for the given key, or null if it is not cached */
+    Tensor get(Key key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        return entry == null ? null : entry.tensor();
+    }
+
+    void put(Key key, Tensor tensor) {
+        Entry entry = offHeap ? new SerializedEntry(tensor) : new TensorEntry(tensor);
+        long entryBytes = key.sizeInBytes() + entry.sizeInBytes();
+        if (entryBytes > maxBytes || maxEntries == 0) return;
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) bytes -= key.sizeInBytes() + previous.sizeInBytes();
+            bytes += entryBytes;
+            for (Iterator<Map.Entry<Key, Entry>> i = entries.entrySet().iterator(); i.hasNext() && (bytes > maxBytes || entries.size() > maxEntries); ) {
+                Map.Entry<Key, Entry> eldest = i.next();
+                bytes -= eldest.getKey().sizeInBytes() + eldest.getValue().sizeInBytes();
+                i.remove();
+            }
+        }
+    }
+
+    synchronized long sizeInBytes() { return bytes; }
+
+    synchronized int size() { return entries.size(); }
+
+    /**
+     * The key of an embedding, where the text is kept to rule out collisions. The model id is part of the key
+     * since this outlives embedders, which may be reconfigured with a different model under the same id.
+     */
+    record Key(String embedderId, String modelId, String destination, Language language, TensorType type, String text) {
+
+        long sizeInBytes() {
+            return entryOverhead + 2L * text.length() + 2L * destination.length();
+        }
+
+    }
+
+    private interface Entry {
+
+        Tensor tensor();
+
+        long sizeInBytes();
+
+    }
+
+    private record TensorEntry(Tensor tensor) implements Entry {
+
+        @Override
+        public Tensor tensor() { return tensor; }
+
+        @Override
+        public long sizeInBytes() {
+            int mappedDimensions = (int)tensor.type().dimensions().stream().filter(d -> ! d.isIndexed()).count();
+            // Cell values, plus labels and map entries for mapped cells
+            return tensor.size() * (8L + (mappedDimensions == 0 ? 0 : 48L + 16L * mappedDimensions));
+        }
+
+    }
+
+    private static class SerializedEntry implements Entry {
+
+        private final ByteBuffer buffer;
+
+        SerializedEntry(Tensor tensor) {
+            byte[] bytes = TypedBinaryFormat.encode(tensor);
+            buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes).flip();
+        }
+
+        @Override
+        public Tensor tensor() {
+            byte[] bytes = new byte[buffer.capacity()];
+            buffer.get(0, bytes);
+            return TypedBinaryFormat.decode(Optional.empty(), GrowableByteBuffer.wrap(bytes));
+        }
+
+        @Override
+        public long sizeInBytes() { return buffer.capacity(); }
+
+    }
+
+}
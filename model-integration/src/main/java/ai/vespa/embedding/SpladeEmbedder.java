@@ -32,6 +32,7 @@ import static com.yahoo.language.huggingface.ModelInfo.TruncationStrategy.LONGES
 public class SpladeEmbedder extends AbstractComponent implements Embedder {
 
     private final Embedder.Runtime runtime;
+    private final String modelId;
     private final String inputIdsName;
     private final String attentionMaskName;
     private final String tokenTypeIdsName;
@@ -47,6 +48,7 @@ public class SpladeEmbedder extends AbstractComponent implements Embedder {
     }
     SpladeEmbedder(OnnxRuntime onnx, Embedder.Runtime runtime, SpladeEmbedderConfig config, boolean useCustomReduce) {
         this.runtime = runtime;
+        this.modelId = EmbedderRuntime.modelIdOf(config);
         inputIdsName = config.transformerInputIds();
         attentionMaskName = config.transformerAttentionMask();
         outputName = config.transformerOutput();
@@ -111,6 +113,10 @@ public class SpladeEmbedder extends AbstractComponent implements Embedder {
 
     @Override
     public Tensor embed(String text, Context context, TensorType tensorType) {
+        return runtime.computeCachedEmbeddingIfAbsent(text, context, tensorType, modelId, () -> embedUncached(text, context, tensorType));
+    }
+
+    private Tensor embedUncached(String text, Context context, TensorType tensorType) {
         if (!verifyTensorType(tensorType)) {
             throw new IllegalArgumentException("Invalid splade embedder tensor destination. " +
                                                "Wanted a mapped 1-d tensor, got " + tensorType);
@@ -1,6 +1,7 @@
 // Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package ai.vespa.embedding.huggingface;
 
+import ai.vespa.embedding.EmbedderRuntime;
 import ai.vespa.embedding.PoolingStrategy;
 import ai.vespa.modelintegration.evaluator.OnnxEvaluator;
 import ai.vespa.modelintegration.evaluator.OnnxEvaluatorOptions;
@@ -30,6 +31,7 @@ public class HuggingFaceEmbedder extends AbstractComponent implements Embedder {
     private static final Logger log = Logger.getLogger(HuggingFaceEmbedder.class.getName());
 
     private final Embedder.Runtime runtime;
+    private final String modelId;
     private final String inputIdsName;
     private final String attentionMaskName;
     private final String tokenTypeIdsName;
@@ -46,6 +48,7 @@ public class HuggingFaceEmbedder extends AbstractComponent implements Embedder {
     @Inject
     public HuggingFaceEmbedder(OnnxRuntime onnx, Embedder.Runtime runtime, HuggingFaceEmbedderConfig config) {
         this.runtime = runtime;
+        this.modelId = EmbedderRuntime.modelIdOf(config);
         inputIdsName = config.transformerInputIds();
         attentionMaskName = config.transformerAttentionMask();
         tokenTypeIdsName = config.transformerTokenTypeIds();
@@ -110,9 +113,13 @@ public class HuggingFaceEmbedder extends AbstractComponent implements Embedder {
         tokenizer.close();
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Tensor embed(String text, Context context, TensorType tensorType) {
+        return runtime.computeCachedEmbeddingIfAbsent(text, context, tensorType, modelId, () -> embedUncached(text, context, tensorType));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Tensor embedUncached(String text, Context context, TensorType tensorType) {
         if (tensorType.dimensions().size() != 1) {
             throw new IllegalArgumentException("Error in embedding to type '" + tensorType + "': should only have one dimension.");
         }
@@ -0,0 +1,124 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.embedding;
+
+import com.yahoo.embedding.EmbedderRuntimeConfig;
+import com.yahoo.language.Language;
+import com.yahoo.language.process.Embedder;
+import com.yahoo.metrics.simple.MetricReceiver;
+import com.yahoo.tensor.Tensor;
+import com.yahoo.tensor.TensorType;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class EmbedderRuntimeTest {
+
+    private static final TensorType denseType = TensorType.fromSpec("tensor<float>(x[4])");
+    private static final TensorType sparseType = TensorType.fromSpec("tensor<float>(t{})");
+
+    @Test
+    public void testNoCachingByDefault() {
+        var runtime = new EmbedderRuntime(MetricReceiver.nullImplementation);
+        var computations = new AtomicInteger();
+        var context = new Embedder.Context("schema.field").setEmbedderId("e5");
+        runtime.computeCachedEmbeddingIfAbsent("text", context, denseType, "model", () -> embed(computations));
+        runtime.computeCachedEmbeddingIfAbsent("text", context, denseType, "model", () -> embed(computations));
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    public void testCachingOnHeap() {
+        var runtime = runtime(false);
+        var computations = new AtomicInteger();
+        var context = new Embedder.Context("schema.field").setEmbedderId("e5");
+        Tensor first = runtime.computeCachedEmbeddingIfAbsent("text", context, denseType, "model", () -> embed(computations));
+        assertSame(first, runtime.computeCachedEmbeddingIfAbsent("text", context, denseType, "model", () -> embed(computations)));
+        assertEquals(1, computations.get());
+
+        runtime.computeCachedEmbeddingIfAbsent("other text", context, denseType, "model", () -> embed(computations));
+        runtime.computeCachedEmbeddingIfAbsent("text", context.copy().setEmbedderId("other"), denseType, "model", () -> embed(computations));
+        runtime.computeCachedEmbeddingIfAbsent("text", new Embedder.Context("query(q)").setEmbedderId("e5"), denseType, "model", () -> embed(computations));
+        assertEquals(4, computations.get());
+
+        // The embedder is reconfigured with another model
+        runtime.computeCachedEmbeddingIfAbsent("text", context, denseType, "other model", () -> embed(computations));
+        assertEquals(5, computations.get());
+    }
+
+    @Test
+    public void testModelIdDependsOnConfig() {
+        var config = new EmbedderRuntimeConfig.Builder().cacheMaxBytes(1).build();
+        assertEquals(EmbedderRuntime.modelIdOf(config), EmbedderRuntime.modelIdOf(new EmbedderRuntimeConfig.Builder().cacheMaxBytes(1).build()));
+        assertNotEquals(EmbedderRuntime.modelIdOf(config), EmbedderRuntime.modelIdOf(new EmbedderRuntimeConfig.Builder().cacheMaxBytes(2).build()));
+    }
+
+    @Test
+    public void testCachingOffHeap() {
+        var runtime = runtime(true);
+        var computations = new AtomicInteger();
+        var context = new Embedder.Context("schema.field").setEmbedderId("splade");
+        Tensor first = runtime.computeCachedEmbeddingIfAbsent("text", context, sparseType, "model",
+                                                              () -> { computations.incrementAndGet();
+                                                                      return Tensor.from(sparseType, "{a:1.5, b:2.0}"); });
+        Tensor second = runtime.computeCachedEmbeddingIfAbsent("text", context, sparseType, "model", () -> embed(computations));
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    public void testEvictionByEntries() {
+        var cache = new EmbeddingCache(1 << 20, 3, false);
+        for (int i = 0; i < 4; i++)
+            cache.put(key("text " + i), embedding());
+        cache.get(key("text 1")); // most recently used, so retained below
+        cache.put(key("text 4"), embedding());
+        assertEquals(3, cache.size());
+        assertNull(cache.get(key("text 0")));
+        assertNull(cache.get(key("text 2")));
+        assertEquals(embedding(), cache.get(key("text 1")));
+    }
+
+    @Test
+    public void testEvictionByBytes() {
+        var cache = new EmbeddingCache(1000, 100, false);
+        for (int i = 0; i < 10; i++)
+            cache.put(key("text " + i), embedding());
+        assertTrue(cache.sizeInBytes() <= 1000);
+        assertEquals(5, cache.size()); // each entry is estimated to 196 bytes
+        assertNull(cache.get(key("text 4")));
+        assertEquals(embedding(), cache.get(key("text 5")));
+
+        cache.put(key("x".repeat(1000)), embedding()); // too large to cache
+        assertEquals(5, cache.size());
+    }
+
+    private static EmbeddingCache.Key key(String text) {
+        return new EmbeddingCache.Key("e5", "model", "schema.field", Language.ENGLISH, denseType, text);
+    }
+
+    private static EmbedderRuntime runtime(boolean offHeap) {
+        return new EmbedderRuntime(MetricReceiver.nullImplementation,
+                                   new EmbedderRuntimeConfig.Builder().cacheMaxBytes(1 << 20).cacheOffHeap(offHeap).build());
+    }
+
+    private static Tensor embed(AtomicInteger computations) {
+        computations.incrementAndGet();
+        return embedding();
+    }
+
+    private static Tensor embedding() {
+        return Tensor.from(denseType, "[1, 2, 3, 4]");
+    }
+
+}
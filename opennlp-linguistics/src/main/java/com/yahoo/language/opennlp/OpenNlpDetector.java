@@ -15,6 +15,7 @@ import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 
@@ -22,21 +23,30 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Detects text language using patched OpenNLP, with fallback to {@link SimpleDetector} for undetected CJK input.
+ * This is thread safe without locking: Each thread uses its own OpenNLP detector over the shared model,
+ * and its own cache of the languages detected for recent short inputs, such as queries.
  *
  * @author jonmv
  */
 class OpenNlpDetector implements Detector {
 
+    /** Inputs up to this length are cached, as short inputs such as queries are often repeated */
+    static final int maxCachedInputLength = 64;
+
+    /** The max number of inputs cached per thread */
+    static final int maxCachedInputs = 1024;
+
     private static final Object monitor = new Object();
     private static LanguageDetectorModel model;
 
     private final SimpleDetector simple = new SimpleDetector();
     private final Map<String, Language> languagesByISO3 = new HashMap<>();
-    private final LanguageDetectorME detector;
+    private final ThreadLocal<PerThread> perThread;
     private final LanguageDetectorConfig config;
 
     OpenNlpDetector() {
-        detector = new LanguageDetectorME(loadModel());
+        LanguageDetectorModel model = loadModel();
+        perThread = ThreadLocal.withInitial(() -> new PerThread(new LanguageDetectorME(model)));
         config = new LanguageDetectorConfig();
         config.setMinDiff(0.02);
         config.setChunkSize(32);
@@ -83,11 +93,55 @@ class OpenNlpDetector implements Detector {
         return new Detection(detectLanguage(input), UTF_8.name(), false);
     }
 
-    @SuppressWarnings("removal")
     private Language detectLanguage(String input) {
+        if ( ! hasLetters(input)) // nothing to predict from: Skip straight to the fallback
+            return simple.guessLanguage(input.substring(0, Math.min(input.length(), 256)));
+
+        PerThread state = perThread.get();
+        if (input.length() > maxCachedInputLength)
+            return detectLanguage(input, state.detector);
+        return state.cache.computeIfAbsent(input, __ -> detectLanguage(input, state.detector));
+    }
+
+    @SuppressWarnings("removal")
+    private Language detectLanguage(String input, LanguageDetectorME detector) {
         var prediction = detector.probingPredictLanguages(input, config).getLanguages()[0];
         var result = prediction.getConfidence() > 0.02 ? languagesByISO3.get(prediction.getLang()) : null;
         return result != null ? result : simple.guessLanguage(input.substring(0, Math.min(input.length(), 256)));
     }
 
+    private static boolean hasLetters(String input) {
+        for (int i = 0; i < input.length(); ) {
+            int codePoint = input.codePointAt(i);
+            if (Character.isLetter(codePoint)) return true;
+            i += Character.charCount(codePoint);
+        }
+        return false;
+    }
+
+    /** The detector and cache of a thread */
+    private static class PerThread {
+
+        final LanguageDetectorME detector;
+        final LanguageCache cache = new LanguageCache();
+
+        PerThread(LanguageDetectorME detector) {
+            this.detector = detector;
+        }
+
+    }
+
+    private static class LanguageCache extends LinkedHashMap<String, Language> {
+
+        LanguageCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Language> entry) {
+            return size() > maxCachedInputs;
+        }
+
+    }
+
 }
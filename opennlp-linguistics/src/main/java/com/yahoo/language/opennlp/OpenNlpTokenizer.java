@@ -23,9 +23,12 @@ import opennlp.tools.stemmer.snowball.SnowballStemmer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
- * Tokenizer using OpenNlp
+ * Tokenizer using OpenNlp.
+ * Subclasses may change how stemmed token strings are produced by overriding
+ * {@link #processToken(String, Language, StemMode, boolean, Stemmer)}, which is used by both tokenize variants.
  *
  * @author matskin
  * @author bratseth
@@ -102,6 +105,21 @@ public class OpenNlpTokenizer implements Tokenizer {
             return simpleTokenizer.tokenize(input, token -> processToken(token, language, stemMode, removeAccents, stemmer));
     }
 
+    @Override
+    public void tokenize(String input, Language language, StemMode stemMode, boolean removeAccents,
+                         Consumer<Token> consumer) {
+        if (chineseSegmenter.isPresent() && ( language == Language.CHINESE_SIMPLIFIED || language == Language.CHINESE_TRADITIONAL)) {
+            Tokenizer.super.tokenize(input, language, stemMode, removeAccents, consumer);
+            return;
+        }
+
+        Stemmer stemmer = stemmerFor(language, stemMode);
+        if (stemmer == null)
+            simpleTokenizer.tokenize(input, language, stemMode, removeAccents, consumer);
+        else
+            simpleTokenizer.tokenize(input, token -> processToken(token, language, stemMode, removeAccents, stemmer), consumer);
+    }
+
     private Iterable<Token> segmentChinese(String input) {
         if (input.isEmpty()) return List.of();
 
@@ -121,8 +139,9 @@ public class OpenNlpTokenizer implements Tokenizer {
         return tokens;
     }
 
-    private String processToken(String token, Language language, StemMode stemMode, boolean removeAccents,
-                                Stemmer stemmer) {
+    /** Returns the token string to produce for the given original token string, when stemming with the given stemmer. */
+    protected String processToken(String token, Language language, StemMode stemMode, boolean removeAccents,
+                                  Stemmer stemmer) {
         token = normalizer.normalize(token);
         token = LinguisticsCase.toLowerCase(token);
         if (removeAccents)
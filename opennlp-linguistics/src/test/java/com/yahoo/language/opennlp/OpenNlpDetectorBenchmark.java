@@ -0,0 +1,72 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.language.opennlp;
+
+import com.yahoo.language.detect.Detector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A benchmark of concurrent language detection, with a mix of repeated short queries and longer unique documents,
+ * to verify that throughput scales with the number of threads.
+ *
+ * @author agent
+ */
+public class OpenNlpDetectorBenchmark {
+
+    private static final String[] queries = {
+            "hello world", "wie geht es dir", "bonjour tout le monde", "我能吞下玻璃而不伤身体", "야후 검색",
+            "cheap flights to oslo", "restaurants near me", "2024", "le petit prince", "der kleine prinz"
+    };
+
+    private static final String document =
+            "Yahoo became a public company via an initial public offering in April 1996 and its stock price rose " +
+            "600% within two years. 1996 ging Yahoo mit 46 Angestellten an die Börse. À l'origine, Yahoo! était " +
+            "uniquement un annuaire Web.";
+
+    private final Detector detector = new OpenNlpDetector();
+
+    public void run(int threads, int detectionsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            runDetections(executor, threads, detectionsPerThread / 10); // warmup
+            long startTime = System.nanoTime();
+            runDetections(executor, threads, detectionsPerThread);
+            long elapsedNanos = System.nanoTime() - startTime;
+            System.out.printf("%3d threads: %,12.0f detections/s%n",
+                              threads, (double)threads * detectionsPerThread / elapsedNanos * 1_000_000_000);
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    private void runDetections(ExecutorService executor, int threads, int detectionsPerThread) throws Exception {
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            results.add(executor.submit(() -> {
+                int detected = 0;
+                for (int i = 0; i < detectionsPerThread; i++) {
+                    String input = i % 10 == 0 ? document + " " + thread + " " + i : queries[i % queries.length];
+                    if (detector.detect(input, null).getLanguage() != null)
+                        detected++;
+                }
+                return detected;
+            }));
+        }
+        for (Future<Integer> result : results)
+            result.get();
+    }
+
+    public static void main(String[] args) throws Exception {
+        OpenNlpDetectorBenchmark benchmark = new OpenNlpDetectorBenchmark();
+        int maxThreads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        for (int threads = 1; threads <= maxThreads; threads *= 2)
+            benchmark.run(threads, 100_000);
+    }
+
+}
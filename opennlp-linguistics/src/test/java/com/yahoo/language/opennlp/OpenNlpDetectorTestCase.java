@@ -5,6 +5,12 @@ import com.yahoo.language.Language;
 import com.yahoo.language.detect.Detector;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -80,6 +86,33 @@ public class OpenNlpDetectorTestCase {
                        detector);
     }
 
+    @Test
+    public void testConcurrentDetection() throws Exception {
+        Detector detector = new OpenNlpDetector();
+        List<String> inputs = List.of("", "2024!", "Hello!", "hello world", "bonjour tout le monde", "我能吞下玻璃而不伤身体",
+                                      "Yahoo became a public company via an initial public offering in April 1996.",
+                                      "1996 ging Yahoo mit 46 Angestellten an die Börse.");
+        List<Language> expected = inputs.stream().map(input -> detector.detect(input, null).getLanguage()).toList();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Language>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    List<Language> detected = new ArrayList<>();
+                    for (int repetition = 0; repetition < 3; repetition++) // repeated inputs are served from the cache
+                        detected = inputs.stream().map(input -> detector.detect(input, null).getLanguage()).toList();
+                    return detected;
+                }));
+            }
+            for (var result : results)
+                assertEquals(expected, result.get());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
     private void assertLanguage(Language language, String input, Detector detector) {
         assertEquals(language, detector.detect(input, null).getLanguage());
     }
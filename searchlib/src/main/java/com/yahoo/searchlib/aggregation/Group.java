@@ -13,8 +13,10 @@ import com.yahoo.vespa.objects.Serializer;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 public class Group extends Identifiable {
 
@@ -120,6 +122,67 @@ public class Group extends Identifiable {
         children = merged;
     }
 
+    /**
+     * Merges the content of all the given groups <b>into</b> this. The children of all the groups are first collected
+     * by id, and each distinct child is then merged with its matching children in one pass, instead of walking
+     * the children of this once for each of the other groups. If the children of some group are not sorted by id,
+     * this falls back to merging the groups one at a time. When this function returns, make sure to call
+     * {@link #postMerge(java.util.List, int, int)}.
+     *
+     * @param firstLevel   The first level to merge.
+     * @param currentLevel The current level.
+     * @param others       The groups to merge with.
+     */
+    public void merge(int firstLevel, int currentLevel, List<Group> others) {
+        if ( ! childrenSortedById() || ! others.stream().allMatch(Group::childrenSortedById)) {
+            for (Group rhs : others) {
+                merge(firstLevel, currentLevel, rhs);
+            }
+            return;
+        }
+        for (Group rhs : others) {
+            if (rhs.rank > rank) {
+                rank = rhs.rank; // keep highest rank
+            }
+            if (currentLevel >= firstLevel) {
+                for (int i = 0, len = aggregationResults.size(); i < len; ++i) {
+                    aggregationResults.get(i).merge(rhs.aggregationResults.get(i));
+                }
+            }
+        }
+
+        // Collect the children having the same id from all the groups, in the order of the groups
+        Map<ResultNode, List<Group>> childrenById = new HashMap<>();
+        collectChildren(childrenById, this);
+        for (Group rhs : others) {
+            collectChildren(childrenById, rhs);
+        }
+        List<List<Group>> matching = new ArrayList<>(childrenById.values());
+        matching.sort((a, b) -> a.get(0).getId().compareTo(b.get(0).getId()));
+
+        ArrayList<Group> merged = new ArrayList<>(matching.size());
+        for (List<Group> groups : matching) {
+            for (int j = 1; j < groups.size(); j++) {
+                groups.get(0).merge(firstLevel, currentLevel + 1, groups.get(j));
+            }
+            merged.add(groups.get(0));
+        }
+        children = merged;
+    }
+
+    private boolean childrenSortedById() {
+        for (int i = 1; i < children.size(); i++) {
+            if (children.get(i - 1).getId().compareTo(children.get(i).getId()) >= 0) return false;
+        }
+        return true;
+    }
+
+    private static void collectChildren(Map<ResultNode, List<Group>> childrenById, Group group) {
+        for (Group child : group.children) {
+            childrenById.computeIfAbsent(child.getId(), __ -> new ArrayList<>(2)).add(child);
+        }
+    }
+
     private void executeOrderBy() {
         for (ExpressionNode node : orderByExp) {
             node.prepare();
@@ -70,6 +70,20 @@ public class Grouping extends Identifiable {
         root.merge(firstLevel, 0, rhs.root);
     }
 
+    /**
+     * Merges all the given groupings into this in one pass.
+     *
+     * @param others the groupings to merge with
+     */
+    public void merge(List<Grouping> others) {
+        if (others.isEmpty()) return;
+        List<Group> roots = new ArrayList<>(others.size());
+        for (Grouping other : others) {
+            roots.add(other.root);
+        }
+        root.merge(firstLevel, 0, roots);
+    }
+
     /**
      * Invoked after merging is done. It is intended used for resolving any dependencies or derivates
      * that might have changes due to the merge.
@@ -0,0 +1,234 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.searchlib.aggregation;
+
+import com.yahoo.searchlib.expression.IntegerResultNode;
+import com.yahoo.searchlib.expression.ResultNode;
+import com.yahoo.vespa.objects.Deserializer;
+import com.yahoo.vespa.objects.ObjectVisitor;
+import com.yahoo.vespa.objects.Serializer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This is an aggregated result holding the most frequent values of an expression, with estimated counts.
+ * The values are summarized by a Misra-Gries sketch holding at most a given number of values with counters,
+ * such that any value occurring more than count / (maxValues + 1) times is guaranteed to be present,
+ * and every estimated count is at most {@link #getMaxError()} below the true count.
+ * This uses bounded memory regardless of the number of distinct values, and sketches from different nodes can be merged.
+ *
+ * @author agent
+ */
+public class HeavyHittersAggregationResult extends AggregationResult {
+
+    public static final int classId = registerClass(0x4000 + 173, HeavyHittersAggregationResult.class, HeavyHittersAggregationResult::new);
+
+    private int maxValues;
+    private long count = 0;
+    private long maxError = 0;
+    private Map<ResultNode, Long> counts = new HashMap<>();
+
+    /** Constructor used for deserialization. */
+    @SuppressWarnings("unused")
+    public HeavyHittersAggregationResult() {
+        this(10);
+    }
+
+    /**
+     * Creates an empty result keeping counts of at most the given number of values.
+     *
+     * @param maxValues the max number of values to keep counts for
+     */
+    public HeavyHittersAggregationResult(int maxValues) {
+        setMaxValues(maxValues);
+    }
+
+    /** Returns the max number of values this keeps counts for. */
+    public int getMaxValues() {
+        return maxValues;
+    }
+
+    /**
+     * Sets the max number of values to keep counts for.
+     *
+     * @param maxValues the max number of values, which must be positive
+     * @return this, to allow chaining
+     */
+    public HeavyHittersAggregationResult setMaxValues(int maxValues) {
+        if (maxValues < 1)
+            throw new IllegalArgumentException("Max values must be positive, but was " + maxValues);
+        this.maxValues = maxValues;
+        return this;
+    }
+
+    /** Returns the total number of values summarized by this. */
+    public long getCount() {
+        return count;
+    }
+
+    /** Returns the max amount by which any estimated count of this may be lower than the true count. */
+    public long getMaxError() {
+        return maxError;
+    }
+
+    /**
+     * Adds a value to this. Values are normally added by the content nodes, this is for testing.
+     *
+     * @param value the value to add
+     * @return this, to allow chaining
+     */
+    public HeavyHittersAggregationResult addValue(ResultNode value) {
+        count++;
+        Long valueCount = counts.get(value);
+        if (valueCount != null)
+            counts.put(value, valueCount + 1);
+        else if (counts.size() < maxValues)
+            counts.put(value, 1L);
+        else
+            decrementAll();
+        return this;
+    }
+
+    /** Returns the values of this with their estimated counts, by decreasing count. */
+    public List<Map.Entry<ResultNode, Long>> getHeavyHitters() {
+        List<Map.Entry<ResultNode, Long>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<ResultNode, Long>comparingByValue(Comparator.reverseOrder())
+                             .thenComparing(Map.Entry.comparingByKey()));
+        return entries;
+    }
+
+    @Override
+    public ResultNode getRank() {
+        long top = 0;
+        for (long valueCount : counts.values())
+            top = Math.max(top, valueCount);
+        return new IntegerResultNode(top);
+    }
+
+    @Override
+    protected void onMerge(AggregationResult result) {
+        HeavyHittersAggregationResult other = (HeavyHittersAggregationResult)result;
+        for (Map.Entry<ResultNode, Long> entry : other.counts.entrySet())
+            counts.merge(entry.getKey(), entry.getValue(), Long::sum);
+        count += other.count;
+        maxError += other.maxError;
+        prune();
+    }
+
+    /**
+     * Removes one occurrence of each value, and of a value not present, which has then been counted
+     * maxValues + 1 times less than its true count. This is done at most once for every maxValues + 1
+     * values added, so the amortized cost of adding a value is constant.
+     */
+    private void decrementAll() {
+        counts.replaceAll((value, valueCount) -> valueCount - 1);
+        counts.values().removeIf(valueCount -> valueCount <= 0);
+        maxError++;
+    }
+
+    /**
+     * If there are more than maxValues counters, subtracts the count of the (maxValues + 1)'th largest
+     * from all the counters, and removes those which are no longer positive.
+     */
+    private void prune() {
+        if (counts.size() <= maxValues) return;
+        long[] valueCounts = counts.values().stream().mapToLong(Long::longValue).toArray();
+        long decrement = select(valueCounts, valueCounts.length - maxValues - 1);
+        counts.replaceAll((value, valueCount) -> valueCount - decrement);
+        counts.values().removeIf(valueCount -> valueCount <= 0);
+        maxError += decrement;
+    }
+
+    /** Returns the value which would be at the given index if the given array was sorted, reordering it in linear time. */
+    private static long select(long[] values, int index) {
+        int from = 0, to = values.length - 1;
+        while (from < to) {
+            long pivot = values[(from + to) >>> 1];
+            int i = from, j = to;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    long swap = values[i];
+                    values[i++] = values[j];
+                    values[j--] = swap;
+                }
+            }
+            if (index <= j)
+                to = j;
+            else if (index >= i)
+                from = i;
+            else
+                break;
+        }
+        return values[index];
+    }
+
+    @Override
+    protected int onGetClassId() {
+        return classId;
+    }
+
+    @Override
+    protected void onSerialize(Serializer buf) {
+        super.onSerialize(buf);
+        buf.putInt(null, maxValues);
+        buf.putLong(null, count);
+        buf.putLong(null, maxError);
+        buf.putInt(null, counts.size());
+        for (Map.Entry<ResultNode, Long> entry : getHeavyHitters()) {
+            serializeOptional(buf, entry.getKey());
+            buf.putLong(null, entry.getValue());
+        }
+    }
+
+    @Override
+    protected void onDeserialize(Deserializer buf) {
+        super.onDeserialize(buf);
+        maxValues = buf.getInt(null);
+        count = buf.getLong(null);
+        maxError = buf.getLong(null);
+        int size = buf.getInt(null);
+        counts = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            ResultNode value = (ResultNode)deserializeOptional(buf);
+            counts.put(value, buf.getLong(null));
+        }
+    }
+
+    @Override
+    protected boolean equalsAggregation(AggregationResult obj) {
+        HeavyHittersAggregationResult other = (HeavyHittersAggregationResult)obj;
+        return maxValues == other.maxValues &&
+               count == other.count &&
+               maxError == other.maxError &&
+               counts.equals(other.counts);
+    }
+
+    @Override
+    public HeavyHittersAggregationResult clone() {
+        HeavyHittersAggregationResult obj = (HeavyHittersAggregationResult)super.clone();
+        obj.counts = new HashMap<>();
+        for (Map.Entry<ResultNode, Long> entry : counts.entrySet())
+            obj.counts.put((ResultNode)entry.getKey().clone(), entry.getValue());
+        return obj;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() + maxValues + Long.hashCode(count);
+    }
+
+    @Override
+    public void visitMembers(ObjectVisitor visitor) {
+        super.visitMembers(visitor);
+        visitor.visit("maxValues", maxValues);
+        visitor.visit("count", count);
+        visitor.visit("maxError", maxError);
+        visitor.visit("values", getHeavyHitters().stream().map(Map.Entry::getKey).toList());
+    }
+
+}
@@ -0,0 +1,270 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.searchlib.aggregation;
+
+import com.yahoo.searchlib.expression.FloatResultNode;
+import com.yahoo.searchlib.expression.ResultNode;
+import com.yahoo.vespa.objects.Deserializer;
+import com.yahoo.vespa.objects.ObjectVisitor;
+import com.yahoo.vespa.objects.Serializer;
+
+import java.util.Arrays;
+
+/**
+ * This is an aggregated result holding an estimate of a quantile of the values of an expression.
+ * The values are summarized by a merging t-digest: A bounded list of centroids (weighted means of adjacent values)
+ * where the centroids near the extreme quantiles summarize fewer values than those near the median. This uses
+ * bounded memory regardless of the number of values, and digests from different nodes can be merged.
+ *
+ * @author agent
+ */
+public class QuantileAggregationResult extends AggregationResult {
+
+    public static final int classId = registerClass(0x4000 + 172, QuantileAggregationResult.class, QuantileAggregationResult::new);
+
+    /** The compression of the digest. The number of centroids after compression is bounded by about this. */
+    private static final double COMPRESSION = 100;
+
+    /** The number of centroids to accumulate before compressing */
+    private static final int BUFFER_SIZE = (int)(5 * COMPRESSION);
+
+    private double quantile;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private int size = 0;
+    private double[] means = new double[0];
+    private long[] weights = new long[0];
+    private boolean compressed = true;
+
+    /** Constructor used for deserialization. */
+    @SuppressWarnings("unused")
+    public QuantileAggregationResult() {
+        this(0.5);
+    }
+
+    /**
+     * Creates an empty result estimating the given quantile.
+     *
+     * @param quantile the quantile to estimate, in the range [0, 1]
+     */
+    public QuantileAggregationResult(double quantile) {
+        setQuantile(quantile);
+    }
+
+    /** Returns the quantile estimated by this, in the range [0, 1]. */
+    public double getQuantile() {
+        return quantile;
+    }
+
+    /**
+     * Sets the quantile to estimate.
+     *
+     * @param quantile the quantile to estimate, in the range [0, 1]
+     * @return this, to allow chaining
+     */
+    public QuantileAggregationResult setQuantile(double quantile) {
+        if ( ! (quantile >= 0 && quantile <= 1))
+            throw new IllegalArgumentException("Quantile must be in the range [0, 1], but was " + quantile);
+        this.quantile = quantile;
+        return this;
+    }
+
+    /**
+     * Adds a value to this. Values are normally added by the content nodes, this is for testing.
+     *
+     * @param value the value to add
+     * @return this, to allow chaining
+     */
+    public QuantileAggregationResult addValue(double value) {
+        if (Double.isNaN(value)) return this;
+        add(value, 1);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        return this;
+    }
+
+    /** Returns the number of values summarized by this. */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < size; i++)
+            count += weights[i];
+        return count;
+    }
+
+    /** Returns the estimated value of the quantile of this, or 0 if this summarizes no values. */
+    public double getValue() {
+        compress();
+        if (size == 0) return 0;
+        if (size == 1) return means[0];
+
+        double index = quantile * getCount();
+        double firstHalf = weights[0] / 2.0;
+        if (index < firstHalf)
+            return min + (index / firstHalf) * (means[0] - min);
+
+        double cumulative = firstHalf; // the weight up to the center of the current centroid
+        for (int i = 0; i < size - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2.0;
+            if (cumulative + step > index)
+                return means[i] + ((index - cumulative) / step) * (means[i + 1] - means[i]);
+            cumulative += step;
+        }
+        double lastHalf = weights[size - 1] / 2.0;
+        return means[size - 1] + Math.min(1.0, (index - cumulative) / lastHalf) * (max - means[size - 1]);
+    }
+
+    @Override
+    public ResultNode getRank() {
+        return new FloatResultNode(getValue());
+    }
+
+    @Override
+    protected void onMerge(AggregationResult result) {
+        QuantileAggregationResult other = (QuantileAggregationResult)result;
+        for (int i = 0; i < other.size; i++)
+            add(other.means[i], other.weights[i]);
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    private void add(double mean, long weight) {
+        if (size == means.length) {
+            if (size >= BUFFER_SIZE) {
+                compress();
+            }
+            if (size == means.length) {
+                int capacity = Math.max(16, size * 2);
+                means = Arrays.copyOf(means, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+        }
+        means[size] = mean;
+        weights[size] = weight;
+        size++;
+        compressed = false;
+    }
+
+    /** Merges adjacent centroids as long as their combined weight is within the limit given by the scale function */
+    private void compress() {
+        if (compressed) return;
+        compressed = true;
+        if (size < 2) return;
+
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++)
+            order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(means[a], means[b]));
+
+        double total = getCount();
+        double[] newMeans = new double[size];
+        long[] newWeights = new long[size];
+        int newSize = 0;
+        double weightSoFar = 0;
+        double currentMean = means[order[0]];
+        long currentWeight = weights[order[0]];
+        double limit = total * qFromK(kFromQ(0) + 1);
+        for (int i = 1; i < size; i++) {
+            double mean = means[order[i]];
+            long weight = weights[order[i]];
+            if (weightSoFar + currentWeight + weight <= limit) {
+                currentMean += (mean - currentMean) * weight / (currentWeight + weight);
+                currentWeight += weight;
+            } else {
+                weightSoFar += currentWeight;
+                newMeans[newSize] = currentMean;
+                newWeights[newSize] = currentWeight;
+                newSize++;
+                limit = total * qFromK(kFromQ(weightSoFar / total) + 1);
+                currentMean = mean;
+                currentWeight = weight;
+            }
+        }
+        newMeans[newSize] = currentMean;
+        newWeights[newSize] = currentWeight;
+        newSize++;
+
+        means = newMeans;
+        weights = newWeights;
+        size = newSize;
+    }
+
+    /** The k1 scale function of the t-digest, mapping a quantile to an index in [-compression/4, compression/4] */
+    private static double kFromQ(double q) {
+        return COMPRESSION / (2 * Math.PI) * Math.asin(2 * q - 1);
+    }
+
+    private static double qFromK(double k) {
+        if (k >= COMPRESSION / 4) return 1;
+        return (Math.sin(k * 2 * Math.PI / COMPRESSION) + 1) / 2;
+    }
+
+    @Override
+    protected int onGetClassId() {
+        return classId;
+    }
+
+    @Override
+    protected void onSerialize(Serializer buf) {
+        super.onSerialize(buf);
+        compress();
+        buf.putDouble(null, quantile);
+        buf.putDouble(null, min);
+        buf.putDouble(null, max);
+        buf.putInt(null, size);
+        for (int i = 0; i < size; i++) {
+            buf.putDouble(null, means[i]);
+            buf.putLong(null, weights[i]);
+        }
+    }
+
+    @Override
+    protected void onDeserialize(Deserializer buf) {
+        super.onDeserialize(buf);
+        quantile = buf.getDouble(null);
+        min = buf.getDouble(null);
+        max = buf.getDouble(null);
+        size = buf.getInt(null);
+        means = new double[size];
+        weights = new long[size];
+        for (int i = 0; i < size; i++) {
+            means[i] = buf.getDouble(null);
+            weights[i] = buf.getLong(null);
+        }
+        compressed = true;
+    }
+
+    @Override
+    protected boolean equalsAggregation(AggregationResult obj) {
+        QuantileAggregationResult other = (QuantileAggregationResult)obj;
+        compress();
+        other.compress();
+        return quantile == other.quantile &&
+               min == other.min &&
+               max == other.max &&
+               Arrays.equals(means, 0, size, other.means, 0, other.size) &&
+               Arrays.equals(weights, 0, size, other.weights, 0, other.size);
+    }
+
+    @Override
+    public QuantileAggregationResult clone() {
+        QuantileAggregationResult obj = (QuantileAggregationResult)super.clone();
+        obj.means = means.clone();
+        obj.weights = weights.clone();
+        return obj;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() + Double.hashCode(quantile) + size;
+    }
+
+    @Override
+    public void visitMembers(ObjectVisitor visitor) {
+        super.visitMembers(visitor);
+        compress();
+        visitor.visit("quantile", quantile);
+        visitor.visit("min", min);
+        visitor.visit("max", max);
+        visitor.visit("centroids", size);
+    }
+
+}
@@ -0,0 +1,94 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.searchlib.aggregation;
+
+import com.yahoo.searchlib.expression.IntegerResultNode;
+import com.yahoo.searchlib.expression.ResultNode;
+import com.yahoo.searchlib.expression.StringResultNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares merging the grouping results of many content nodes one at a time with merging all of them in one pass,
+ * for a two-level grouping on a high-cardinality attribute, with count, sum and max aggregations on each level.
+ *
+ * @author agent
+ */
+public class GroupingMergeBenchmark {
+
+    private static final int nodes = 32;
+    private static final int topLevelGroups = 10_000;
+    private static final int groupsPerNode = 2_000;
+    private static final int secondLevelGroups = 4;
+
+    public static void main(String[] args) {
+        Random random = new Random(1234);
+        Grouping request = new Grouping().setFirstLevel(0).setLastLevel(2)
+                                         .addLevel(new GroupingLevel().setMaxGroups(100))
+                                         .addLevel(new GroupingLevel().setMaxGroups(10));
+        List<Grouping> partials = new ArrayList<>();
+        for (int node = 0; node < nodes; node++)
+            partials.add(request.clone().setRoot(createNodeResult(random)));
+
+        for (int i = 0; i < 5; i++) { // warmup
+            mergePairwise(partials);
+            mergeAll(partials);
+        }
+        int runs = 10;
+        long pairwiseNanos = 0, allNanos = 0;
+        for (int i = 0; i < runs; i++) {
+            pairwiseNanos += mergePairwise(partials);
+            allNanos += mergeAll(partials);
+        }
+        System.out.printf("Merging %d nodes: pairwise %.1f ms, all at once %.1f ms%n",
+                          nodes, pairwiseNanos / 1e6 / runs, allNanos / 1e6 / runs);
+    }
+
+    private static Group createNodeResult(Random random) {
+        int[] ids = random.ints(0, topLevelGroups).distinct().limit(groupsPerNode).sorted().toArray();
+        Group root = new Group();
+        for (int id : ids) {
+            Group group = createGroup(new IntegerResultNode(id), random);
+            for (int j = 0; j < secondLevelGroups; j++)
+                group.addChild(createGroup(new StringResultNode("value" + j), random));
+            root.addChild(group);
+        }
+        return root;
+    }
+
+    private static Group createGroup(ResultNode id, Random random) {
+        int value = random.nextInt(1000);
+        return new Group().setId(id)
+                          .setRank(random.nextDouble())
+                          .addAggregationResult(new CountAggregationResult(1 + random.nextInt(100)))
+                          .addAggregationResult(new SumAggregationResult(new IntegerResultNode(value)))
+                          .addAggregationResult(new MaxAggregationResult(new IntegerResultNode(value)));
+    }
+
+    private static long mergePairwise(List<Grouping> partials) {
+        List<Grouping> copies = copy(partials);
+        System.gc();
+        long start = System.nanoTime();
+        Grouping merged = copies.get(0);
+        for (int i = 1; i < copies.size(); i++)
+            merged.merge(copies.get(i));
+        merged.postMerge();
+        return System.nanoTime() - start;
+    }
+
+    private static long mergeAll(List<Grouping> partials) {
+        List<Grouping> copies = copy(partials);
+        System.gc();
+        long start = System.nanoTime();
+        Grouping merged = copies.get(0);
+        merged.merge(copies.subList(1, copies.size()));
+        merged.postMerge();
+        return System.nanoTime() - start;
+    }
+
+    private static List<Grouping> copy(List<Grouping> groupings) {
+        return groupings.stream().map(Grouping::clone).toList();
+    }
+
+}
@@ -197,6 +197,12 @@ public class GroupingSerializationTest {
                     .setExpression(new ConstantNode(new IntegerResultNode(67))));
             t.assertMatch(new StandardDeviationAggregationResult(1, 67, 67 * 67)
                     .setExpression(new ConstantNode(new IntegerResultNode(67))));
+            t.assertMatch(new HeavyHittersAggregationResult(3)
+                    .addValue(new IntegerResultNode(67))
+                    .setExpression(new ConstantNode(new IntegerResultNode(67))));
+            t.assertMatch(new QuantileAggregationResult(0.9)
+                    .addValue(67)
+                    .setExpression(new ConstantNode(new IntegerResultNode(67))));
         }
     }
 
@@ -0,0 +1,102 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.searchlib.aggregation;
+
+import com.yahoo.searchlib.expression.IntegerResultNode;
+import com.yahoo.searchlib.expression.ResultNode;
+import com.yahoo.searchlib.expression.StringResultNode;
+import com.yahoo.vespa.objects.BufferSerializer;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class HeavyHittersAggregationResultTest {
+
+    @Test
+    public void frequent_values_are_found_in_merged_results() {
+        Random random = new Random(42);
+        HeavyHittersAggregationResult merged = new HeavyHittersAggregationResult(5);
+        for (int node = 0; node < 10; node++) {
+            HeavyHittersAggregationResult result = new HeavyHittersAggregationResult(5);
+            for (int i = 0; i < 10_000; i++) {
+                int r = random.nextInt(100);
+                if (r < 30)
+                    result.addValue(new StringResultNode("a"));
+                else if (r < 50)
+                    result.addValue(new StringResultNode("b"));
+                else if (r < 60)
+                    result.addValue(new StringResultNode("c"));
+                else
+                    result.addValue(new IntegerResultNode(random.nextInt(100_000)));
+            }
+            merged.merge(result);
+        }
+        assertEquals(100_000, merged.getCount());
+        List<Map.Entry<ResultNode, Long>> heavyHitters = merged.getHeavyHitters();
+        assertTrue(heavyHitters.size() <= 5);
+        assertEquals(new StringResultNode("a"), heavyHitters.get(0).getKey());
+        assertEquals(new StringResultNode("b"), heavyHitters.get(1).getKey());
+        assertEquals(new StringResultNode("c"), heavyHitters.get(2).getKey());
+        long estimatedA = heavyHitters.get(0).getValue();
+        assertTrue(estimatedA <= 30_000 * 1.05);
+        assertTrue(estimatedA + merged.getMaxError() >= 30_000 * 0.95);
+        assertEquals(estimatedA, merged.getRank().getInteger());
+    }
+
+    @Test
+    public void counts_are_exact_when_there_are_few_values() {
+        HeavyHittersAggregationResult result = new HeavyHittersAggregationResult(3);
+        for (int i = 0; i < 10; i++)
+            result.addValue(new IntegerResultNode(i % 3));
+        assertEquals(0, result.getMaxError());
+        assertEquals(List.of(Map.entry(new IntegerResultNode(0), 4L),
+                             Map.entry(new IntegerResultNode(1), 3L),
+                             Map.entry(new IntegerResultNode(2), 3L)),
+                     result.getHeavyHitters());
+    }
+
+    @Test
+    public void counts_are_decremented_when_adding_a_new_value_to_a_full_result() {
+        HeavyHittersAggregationResult result = new HeavyHittersAggregationResult(2);
+        for (String value : List.of("a", "a", "a", "b", "c", "d", "e"))
+            result.addValue(new StringResultNode(value));
+        assertEquals(7, result.getCount());
+        assertEquals(2, result.getMaxError());
+        assertEquals(List.of(Map.entry(new StringResultNode("a"), 1L)), result.getHeavyHitters());
+    }
+
+    @Test
+    public void merged_counts_are_pruned_by_the_count_beyond_max_values() {
+        HeavyHittersAggregationResult other = new HeavyHittersAggregationResult(3);
+        for (String value : List.of("a", "b", "a", "c", "a", "b", "a", "c", "a", "b"))
+            other.addValue(new StringResultNode(value));
+        HeavyHittersAggregationResult result = new HeavyHittersAggregationResult(2);
+        result.addValue(new StringResultNode("c"));
+        result.merge(other);
+        assertEquals(11, result.getCount());
+        assertEquals(3, result.getMaxError());
+        assertEquals(List.of(Map.entry(new StringResultNode("a"), 2L)), result.getHeavyHitters());
+    }
+
+    @Test
+    public void result_survives_serialization() {
+        HeavyHittersAggregationResult result = new HeavyHittersAggregationResult(3);
+        for (int i = 0; i < 100; i++)
+            result.addValue(new StringResultNode("v" + (i % 7)));
+        BufferSerializer buffer = new BufferSerializer();
+        result.serializeWithId(buffer);
+        buffer.flip();
+        HeavyHittersAggregationResult deserialized = (HeavyHittersAggregationResult)HeavyHittersAggregationResult.create(buffer);
+        assertEquals(result, deserialized);
+        assertEquals(result.getHeavyHitters(), deserialized.getHeavyHitters());
+        assertEquals(result, result.clone());
+    }
+
+}
@@ -13,6 +13,7 @@ import com.yahoo.searchlib.expression.MultiplyFunctionNode;
 import com.yahoo.searchlib.expression.StringResultNode;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -407,6 +408,43 @@ public class MergeTestCase {
         assertMerge(request, rhs, lhs, expectAll);
     }
 
+    // Test merging many groupings with many top-level groups in one pass.
+    @Test
+    public void testMergeManyGroups() {
+        Grouping request = new Grouping()
+            .setFirstLevel(0)
+            .setLastLevel(2)
+            .addLevel(new GroupingLevel().setMaxGroups(-1))
+            .addLevel(new GroupingLevel().setMaxGroups(-1));
+        Group expect = new Group();
+        for (int i = 0; i < 1000; ++i) {
+            Group child = new Group().setId(new IntegerResultNode(i))
+                                     .addAggregationResult(new SumAggregationResult(new IntegerResultNode(10 * (i % 10 + 1))));
+            for (int j = 0; j < 3; ++j) {
+                child.addChild(new Group().setId(new StringResultNode("s" + j))
+                                          .addAggregationResult(new SumAggregationResult(new IntegerResultNode(i % 10 + 1))));
+            }
+            expect.addChild(child);
+        }
+
+        List<Grouping> partials = new ArrayList<>();
+        for (int node = 0; node < 10; ++node) {
+            Group root = new Group();
+            for (int i = 0; i < 1000; ++i) {
+                if (i % 10 < node) continue; // node n has group i if i % 10 >= n, contributing 1 per level
+                Group child = new Group().setId(new IntegerResultNode(i))
+                                         .addAggregationResult(new SumAggregationResult(new IntegerResultNode(10)));
+                for (int j = 0; j < 3; ++j) {
+                    child.addChild(new Group().setId(new StringResultNode("s" + j))
+                                              .addAggregationResult(new SumAggregationResult(new IntegerResultNode(1))));
+                }
+                root.addChild(child);
+            }
+            partials.add(request.clone().setRoot(root));
+        }
+        assertMerge(partials, expect);
+    }
+
     @Test
     public void testMergeBuckets() {
           Grouping lhs = new Grouping()
@@ -748,6 +786,12 @@ public class MergeTestCase {
         tmp.postMerge();
         assertEquals(expect.toString(), tmp.getRoot().toString());
         assertEquals(expect, tmp.getRoot());
+
+        Grouping all = groupingList.get(0).clone();
+        all.merge(groupingList.subList(1, groupingList.size()).stream().map(Grouping::clone).toList());
+        all.postMerge();
+        assertEquals(expect.toString(), all.getRoot().toString());
+        assertEquals(expect, all.getRoot());
     }
 
 }
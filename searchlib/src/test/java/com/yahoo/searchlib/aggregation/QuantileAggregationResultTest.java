@@ -0,0 +1,72 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.searchlib.aggregation;
+
+import com.yahoo.vespa.objects.BufferSerializer;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class QuantileAggregationResultTest {
+
+    @Test
+    public void quantiles_of_uniform_values_are_estimated_closely() {
+        for (double quantile : new double[] { 0.0, 0.01, 0.5, 0.9, 0.99, 1.0 }) {
+            QuantileAggregationResult result = new QuantileAggregationResult(quantile);
+            for (int i = 0; i < 100_000; i++)
+                result.addValue(i);
+            assertEquals(100_000, result.getCount());
+            assertEquals("Quantile " + quantile, quantile * 100_000, result.getValue(), 100_000 * 0.005);
+        }
+    }
+
+    @Test
+    public void merged_results_estimate_the_quantile_of_all_values() {
+        Random random = new Random(42);
+        QuantileAggregationResult merged = new QuantileAggregationResult(0.99);
+        for (int node = 0; node < 20; node++) {
+            QuantileAggregationResult result = new QuantileAggregationResult(0.99);
+            for (int i = 0; i < 5_000; i++)
+                result.addValue(random.nextDouble() * 1000);
+            merged.merge(result);
+        }
+        assertEquals(100_000, merged.getCount());
+        assertEquals(990, merged.getValue(), 2);
+        assertEquals(merged.getValue(), merged.getRank().getFloat(), 0);
+    }
+
+    @Test
+    public void result_is_bounded_in_size() {
+        QuantileAggregationResult result = new QuantileAggregationResult(0.5);
+        for (int i = 0; i < 1_000_000; i++)
+            result.addValue(i % 1000);
+        BufferSerializer buffer = new BufferSerializer();
+        result.serializeWithId(buffer);
+        assertTrue("Serialized size " + buffer.position(), buffer.position() < 4000);
+    }
+
+    @Test
+    public void result_survives_serialization() {
+        QuantileAggregationResult result = new QuantileAggregationResult(0.9);
+        for (int i = 0; i < 1000; i++)
+            result.addValue(i * 0.5);
+        BufferSerializer buffer = new BufferSerializer();
+        result.serializeWithId(buffer);
+        buffer.flip();
+        QuantileAggregationResult deserialized = (QuantileAggregationResult)QuantileAggregationResult.create(buffer);
+        assertEquals(result, deserialized);
+        assertEquals(result.getValue(), deserialized.getValue(), 0);
+        assertEquals(result, result.clone());
+    }
+
+    @Test
+    public void empty_result_is_zero() {
+        assertEquals(0, new QuantileAggregationResult(0.5).getValue(), 0);
+    }
+
+}
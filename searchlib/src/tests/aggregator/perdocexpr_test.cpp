@@ -259,6 +259,99 @@ TEST("require that StandardDeviationAggregationResult aggregates multi-value exp
     EXPECT_APPROX(41.5, aggr.getRank().getFloat(), 0.1);
 }
 
+uint64_t
+heavyHitterCount(const HeavyHittersAggregationResult & aggr, int64_t value) {
+    auto found = aggr.getCounts().find(Int64ResultNode(value));
+    return (found != aggr.getCounts().end()) ? found->second : 0;
+}
+
+TEST("require that HeavyHittersAggregationResult counts are exact when there are few values") {
+    HeavyHittersAggregationResult aggr(3);
+    aggr.setExpression(createVectorInt({0, 1, 2, 0, 1, 2, 0, 1, 2, 0})).aggregate(DocId(42), HitRank(21));
+    EXPECT_EQUAL(10u, aggr.getCount());
+    EXPECT_EQUAL(0u, aggr.getMaxError());
+    EXPECT_EQUAL(3u, aggr.getCounts().size());
+    EXPECT_EQUAL(4u, heavyHitterCount(aggr, 0));
+    EXPECT_EQUAL(3u, heavyHitterCount(aggr, 1));
+    EXPECT_EQUAL(3u, heavyHitterCount(aggr, 2));
+    EXPECT_EQUAL(4, aggr.getRank().getInteger());
+}
+
+TEST("require that HeavyHittersAggregationResult counts are decremented when adding a new value to a full result") {
+    HeavyHittersAggregationResult aggr(2);
+    aggr.setExpression(createVectorInt({1, 1, 1, 2, 3, 4, 5})).aggregate(DocId(42), HitRank(21));
+    EXPECT_EQUAL(7u, aggr.getCount());
+    EXPECT_EQUAL(2u, aggr.getMaxError());
+    EXPECT_EQUAL(1u, aggr.getCounts().size());
+    EXPECT_EQUAL(1u, heavyHitterCount(aggr, 1));
+}
+
+TEST("require that merged HeavyHittersAggregationResult counts are pruned by the count beyond max values") {
+    HeavyHittersAggregationResult other(3);
+    other.setExpression(createVectorInt({1, 2, 1, 3, 1, 2, 1, 3, 1, 2})).aggregate(DocId(42), HitRank(21));
+    HeavyHittersAggregationResult aggr(2);
+    aggr.setExpression(MU<ConstantNode>(MU<Int64ResultNode>(3))).aggregate(DocId(43), HitRank(8));
+    aggr.merge(other);
+    EXPECT_EQUAL(11u, aggr.getCount());
+    EXPECT_EQUAL(3u, aggr.getMaxError());
+    EXPECT_EQUAL(1u, aggr.getCounts().size());
+    EXPECT_EQUAL(2u, heavyHitterCount(aggr, 1));
+}
+
+TEST("require that HeavyHittersAggregationResult can be serialized") {
+    HeavyHittersAggregationResult aggr1(3);
+    aggr1.setExpression(createVectorInt({5, 7, 7, 9, 7, 5})).aggregate(DocId(42), HitRank(21));
+
+    nbostream os;
+    NBOSerializer nos(os);
+    nos << aggr1;
+    Identifiable::UP obj = Identifiable::create(nos);
+    auto *aggr2 = dynamic_cast<HeavyHittersAggregationResult *>(obj.get());
+    ASSERT_TRUE(aggr2);
+    EXPECT_TRUE(os.empty());
+    EXPECT_EQUAL(3u, aggr2->getMaxValues());
+    EXPECT_EQUAL(6u, aggr2->getCount());
+    EXPECT_EQUAL(0u, aggr2->getMaxError());
+    EXPECT_EQUAL(3u, aggr2->getCounts().size());
+    EXPECT_EQUAL(2u, heavyHitterCount(*aggr2, 5));
+    EXPECT_EQUAL(3u, heavyHitterCount(*aggr2, 7));
+    EXPECT_EQUAL(1u, heavyHitterCount(*aggr2, 9));
+    EXPECT_EQUAL(0, aggr1.cmp(*aggr2));
+}
+
+TEST("require that QuantileAggregationResult can be merged") {
+    std::vector<double> lower, upper;
+    for (int i = 1; i <= 500; i++) {
+        lower.push_back(i);
+        upper.push_back(500 + i);
+    }
+    QuantileAggregationResult aggr1(0.5);
+    aggr1.setExpression(createVectorFloat(upper)).aggregate(DocId(42), HitRank(21));
+    QuantileAggregationResult aggr2(0.5);
+    aggr2.setExpression(createVectorFloat(lower)).aggregate(DocId(43), HitRank(8));
+
+    aggr1.merge(aggr2);
+    EXPECT_EQUAL(1000u, aggr1.getCount());
+    EXPECT_APPROX(500.5, aggr1.getValue(), 5.0);
+    EXPECT_APPROX(500.5, aggr1.getRank().getFloat(), 5.0);
+}
+
+TEST("require that QuantileAggregationResult can be serialized") {
+    QuantileAggregationResult aggr1(0.9);
+    aggr1.setExpression(createVectorFloat({1.5, 100.25, 30.125, 7.0})).aggregate(DocId(42), HitRank(21));
+
+    nbostream os;
+    NBOSerializer nos(os);
+    nos << aggr1;
+    Identifiable::UP obj = Identifiable::create(nos);
+    auto *aggr2 = dynamic_cast<QuantileAggregationResult *>(obj.get());
+    ASSERT_TRUE(aggr2);
+    EXPECT_TRUE(os.empty());
+    EXPECT_EQUAL(0.9, aggr2->getQuantile());
+    EXPECT_EQUAL(4u, aggr2->getCount());
+    EXPECT_EQUAL(aggr1.getValue(), aggr2->getValue());
+}
+
 void testAdd(const ResultNode &a, const ResultNode &b, const ResultNode &c) {
     AddFunctionNode func;
     func.appendArg(MU<ConstantNode>(ResultNode::UP(a.clone())))
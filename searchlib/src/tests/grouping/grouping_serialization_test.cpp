@@ -233,6 +233,14 @@ TEST_F("testAggregatorResults", Fixture("testAggregatorResults")) {
     stddev.setExpression(MU<ConstantNode>(MU<Int64ResultNode>(67)))
             .aggregate(DocId(42), HitRank(21));
     f.checkObject(stddev);
+    HeavyHittersAggregationResult heavy_hitters(3);
+    heavy_hitters.setExpression(MU<ConstantNode>(MU<Int64ResultNode>(67)))
+            .aggregate(DocId(42), HitRank(21));
+    f.checkObject(heavy_hitters);
+    QuantileAggregationResult quantile(0.9);
+    quantile.setExpression(MU<ConstantNode>(MU<Int64ResultNode>(67)))
+            .aggregate(DocId(42), HitRank(21));
+    f.checkObject(quantile);
 }
 
 TEST_F("testHitCollection", Fixture("testHitCollection")) {
@@ -6,6 +6,9 @@
 #include <vespa/document/fieldvalue/document.h>
 #include <vespa/vespalib/objects/visit.hpp>
 #include <xxhash.h>
+#include <algorithm>
+#include <cmath>
+#include <limits>
 
 using namespace search::expression;
 
@@ -45,6 +48,8 @@ IMPLEMENT_AGGREGATIONRESULT(AverageAggregationResult, AggregationResult);
 IMPLEMENT_AGGREGATIONRESULT(XorAggregationResult,     AggregationResult);
 IMPLEMENT_AGGREGATIONRESULT(ExpressionCountAggregationResult, AggregationResult);
 IMPLEMENT_AGGREGATIONRESULT(StandardDeviationAggregationResult, AggregationResult);
+IMPLEMENT_AGGREGATIONRESULT(QuantileAggregationResult, AggregationResult);
+IMPLEMENT_AGGREGATIONRESULT(HeavyHittersAggregationResult, AggregationResult);
 
 AggregationResult::AggregationResult() :
     _expressionTree(std::make_shared<ExpressionTree>()),
@@ -629,6 +634,362 @@ StandardDeviationAggregationResult::visitMembers(vespalib::ObjectVisitor &visito
     visit(visitor, "sumOfSquared", _sumOfSquared);
 }
 
+
+namespace {
+
+// The compression of the t-digest. The number of centroids after compression is bounded by about this.
+constexpr double QUANTILE_COMPRESSION = 100;
+// The number of centroids to accumulate before compressing
+constexpr size_t QUANTILE_BUFFER_SIZE = 5 * QUANTILE_COMPRESSION;
+
+// The k1 scale function of the t-digest
+double kFromQ(double q) {
+    return QUANTILE_COMPRESSION / (2 * M_PI) * std::asin(2 * q - 1);
+}
+
+double qFromK(double k) {
+    if (k >= QUANTILE_COMPRESSION / 4) {
+        return 1;
+    }
+    return (std::sin(k * 2 * M_PI / QUANTILE_COMPRESSION) + 1) / 2;
+}
+
+}
+
+QuantileAggregationResult::QuantileAggregationResult()
+    : QuantileAggregationResult(0.5)
+{ }
+
+QuantileAggregationResult::QuantileAggregationResult(double quantile)
+    : AggregationResult(),
+      _quantile(quantile),
+      _min(std::numeric_limits<double>::infinity()),
+      _max(-std::numeric_limits<double>::infinity()),
+      _centroids(),
+      _compressed(true),
+      _rank()
+{ }
+
+QuantileAggregationResult::~QuantileAggregationResult() = default;
+
+uint64_t
+QuantileAggregationResult::getCount() const noexcept
+{
+    uint64_t count = 0;
+    for (const auto & centroid : _centroids) {
+        count += centroid.weight;
+    }
+    return count;
+}
+
+double
+QuantileAggregationResult::getValue() const
+{
+    compress();
+    size_t size = _centroids.size();
+    if (size == 0) {
+        return 0;
+    }
+    if (size == 1) {
+        return _centroids[0].mean;
+    }
+    double index = _quantile * getCount();
+    double firstHalf = _centroids[0].weight / 2.0;
+    if (index < firstHalf) {
+        return _min + (index / firstHalf) * (_centroids[0].mean - _min);
+    }
+    double cumulative = firstHalf;
+    for (size_t i = 0; i + 1 < size; i++) {
+        double step = (_centroids[i].weight + _centroids[i + 1].weight) / 2.0;
+        if (cumulative + step > index) {
+            return _centroids[i].mean + ((index - cumulative) / step) * (_centroids[i + 1].mean - _centroids[i].mean);
+        }
+        cumulative += step;
+    }
+    const Centroid & last = _centroids[size - 1];
+    double lastHalf = last.weight / 2.0;
+    return last.mean + std::min(1.0, (index - cumulative) / lastHalf) * (_max - last.mean);
+}
+
+const ResultNode &
+QuantileAggregationResult::onGetRank() const
+{
+    _rank.set(FloatResultNode(getValue()));
+    return _rank;
+}
+
+void
+QuantileAggregationResult::add(double mean, uint64_t weight)
+{
+    if (_centroids.size() >= QUANTILE_BUFFER_SIZE) {
+        compress();
+    }
+    _centroids.push_back(Centroid{mean, weight});
+    _compressed = false;
+}
+
+void
+QuantileAggregationResult::compress() const
+{
+    if (_compressed) {
+        return;
+    }
+    _compressed = true;
+    if (_centroids.size() < 2) {
+        return;
+    }
+    std::stable_sort(_centroids.begin(), _centroids.end(),
+                     [](const Centroid & a, const Centroid & b) { return a.mean < b.mean; });
+    double total = getCount();
+    std::vector<Centroid> compressed;
+    compressed.reserve(_centroids.size());
+    double weightSoFar = 0;
+    Centroid current = _centroids[0];
+    double limit = total * qFromK(kFromQ(0) + 1);
+    for (size_t i = 1; i < _centroids.size(); i++) {
+        const Centroid & next = _centroids[i];
+        if (weightSoFar + current.weight + next.weight <= limit) {
+            current.mean += (next.mean - current.mean) * next.weight / (current.weight + next.weight);
+            current.weight += next.weight;
+        } else {
+            weightSoFar += current.weight;
+            compressed.push_back(current);
+            limit = total * qFromK(kFromQ(weightSoFar / total) + 1);
+            current = next;
+        }
+    }
+    compressed.push_back(current);
+    _centroids.swap(compressed);
+}
+
+void
+QuantileAggregationResult::onMerge(const AggregationResult &r)
+{
+    const auto & result = Identifiable::cast<const QuantileAggregationResult &>(r);
+    for (const auto & centroid : result._centroids) {
+        add(centroid.mean, centroid.weight);
+    }
+    _min = std::min(_min, result._min);
+    _max = std::max(_max, result._max);
+}
+
+void
+QuantileAggregationResult::onAggregate(const ResultNode &result)
+{
+    if (result.isMultiValue()) {
+        const auto & values = static_cast<const ResultNodeVector &>(result);
+        for (size_t i = 0; i < values.size(); i++) {
+            onAggregate(values.get(i));
+        }
+    } else {
+        double value = result.getFloat();
+        if (std::isnan(value)) {
+            return;
+        }
+        add(value, 1);
+        _min = std::min(_min, value);
+        _max = std::max(_max, value);
+    }
+}
+
+void
+QuantileAggregationResult::onReset()
+{
+    _centroids.clear();
+    _compressed = true;
+    _min = std::numeric_limits<double>::infinity();
+    _max = -std::numeric_limits<double>::infinity();
+}
+
+Serializer &
+QuantileAggregationResult::onSerialize(Serializer & os) const
+{
+    AggregationResult::onSerialize(os);
+    compress();
+    os << _quantile << _min << _max << uint32_t(_centroids.size());
+    for (const auto & centroid : _centroids) {
+        os << centroid.mean << centroid.weight;
+    }
+    return os;
+}
+
+Deserializer &
+QuantileAggregationResult::onDeserialize(Deserializer & is)
+{
+    AggregationResult::onDeserialize(is);
+    uint32_t size(0);
+    is >> _quantile >> _min >> _max >> size;
+    _centroids.resize(size);
+    for (auto & centroid : _centroids) {
+        is >> centroid.mean >> centroid.weight;
+    }
+    _compressed = true;
+    return is;
+}
+
+void
+QuantileAggregationResult::visitMembers(vespalib::ObjectVisitor &visitor) const
+{
+    AggregationResult::visitMembers(visitor);
+    visit(visitor, "quantile", _quantile);
+    visit(visitor, "min", _min);
+    visit(visitor, "max", _max);
+    visit(visitor, "centroids", uint32_t(_centroids.size()));
+}
+
+HeavyHittersAggregationResult::HeavyHittersAggregationResult()
+    : HeavyHittersAggregationResult(10)
+{ }
+
+HeavyHittersAggregationResult::HeavyHittersAggregationResult(uint32_t maxValues)
+    : AggregationResult(),
+      _maxValues(maxValues),
+      _count(0),
+      _maxError(0),
+      _counts(),
+      _rank()
+{ }
+
+HeavyHittersAggregationResult::~HeavyHittersAggregationResult() = default;
+
+const ResultNode &
+HeavyHittersAggregationResult::onGetRank() const
+{
+    uint64_t top = 0;
+    for (const auto & entry : _counts) {
+        top = std::max(top, entry.second);
+    }
+    _rank.set(Int64ResultNode(top));
+    return _rank;
+}
+
+void
+HeavyHittersAggregationResult::add(const ResultNode & value, uint64_t count)
+{
+    auto found = _counts.find(value);
+    if (found != _counts.end()) {
+        found->second += count;
+    } else {
+        _counts.emplace(ResultNode::CP(value), count);
+    }
+}
+
+void
+HeavyHittersAggregationResult::subtract(uint64_t decrement)
+{
+    for (auto it = _counts.begin(); it != _counts.end(); ) {
+        if (it->second <= decrement) {
+            it = _counts.erase(it);
+        } else {
+            it->second -= decrement;
+            ++it;
+        }
+    }
+    _maxError += decrement;
+}
+
+void
+HeavyHittersAggregationResult::prune()
+{
+    if (_counts.size() <= _maxValues) {
+        return;
+    }
+    std::vector<uint64_t> counts;
+    counts.reserve(_counts.size());
+    for (const auto & entry : _counts) {
+        counts.push_back(entry.second);
+    }
+    auto nth = counts.begin() + (counts.size() - _maxValues - 1);
+    std::nth_element(counts.begin(), nth, counts.end());
+    subtract(*nth);
+}
+
+void
+HeavyHittersAggregationResult::onMerge(const AggregationResult &r)
+{
+    const auto & result = Identifiable::cast<const HeavyHittersAggregationResult &>(r);
+    for (const auto & entry : result._counts) {
+        add(*entry.first, entry.second);
+    }
+    _count += result._count;
+    _maxError += result._maxError;
+    prune();
+}
+
+void
+HeavyHittersAggregationResult::onAggregate(const ResultNode &result)
+{
+    if (result.isMultiValue()) {
+        const auto & values = static_cast<const ResultNodeVector &>(result);
+        for (size_t i = 0; i < values.size(); i++) {
+            onAggregate(values.get(i));
+        }
+    } else {
+        _count++;
+        auto found = _counts.find(result);
+        if (found != _counts.end()) {
+            found->second++;
+        } else if (_counts.size() < _maxValues) {
+            _counts.emplace(ResultNode::CP(result), 1);
+        } else {
+            // Done at most once per _maxValues + 1 values, so the amortized cost per value is constant
+            subtract(1);
+        }
+    }
+}
+
+void
+HeavyHittersAggregationResult::onReset()
+{
+    _count = 0;
+    _maxError = 0;
+    _counts.clear();
+}
+
+Serializer &
+HeavyHittersAggregationResult::onSerialize(Serializer & os) const
+{
+    AggregationResult::onSerialize(os);
+    os << _maxValues << _count << _maxError << uint32_t(_counts.size());
+    // Serialized by decreasing count, as in the Java implementation
+    std::vector<const Counts::value_type *> entries;
+    entries.reserve(_counts.size());
+    for (const auto & entry : _counts) {
+        entries.push_back(&entry);
+    }
+    std::stable_sort(entries.begin(), entries.end(),
+                     [](const auto * a, const auto * b) { return a->second > b->second; });
+    for (const auto * entry : entries) {
+        os << entry->first << entry->second;
+    }
+    return os;
+}
+
+Deserializer &
+HeavyHittersAggregationResult::onDeserialize(Deserializer & is)
+{
+    AggregationResult::onDeserialize(is);
+    uint32_t size(0);
+    is >> _maxValues >> _count >> _maxError >> size;
+    _counts.clear();
+    for (uint32_t i = 0; i < size; i++) {
+        ResultNode::CP value;
+        uint64_t count(0);
+        is >> value >> count;
+        _counts.emplace(std::move(value), count);
+    }
+    return is;
+}
+
+void
+HeavyHittersAggregationResult::visitMembers(vespalib::ObjectVisitor &visitor) const
+{
+    AggregationResult::visitMembers(visitor);
+    visit(visitor, "maxValues", _maxValues);
+    visit(visitor, "count", _count);
+    visit(visitor, "maxError", _maxError);
+}
+
 }
 
 // this function was added by ../../forcelink.sh
@@ -0,0 +1,47 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+#pragma once
+
+#include "aggregationresult.h"
+#include <vespa/searchlib/expression/integerresultnode.h>
+#include <map>
+
+namespace search::aggregation {
+
+// Aggregator that keeps the most frequent values with estimated counts using a Misra-Gries sketch
+class HeavyHittersAggregationResult : public AggregationResult
+{
+public:
+    DECLARE_AGGREGATIONRESULT(HeavyHittersAggregationResult);
+    // Orders values such that they can be looked up without making a copy of the value to look up
+    struct ValueLess {
+        using is_transparent = void;
+        bool operator()(const ResultNode::CP & a, const ResultNode::CP & b) const { return a->cmp(*b) < 0; }
+        bool operator()(const ResultNode & a, const ResultNode::CP & b) const { return a.cmp(*b) < 0; }
+        bool operator()(const ResultNode::CP & a, const ResultNode & b) const { return a->cmp(b) < 0; }
+    };
+    using Counts = std::map<ResultNode::CP, uint64_t, ValueLess>;
+
+    HeavyHittersAggregationResult();
+    explicit HeavyHittersAggregationResult(uint32_t maxValues);
+    ~HeavyHittersAggregationResult() override;
+
+    void visitMembers(vespalib::ObjectVisitor &visitor) const override;
+    uint32_t getMaxValues() const noexcept { return _maxValues; }
+    uint64_t getCount() const noexcept { return _count; }
+    uint64_t getMaxError() const noexcept { return _maxError; }
+    const Counts & getCounts() const noexcept { return _counts; }
+private:
+    const ResultNode& onGetRank() const override;
+    void onPrepare(const ResultNode&, bool) override { };
+    void add(const ResultNode & value, uint64_t count);
+    void subtract(uint64_t decrement);
+    void prune();
+
+    uint32_t _maxValues;
+    uint64_t _count;
+    uint64_t _maxError;
+    Counts   _counts;
+    mutable expression::Int64ResultNode _rank;
+};
+
+}
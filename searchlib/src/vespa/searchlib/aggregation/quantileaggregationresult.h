@@ -0,0 +1,41 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+#pragma once
+
+#include "aggregationresult.h"
+#include <vespa/searchlib/expression/floatresultnode.h>
+#include <vector>
+
+namespace search::aggregation {
+
+// Aggregator that estimates a quantile of the values using a merging t-digest
+class QuantileAggregationResult : public AggregationResult
+{
+public:
+    DECLARE_AGGREGATIONRESULT(QuantileAggregationResult);
+    QuantileAggregationResult();
+    explicit QuantileAggregationResult(double quantile);
+    ~QuantileAggregationResult() override;
+
+    void visitMembers(vespalib::ObjectVisitor &visitor) const override;
+    double getQuantile() const noexcept { return _quantile; }
+    uint64_t getCount() const noexcept;
+    double getValue() const;
+private:
+    struct Centroid {
+        double   mean;
+        uint64_t weight;
+    };
+    const ResultNode& onGetRank() const override;
+    void onPrepare(const ResultNode&, bool) override { };
+    void add(double mean, uint64_t weight);
+    void compress() const;
+
+    double _quantile;
+    double _min;
+    double _max;
+    mutable std::vector<Centroid> _centroids;
+    mutable bool _compressed;
+    mutable expression::FloatResultNode _rank;
+};
+
+}
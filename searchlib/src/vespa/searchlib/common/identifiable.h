@@ -176,3 +176,6 @@
 
 #define CID_search_NormalSketch                             SEARCHLIB_CID(170)
 #define CID_search_SparseSketch                             SEARCHLIB_CID(171)
+#define CID_search_aggregation_QuantileAggregationResult    SEARCHLIB_CID(172)
+#define CID_search_aggregation_HeavyHittersAggregationResult \
+                                                          SEARCHLIB_CID(173)
@@ -29,6 +29,7 @@ public class CommandLineOptions {
     public static final String ZST_COMPRESSION = "zst-compression";
 
     private final Options options = createOptions();
+    private final Options convertOptions = createConvertOptions();
 
     @SuppressWarnings("AccessStaticViaInstance")
     private static Options createOptions() {
@@ -84,12 +85,40 @@ public class CommandLineOptions {
         return options;
     }
 
+    private static Options createConvertOptions() {
+        Options options = new Options();
+
+        options.addOption(Option.builder("h")
+                .hasArg(false)
+                .desc("Show this syntax page.")
+                .longOpt(HELP_OPTION)
+                .build());
+
+        options.addOption(Option.builder("i")
+                .required()
+                .hasArg(true)
+                .desc("Input JSON model file")
+                .longOpt(INPUT_OPTION)
+                .build());
+
+        options.addOption(Option.builder("o")
+                .required()
+                .hasArg(true)
+                .desc("Output binary model file")
+                .longOpt(OUTPUT_OPTION)
+                .build());
+
+        return options;
+    }
+
     public void printHelp() {
         HelpFormatter formatter = new HelpFormatter();
 
         formatter.printHelp(
                 "vespa-significance <command> <options>", "Perform a significance value related operation.", options,
-                "The generate command generates a significance model file for a given corpus type .jsonl file.\n",
+                "The generate command generates a significance model file for a given corpus type .jsonl file.\n" +
+                "The convert command converts a JSON significance model file to the binary format, " +
+                "which is memory-mapped instead of read into the heap.\n",
                 false);
     }
 
@@ -112,5 +141,18 @@ public class CommandLineOptions {
             throw new IllegalArgumentException("Failed to parse command line arguments: " + e.getMessage());
         }
     }
+
+    public ClientParameters parseConvertCommandLineArguments(String[] args) throws IllegalArgumentException {
+        try {
+            CommandLine cl = new DefaultParser().parse(convertOptions, args);
+            return new ClientParameters.Builder()
+                    .setHelp(cl.hasOption(HELP_OPTION))
+                    .setInputFile(cl.getOptionValue(INPUT_OPTION))
+                    .setOutputFile(cl.getOptionValue(OUTPUT_OPTION))
+                    .build();
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Failed to parse command line arguments: " + e.getMessage());
+        }
+    }
 }
 
@@ -6,7 +6,8 @@ import java.io.IOException;
 import java.util.List;
 
 /**
- * The vespa-significance tool generates significance models based on input feed files.
+ * The vespa-significance tool generates significance models based on input feed files,
+ * and converts them to the binary format which can be memory-mapped by the container.
  *
  * @author MariusArhaug
  */
@@ -20,17 +21,22 @@ public class Main {
                 System.exit(1);
             }
 
-            if (!args[0].equals("generate")) {
-                System.err.println("Invalid command. Use 'generate' to generate significance models.");
+            if (!args[0].equals("generate") && !args[0].equals("convert")) {
+                System.err.println("Invalid command. Use 'generate' to generate significance models, " +
+                                   "or 'convert' to convert them to the binary format.");
                 System.exit(1);
             }
+            boolean convert = args[0].equals("convert");
             String[] commandLineArgs = List.of(args).subList(1, args.length).toArray(new String[0]);
 
             CommandLineOptions options = new CommandLineOptions();
-            ClientParameters params = options.parseCommandLineArguments(commandLineArgs);
+            ClientParameters params = convert ? options.parseConvertCommandLineArguments(commandLineArgs)
+                                              : options.parseCommandLineArguments(commandLineArgs);
 
             if (params.help) {
                 options.printHelp();
+            } else if (convert) {
+                new SignificanceModelConverter(params).convert();
             } else {
                 System.setProperty("vespa.replace_invalid_unicode", "true");
                 SignificanceModelGenerator significanceModelGenerator = createSignificanceModelGenerator(params);
@@ -0,0 +1,42 @@
+// Copyright Vespa.ai. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+
+package com.yahoo.vespasignificance;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yahoo.language.significance.impl.BinarySignificanceModelFile;
+import com.yahoo.language.significance.impl.SignificanceModelFile;
+import io.airlift.compress.zstd.ZstdInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Converts a significance model from the JSON format, optionally zst compressed,
+ * to the binary format which can be memory-mapped by the container.
+ *
+ * @author agent
+ */
+public class SignificanceModelConverter {
+
+    private final Path inputFile;
+    private final Path outputFile;
+
+    public SignificanceModelConverter(ClientParameters clientParameters) {
+        this.inputFile = Path.of(clientParameters.inputFile);
+        this.outputFile = Path.of(clientParameters.outputFile);
+        if (outputFile.toString().endsWith(".zst"))
+            throw new IllegalArgumentException("Output file must not have .zst extension, as binary models are memory-mapped");
+    }
+
+    public void convert() throws IOException {
+        try (InputStream in = inputFile.toString().endsWith(".zst") ?
+                new ZstdInputStream(Files.newInputStream(inputFile)) :
+                Files.newInputStream(inputFile)) {
+            SignificanceModelFile modelFile = new ObjectMapper().readValue(in, SignificanceModelFile.class);
+            BinarySignificanceModelFile.write(modelFile, outputFile);
+        }
+    }
+
+}
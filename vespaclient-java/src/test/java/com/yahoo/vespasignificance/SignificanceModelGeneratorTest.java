@@ -3,18 +3,25 @@
 package com.yahoo.vespasignificance;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yahoo.language.Language;
+import com.yahoo.language.significance.impl.DefaultSignificanceModelRegistry;
 import com.yahoo.language.significance.impl.DocumentFrequencyFile;
 import com.yahoo.language.significance.impl.SignificanceModelFile;
 import io.airlift.compress.zstd.ZstdInputStream;
+import io.airlift.compress.zstd.ZstdOutputStream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -71,6 +78,30 @@ public class SignificanceModelGeneratorTest {
 
     }
 
+    @Test
+    void testConvertToBinaryFile() throws IOException {
+        String outputPath = tempDir.resolve("output.json.zst").toString();
+        var languages = new HashMap<String, DocumentFrequencyFile>();
+        languages.put("nb", new DocumentFrequencyFile("nb", 3, Map.of("fra", 3L, "skriveform", 2L)));
+        try (OutputStream out = new ZstdOutputStream(new FileOutputStream(outputPath))) {
+            objectMapper.writeValue(out, new SignificanceModelFile("1.0", "1", "test", languages));
+        }
+
+        String binaryPath = tempDir.resolve("output.bin").toString();
+        ClientParameters convertParams = new ClientParameters.Builder()
+                .setInputFile(outputPath)
+                .setOutputFile(binaryPath)
+                .build();
+        new SignificanceModelConverter(convertParams).convert();
+
+        var model = new DefaultSignificanceModelRegistry(List.of(Path.of(binaryPath))).getModel(Language.NORWEGIAN_BOKMAL).get();
+        assertEquals("1", model.getId());
+        assertEquals(3, model.documentFrequency("fra").frequency());
+        assertEquals(2, model.documentFrequency("skriveform").frequency());
+        assertEquals(1, model.documentFrequency("non-existent-word").frequency());
+        assertEquals(3, model.documentFrequency("non-existent-word").corpusSize());
+    }
+
     @Test
     void testGenerateSimpleFileWithZST() throws IOException {
         String inputPath = "no.jsonl";
@@ -227,12 +227,8 @@ public class JsonFormat {
         if ( ! (builder instanceof IndexedTensor.BoundBuilder indexedBuilder))
             throw new IllegalArgumentException("An array of values can only be used with a dense tensor. Use a map instead");
         if (values.type() == Type.STRING) {
-            double[] decoded = decodeHexString(values.asString(), builder.type().valueType());
-            if (decoded.length == 0)
+            if (decodeHexString(values.asString(), builder.type().valueType(), indexedBuilder) == 0)
                 throw new IllegalArgumentException("The values string does not contain any values");
-            for (int i = 0; i < decoded.length; i++) {
-                indexedBuilder.cellByDirectIndex(i, decoded[i]);
-            }
             return;
         }
         if (values.type() != Type.ARRAY)
@@ -308,70 +304,53 @@ public class JsonFormat {
         return (byte)d;
     }
 
-    private static double[] decodeHexStringAsBytes(String input) {
-        int l = input.length() / 2;
-        double[] result = new double[l];
-        int idx = 0;
-        for (int i = 0; i < l; i++) {
-            byte v = decodeHex(input, idx++);
-            v <<= 4;
-            v += decodeHex(input, idx++);
-            result[i] = v;
-        }
-        return result;
+    /** Returns the number of values of the given type in the given hex string */
+    public static int hexStringSize(String input, TensorType.Value valueType) {
+        return input.length() / hexDigitsPerValue(valueType);
     }
 
-    private static double[] decodeHexStringAsBFloat16s(String input) {
-        int l = input.length() / 4;
-        double[] result = new double[l];
-        int idx = 0;
-        for (int i = 0; i < l; i++) {
-            int v = decodeHex(input, idx++);
-            v <<= 4; v += decodeHex(input, idx++);
-            v <<= 4; v += decodeHex(input, idx++);
-            v <<= 4; v += decodeHex(input, idx++);
-            v <<= 16;
-            result[i] = Float.intBitsToFloat(v);
-        }
+    public static double[] decodeHexString(String input, TensorType.Value valueType) {
+        int digits = hexDigitsPerValue(valueType);
+        double[] result = new double[input.length() / digits];
+        for (int i = 0; i < result.length; i++)
+            result[i] = decodeHexValue(input, i * digits, digits, valueType);
         return result;
     }
 
-    private static double[] decodeHexStringAsFloats(String input) {
-        int l = input.length() / 8;
-        double[] result = new double[l];
-        int idx = 0;
-        for (int i = 0; i < l; i++) {
-            int v = 0;
-            for (int j = 0; j < 8; j++) {
-                v <<= 4;
-                v += decodeHex(input, idx++);
-            }
-            result[i] = Float.intBitsToFloat(v);
-        }
-        return result;
+    /**
+     * Decodes a hex string of values of the given type directly into the given builder, in standard value order,
+     * without allocating any intermediate values.
+     *
+     * @return the number of values decoded
+     */
+    public static int decodeHexString(String input, TensorType.Value valueType, IndexedTensor.DirectIndexBuilder builder) {
+        int digits = hexDigitsPerValue(valueType);
+        int size = input.length() / digits;
+        for (int i = 0; i < size; i++)
+            builder.cellByDirectIndex(i, decodeHexValue(input, i * digits, digits, valueType));
+        return size;
     }
 
-    private static double[] decodeHexStringAsDoubles(String input) {
-        int l = input.length() / 16;
-        double[] result = new double[l];
-        int idx = 0;
-        for (int i = 0; i < l; i++) {
-            long v = 0;
-            for (int j = 0; j < 16; j++) {
-                v <<= 4;
-                v += decodeHex(input, idx++);
-            }
-            result[i] = Double.longBitsToDouble(v);
-        }
-        return result;
+    private static int hexDigitsPerValue(TensorType.Value valueType) {
+        return switch (valueType) {
+            case INT8 -> 2;
+            case BFLOAT16 -> 4;
+            case FLOAT -> 8;
+            case DOUBLE -> 16;
+        };
     }
 
-    public static double[] decodeHexString(String input, TensorType.Value valueType) {
+    private static double decodeHexValue(String input, int start, int digits, TensorType.Value valueType) {
+        long bits = 0;
+        for (int i = start; i < start + digits; i++) {
+            bits <<= 4;
+            bits += decodeHex(input, i);
+        }
         return switch (valueType) {
-            case INT8 -> decodeHexStringAsBytes(input);
-            case BFLOAT16 -> decodeHexStringAsBFloat16s(input);
-            case FLOAT -> decodeHexStringAsFloats(input);
-            case DOUBLE -> decodeHexStringAsDoubles(input);
+            case INT8 -> (byte)bits;
+            case BFLOAT16 -> Float.intBitsToFloat((int)bits << 16);
+            case FLOAT -> Float.intBitsToFloat((int)bits);
+            case DOUBLE -> Double.longBitsToDouble(bits);
         };
     }
 